@@ -0,0 +1,90 @@
+/*
+ * Licensed to Elastic Search and Shay Banon under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. Elastic Search licenses this
+ * file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package org.elasticsearch.benchmark.common.lucene.docset;
+
+import org.apache.lucene.util.OpenBitSet;
+import org.elasticsearch.common.StopWatch;
+import org.elasticsearch.common.lucene.docset.DocSet;
+import org.elasticsearch.common.lucene.docset.DocSets;
+import org.elasticsearch.common.lucene.docset.OpenBitDocSet;
+
+import java.util.Random;
+
+/**
+ * Checks every doc of a segment against a cached filter using get(doc), as the filter and query facets do, for
+ * each of the compact doc set formats, their get views, and a plain bit set.
+ *
+ * @author kimchy (shay.banon)
+ */
+public class DocSetGetBenchmark {
+
+    public static void main(String[] args) throws Exception {
+        final int MAX_DOC = 10000000;
+        final int ROUNDS = 10;
+
+        Random random = new Random(0);
+        OpenBitSet sparse = new OpenBitSet(MAX_DOC);
+        for (int i = 0; i < MAX_DOC / 100; i++) {
+            sparse.fastSet(random.nextInt(MAX_DOC));
+        }
+        OpenBitSet clustered = new OpenBitSet(MAX_DOC);
+        for (int start = 0; start < MAX_DOC; start += 100000) {
+            clustered.set(start, start + 10000 + random.nextInt(50000));
+        }
+
+        run("sparse", sparse, MAX_DOC, ROUNDS);
+        run("clustered", clustered, MAX_DOC, ROUNDS);
+    }
+
+    private static void run(String name, OpenBitSet set, int maxDoc, int rounds) throws Exception {
+        DocSet compact = DocSets.compact(set, maxDoc);
+        System.out.println("--> " + name + " set cached as " + compact.getClass().getSimpleName() + " (" + compact.sizeInBytes() + " bytes)");
+        check(name + " bits", new OpenBitDocSet(set), maxDoc, rounds);
+        check(name + " compact", compact, maxDoc, rounds);
+        // a new view for each round, as each collector gets its own
+        StopWatch watch = new StopWatch().start();
+        long matches = 0;
+        for (int round = 0; round < rounds; round++) {
+            DocSet view = DocSets.getView(compact);
+            for (int doc = 0; doc < maxDoc; doc++) {
+                if (view.get(doc)) {
+                    matches++;
+                }
+            }
+        }
+        watch.stop();
+        System.out.println(name + " compact view took " + watch.totalTime() + ", matches " + matches);
+    }
+
+    private static void check(String name, DocSet docSet, int maxDoc, int rounds) throws Exception {
+        StopWatch watch = new StopWatch().start();
+        long matches = 0;
+        for (int round = 0; round < rounds; round++) {
+            for (int doc = 0; doc < maxDoc; doc++) {
+                if (docSet.get(doc)) {
+                    matches++;
+                }
+            }
+        }
+        watch.stop();
+        System.out.println(name + " took " + watch.totalTime() + ", matches " + matches);
+    }
+}
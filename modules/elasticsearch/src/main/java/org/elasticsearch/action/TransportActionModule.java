@@ -57,9 +57,12 @@ import org.elasticsearch.action.deletebyquery.TransportDeleteByQueryAction;
 import org.elasticsearch.action.deletebyquery.TransportIndexDeleteByQueryAction;
 import org.elasticsearch.action.deletebyquery.TransportShardDeleteByQueryAction;
 import org.elasticsearch.action.get.TransportGetAction;
+import org.elasticsearch.action.get.TransportMultiGetAction;
+import org.elasticsearch.action.get.TransportShardMultiGetAction;
 import org.elasticsearch.action.index.TransportIndexAction;
 import org.elasticsearch.action.mlt.TransportMoreLikeThisAction;
 import org.elasticsearch.action.percolate.TransportPercolateAction;
+import org.elasticsearch.action.search.TransportMultiSearchAction;
 import org.elasticsearch.action.search.TransportSearchAction;
 import org.elasticsearch.action.search.TransportSearchScrollAction;
 import org.elasticsearch.action.search.type.*;
@@ -107,6 +110,8 @@ public class TransportActionModule extends AbstractModule {
 
         bind(TransportIndexAction.class).asEagerSingleton();
         bind(TransportGetAction.class).asEagerSingleton();
+        bind(TransportShardMultiGetAction.class).asEagerSingleton();
+        bind(TransportMultiGetAction.class).asEagerSingleton();
         bind(TransportDeleteAction.class).asEagerSingleton();
         bind(TransportIndexDeleteAction.class).asEagerSingleton();
         bind(TransportShardDeleteAction.class).asEagerSingleton();
@@ -125,10 +130,13 @@ public class TransportActionModule extends AbstractModule {
         bind(TransportSearchQueryThenFetchAction.class).asEagerSingleton();
         bind(TransportSearchDfsQueryAndFetchAction.class).asEagerSingleton();
         bind(TransportSearchQueryAndFetchAction.class).asEagerSingleton();
+        bind(TransportSearchScanAction.class).asEagerSingleton();
         bind(TransportSearchAction.class).asEagerSingleton();
+        bind(TransportMultiSearchAction.class).asEagerSingleton();
 
         bind(TransportSearchScrollQueryThenFetchAction.class).asEagerSingleton();
         bind(TransportSearchScrollQueryAndFetchAction.class).asEagerSingleton();
+        bind(TransportSearchScrollScanAction.class).asEagerSingleton();
         bind(TransportSearchScrollAction.class).asEagerSingleton();
 
         bind(TransportMoreLikeThisAction.class).asEagerSingleton();
@@ -36,8 +36,12 @@ public class TransportActions {
 
     public static final String GET = "indices/get";
 
+    public static final String MULTI_GET = "indices/mget";
+
     public static final String SEARCH = "indices/search";
 
+    public static final String MULTI_SEARCH = "indices/msearch";
+
     public static final String SEARCH_SCROLL = "indices/searchScroll";
 
     public static final String TERMS = "indices/terms";
@@ -25,6 +25,7 @@ import org.elasticsearch.common.io.stream.StreamInput;
 import org.elasticsearch.common.io.stream.StreamOutput;
 import org.elasticsearch.common.unit.ByteSizeValue;
 import org.elasticsearch.index.shard.IndexShardState;
+import org.elasticsearch.index.translog.TranslogSyncStats;
 
 import java.io.IOException;
 
@@ -48,6 +49,8 @@ public class ShardStatus extends BroadcastShardOperationResponse {
 
     long translogOperations = -1;
 
+    TranslogSyncStats translogSyncStats;
+
     DocsStatus docs;
 
     PeerRecoveryStatus peerRecoveryStatus;
@@ -134,6 +137,20 @@ public class ShardStatus extends BroadcastShardOperationResponse {
         return translogOperations();
     }
 
+    /**
+     * The transaction log sync statistics, <tt>null</tt> if not applicable.
+     */
+    public TranslogSyncStats translogSyncStats() {
+        return translogSyncStats;
+    }
+
+    /**
+     * The transaction log sync statistics, <tt>null</tt> if not applicable.
+     */
+    public TranslogSyncStats getTranslogSyncStats() {
+        return translogSyncStats();
+    }
+
     /**
      * Docs level information for the shard index, <tt>null</tt> if not applicable.
      */
@@ -212,6 +229,12 @@ public class ShardStatus extends BroadcastShardOperationResponse {
         }
         out.writeLong(translogId);
         out.writeLong(translogOperations);
+        if (translogSyncStats == null) {
+            out.writeBoolean(false);
+        } else {
+            out.writeBoolean(true);
+            translogSyncStats.writeTo(out);
+        }
         if (docs == null) {
             out.writeBoolean(false);
         } else {
@@ -267,6 +290,9 @@ public class ShardStatus extends BroadcastShardOperationResponse {
         }
         translogId = in.readLong();
         translogOperations = in.readLong();
+        if (in.readBoolean()) {
+            translogSyncStats = TranslogSyncStats.readTranslogSyncStats(in);
+        }
         if (in.readBoolean()) {
             docs = new DocsStatus();
             docs.numDocs = in.readInt();
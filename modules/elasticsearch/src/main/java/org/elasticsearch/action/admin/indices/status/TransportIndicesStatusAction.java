@@ -153,6 +153,7 @@ public class TransportIndicesStatusAction extends TransportBroadcastOperationAct
 //            shardStatus.estimatedFlushableMemorySize = indexShard.estimateFlushableMemorySize();
             shardStatus.translogId = indexShard.translog().currentId();
             shardStatus.translogOperations = indexShard.translog().size();
+            shardStatus.translogSyncStats = indexShard.translog().syncStats();
             Engine.Searcher searcher = indexShard.searcher();
             try {
                 shardStatus.docs = new DocsStatus();
@@ -67,6 +67,12 @@ public class BulkShardRequest extends ShardReplicationOperationRequest {
         }
     }
 
+    @Override public void onRetry() {
+        for (BulkItemRequest item : items) {
+            ((ShardReplicationOperationRequest) item.request()).onRetry();
+        }
+    }
+
     @Override public void writeTo(StreamOutput out) throws IOException {
         super.writeTo(out);
         out.writeVInt(shardId);
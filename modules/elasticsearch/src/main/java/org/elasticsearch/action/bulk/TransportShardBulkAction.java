@@ -122,7 +122,7 @@ public class TransportShardBulkAction extends TransportShardReplicationOperation
                     if (indexRequest.opType() == IndexRequest.OpType.INDEX) {
                         ops[i] = indexShard.prepareIndex(sourceToParse).version(indexRequest.version()).origin(Engine.Operation.Origin.PRIMARY);
                     } else {
-                        ops[i] = indexShard.prepareCreate(sourceToParse).version(indexRequest.version()).origin(Engine.Operation.Origin.PRIMARY);
+                        ops[i] = indexShard.prepareCreate(sourceToParse).version(indexRequest.version()).autoGeneratedId(indexRequest.autoGeneratedId()).canHaveDuplicates(indexRequest.canHaveDuplicates()).origin(Engine.Operation.Origin.PRIMARY);
                     }
                 } catch (Exception e) {
                     if (logger.isDebugEnabled()) {
@@ -219,7 +219,7 @@ public class TransportShardBulkAction extends TransportShardReplicationOperation
                     if (indexRequest.opType() == IndexRequest.OpType.INDEX) {
                         ops[i] = indexShard.prepareIndex(sourceToParse).version(indexRequest.version()).origin(Engine.Operation.Origin.REPLICA);
                     } else {
-                        ops[i] = indexShard.prepareCreate(sourceToParse).version(indexRequest.version()).origin(Engine.Operation.Origin.REPLICA);
+                        ops[i] = indexShard.prepareCreate(sourceToParse).version(indexRequest.version()).autoGeneratedId(indexRequest.autoGeneratedId()).canHaveDuplicates(indexRequest.canHaveDuplicates()).origin(Engine.Operation.Origin.REPLICA);
                     }
                 } catch (Exception e) {
                     // ignore, we are on backup
@@ -44,6 +44,8 @@ public class GetRequest extends SingleShardOperationRequest {
 
     private boolean refresh = false;
 
+    private boolean realtime = true;
+
     GetRequest() {
     }
 
@@ -131,6 +133,19 @@ public class GetRequest extends SingleShardOperationRequest {
         return this.refresh;
     }
 
+    /**
+     * Should the get be realtime, reading the latest version of the document from the transaction
+     * log if it was not refreshed yet. Defaults to <tt>true</tt>.
+     */
+    public GetRequest realtime(boolean realtime) {
+        this.realtime = realtime;
+        return this;
+    }
+
+    public boolean realtime() {
+        return this.realtime;
+    }
+
     /**
      * Should the listener be called on a separate thread if needed.
      */
@@ -150,6 +165,7 @@ public class GetRequest extends SingleShardOperationRequest {
     @Override public void readFrom(StreamInput in) throws IOException {
         super.readFrom(in);
         refresh = in.readBoolean();
+        realtime = in.readBoolean();
         int size = in.readInt();
         if (size >= 0) {
             fields = new String[size];
@@ -162,6 +178,7 @@ public class GetRequest extends SingleShardOperationRequest {
     @Override public void writeTo(StreamOutput out) throws IOException {
         super.writeTo(out);
         out.writeBoolean(refresh);
+        out.writeBoolean(realtime);
         if (fields == null) {
             out.writeInt(-1);
         } else {
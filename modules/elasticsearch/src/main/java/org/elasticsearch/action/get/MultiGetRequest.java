@@ -0,0 +1,328 @@
+/*
+ * Licensed to Elastic Search and Shay Banon under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. Elastic Search licenses this
+ * file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package org.elasticsearch.action.get;
+
+import org.elasticsearch.ElasticSearchParseException;
+import org.elasticsearch.action.ActionRequest;
+import org.elasticsearch.action.ActionRequestValidationException;
+import org.elasticsearch.common.collect.Lists;
+import org.elasticsearch.common.io.stream.StreamInput;
+import org.elasticsearch.common.io.stream.StreamOutput;
+import org.elasticsearch.common.io.stream.Streamable;
+import org.elasticsearch.common.xcontent.XContentFactory;
+import org.elasticsearch.common.xcontent.XContentParser;
+
+import javax.annotation.Nullable;
+import java.io.IOException;
+import java.util.List;
+
+import static org.elasticsearch.action.Actions.*;
+
+/**
+ * A multi get request, fetching several documents by index, type and id in a single round trip. The
+ * documents are grouped by the shard they map to, with a single request executed per shard.
+ *
+ * @author kimchy (shay.banon)
+ * @see org.elasticsearch.client.Client#multiGet(MultiGetRequest)
+ */
+public class MultiGetRequest implements ActionRequest {
+
+    /**
+     * A single get item.
+     */
+    public static class Item implements Streamable {
+        private String index;
+        private String type;
+        private String id;
+        private String routing;
+        private String[] fields;
+
+        Item() {
+
+        }
+
+        /**
+         * Constructs a single get item.
+         *
+         * @param index The index name
+         * @param type  The type (can be null)
+         * @param id    The id
+         */
+        public Item(String index, String type, String id) {
+            this.index = index;
+            this.type = type;
+            this.id = id;
+        }
+
+        public String index() {
+            return this.index;
+        }
+
+        Item index(String index) {
+            this.index = index;
+            return this;
+        }
+
+        public String type() {
+            return this.type;
+        }
+
+        public String id() {
+            return this.id;
+        }
+
+        /**
+         * The routing associated with this document.
+         */
+        public Item routing(String routing) {
+            this.routing = routing;
+            return this;
+        }
+
+        public String routing() {
+            return this.routing;
+        }
+
+        /**
+         * Explicitly specify the fields that will be returned. By default, the <tt>_source</tt>
+         * field will be returned.
+         */
+        public Item fields(String... fields) {
+            this.fields = fields;
+            return this;
+        }
+
+        public String[] fields() {
+            return this.fields;
+        }
+
+        public static Item readItem(StreamInput in) throws IOException {
+            Item item = new Item();
+            item.readFrom(in);
+            return item;
+        }
+
+        @Override public void readFrom(StreamInput in) throws IOException {
+            index = in.readUTF();
+            type = in.readUTF();
+            id = in.readUTF();
+            if (in.readBoolean()) {
+                routing = in.readUTF();
+            }
+            int size = in.readVInt();
+            if (size > 0) {
+                fields = new String[size - 1];
+                for (int i = 0; i < fields.length; i++) {
+                    fields[i] = in.readUTF();
+                }
+            }
+        }
+
+        @Override public void writeTo(StreamOutput out) throws IOException {
+            out.writeUTF(index);
+            out.writeUTF(type);
+            out.writeUTF(id);
+            if (routing == null) {
+                out.writeBoolean(false);
+            } else {
+                out.writeBoolean(true);
+                out.writeUTF(routing);
+            }
+            // 0 marks no fields (load the source), otherwise the number of fields + 1
+            if (fields == null) {
+                out.writeVInt(0);
+            } else {
+                out.writeVInt(fields.length + 1);
+                for (String field : fields) {
+                    out.writeUTF(field);
+                }
+            }
+        }
+    }
+
+    private boolean listenerThreaded = false;
+
+    boolean refresh = false;
+
+    boolean realtime = true;
+
+    List<Item> items = Lists.newArrayList();
+
+    public MultiGetRequest add(Item item) {
+        items.add(item);
+        return this;
+    }
+
+    public MultiGetRequest add(String index, @Nullable String type, String id) {
+        items.add(new Item(index, type, id));
+        return this;
+    }
+
+    /**
+     * Should a refresh be executed before this get operation causing the operation to
+     * return the latest value. Note, heavy get should not set this to <tt>true</tt>. Defaults
+     * to <tt>false</tt>.
+     */
+    public MultiGetRequest refresh(boolean refresh) {
+        this.refresh = refresh;
+        return this;
+    }
+
+    public boolean refresh() {
+        return this.refresh;
+    }
+
+    /**
+     * Should the get be realtime, reading the latest version of the documents from the transaction
+     * log if they were not refreshed yet. Defaults to <tt>true</tt>.
+     */
+    public MultiGetRequest realtime(boolean realtime) {
+        this.realtime = realtime;
+        return this;
+    }
+
+    public boolean realtime() {
+        return this.realtime;
+    }
+
+    public List<Item> items() {
+        return this.items;
+    }
+
+    /**
+     * Adds the items to fetch from a source in the form of <tt>{"docs" : [{"_index" : ..., "_type" : ..., "_id" : ...}]}</tt>,
+     * or <tt>{"ids" : [...]}</tt> when a default index and type are provided.
+     */
+    public void add(@Nullable String defaultIndex, @Nullable String defaultType, @Nullable String[] defaultFields, byte[] data, int from, int length) throws Exception {
+        XContentParser parser = XContentFactory.xContent(data, from, length).createParser(data, from, length);
+        try {
+            XContentParser.Token token = parser.nextToken();
+            if (token != XContentParser.Token.START_OBJECT) {
+                throw new ElasticSearchParseException("multi get source should start with an object");
+            }
+            String currentFieldName = null;
+            while ((token = parser.nextToken()) != XContentParser.Token.END_OBJECT) {
+                if (token == XContentParser.Token.FIELD_NAME) {
+                    currentFieldName = parser.currentName();
+                } else if (token == XContentParser.Token.START_ARRAY) {
+                    if ("docs".equals(currentFieldName)) {
+                        while ((token = parser.nextToken()) != XContentParser.Token.END_ARRAY) {
+                            if (token != XContentParser.Token.START_OBJECT) {
+                                throw new ElasticSearchParseException("docs array element should include an object");
+                            }
+                            String index = defaultIndex;
+                            String type = defaultType;
+                            String id = null;
+                            String routing = null;
+                            List<String> fields = null;
+                            while ((token = parser.nextToken()) != XContentParser.Token.END_OBJECT) {
+                                if (token == XContentParser.Token.FIELD_NAME) {
+                                    currentFieldName = parser.currentName();
+                                } else if (token.isValue()) {
+                                    if ("_index".equals(currentFieldName)) {
+                                        index = parser.text();
+                                    } else if ("_type".equals(currentFieldName)) {
+                                        type = parser.text();
+                                    } else if ("_id".equals(currentFieldName)) {
+                                        id = parser.text();
+                                    } else if ("_routing".equals(currentFieldName) || "routing".equals(currentFieldName)) {
+                                        routing = parser.text();
+                                    }
+                                } else if (token == XContentParser.Token.START_ARRAY) {
+                                    if ("fields".equals(currentFieldName)) {
+                                        fields = Lists.newArrayList();
+                                        while ((token = parser.nextToken()) != XContentParser.Token.END_ARRAY) {
+                                            fields.add(parser.text());
+                                        }
+                                    }
+                                }
+                            }
+                            String[] aFields;
+                            if (fields != null) {
+                                aFields = fields.toArray(new String[fields.size()]);
+                            } else {
+                                aFields = defaultFields;
+                            }
+                            add(new Item(index, type, id).routing(routing).fields(aFields));
+                        }
+                    } else if ("ids".equals(currentFieldName)) {
+                        while ((token = parser.nextToken()) != XContentParser.Token.END_ARRAY) {
+                            if (!token.isValue()) {
+                                throw new ElasticSearchParseException("ids array element should only contain ids");
+                            }
+                            add(new Item(defaultIndex, defaultType, parser.text()).fields(defaultFields));
+                        }
+                    }
+                }
+            }
+        } finally {
+            parser.close();
+        }
+    }
+
+    @Override public ActionRequestValidationException validate() {
+        ActionRequestValidationException validationException = null;
+        if (items.isEmpty()) {
+            return addValidationError("no documents to get", validationException);
+        }
+        for (int i = 0; i < items.size(); i++) {
+            Item item = items.get(i);
+            if (item.index() == null) {
+                validationException = addValidationError("index is missing for doc " + i, validationException);
+            }
+            if (item.type() == null) {
+                validationException = addValidationError("type is missing for doc " + i, validationException);
+            }
+            if (item.id() == null) {
+                validationException = addValidationError("id is missing for doc " + i, validationException);
+            }
+        }
+        return validationException;
+    }
+
+    @Override public boolean listenerThreaded() {
+        return listenerThreaded;
+    }
+
+    @Override public MultiGetRequest listenerThreaded(boolean listenerThreaded) {
+        this.listenerThreaded = listenerThreaded;
+        return this;
+    }
+
+    @Override public void readFrom(StreamInput in) throws IOException {
+        refresh = in.readBoolean();
+        realtime = in.readBoolean();
+        int size = in.readVInt();
+        items = Lists.newArrayListWithCapacity(size);
+        for (int i = 0; i < size; i++) {
+            items.add(Item.readItem(in));
+        }
+    }
+
+    @Override public void writeTo(StreamOutput out) throws IOException {
+        out.writeBoolean(refresh);
+        out.writeBoolean(realtime);
+        out.writeVInt(items.size());
+        for (Item item : items) {
+            item.writeTo(out);
+        }
+    }
+}
@@ -0,0 +1,147 @@
+/*
+ * Licensed to Elastic Search and Shay Banon under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. Elastic Search licenses this
+ * file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package org.elasticsearch.action.get;
+
+import org.elasticsearch.action.ActionRequestValidationException;
+import org.elasticsearch.action.support.single.shard.SingleShardOperationRequest;
+import org.elasticsearch.common.io.stream.StreamInput;
+import org.elasticsearch.common.io.stream.StreamOutput;
+import org.elasticsearch.common.trove.TIntArrayList;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The set of multi get items that map to a single shard, resolved together on it.
+ *
+ * @author kimchy (shay.banon)
+ */
+public class MultiGetShardRequest extends SingleShardOperationRequest {
+
+    private int shardId;
+
+    boolean refresh;
+
+    boolean realtime;
+
+    TIntArrayList locations;
+    List<String> types;
+    List<String> ids;
+    List<String[]> fields;
+
+    MultiGetShardRequest() {
+
+    }
+
+    MultiGetShardRequest(String index, int shardId) {
+        super(index, null, null);
+        this.shardId = shardId;
+        locations = new TIntArrayList();
+        types = new ArrayList<String>();
+        ids = new ArrayList<String>();
+        fields = new ArrayList<String[]>();
+    }
+
+    public int shardId() {
+        return this.shardId;
+    }
+
+    public boolean refresh() {
+        return this.refresh;
+    }
+
+    public MultiGetShardRequest refresh(boolean refresh) {
+        this.refresh = refresh;
+        return this;
+    }
+
+    public boolean realtime() {
+        return this.realtime;
+    }
+
+    public MultiGetShardRequest realtime(boolean realtime) {
+        this.realtime = realtime;
+        return this;
+    }
+
+    public void add(int location, String type, String id, String[] fields) {
+        this.locations.add(location);
+        this.types.add(type);
+        this.ids.add(id);
+        this.fields.add(fields);
+    }
+
+    @Override public ActionRequestValidationException validate() {
+        // the items are validated as part of the multi get request
+        return null;
+    }
+
+    @Override public void readFrom(StreamInput in) throws IOException {
+        index = in.readUTF();
+        shardId = in.readVInt();
+        int size = in.readVInt();
+        locations = new TIntArrayList(size);
+        types = new ArrayList<String>(size);
+        ids = new ArrayList<String>(size);
+        fields = new ArrayList<String[]>(size);
+        for (int i = 0; i < size; i++) {
+            locations.add(in.readVInt());
+            types.add(in.readUTF());
+            ids.add(in.readUTF());
+            int size1 = in.readVInt();
+            if (size1 > 0) {
+                String[] fields = new String[size1 - 1];
+                for (int j = 0; j < fields.length; j++) {
+                    fields[j] = in.readUTF();
+                }
+                this.fields.add(fields);
+            } else {
+                this.fields.add(null);
+            }
+        }
+        refresh = in.readBoolean();
+        realtime = in.readBoolean();
+    }
+
+    @Override public void writeTo(StreamOutput out) throws IOException {
+        // type and id are per item, so the single shard request fields are not written
+        out.writeUTF(index);
+        out.writeVInt(shardId);
+        out.writeVInt(types.size());
+        for (int i = 0; i < types.size(); i++) {
+            out.writeVInt(locations.get(i));
+            out.writeUTF(types.get(i));
+            out.writeUTF(ids.get(i));
+            String[] fields = this.fields.get(i);
+            if (fields == null) {
+                out.writeVInt(0);
+            } else {
+                out.writeVInt(fields.length + 1);
+                for (String field : fields) {
+                    out.writeUTF(field);
+                }
+            }
+        }
+        out.writeBoolean(refresh);
+        out.writeBoolean(realtime);
+    }
+}
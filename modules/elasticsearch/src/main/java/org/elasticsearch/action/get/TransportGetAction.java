@@ -32,7 +32,6 @@ import org.elasticsearch.common.inject.Inject;
 import org.elasticsearch.common.lucene.Lucene;
 import org.elasticsearch.common.lucene.uid.UidField;
 import org.elasticsearch.common.settings.Settings;
-import org.elasticsearch.index.Index;
 import org.elasticsearch.index.engine.Engine;
 import org.elasticsearch.index.mapper.DocumentMapper;
 import org.elasticsearch.index.mapper.FieldMapper;
@@ -82,28 +81,69 @@ public class TransportGetAction extends TransportShardSingleOperationAction<GetR
         IndexService indexService = indicesService.indexServiceSafe(request.index());
         IndexShard indexShard = indexService.shardSafe(shardId);
 
-        DocumentMapper docMapper = indexService.mapperService().documentMapper(request.type());
-        if (docMapper == null) {
-            throw new TypeMissingException(new Index(request.index()), request.type());
-        }
+        DocumentMapper docMapper = documentMapper(indexService, request.type());
 
         if (request.refresh()) {
             indexShard.refresh(new Engine.Refresh(false));
+        } else if (request.realtime()) {
+            GetResponse response = realtimeGet(indexShard, docMapper, request.index(), request.id(), request.fields());
+            if (response != null) {
+                return response;
+            }
         }
 
         Engine.Searcher searcher = indexShard.searcher();
+        try {
+            return load(searcher, docMapper, request.index(), request.id(), request.fields());
+        } finally {
+            searcher.release();
+        }
+    }
+
+    static DocumentMapper documentMapper(IndexService indexService, String type) throws TypeMissingException {
+        DocumentMapper docMapper = indexService.mapperService().documentMapper(type);
+        if (docMapper == null) {
+            throw new TypeMissingException(indexService.index(), type);
+        }
+        return docMapper;
+    }
+
+    /**
+     * Tries to resolve the get from the translog, returning <tt>null</tt> if it should be loaded using
+     * a (newly acquired) searcher.
+     */
+    static GetResponse realtimeGet(IndexShard indexShard, DocumentMapper docMapper, String index, String id, String[] fields) throws ElasticSearchException {
+        Engine.GetResult getResult = indexShard.get(new Engine.Get(docMapper.uidMapper().term(docMapper.type(), id)));
+        if (getResult == null) {
+            return null;
+        }
+        if (!getResult.exists()) {
+            return new GetResponse(index, docMapper.type(), id, -1, false, null, null);
+        }
+        if (fields == null) {
+            byte[] source = docMapper.sourceMapper().enabled() ? getResult.source() : null;
+            return new GetResponse(index, docMapper.type(), id, getResult.version(), true, source, null);
+        } else if (fields.length == 0) {
+            return new GetResponse(index, docMapper.type(), id, getResult.version(), true, null, null);
+        }
+        // the translog only holds the source, stored fields require a refreshed searcher
+        indexShard.refresh(new Engine.Refresh(false));
+        return null;
+    }
+
+    static GetResponse load(Engine.Searcher searcher, DocumentMapper docMapper, String index, String id, String[] requestedFields) throws ElasticSearchException {
         boolean exists = false;
         byte[] source = null;
         Map<String, GetField> fields = null;
         long version = -1;
         try {
-            UidField.DocIdAndVersion docIdAndVersion = UidField.loadDocIdAndVersion(searcher.reader(), docMapper.uidMapper().term(request.type(), request.id()));
+            UidField.DocIdAndVersion docIdAndVersion = UidField.loadDocIdAndVersion(searcher.reader(), docMapper.uidMapper().term(docMapper.type(), id));
             if (docIdAndVersion.docId != Lucene.NO_DOC) {
                 if (docIdAndVersion.version > 0) {
                     version = docIdAndVersion.version;
                 }
                 exists = true;
-                FieldSelector fieldSelector = buildFieldSelectors(docMapper, request.fields());
+                FieldSelector fieldSelector = buildFieldSelectors(docMapper, requestedFields);
                 if (fieldSelector != null) {
                     Document doc = searcher.reader().document(docIdAndVersion.docId, fieldSelector);
                     source = extractSource(doc, docMapper);
@@ -142,14 +182,12 @@ public class TransportGetAction extends TransportShardSingleOperationAction<GetR
                 }
             }
         } catch (IOException e) {
-            throw new ElasticSearchException("Failed to get type [" + request.type() + "] and id [" + request.id() + "]", e);
-        } finally {
-            searcher.release();
+            throw new ElasticSearchException("Failed to get type [" + docMapper.type() + "] and id [" + id + "]", e);
         }
-        return new GetResponse(request.index(), request.type(), request.id(), version, exists, source, fields);
+        return new GetResponse(index, docMapper.type(), id, version, exists, source, fields);
     }
 
-    private FieldSelector buildFieldSelectors(DocumentMapper docMapper, String... fields) {
+    private static FieldSelector buildFieldSelectors(DocumentMapper docMapper, String... fields) {
         if (fields == null) {
             return docMapper.sourceMapper().fieldSelector();
         }
@@ -170,7 +208,7 @@ public class TransportGetAction extends TransportShardSingleOperationAction<GetR
         return fieldSelector;
     }
 
-    private byte[] extractSource(Document doc, DocumentMapper documentMapper) {
+    private static byte[] extractSource(Document doc, DocumentMapper documentMapper) {
         byte[] source = null;
         Fieldable sourceField = doc.getFieldable(documentMapper.sourceMapper().names().indexName());
         if (sourceField != null) {
@@ -0,0 +1,171 @@
+/*
+ * Licensed to Elastic Search and Shay Banon under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. Elastic Search licenses this
+ * file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package org.elasticsearch.action.get;
+
+import org.elasticsearch.ExceptionsHelper;
+import org.elasticsearch.action.ActionListener;
+import org.elasticsearch.action.TransportActions;
+import org.elasticsearch.action.support.BaseAction;
+import org.elasticsearch.cluster.ClusterService;
+import org.elasticsearch.cluster.ClusterState;
+import org.elasticsearch.common.collect.Maps;
+import org.elasticsearch.common.inject.Inject;
+import org.elasticsearch.common.settings.Settings;
+import org.elasticsearch.index.shard.ShardId;
+import org.elasticsearch.threadpool.ThreadPool;
+import org.elasticsearch.transport.BaseTransportRequestHandler;
+import org.elasticsearch.transport.TransportChannel;
+import org.elasticsearch.transport.TransportService;
+
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Performs the multi get operation, grouping the items by the shard they map to and executing a single
+ * request per shard.
+ *
+ * @author kimchy (shay.banon)
+ */
+public class TransportMultiGetAction extends BaseAction<MultiGetRequest, MultiGetResponse> {
+
+    private final ThreadPool threadPool;
+
+    private final ClusterService clusterService;
+
+    private final TransportShardMultiGetAction shardAction;
+
+    @Inject public TransportMultiGetAction(Settings settings, ThreadPool threadPool, TransportService transportService, ClusterService clusterService, TransportShardMultiGetAction shardAction) {
+        super(settings);
+        this.threadPool = threadPool;
+        this.clusterService = clusterService;
+        this.shardAction = shardAction;
+
+        transportService.registerHandler(TransportActions.MULTI_GET, new TransportHandler());
+    }
+
+    @Override protected void doExecute(final MultiGetRequest request, final ActionListener<MultiGetResponse> listener) {
+        ClusterState clusterState = clusterService.state();
+
+        final MultiGetItemResponse[] responses = new MultiGetItemResponse[request.items.size()];
+
+        Map<ShardId, MultiGetShardRequest> shardRequests = Maps.newHashMap();
+        for (int i = 0; i < request.items.size(); i++) {
+            MultiGetRequest.Item item = request.items.get(i);
+            try {
+                item.index(clusterState.metaData().concreteIndex(item.index()));
+                ShardId shardId = clusterService.operationRouting()
+                        .getShards(clusterState, item.index(), item.type(), item.id(), item.routing()).shardId();
+                MultiGetShardRequest shardRequest = shardRequests.get(shardId);
+                if (shardRequest == null) {
+                    shardRequest = new MultiGetShardRequest(shardId.index().name(), shardId.id());
+                    shardRequest.refresh(request.refresh()).realtime(request.realtime());
+                    shardRequests.put(shardId, shardRequest);
+                }
+                shardRequest.add(i, item.type(), item.id(), item.fields());
+            } catch (Exception e) {
+                responses[i] = new MultiGetItemResponse(null, new MultiGetResponse.Failure(item.index(), item.type(), item.id(), ExceptionsHelper.detailedMessage(e)));
+            }
+        }
+
+        if (shardRequests.isEmpty()) {
+            // all items failed to resolve to a shard
+            finish(request, responses, listener);
+            return;
+        }
+
+        final AtomicInteger counter = new AtomicInteger(shardRequests.size());
+        for (final MultiGetShardRequest shardRequest : shardRequests.values()) {
+            // the listener is called on this action level, and the shard operation is executed on a thread if local
+            shardRequest.listenerThreaded(false);
+            shardAction.execute(shardRequest, new ActionListener<MultiGetShardResponse>() {
+                @Override public void onResponse(MultiGetShardResponse response) {
+                    synchronized (responses) {
+                        for (int i = 0; i < response.locations.size(); i++) {
+                            responses[response.locations.get(i)] = new MultiGetItemResponse(response.responses.get(i), response.failures.get(i));
+                        }
+                    }
+                    if (counter.decrementAndGet() == 0) {
+                        finish(request, responses, listener);
+                    }
+                }
+
+                @Override public void onFailure(Throwable e) {
+                    // create failures for all relevant requests
+                    String message = ExceptionsHelper.detailedMessage(e);
+                    synchronized (responses) {
+                        for (int i = 0; i < shardRequest.locations.size(); i++) {
+                            responses[shardRequest.locations.get(i)] = new MultiGetItemResponse(null,
+                                    new MultiGetResponse.Failure(shardRequest.index(), shardRequest.types.get(i), shardRequest.ids.get(i), message));
+                        }
+                    }
+                    if (counter.decrementAndGet() == 0) {
+                        finish(request, responses, listener);
+                    }
+                }
+            });
+        }
+    }
+
+    private void finish(MultiGetRequest request, final MultiGetItemResponse[] responses, final ActionListener<MultiGetResponse> listener) {
+        if (request.listenerThreaded()) {
+            threadPool.execute(new Runnable() {
+                @Override public void run() {
+                    listener.onResponse(new MultiGetResponse(responses));
+                }
+            });
+        } else {
+            listener.onResponse(new MultiGetResponse(responses));
+        }
+    }
+
+    class TransportHandler extends BaseTransportRequestHandler<MultiGetRequest> {
+
+        @Override public MultiGetRequest newInstance() {
+            return new MultiGetRequest();
+        }
+
+        @Override public void messageReceived(final MultiGetRequest request, final TransportChannel channel) throws Exception {
+            // no need to use threaded listener, since we just send a response
+            request.listenerThreaded(false);
+            execute(request, new ActionListener<MultiGetResponse>() {
+                @Override public void onResponse(MultiGetResponse response) {
+                    try {
+                        channel.sendResponse(response);
+                    } catch (Exception e) {
+                        onFailure(e);
+                    }
+                }
+
+                @Override public void onFailure(Throwable e) {
+                    try {
+                        channel.sendResponse(e);
+                    } catch (Exception e1) {
+                        logger.warn("Failed to send error response for action [" + TransportActions.MULTI_GET + "] and request [" + request + "]", e1);
+                    }
+                }
+            });
+        }
+
+        @Override public boolean spawn() {
+            return false;
+        }
+    }
+}
@@ -0,0 +1,139 @@
+/*
+ * Licensed to Elastic Search and Shay Banon under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. Elastic Search licenses this
+ * file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package org.elasticsearch.action.get;
+
+import org.elasticsearch.ElasticSearchException;
+import org.elasticsearch.ExceptionsHelper;
+import org.elasticsearch.action.TransportActions;
+import org.elasticsearch.action.support.single.shard.TransportShardSingleOperationAction;
+import org.elasticsearch.cluster.ClusterService;
+import org.elasticsearch.cluster.ClusterState;
+import org.elasticsearch.cluster.block.ClusterBlockLevel;
+import org.elasticsearch.cluster.routing.ShardIterator;
+import org.elasticsearch.common.inject.Inject;
+import org.elasticsearch.common.settings.Settings;
+import org.elasticsearch.common.trove.TIntArrayList;
+import org.elasticsearch.index.engine.Engine;
+import org.elasticsearch.index.mapper.DocumentMapper;
+import org.elasticsearch.index.service.IndexService;
+import org.elasticsearch.index.shard.service.IndexShard;
+import org.elasticsearch.indices.IndicesService;
+import org.elasticsearch.threadpool.ThreadPool;
+import org.elasticsearch.transport.TransportService;
+
+/**
+ * Performs the multi get items that map to a single shard. Items that can't be resolved from the
+ * translog are all loaded using a single acquired searcher.
+ *
+ * @author kimchy (shay.banon)
+ */
+public class TransportShardMultiGetAction extends TransportShardSingleOperationAction<MultiGetShardRequest, MultiGetShardResponse> {
+
+    private final IndicesService indicesService;
+
+    @Inject public TransportShardMultiGetAction(Settings settings, ClusterService clusterService, TransportService transportService,
+                                                IndicesService indicesService, ThreadPool threadPool) {
+        super(settings, threadPool, clusterService, transportService);
+        this.indicesService = indicesService;
+    }
+
+    @Override protected String transportAction() {
+        return TransportActions.MULTI_GET + "/shard";
+    }
+
+    @Override protected String transportShardAction() {
+        return TransportActions.MULTI_GET + "/shard/s";
+    }
+
+    @Override protected MultiGetShardRequest newRequest() {
+        return new MultiGetShardRequest();
+    }
+
+    @Override protected MultiGetShardResponse newResponse() {
+        return new MultiGetShardResponse();
+    }
+
+    @Override protected void checkBlock(MultiGetShardRequest request, ClusterState state) {
+        state.blocks().indexBlockedRaiseException(ClusterBlockLevel.READ, request.index());
+    }
+
+    @Override protected ShardIterator shards(ClusterState clusterState, MultiGetShardRequest request) {
+        return clusterService.operationRouting().getShards(clusterState, request.index(), request.shardId());
+    }
+
+    @Override protected MultiGetShardResponse shardOperation(MultiGetShardRequest request, int shardId) throws ElasticSearchException {
+        IndexService indexService = indicesService.indexServiceSafe(request.index());
+        IndexShard indexShard = indexService.shardSafe(shardId);
+
+        if (request.refresh()) {
+            indexShard.refresh(new Engine.Refresh(false));
+        }
+
+        MultiGetShardResponse response = new MultiGetShardResponse();
+        // the items that need to be loaded using the searcher, acquired only after the realtime gets
+        // since they might refresh the shard
+        TIntArrayList pending = new TIntArrayList();
+        DocumentMapper[] docMappers = new DocumentMapper[request.locations.size()];
+        for (int i = 0; i < request.locations.size(); i++) {
+            String type = request.types.get(i);
+            String id = request.ids.get(i);
+            try {
+                DocumentMapper docMapper = TransportGetAction.documentMapper(indexService, type);
+                if (!request.refresh() && request.realtime()) {
+                    GetResponse getResponse = TransportGetAction.realtimeGet(indexShard, docMapper, request.index(), id, request.fields.get(i));
+                    if (getResponse != null) {
+                        response.add(request.locations.get(i), getResponse);
+                        continue;
+                    }
+                }
+                docMappers[i] = docMapper;
+                pending.add(i);
+            } catch (Exception e) {
+                onItemFailure(request, shardId, response, i, e);
+            }
+        }
+
+        if (!pending.isEmpty()) {
+            Engine.Searcher searcher = indexShard.searcher();
+            try {
+                for (int j = 0; j < pending.size(); j++) {
+                    int i = pending.get(j);
+                    try {
+                        response.add(request.locations.get(i), TransportGetAction.load(searcher, docMappers[i], request.index(), request.ids.get(i), request.fields.get(i)));
+                    } catch (Exception e) {
+                        onItemFailure(request, shardId, response, i, e);
+                    }
+                }
+            } finally {
+                searcher.release();
+            }
+        }
+
+        return response;
+    }
+
+    private void onItemFailure(MultiGetShardRequest request, int shardId, MultiGetShardResponse response, int i, Exception e) {
+        if (logger.isDebugEnabled()) {
+            logger.debug("[" + request.index() + "][" + shardId + "]" + ": Failed to execute multi get item [" + request.types.get(i) + "#" + request.ids.get(i) + "]", e);
+        }
+        response.add(request.locations.get(i), new MultiGetResponse.Failure(request.index(), request.types.get(i), request.ids.get(i), ExceptionsHelper.detailedMessage(e)));
+    }
+}
@@ -32,6 +32,7 @@ import org.elasticsearch.action.support.replication.ShardReplicationOperationReq
 import org.elasticsearch.client.Requests;
 import org.elasticsearch.cluster.metadata.MappingMetaData;
 import org.elasticsearch.common.Required;
+import org.elasticsearch.common.UUID;
 import org.elasticsearch.common.Unicode;
 import org.elasticsearch.common.io.stream.StreamInput;
 import org.elasticsearch.common.io.stream.StreamOutput;
@@ -125,6 +126,8 @@ public class IndexRequest extends ShardReplicationOperationRequest {
 
     private boolean refresh = false;
     private long version = 0;
+    private boolean autoGeneratedId = false;
+    private boolean canHaveDuplicates = false;
 
     private XContentType contentType = Requests.INDEX_CONTENT_TYPE;
 
@@ -506,6 +509,37 @@ public class IndexRequest extends ShardReplicationOperationRequest {
         return this.opType;
     }
 
+    /**
+     * Generates a random id for the request, and since it is unique, changes the operation to
+     * {@link OpType#CREATE} and marks it as having an auto generated id.
+     */
+    public IndexRequest autoGenerateId() {
+        this.id = UUID.randomBase64UUID();
+        this.opType = OpType.CREATE;
+        this.autoGeneratedId = true;
+        return this;
+    }
+
+    /**
+     * Has the id of this request been generated (and not provided by the user), which means there is
+     * no existing document with the same id.
+     */
+    public boolean autoGeneratedId() {
+        return this.autoGeneratedId;
+    }
+
+    /**
+     * Might the document of this request already be indexed, because the request is a retry of an
+     * operation that might have been executed on a primary shard.
+     */
+    public boolean canHaveDuplicates() {
+        return this.canHaveDuplicates;
+    }
+
+    @Override public void onRetry() {
+        this.canHaveDuplicates = true;
+    }
+
     /**
      * Should a refresh be executed post this index operation causing the operation to
      * be searchable. Note, heavy indexing should not set this to <tt>true</tt>. Defaults
@@ -576,6 +610,8 @@ public class IndexRequest extends ShardReplicationOperationRequest {
         opType = OpType.fromId(in.readByte());
         refresh = in.readBoolean();
         version = in.readLong();
+        autoGeneratedId = in.readBoolean();
+        canHaveDuplicates = in.readBoolean();
     }
 
     @Override public void writeTo(StreamOutput out) throws IOException {
@@ -604,6 +640,8 @@ public class IndexRequest extends ShardReplicationOperationRequest {
         out.writeByte(opType.id());
         out.writeBoolean(refresh);
         out.writeLong(version);
+        out.writeBoolean(autoGeneratedId);
+        out.writeBoolean(canHaveDuplicates);
     }
 
     @Override public String toString() {
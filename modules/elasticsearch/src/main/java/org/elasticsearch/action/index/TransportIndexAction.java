@@ -35,7 +35,6 @@ import org.elasticsearch.cluster.block.ClusterBlockLevel;
 import org.elasticsearch.cluster.metadata.MappingMetaData;
 import org.elasticsearch.cluster.metadata.MetaData;
 import org.elasticsearch.cluster.routing.ShardIterator;
-import org.elasticsearch.common.UUID;
 import org.elasticsearch.common.inject.Inject;
 import org.elasticsearch.common.settings.Settings;
 import org.elasticsearch.index.engine.Engine;
@@ -86,9 +85,8 @@ public class TransportIndexAction extends TransportShardReplicationOperationActi
     @Override protected void doExecute(final IndexRequest request, final ActionListener<IndexResponse> listener) {
         if (allowIdGeneration) {
             if (request.id() == null) {
-                request.id(UUID.randomBase64UUID());
-                // since we generate the id, change it to CREATE
-                request.opType(IndexRequest.OpType.CREATE);
+                // since we generate the id, it changes to CREATE
+                request.autoGenerateId();
             }
         }
         if (autoCreateIndex && !clusterService.state().metaData().hasConcreteIndex(request.index())) {
@@ -174,6 +172,8 @@ public class TransportIndexAction extends TransportShardReplicationOperationActi
         } else {
             Engine.Create create = indexShard.prepareCreate(sourceToParse)
                     .version(request.version())
+                    .autoGeneratedId(request.autoGeneratedId())
+                    .canHaveDuplicates(request.canHaveDuplicates())
                     .origin(Engine.Operation.Origin.PRIMARY);
             create.refresh(request.refresh());
             doc = indexShard.create(create);
@@ -202,6 +202,8 @@ public class TransportIndexAction extends TransportShardReplicationOperationActi
         } else {
             Engine.Create create = indexShard.prepareCreate(sourceToParse)
                     .version(request.version())
+                    .autoGeneratedId(request.autoGeneratedId())
+                    .canHaveDuplicates(request.canHaveDuplicates())
                     .origin(Engine.Operation.Origin.REPLICA);
             create.refresh(request.refresh());
             indexShard.create(create);
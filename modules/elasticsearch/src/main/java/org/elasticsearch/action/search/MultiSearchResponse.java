@@ -0,0 +1,187 @@
+/*
+ * Licensed to Elastic Search and Shay Banon under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. Elastic Search licenses this
+ * file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package org.elasticsearch.action.search;
+
+import org.elasticsearch.action.ActionResponse;
+import org.elasticsearch.common.collect.Iterators;
+import org.elasticsearch.common.io.stream.StreamInput;
+import org.elasticsearch.common.io.stream.StreamOutput;
+import org.elasticsearch.common.io.stream.Streamable;
+import org.elasticsearch.common.xcontent.ToXContent;
+import org.elasticsearch.common.xcontent.XContentBuilder;
+import org.elasticsearch.common.xcontent.XContentBuilderString;
+
+import java.io.IOException;
+import java.util.Iterator;
+
+/**
+ * A multi search response, holding a response (or a failure) for each search request, in the same order
+ * as the requests.
+ *
+ * @author kimchy (shay.banon)
+ * @see MultiSearchRequest
+ */
+public class MultiSearchResponse implements ActionResponse, Iterable<MultiSearchResponse.Item>, ToXContent {
+
+    /**
+     * A search response item, holding the actual search response, or an error message if it failed.
+     */
+    public static class Item implements Streamable {
+        private SearchResponse response;
+        private String failureMessage;
+
+        Item() {
+
+        }
+
+        public Item(SearchResponse response, String failureMessage) {
+            this.response = response;
+            this.failureMessage = failureMessage;
+        }
+
+        /**
+         * Is it a failed search?
+         */
+        public boolean failed() {
+            return failureMessage != null;
+        }
+
+        /**
+         * Is it a failed search?
+         */
+        public boolean isFailed() {
+            return failed();
+        }
+
+        /**
+         * The actual search response, <tt>null</tt> if failed.
+         */
+        public SearchResponse response() {
+            return this.response;
+        }
+
+        /**
+         * The actual search response, <tt>null</tt> if failed.
+         */
+        public SearchResponse getResponse() {
+            return this.response;
+        }
+
+        /**
+         * The failure message, <tt>null</tt> if it did not fail.
+         */
+        public String failureMessage() {
+            return this.failureMessage;
+        }
+
+        /**
+         * The failure message, <tt>null</tt> if it did not fail.
+         */
+        public String getFailureMessage() {
+            return this.failureMessage;
+        }
+
+        public static Item readItem(StreamInput in) throws IOException {
+            Item item = new Item();
+            item.readFrom(in);
+            return item;
+        }
+
+        @Override public void readFrom(StreamInput in) throws IOException {
+            if (in.readBoolean()) {
+                this.response = SearchResponse.readSearchResponse(in);
+            } else {
+                failureMessage = in.readUTF();
+            }
+        }
+
+        @Override public void writeTo(StreamOutput out) throws IOException {
+            if (response != null) {
+                out.writeBoolean(true);
+                response.writeTo(out);
+            } else {
+                out.writeBoolean(false);
+                out.writeUTF(failureMessage);
+            }
+        }
+    }
+
+    private Item[] items;
+
+    MultiSearchResponse() {
+    }
+
+    public MultiSearchResponse(Item[] items) {
+        this.items = items;
+    }
+
+    @Override public Iterator<Item> iterator() {
+        return Iterators.forArray(items);
+    }
+
+    /**
+     * The list of responses, the order is the same order provided in the request.
+     */
+    public Item[] responses() {
+        return this.items;
+    }
+
+    /**
+     * The list of responses, the order is the same order provided in the request.
+     */
+    public Item[] getResponses() {
+        return this.items;
+    }
+
+    static final class Fields {
+        static final XContentBuilderString RESPONSES = new XContentBuilderString("responses");
+        static final XContentBuilderString ERROR = new XContentBuilderString("error");
+    }
+
+    @Override public XContentBuilder toXContent(XContentBuilder builder, Params params) throws IOException {
+        builder.startArray(Fields.RESPONSES);
+        for (Item item : items) {
+            builder.startObject();
+            if (item.failed()) {
+                builder.field(Fields.ERROR, item.failureMessage());
+            } else {
+                item.response().toXContent(builder, params);
+            }
+            builder.endObject();
+        }
+        builder.endArray();
+        return builder;
+    }
+
+    @Override public void readFrom(StreamInput in) throws IOException {
+        items = new Item[in.readVInt()];
+        for (int i = 0; i < items.length; i++) {
+            items[i] = Item.readItem(in);
+        }
+    }
+
+    @Override public void writeTo(StreamOutput out) throws IOException {
+        out.writeVInt(items.length);
+        for (Item item : items) {
+            item.writeTo(out);
+        }
+    }
+}
@@ -49,7 +49,14 @@ public enum SearchType {
      * and return the results. Each shard returns size results. Since each shard already returns size hits, this
      * type actually returns size times number of shards results back to the caller.
      */
-    QUERY_AND_FETCH((byte) 3);
+    QUERY_AND_FETCH((byte) 3),
+    /**
+     * Performs scanning of the results which executes the search without any sorting (and scoring). The initial
+     * search only returns the total number of hits (and facets), the documents are then returned, in index order,
+     * by scrolling through the results, each scroll request returning up to size hits <b>per shard</b>. Requires
+     * a scroll to be set, and is mainly useful for exporting a large number of documents.
+     */
+    SCAN((byte) 4);
 
     /**
      * The default search type ({@link #QUERY_THEN_FETCH}.
@@ -81,6 +88,8 @@ public enum SearchType {
             return DFS_QUERY_AND_FETCH;
         } else if (id == 3) {
             return QUERY_AND_FETCH;
+        } else if (id == 4) {
+            return SCAN;
         } else {
             throw new ElasticSearchIllegalArgumentException("No search type for [" + id + "]");
         }
@@ -89,7 +98,7 @@ public enum SearchType {
     /**
      * The a string representation search type to execute, defaults to {@link SearchType#DEFAULT}. Can be
      * one of "dfs_query_then_fetch"/"dfsQueryThenFetch", "dfs_query_and_fetch"/"dfsQueryAndFetch",
-     * "query_then_fetch"/"queryThenFetch", and "query_and_fetch"/"queryAndFetch".
+     * "query_then_fetch"/"queryThenFetch", "query_and_fetch"/"queryAndFetch", and "scan".
      */
     public static SearchType fromString(String searchType) throws ElasticSearchIllegalArgumentException {
         if (searchType == null) {
@@ -103,6 +112,8 @@ public enum SearchType {
             return SearchType.QUERY_THEN_FETCH;
         } else if ("query_and_fetch".equals(searchType)) {
             return SearchType.QUERY_AND_FETCH;
+        } else if ("scan".equals(searchType)) {
+            return SearchType.SCAN;
         } else {
             throw new ElasticSearchIllegalArgumentException("No search type for [" + searchType + "]");
         }
@@ -0,0 +1,132 @@
+/*
+ * Licensed to Elastic Search and Shay Banon under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. Elastic Search licenses this
+ * file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package org.elasticsearch.action.search;
+
+import org.elasticsearch.ExceptionsHelper;
+import org.elasticsearch.action.ActionListener;
+import org.elasticsearch.action.TransportActions;
+import org.elasticsearch.action.support.BaseAction;
+import org.elasticsearch.common.inject.Inject;
+import org.elasticsearch.common.settings.Settings;
+import org.elasticsearch.threadpool.ThreadPool;
+import org.elasticsearch.transport.BaseTransportRequestHandler;
+import org.elasticsearch.transport.TransportChannel;
+import org.elasticsearch.transport.TransportService;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Executes the search requests of a multi search concurrently on this (coordinating) node, responding once
+ * all of them are done.
+ *
+ * @author kimchy (shay.banon)
+ */
+public class TransportMultiSearchAction extends BaseAction<MultiSearchRequest, MultiSearchResponse> {
+
+    private final ThreadPool threadPool;
+
+    private final TransportSearchAction searchAction;
+
+    @Inject public TransportMultiSearchAction(Settings settings, ThreadPool threadPool, TransportService transportService, TransportSearchAction searchAction) {
+        super(settings);
+        this.threadPool = threadPool;
+        this.searchAction = searchAction;
+
+        transportService.registerHandler(TransportActions.MULTI_SEARCH, new TransportHandler());
+    }
+
+    @Override protected void doExecute(final MultiSearchRequest request, final ActionListener<MultiSearchResponse> listener) {
+        final MultiSearchResponse.Item[] responses = new MultiSearchResponse.Item[request.requests().size()];
+        final AtomicInteger counter = new AtomicInteger(responses.length);
+        for (int i = 0; i < responses.length; i++) {
+            final int index = i;
+            SearchRequest searchRequest = request.requests().get(i);
+            // the listener is called once all searches are done, no need to thread each one
+            searchRequest.listenerThreaded(false);
+            // make sure the searches are not executed one after the other on the calling thread
+            if (searchRequest.operationThreading() == SearchOperationThreading.NO_THREADS) {
+                searchRequest.operationThreading(SearchOperationThreading.SINGLE_THREAD);
+            }
+            // the searches might outlive the (unsafe) content they were parsed from
+            searchRequest.beforeLocalFork();
+            searchAction.execute(searchRequest, new ActionListener<SearchResponse>() {
+                @Override public void onResponse(SearchResponse searchResponse) {
+                    responses[index] = new MultiSearchResponse.Item(searchResponse, null);
+                    if (counter.decrementAndGet() == 0) {
+                        finishHim();
+                    }
+                }
+
+                @Override public void onFailure(Throwable e) {
+                    responses[index] = new MultiSearchResponse.Item(null, ExceptionsHelper.detailedMessage(e));
+                    if (counter.decrementAndGet() == 0) {
+                        finishHim();
+                    }
+                }
+
+                private void finishHim() {
+                    if (request.listenerThreaded()) {
+                        threadPool.execute(new Runnable() {
+                            @Override public void run() {
+                                listener.onResponse(new MultiSearchResponse(responses));
+                            }
+                        });
+                    } else {
+                        listener.onResponse(new MultiSearchResponse(responses));
+                    }
+                }
+            });
+        }
+    }
+
+    class TransportHandler extends BaseTransportRequestHandler<MultiSearchRequest> {
+
+        @Override public MultiSearchRequest newInstance() {
+            return new MultiSearchRequest();
+        }
+
+        @Override public void messageReceived(final MultiSearchRequest request, final TransportChannel channel) throws Exception {
+            // no need to use threaded listener, since we just send a response
+            request.listenerThreaded(false);
+            execute(request, new ActionListener<MultiSearchResponse>() {
+                @Override public void onResponse(MultiSearchResponse response) {
+                    try {
+                        channel.sendResponse(response);
+                    } catch (Exception e) {
+                        onFailure(e);
+                    }
+                }
+
+                @Override public void onFailure(Throwable e) {
+                    try {
+                        channel.sendResponse(e);
+                    } catch (Exception e1) {
+                        logger.warn("Failed to send error response for action [" + TransportActions.MULTI_SEARCH + "] and request [" + request + "]", e1);
+                    }
+                }
+            });
+        }
+
+        @Override public boolean spawn() {
+            return false;
+        }
+    }
+}
@@ -30,6 +30,7 @@ import org.elasticsearch.common.trove.ExtTIntArrayList;
 import org.elasticsearch.search.SearchShardTarget;
 import org.elasticsearch.search.action.SearchServiceListener;
 import org.elasticsearch.search.action.SearchServiceTransportAction;
+import org.elasticsearch.search.controller.IncrementalQueryReducer;
 import org.elasticsearch.search.controller.SearchPhaseController;
 import org.elasticsearch.search.dfs.AggregatedDfs;
 import org.elasticsearch.search.dfs.DfsSearchResult;
@@ -66,6 +67,8 @@ public class TransportSearchDfsQueryThenFetchAction extends TransportSearchTypeA
 
         private final Map<SearchShardTarget, QuerySearchResultProvider> queryResults = searchCache.obtainQueryResults();
 
+        private final IncrementalQueryReducer queryReducer = searchPhaseController.incrementalReducer(queryResults);
+
         private final Map<SearchShardTarget, FetchSearchResult> fetchResults = searchCache.obtainFetchResults();
 
         private volatile Map<SearchShardTarget, ExtTIntArrayList> docIdsToLoad;
@@ -140,7 +143,7 @@ public class TransportSearchDfsQueryThenFetchAction extends TransportSearchTypeA
             searchService.sendExecuteQuery(node, querySearchRequest, new SearchServiceListener<QuerySearchResult>() {
                 @Override public void onResult(QuerySearchResult result) {
                     result.shardTarget(dfsResult.shardTarget());
-                    queryResults.put(result.shardTarget(), result);
+                    queryReducer.add(result);
                     if (counter.decrementAndGet() == 0) {
                         executeFetchPhase();
                     }
@@ -259,7 +262,7 @@ public class TransportSearchDfsQueryThenFetchAction extends TransportSearchTypeA
         }
 
         private void innerFinishHim() throws Exception {
-            final InternalSearchResponse internalResponse = searchPhaseController.merge(sortedShardList, queryResults, fetchResults);
+            final InternalSearchResponse internalResponse = searchPhaseController.merge(sortedShardList, queryResults, fetchResults, queryReducer.facets());
             String scrollId = null;
             if (request.scroll() != null) {
                 scrollId = TransportSearchHelper.buildScrollId(request.searchType(), dfsResults);
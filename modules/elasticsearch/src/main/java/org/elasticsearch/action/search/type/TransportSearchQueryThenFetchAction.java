@@ -30,6 +30,7 @@ import org.elasticsearch.common.trove.ExtTIntArrayList;
 import org.elasticsearch.search.SearchShardTarget;
 import org.elasticsearch.search.action.SearchServiceListener;
 import org.elasticsearch.search.action.SearchServiceTransportAction;
+import org.elasticsearch.search.controller.IncrementalQueryReducer;
 import org.elasticsearch.search.controller.SearchPhaseController;
 import org.elasticsearch.search.fetch.FetchSearchRequest;
 import org.elasticsearch.search.fetch.FetchSearchResult;
@@ -60,6 +61,8 @@ public class TransportSearchQueryThenFetchAction extends TransportSearchTypeActi
 
         private final Map<SearchShardTarget, QuerySearchResultProvider> queryResults = searchCache.obtainQueryResults();
 
+        private final IncrementalQueryReducer queryReducer = searchPhaseController.incrementalReducer(queryResults);
+
         private final Map<SearchShardTarget, FetchSearchResult> fetchResults = searchCache.obtainFetchResults();
 
         private volatile Map<SearchShardTarget, ExtTIntArrayList> docIdsToLoad;
@@ -77,7 +80,7 @@ public class TransportSearchQueryThenFetchAction extends TransportSearchTypeActi
         }
 
         @Override protected void processFirstPhaseResult(ShardRouting shard, QuerySearchResult result) {
-            queryResults.put(result.shardTarget(), result);
+            queryReducer.add(result);
         }
 
         @Override protected void moveToSecondPhase() {
@@ -172,7 +175,7 @@ public class TransportSearchQueryThenFetchAction extends TransportSearchTypeActi
         }
 
         private void innerFinishHim() throws Exception {
-            InternalSearchResponse internalResponse = searchPhaseController.merge(sortedShardList, queryResults, fetchResults);
+            InternalSearchResponse internalResponse = searchPhaseController.merge(sortedShardList, queryResults, fetchResults, queryReducer.facets());
             String scrollId = null;
             if (request.scroll() != null) {
                 scrollId = TransportSearchHelper.buildScrollId(request.searchType(), queryResults.values());
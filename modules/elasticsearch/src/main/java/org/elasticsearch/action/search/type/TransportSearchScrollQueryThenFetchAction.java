@@ -32,6 +32,7 @@ import org.elasticsearch.common.trove.ExtTIntArrayList;
 import org.elasticsearch.search.SearchShardTarget;
 import org.elasticsearch.search.action.SearchServiceListener;
 import org.elasticsearch.search.action.SearchServiceTransportAction;
+import org.elasticsearch.search.controller.IncrementalQueryReducer;
 import org.elasticsearch.search.controller.SearchPhaseController;
 import org.elasticsearch.search.controller.ShardDoc;
 import org.elasticsearch.search.fetch.FetchSearchRequest;
@@ -91,6 +92,8 @@ public class TransportSearchScrollQueryThenFetchAction extends AbstractComponent
 
         private final Map<SearchShardTarget, QuerySearchResultProvider> queryResults = searchCache.obtainQueryResults();
 
+        private final IncrementalQueryReducer queryReducer = searchPhaseController.incrementalReducer(queryResults);
+
         private final Map<SearchShardTarget, FetchSearchResult> fetchResults = searchCache.obtainFetchResults();
 
         private volatile ShardDoc[] sortedShardList;
@@ -168,7 +171,7 @@ public class TransportSearchScrollQueryThenFetchAction extends AbstractComponent
         private void executeQueryPhase(final AtomicInteger counter, DiscoveryNode node, final long searchId) {
             searchService.sendExecuteQuery(node, internalScrollSearchRequest(searchId, request), new SearchServiceListener<QuerySearchResult>() {
                 @Override public void onResult(QuerySearchResult result) {
-                    queryResults.put(result.shardTarget(), result);
+                    queryReducer.add(result);
                     if (counter.decrementAndGet() == 0) {
                         executeFetchPhase();
                     }
@@ -233,7 +236,7 @@ public class TransportSearchScrollQueryThenFetchAction extends AbstractComponent
         }
 
         private void innerFinishHim() {
-            InternalSearchResponse internalResponse = searchPhaseController.merge(sortedShardList, queryResults, fetchResults);
+            InternalSearchResponse internalResponse = searchPhaseController.merge(sortedShardList, queryResults, fetchResults, queryReducer.facets());
             String scrollId = null;
             if (request.scroll() != null) {
                 scrollId = request.scrollId();
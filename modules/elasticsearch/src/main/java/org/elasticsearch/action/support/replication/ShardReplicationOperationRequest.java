@@ -146,4 +146,12 @@ public abstract class ShardReplicationOperationRequest implements ActionRequest
     public void beforeLocalFork() {
 
     }
+
+    /**
+     * Called when the operation is retried after it might have already been (partially) executed on a primary
+     * shard, for example when the primary failed or relocated while executing it.
+     */
+    public void onRetry() {
+
+    }
 }
@@ -338,6 +338,8 @@ public abstract class TransportShardReplicationOperationAction<Request extends S
                             if (exp.unwrapCause() instanceof ConnectTransportException || exp.unwrapCause() instanceof NodeClosedException ||
                                     exp.unwrapCause() instanceof IllegalIndexShardStateException) {
                                 primaryOperationStarted.set(false);
+                                // the primary might have executed it before failing
+                                request.onRetry();
                                 // we already marked it as started when we executed it (removed the listener) so pass false
                                 // to re-add to the cluster listener
                                 retry(false, shard.shardId());
@@ -423,6 +425,8 @@ public abstract class TransportShardReplicationOperationAction<Request extends S
             } catch (Exception e) {
                 // shard has not been allocated yet, retry it here
                 if (e instanceof IndexShardMissingException || e instanceof IllegalIndexShardStateException || e instanceof IndexMissingException) {
+                    // (bulk) operations might have been partially executed before the shard got closed
+                    request.onRetry();
                     retry(fromDiscoveryListener, shard.shardId());
                     return;
                 }
@@ -78,6 +78,15 @@ public abstract class TransportShardSingleOperationAction<Request extends Single
 
     }
 
+    /**
+     * The shards the request can be executed on, defaults to the shards the request <tt>type</tt> and
+     * <tt>id</tt> (or <tt>routing</tt>) map to.
+     */
+    protected ShardIterator shards(ClusterState clusterState, Request request) {
+        return clusterService.operationRouting()
+                .getShards(clusterState, request.index(), request.type(), request.id(), request.routing());
+    }
+
     private class AsyncSingleAction {
 
         private final ActionListener<Response> listener;
@@ -101,8 +110,7 @@ public abstract class TransportShardSingleOperationAction<Request extends Single
 
             checkBlock(request, clusterState);
 
-            this.shardIt = clusterService.operationRouting()
-                    .getShards(clusterState, request.index(), request.type(), request.id(), request.routing());
+            this.shardIt = shards(clusterState, request);
         }
 
         public void start() {
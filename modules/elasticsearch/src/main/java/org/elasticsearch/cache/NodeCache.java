@@ -19,6 +19,8 @@
 
 package org.elasticsearch.cache;
 
+import org.elasticsearch.cache.field.data.NodeFieldDataCache;
+import org.elasticsearch.cache.filter.NodeFilterCache;
 import org.elasticsearch.cache.memory.ByteBufferCache;
 import org.elasticsearch.cluster.ClusterChangedEvent;
 import org.elasticsearch.cluster.ClusterService;
@@ -36,22 +38,38 @@ public class NodeCache extends AbstractComponent implements ClusterStateListener
 
     private final ByteBufferCache byteBufferCache;
 
-    @Inject public NodeCache(Settings settings, ByteBufferCache byteBufferCache, ClusterService clusterService) {
+    private final NodeFilterCache filterCache;
+
+    private final NodeFieldDataCache fieldDataCache;
+
+    @Inject public NodeCache(Settings settings, ByteBufferCache byteBufferCache, NodeFilterCache filterCache, NodeFieldDataCache fieldDataCache, ClusterService clusterService) {
         super(settings);
         this.clusterService = clusterService;
         this.byteBufferCache = byteBufferCache;
+        this.filterCache = filterCache;
+        this.fieldDataCache = fieldDataCache;
         clusterService.add(this);
     }
 
     public void close() {
         clusterService.remove(this);
         byteBufferCache.close();
+        filterCache.close();
+        fieldDataCache.close();
     }
 
     public ByteBufferCache byteBuffer() {
         return byteBufferCache;
     }
 
+    public NodeFilterCache filter() {
+        return filterCache;
+    }
+
+    public NodeFieldDataCache fieldData() {
+        return fieldDataCache;
+    }
+
     @Override public void clusterChanged(ClusterChangedEvent event) {
     }
 }
@@ -19,6 +19,8 @@
 
 package org.elasticsearch.cache;
 
+import org.elasticsearch.cache.field.data.NodeFieldDataCache;
+import org.elasticsearch.cache.filter.NodeFilterCache;
 import org.elasticsearch.cache.memory.ByteBufferCache;
 import org.elasticsearch.common.inject.AbstractModule;
 import org.elasticsearch.common.settings.Settings;
@@ -37,5 +39,7 @@ public class NodeCacheModule extends AbstractModule {
     @Override protected void configure() {
         bind(NodeCache.class).asEagerSingleton();
         bind(ByteBufferCache.class).asEagerSingleton();
+        bind(NodeFilterCache.class).asEagerSingleton();
+        bind(NodeFieldDataCache.class).asEagerSingleton();
     }
 }
@@ -0,0 +1,330 @@
+/*
+ * Licensed to Elastic Search and Shay Banon under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. Elastic Search licenses this
+ * file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package org.elasticsearch.cache.field.data;
+
+import org.elasticsearch.common.component.AbstractComponent;
+import org.elasticsearch.common.inject.Inject;
+import org.elasticsearch.common.settings.Settings;
+import org.elasticsearch.common.unit.ByteSizeValue;
+import org.elasticsearch.common.unit.TimeValue;
+import org.elasticsearch.common.collect.Lists;
+import org.elasticsearch.common.collect.Sets;
+import org.elasticsearch.common.util.concurrent.ConcurrentCollections;
+import org.elasticsearch.common.util.concurrent.ConcurrentLruMap;
+import org.elasticsearch.index.cache.field.data.support.FieldDataKey;
+import org.elasticsearch.index.field.data.FieldData;
+import org.elasticsearch.monitor.jvm.JvmInfo;
+import org.elasticsearch.threadpool.ThreadPool;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ScheduledFuture;
+
+import static org.elasticsearch.common.unit.TimeValue.*;
+
+/**
+ * A node level least recently used store of loaded field data (per segment), shared by the <tt>lru</tt> field data
+ * caches of all the indices allocated on the node, so the memory taken by field data is bounded once for the whole
+ * node and not per index. The store is bounded by the memory its field data takes (based on
+ * {@link FieldData#sizeInBytes()}), set using <tt>cache.field.data.max_size</tt> either as an absolute size or as a
+ * percentage of the heap (defaults to <tt>20%</tt>). Entries not accessed for <tt>cache.field.data.expire</tt> (not
+ * set by default) are evicted as well, either when accessed or by a sweep running every
+ * <tt>cache.field.data.expire_interval</tt> (defaults to the expire time, up to a minute). Lookups do not lock
+ * (see {@link ConcurrentLruMap}).
+ *
+ * @author kimchy (shay.banon)
+ */
+public class NodeFieldDataCache extends AbstractComponent {
+
+    /**
+     * The owner of cached entries (an index field data cache), notified when its entries are evicted.
+     */
+    public static interface Owner {
+
+        void onEviction(long sizeInBytes);
+    }
+
+    private final long maxSizeInBytes;
+
+    private final long expireInMillis;
+
+    private final ConcurrentLruMap<Key, Entry> cache;
+
+    // the keys cached per reader (segment), so they can be removed once the reader is closed
+    private final ConcurrentMap<Object, ReaderKeys> readersKeys = ConcurrentCollections.newConcurrentMap();
+
+    private final ScheduledFuture<?> expiredSweeper;
+
+    @Inject public NodeFieldDataCache(Settings settings, ThreadPool threadPool) {
+        super(settings);
+        String maxSize = componentSettings.get("max_size", "20%");
+        if (maxSize.endsWith("%")) {
+            double percent = Double.parseDouble(maxSize.substring(0, maxSize.length() - 1));
+            this.maxSizeInBytes = (long) (((double) JvmInfo.jvmInfo().mem().heapMax().bytes()) * (percent / 100));
+        } else {
+            this.maxSizeInBytes = ByteSizeValue.parseBytesSizeValue(maxSize).bytes();
+        }
+        TimeValue expire = componentSettings.getAsTime("expire", null);
+        this.expireInMillis = expire == null ? -1 : expire.millis();
+        this.cache = new ConcurrentLruMap<Key, Entry>(maxSizeInBytes, new ConcurrentLruMap.Weigher<Entry>() {
+            @Override public long weigh(Entry entry) {
+                return entry.sizeInBytes;
+            }
+        }, new ConcurrentLruMap.EvictionListener<Key, Entry>() {
+            @Override public void onEviction(Key key, Entry entry, long weight) {
+                removeReaderKey(key);
+                key.owner.onEviction(weight);
+            }
+        });
+        if (expire != null) {
+            TimeValue expireInterval = componentSettings.getAsTime("expire_interval", timeValueMillis(Math.min(expireInMillis, timeValueMinutes(1).millis())));
+            this.expiredSweeper = threadPool.scheduleWithFixedDelay(new ExpiredSweeper(), expireInterval);
+            logger.debug("using node field data cache with max_size [{}], expire [{}], expire_interval [{}]", new ByteSizeValue(maxSizeInBytes), expire, expireInterval);
+        } else {
+            this.expiredSweeper = null;
+            logger.debug("using node field data cache with max_size [{}], expire [{}]", new ByteSizeValue(maxSizeInBytes), expire);
+        }
+    }
+
+    public FieldData get(Owner owner, FieldDataKey fieldDataKey) {
+        Key key = new Key(owner, fieldDataKey);
+        Entry entry = cache.get(key);
+        if (entry == null) {
+            return null;
+        }
+        if (expireInMillis != -1) {
+            long now = System.currentTimeMillis();
+            if ((now - entry.lastAccessTime) > expireInMillis) {
+                evictExpired(key, entry);
+                return null;
+            }
+            entry.lastAccessTime = now;
+        }
+        return entry.fieldData;
+    }
+
+    /**
+     * Caches the field data, evicting the least recently used entries if the store grows beyond its size. Returns
+     * the field data already cached for the same key if there is one.
+     */
+    public FieldData put(Owner owner, FieldDataKey fieldDataKey, FieldData fieldData) {
+        Key key = new Key(owner, fieldDataKey);
+        while (true) {
+            ReaderKeys readerKeys = readersKeys.get(fieldDataKey.readerKey());
+            if (readerKeys == null) {
+                readerKeys = new ReaderKeys(fieldDataKey.readerKey());
+                ReaderKeys existing = readersKeys.putIfAbsent(fieldDataKey.readerKey(), readerKeys);
+                if (existing != null) {
+                    readerKeys = existing;
+                }
+            }
+            if (readerKeys.add(key)) {
+                break;
+            }
+            // the keys got empty and were removed concurrently, add the key to new ones
+        }
+        Entry existing = cache.putIfAbsent(key, new Entry(fieldData));
+        if (existing != null) {
+            return existing.fieldData;
+        }
+        return fieldData;
+    }
+
+    /**
+     * Evicts the entries not accessed for longer than the expire time, if one is set. Called periodically, every
+     * <tt>cache.field.data.expire_interval</tt>.
+     */
+    public void evictExpired() {
+        if (expireInMillis == -1) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        for (Key key : cache.keySet()) {
+            Entry entry = cache.peek(key);
+            if (entry != null && (now - entry.lastAccessTime) > expireInMillis) {
+                evictExpired(key, entry);
+            }
+        }
+    }
+
+    /**
+     * Removes the entries cached by the owner for the reader, returning the size they took.
+     */
+    public long clear(Owner owner, Object readerKey) {
+        ReaderKeys readerKeys = readersKeys.get(readerKey);
+        if (readerKeys == null) {
+            return 0;
+        }
+        long clearedSizeInBytes = 0;
+        for (Key key : readerKeys.remove(owner)) {
+            Entry entry = cache.remove(key);
+            if (entry != null) {
+                clearedSizeInBytes += entry.sizeInBytes;
+            }
+        }
+        return clearedSizeInBytes;
+    }
+
+    /**
+     * Removes all the entries cached by the owner.
+     */
+    public void clear(Owner owner) {
+        for (Key key : cache.keySet()) {
+            if (key.owner == owner && cache.remove(key) != null) {
+                removeReaderKey(key);
+            }
+        }
+    }
+
+    /**
+     * The memory taken by the field data of the field cached by the owner.
+     */
+    public long sizeInBytes(Owner owner, String fieldName) {
+        long sizeInBytes = 0;
+        for (Key key : cache.keySet()) {
+            if (key.owner == owner && key.fieldDataKey.fieldName().equals(fieldName)) {
+                Entry entry = cache.peek(key);
+                if (entry != null) {
+                    sizeInBytes += entry.sizeInBytes;
+                }
+            }
+        }
+        return sizeInBytes;
+    }
+
+    public void close() {
+        if (expiredSweeper != null) {
+            expiredSweeper.cancel(false);
+        }
+        cache.clear();
+        readersKeys.clear();
+    }
+
+    public long sizeInBytes() {
+        return cache.weightedSize();
+    }
+
+    private void evictExpired(Key key, Entry entry) {
+        // only the one removing it notifies the owner
+        if (cache.remove(key) != null) {
+            removeReaderKey(key);
+            key.owner.onEviction(entry.sizeInBytes);
+        }
+    }
+
+    private void removeReaderKey(Key key) {
+        ReaderKeys readerKeys = readersKeys.get(key.fieldDataKey.readerKey());
+        if (readerKeys != null) {
+            readerKeys.remove(key);
+        }
+    }
+
+    class ExpiredSweeper implements Runnable {
+        @Override public void run() {
+            evictExpired();
+        }
+    }
+
+    /**
+     * The keys cached for a reader. Once empty, they are removed from the readers keys and no longer accept keys
+     * (under the same lock), so a put racing with the removal retries with new ones instead of losing its key.
+     */
+    class ReaderKeys {
+        private final Object readerKey;
+        private final Set<Key> keys = Sets.newHashSet();
+        private boolean removed;
+
+        ReaderKeys(Object readerKey) {
+            this.readerKey = readerKey;
+        }
+
+        synchronized boolean add(Key key) {
+            if (removed) {
+                return false;
+            }
+            keys.add(key);
+            return true;
+        }
+
+        synchronized void remove(Key key) {
+            keys.remove(key);
+            removeIfEmpty();
+        }
+
+        /**
+         * Removes (and returns) the keys of the owner.
+         */
+        synchronized List<Key> remove(Owner owner) {
+            List<Key> ownerKeys = Lists.newArrayList();
+            for (Iterator<Key> it = keys.iterator(); it.hasNext();) {
+                Key key = it.next();
+                if (key.owner == owner) {
+                    it.remove();
+                    ownerKeys.add(key);
+                }
+            }
+            removeIfEmpty();
+            return ownerKeys;
+        }
+
+        private void removeIfEmpty() {
+            if (keys.isEmpty() && !removed) {
+                removed = true;
+                readersKeys.remove(readerKey, this);
+            }
+        }
+    }
+
+    static class Key {
+        final Owner owner;
+        final FieldDataKey fieldDataKey;
+
+        Key(Owner owner, FieldDataKey fieldDataKey) {
+            this.owner = owner;
+            this.fieldDataKey = fieldDataKey;
+        }
+
+        @Override public boolean equals(Object o) {
+            if (this == o) return true;
+            Key key = (Key) o;
+            return owner == key.owner && fieldDataKey.equals(key.fieldDataKey);
+        }
+
+        @Override public int hashCode() {
+            return 31 * System.identityHashCode(owner) + fieldDataKey.hashCode();
+        }
+    }
+
+    static class Entry {
+        final FieldData fieldData;
+        // computed once, the size of loaded field data does not change
+        final long sizeInBytes;
+        volatile long lastAccessTime;
+
+        Entry(FieldData fieldData) {
+            this.fieldData = fieldData;
+            this.sizeInBytes = fieldData.sizeInBytes();
+            this.lastAccessTime = System.currentTimeMillis();
+        }
+    }
+}
@@ -0,0 +1,254 @@
+/*
+ * Licensed to Elastic Search and Shay Banon under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. Elastic Search licenses this
+ * file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package org.elasticsearch.cache.filter;
+
+import org.apache.lucene.search.Filter;
+import org.elasticsearch.common.collect.Lists;
+import org.elasticsearch.common.collect.Sets;
+import org.elasticsearch.common.component.AbstractComponent;
+import org.elasticsearch.common.inject.Inject;
+import org.elasticsearch.common.lucene.docset.DocSet;
+import org.elasticsearch.common.settings.Settings;
+import org.elasticsearch.common.unit.ByteSizeValue;
+import org.elasticsearch.common.util.concurrent.ConcurrentCollections;
+import org.elasticsearch.common.util.concurrent.ConcurrentLruMap;
+import org.elasticsearch.monitor.jvm.JvmInfo;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * A node level least recently used store of cached filters doc sets (per segment), shared by the <tt>lru</tt> filter
+ * caches of all the indices allocated on the node. The store is bounded by the memory its doc sets take (based on
+ * {@link DocSet#sizeInBytes()}), set using <tt>cache.filter.max_size</tt> either as an absolute size or as a
+ * percentage of the heap (defaults to <tt>20%</tt>). Doc sets larger than the whole store are not cached. Lookups
+ * do not lock (see {@link ConcurrentLruMap}).
+ *
+ * @author kimchy (shay.banon)
+ */
+public class NodeFilterCache extends AbstractComponent {
+
+    /**
+     * The owner of cached entries (an index filter cache), notified of the memory its entries take. An entry is
+     * accounted for with {@link #onCached(long)} before it can be evicted or removed.
+     */
+    public static interface Owner {
+
+        void onCached(long sizeInBytes);
+
+        void onRemoved(long sizeInBytes);
+
+        void onEviction(long sizeInBytes);
+    }
+
+    private final long maxSizeInBytes;
+
+    private final ConcurrentLruMap<Key, DocSet> cache;
+
+    // the keys cached per reader (segment), so they can be removed once the reader is closed
+    private final ConcurrentMap<Object, ReaderKeys> readersKeys = ConcurrentCollections.newConcurrentMap();
+
+    @Inject public NodeFilterCache(Settings settings) {
+        super(settings);
+        String maxSize = componentSettings.get("max_size", "20%");
+        if (maxSize.endsWith("%")) {
+            double percent = Double.parseDouble(maxSize.substring(0, maxSize.length() - 1));
+            this.maxSizeInBytes = (long) (((double) JvmInfo.jvmInfo().mem().heapMax().bytes()) * (percent / 100));
+        } else {
+            this.maxSizeInBytes = ByteSizeValue.parseBytesSizeValue(maxSize).bytes();
+        }
+        this.cache = new ConcurrentLruMap<Key, DocSet>(maxSizeInBytes, new ConcurrentLruMap.Weigher<DocSet>() {
+            @Override public long weigh(DocSet docSet) {
+                return docSet.sizeInBytes();
+            }
+        }, new ConcurrentLruMap.EvictionListener<Key, DocSet>() {
+            @Override public void onEviction(Key key, DocSet docSet, long weight) {
+                removeReaderKey(key);
+                key.owner.onEviction(weight);
+            }
+        });
+        logger.debug("using node filter cache with max_size [{}]", new ByteSizeValue(maxSizeInBytes));
+    }
+
+    public DocSet get(Owner owner, Object readerKey, Filter filter) {
+        return cache.get(new Key(owner, readerKey, filter));
+    }
+
+    /**
+     * Caches the doc set, evicting the least recently used entries if the store grows beyond its size. Returns the doc
+     * set already cached for the same key if there is one. A doc set larger than the store is returned as is, without
+     * being cached.
+     */
+    public DocSet put(Owner owner, Object readerKey, Filter filter, DocSet docSet) {
+        long sizeInBytes = docSet.sizeInBytes();
+        if (sizeInBytes > maxSizeInBytes) {
+            return docSet;
+        }
+        Key key = new Key(owner, readerKey, filter);
+        while (true) {
+            ReaderKeys readerKeys = readersKeys.get(readerKey);
+            if (readerKeys == null) {
+                readerKeys = new ReaderKeys(readerKey);
+                ReaderKeys existing = readersKeys.putIfAbsent(readerKey, readerKeys);
+                if (existing != null) {
+                    readerKeys = existing;
+                }
+            }
+            if (readerKeys.add(key)) {
+                break;
+            }
+            // the keys got empty and were removed concurrently, add the key to new ones
+        }
+        // accounted for before it is added, since once added, another thread might evict it
+        owner.onCached(sizeInBytes);
+        DocSet existing = cache.putIfAbsent(key, docSet);
+        if (existing != null) {
+            owner.onRemoved(sizeInBytes);
+            return existing;
+        }
+        return docSet;
+    }
+
+    /**
+     * Removes the entries cached by the owner for the reader.
+     */
+    public void clear(Owner owner, Object readerKey) {
+        ReaderKeys readerKeys = readersKeys.get(readerKey);
+        if (readerKeys == null) {
+            return;
+        }
+        for (Key key : readerKeys.remove(owner)) {
+            DocSet docSet = cache.remove(key);
+            if (docSet != null) {
+                owner.onRemoved(docSet.sizeInBytes());
+            }
+        }
+    }
+
+    /**
+     * Removes all the entries cached by the owner.
+     */
+    public void clear(Owner owner) {
+        for (Key key : cache.keySet()) {
+            if (key.owner != owner) {
+                continue;
+            }
+            DocSet docSet = cache.remove(key);
+            if (docSet != null) {
+                removeReaderKey(key);
+                owner.onRemoved(docSet.sizeInBytes());
+            }
+        }
+    }
+
+    public void close() {
+        cache.clear();
+        readersKeys.clear();
+    }
+
+    public long sizeInBytes() {
+        return cache.weightedSize();
+    }
+
+    private void removeReaderKey(Key key) {
+        ReaderKeys readerKeys = readersKeys.get(key.readerKey);
+        if (readerKeys != null) {
+            readerKeys.remove(key);
+        }
+    }
+
+    /**
+     * The keys cached for a reader. Once empty, they are removed from the readers keys and no longer accept keys
+     * (under the same lock), so a put racing with the removal retries with new ones instead of losing its key.
+     */
+    class ReaderKeys {
+        private final Object readerKey;
+        private final Set<Key> keys = Sets.newHashSet();
+        private boolean removed;
+
+        ReaderKeys(Object readerKey) {
+            this.readerKey = readerKey;
+        }
+
+        synchronized boolean add(Key key) {
+            if (removed) {
+                return false;
+            }
+            keys.add(key);
+            return true;
+        }
+
+        synchronized void remove(Key key) {
+            keys.remove(key);
+            removeIfEmpty();
+        }
+
+        /**
+         * Removes (and returns) the keys of the owner.
+         */
+        synchronized List<Key> remove(Owner owner) {
+            List<Key> ownerKeys = Lists.newArrayList();
+            for (Iterator<Key> it = keys.iterator(); it.hasNext();) {
+                Key key = it.next();
+                if (key.owner == owner) {
+                    it.remove();
+                    ownerKeys.add(key);
+                }
+            }
+            removeIfEmpty();
+            return ownerKeys;
+        }
+
+        private void removeIfEmpty() {
+            if (keys.isEmpty() && !removed) {
+                removed = true;
+                readersKeys.remove(readerKey, this);
+            }
+        }
+    }
+
+    static class Key {
+        final Owner owner;
+        final Object readerKey;
+        final Filter filter;
+
+        Key(Owner owner, Object readerKey, Filter filter) {
+            this.owner = owner;
+            this.readerKey = readerKey;
+            this.filter = filter;
+        }
+
+        @Override public boolean equals(Object o) {
+            if (this == o) return true;
+            Key key = (Key) o;
+            return owner == key.owner && readerKey == key.readerKey && filter.equals(key.filter);
+        }
+
+        @Override public int hashCode() {
+            int result = System.identityHashCode(owner);
+            result = 31 * result + System.identityHashCode(readerKey);
+            result = 31 * result + filter.hashCode();
+            return result;
+        }
+    }
+}
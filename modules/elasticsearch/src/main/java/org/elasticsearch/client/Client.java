@@ -31,11 +31,15 @@ import org.elasticsearch.action.deletebyquery.DeleteByQueryRequest;
 import org.elasticsearch.action.deletebyquery.DeleteByQueryResponse;
 import org.elasticsearch.action.get.GetRequest;
 import org.elasticsearch.action.get.GetResponse;
+import org.elasticsearch.action.get.MultiGetRequest;
+import org.elasticsearch.action.get.MultiGetResponse;
 import org.elasticsearch.action.index.IndexRequest;
 import org.elasticsearch.action.index.IndexResponse;
 import org.elasticsearch.action.mlt.MoreLikeThisRequest;
 import org.elasticsearch.action.percolate.PercolateRequest;
 import org.elasticsearch.action.percolate.PercolateResponse;
+import org.elasticsearch.action.search.MultiSearchRequest;
+import org.elasticsearch.action.search.MultiSearchResponse;
 import org.elasticsearch.action.search.SearchRequest;
 import org.elasticsearch.action.search.SearchResponse;
 import org.elasticsearch.action.search.SearchScrollRequest;
@@ -44,8 +48,10 @@ import org.elasticsearch.client.action.count.CountRequestBuilder;
 import org.elasticsearch.client.action.delete.DeleteRequestBuilder;
 import org.elasticsearch.client.action.deletebyquery.DeleteByQueryRequestBuilder;
 import org.elasticsearch.client.action.get.GetRequestBuilder;
+import org.elasticsearch.client.action.get.MultiGetRequestBuilder;
 import org.elasticsearch.client.action.index.IndexRequestBuilder;
 import org.elasticsearch.client.action.percolate.PercolateRequestBuilder;
+import org.elasticsearch.client.action.search.MultiSearchRequestBuilder;
 import org.elasticsearch.client.action.search.SearchRequestBuilder;
 import org.elasticsearch.client.action.search.SearchScrollRequestBuilder;
 
@@ -233,6 +239,27 @@ public interface Client {
      */
     GetRequestBuilder prepareGet(String index, String type, String id);
 
+    /**
+     * Multi get documents, executing a single request per shard the documents map to.
+     *
+     * @param request The multi get request
+     * @return The result future
+     */
+    ActionFuture<MultiGetResponse> multiGet(MultiGetRequest request);
+
+    /**
+     * Multi get documents, executing a single request per shard the documents map to.
+     *
+     * @param request  The multi get request
+     * @param listener A listener to be notified with a result
+     */
+    void multiGet(MultiGetRequest request, ActionListener<MultiGetResponse> listener);
+
+    /**
+     * Multi get documents, executing a single request per shard the documents map to.
+     */
+    MultiGetRequestBuilder prepareMultiGet();
+
     /**
      * A count of all the documents matching a specific query.
      *
@@ -279,6 +306,27 @@ public interface Client {
      */
     SearchRequestBuilder prepareSearch(String... indices);
 
+    /**
+     * Performs multiple search requests, executed concurrently, in a single round trip.
+     *
+     * @param request The multi search request
+     * @return The result future
+     */
+    ActionFuture<MultiSearchResponse> multiSearch(MultiSearchRequest request);
+
+    /**
+     * Performs multiple search requests, executed concurrently, in a single round trip.
+     *
+     * @param request  The multi search request
+     * @param listener A listener to be notified with a result
+     */
+    void multiSearch(MultiSearchRequest request, ActionListener<MultiSearchResponse> listener);
+
+    /**
+     * Performs multiple search requests, executed concurrently, in a single round trip.
+     */
+    MultiSearchRequestBuilder prepareMultiSearch();
+
     /**
      * A search scroll request to continue searching a previous scrollable search request.
      *
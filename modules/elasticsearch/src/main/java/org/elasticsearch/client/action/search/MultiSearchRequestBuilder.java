@@ -0,0 +1,62 @@
+/*
+ * Licensed to Elastic Search and Shay Banon under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. Elastic Search licenses this
+ * file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package org.elasticsearch.client.action.search;
+
+import org.elasticsearch.action.ActionListener;
+import org.elasticsearch.action.search.MultiSearchRequest;
+import org.elasticsearch.action.search.MultiSearchResponse;
+import org.elasticsearch.action.search.SearchRequest;
+import org.elasticsearch.client.Client;
+import org.elasticsearch.client.action.support.BaseRequestBuilder;
+
+/**
+ * A request builder for multiple search requests.
+ *
+ * @author kimchy (shay.banon)
+ */
+public class MultiSearchRequestBuilder extends BaseRequestBuilder<MultiSearchRequest, MultiSearchResponse> {
+
+    public MultiSearchRequestBuilder(Client client) {
+        super(client, new MultiSearchRequest());
+    }
+
+    /**
+     * Add a search request to execute. Note, the order is important, the search response will be returned in the
+     * same order as the search requests.
+     */
+    public MultiSearchRequestBuilder add(SearchRequest request) {
+        super.request.add(request);
+        return this;
+    }
+
+    /**
+     * Add a search request to execute. Note, the order is important, the search response will be returned in the
+     * same order as the search requests.
+     */
+    public MultiSearchRequestBuilder add(SearchRequestBuilder request) {
+        super.request.add(request.request());
+        return this;
+    }
+
+    @Override protected void doExecute(ActionListener<MultiSearchResponse> listener) {
+        client.multiSearch(request, listener);
+    }
+}
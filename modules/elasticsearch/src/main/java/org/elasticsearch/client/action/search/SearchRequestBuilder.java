@@ -416,6 +416,16 @@ public class SearchRequestBuilder extends BaseRequestBuilder<SearchRequest, Sear
         return sourceBuilder();
     }
 
+    /**
+     * The search request, with the source built so far set on it.
+     */
+    @Override public SearchRequest request() {
+        if (sourceBuilder != null) {
+            request.source(sourceBuilder);
+        }
+        return request;
+    }
+
     @Override protected void doExecute(ActionListener<SearchResponse> listener) {
         request.source(sourceBuilder());
         client.search(request, listener);
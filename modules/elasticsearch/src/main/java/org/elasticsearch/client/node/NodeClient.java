@@ -35,7 +35,10 @@ import org.elasticsearch.action.deletebyquery.DeleteByQueryResponse;
 import org.elasticsearch.action.deletebyquery.TransportDeleteByQueryAction;
 import org.elasticsearch.action.get.GetRequest;
 import org.elasticsearch.action.get.GetResponse;
+import org.elasticsearch.action.get.MultiGetRequest;
+import org.elasticsearch.action.get.MultiGetResponse;
 import org.elasticsearch.action.get.TransportGetAction;
+import org.elasticsearch.action.get.TransportMultiGetAction;
 import org.elasticsearch.action.index.IndexRequest;
 import org.elasticsearch.action.index.IndexResponse;
 import org.elasticsearch.action.index.TransportIndexAction;
@@ -71,10 +74,14 @@ public class NodeClient extends AbstractClient implements InternalClient {
 
     private final TransportGetAction getAction;
 
+    private final TransportMultiGetAction multiGetAction;
+
     private final TransportCountAction countAction;
 
     private final TransportSearchAction searchAction;
 
+    private final TransportMultiSearchAction multiSearchAction;
+
     private final TransportSearchScrollAction searchScrollAction;
 
     private final TransportMoreLikeThisAction moreLikeThisAction;
@@ -83,8 +90,8 @@ public class NodeClient extends AbstractClient implements InternalClient {
 
     @Inject public NodeClient(Settings settings, ThreadPool threadPool, NodeAdminClient admin,
                               TransportIndexAction indexAction, TransportDeleteAction deleteAction, TransportBulkAction bulkAction,
-                              TransportDeleteByQueryAction deleteByQueryAction, TransportGetAction getAction, TransportCountAction countAction,
-                              TransportSearchAction searchAction, TransportSearchScrollAction searchScrollAction,
+                              TransportDeleteByQueryAction deleteByQueryAction, TransportGetAction getAction, TransportMultiGetAction multiGetAction, TransportCountAction countAction,
+                              TransportSearchAction searchAction, TransportMultiSearchAction multiSearchAction, TransportSearchScrollAction searchScrollAction,
                               TransportMoreLikeThisAction moreLikeThisAction, TransportPercolateAction percolateAction) {
         this.threadPool = threadPool;
         this.admin = admin;
@@ -93,8 +100,10 @@ public class NodeClient extends AbstractClient implements InternalClient {
         this.bulkAction = bulkAction;
         this.deleteByQueryAction = deleteByQueryAction;
         this.getAction = getAction;
+        this.multiGetAction = multiGetAction;
         this.countAction = countAction;
         this.searchAction = searchAction;
+        this.multiSearchAction = multiSearchAction;
         this.searchScrollAction = searchScrollAction;
         this.moreLikeThisAction = moreLikeThisAction;
         this.percolateAction = percolateAction;
@@ -152,6 +161,14 @@ public class NodeClient extends AbstractClient implements InternalClient {
         getAction.execute(request, listener);
     }
 
+    @Override public ActionFuture<MultiGetResponse> multiGet(MultiGetRequest request) {
+        return multiGetAction.execute(request);
+    }
+
+    @Override public void multiGet(MultiGetRequest request, ActionListener<MultiGetResponse> listener) {
+        multiGetAction.execute(request, listener);
+    }
+
     @Override public ActionFuture<CountResponse> count(CountRequest request) {
         return countAction.execute(request);
     }
@@ -168,6 +185,14 @@ public class NodeClient extends AbstractClient implements InternalClient {
         searchAction.execute(request, listener);
     }
 
+    @Override public ActionFuture<MultiSearchResponse> multiSearch(MultiSearchRequest request) {
+        return multiSearchAction.execute(request);
+    }
+
+    @Override public void multiSearch(MultiSearchRequest request, ActionListener<MultiSearchResponse> listener) {
+        multiSearchAction.execute(request, listener);
+    }
+
     @Override public ActionFuture<SearchResponse> searchScroll(SearchScrollRequest request) {
         return searchScrollAction.execute(request);
     }
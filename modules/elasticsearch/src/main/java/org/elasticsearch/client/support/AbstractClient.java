@@ -24,8 +24,10 @@ import org.elasticsearch.client.action.count.CountRequestBuilder;
 import org.elasticsearch.client.action.delete.DeleteRequestBuilder;
 import org.elasticsearch.client.action.deletebyquery.DeleteByQueryRequestBuilder;
 import org.elasticsearch.client.action.get.GetRequestBuilder;
+import org.elasticsearch.client.action.get.MultiGetRequestBuilder;
 import org.elasticsearch.client.action.index.IndexRequestBuilder;
 import org.elasticsearch.client.action.percolate.PercolateRequestBuilder;
+import org.elasticsearch.client.action.search.MultiSearchRequestBuilder;
 import org.elasticsearch.client.action.search.SearchRequestBuilder;
 import org.elasticsearch.client.action.search.SearchScrollRequestBuilder;
 import org.elasticsearch.client.internal.InternalClient;
@@ -73,10 +75,18 @@ public abstract class AbstractClient implements InternalClient {
         return prepareGet().setIndex(index).setType(type).setId(id);
     }
 
+    @Override public MultiGetRequestBuilder prepareMultiGet() {
+        return new MultiGetRequestBuilder(this);
+    }
+
     @Override public SearchRequestBuilder prepareSearch(String... indices) {
         return new SearchRequestBuilder(this).setIndices(indices);
     }
 
+    @Override public MultiSearchRequestBuilder prepareMultiSearch() {
+        return new MultiSearchRequestBuilder(this);
+    }
+
     @Override public SearchScrollRequestBuilder prepareSearchScroll(String scrollId) {
         return new SearchScrollRequestBuilder(this, scrollId);
     }
@@ -32,11 +32,15 @@ import org.elasticsearch.action.deletebyquery.DeleteByQueryRequest;
 import org.elasticsearch.action.deletebyquery.DeleteByQueryResponse;
 import org.elasticsearch.action.get.GetRequest;
 import org.elasticsearch.action.get.GetResponse;
+import org.elasticsearch.action.get.MultiGetRequest;
+import org.elasticsearch.action.get.MultiGetResponse;
 import org.elasticsearch.action.index.IndexRequest;
 import org.elasticsearch.action.index.IndexResponse;
 import org.elasticsearch.action.mlt.MoreLikeThisRequest;
 import org.elasticsearch.action.percolate.PercolateRequest;
 import org.elasticsearch.action.percolate.PercolateResponse;
+import org.elasticsearch.action.search.MultiSearchRequest;
+import org.elasticsearch.action.search.MultiSearchResponse;
 import org.elasticsearch.action.search.SearchRequest;
 import org.elasticsearch.action.search.SearchResponse;
 import org.elasticsearch.action.search.SearchScrollRequest;
@@ -284,6 +288,14 @@ public class TransportClient extends AbstractClient {
         internalClient.get(request, listener);
     }
 
+    @Override public ActionFuture<MultiGetResponse> multiGet(MultiGetRequest request) {
+        return internalClient.multiGet(request);
+    }
+
+    @Override public void multiGet(MultiGetRequest request, ActionListener<MultiGetResponse> listener) {
+        internalClient.multiGet(request, listener);
+    }
+
     @Override public ActionFuture<CountResponse> count(CountRequest request) {
         return internalClient.count(request);
     }
@@ -300,6 +312,14 @@ public class TransportClient extends AbstractClient {
         internalClient.search(request, listener);
     }
 
+    @Override public ActionFuture<MultiSearchResponse> multiSearch(MultiSearchRequest request) {
+        return internalClient.multiSearch(request);
+    }
+
+    @Override public void multiSearch(MultiSearchRequest request, ActionListener<MultiSearchResponse> listener) {
+        internalClient.multiSearch(request, listener);
+    }
+
     @Override public ActionFuture<SearchResponse> searchScroll(SearchScrollRequest request) {
         return internalClient.searchScroll(request);
     }
@@ -32,11 +32,15 @@ import org.elasticsearch.action.deletebyquery.DeleteByQueryRequest;
 import org.elasticsearch.action.deletebyquery.DeleteByQueryResponse;
 import org.elasticsearch.action.get.GetRequest;
 import org.elasticsearch.action.get.GetResponse;
+import org.elasticsearch.action.get.MultiGetRequest;
+import org.elasticsearch.action.get.MultiGetResponse;
 import org.elasticsearch.action.index.IndexRequest;
 import org.elasticsearch.action.index.IndexResponse;
 import org.elasticsearch.action.mlt.MoreLikeThisRequest;
 import org.elasticsearch.action.percolate.PercolateRequest;
 import org.elasticsearch.action.percolate.PercolateResponse;
+import org.elasticsearch.action.search.MultiSearchRequest;
+import org.elasticsearch.action.search.MultiSearchResponse;
 import org.elasticsearch.action.search.SearchRequest;
 import org.elasticsearch.action.search.SearchResponse;
 import org.elasticsearch.action.search.SearchScrollRequest;
@@ -49,9 +53,11 @@ import org.elasticsearch.client.transport.action.count.ClientTransportCountActio
 import org.elasticsearch.client.transport.action.delete.ClientTransportDeleteAction;
 import org.elasticsearch.client.transport.action.deletebyquery.ClientTransportDeleteByQueryAction;
 import org.elasticsearch.client.transport.action.get.ClientTransportGetAction;
+import org.elasticsearch.client.transport.action.get.ClientTransportMultiGetAction;
 import org.elasticsearch.client.transport.action.index.ClientTransportIndexAction;
 import org.elasticsearch.client.transport.action.mlt.ClientTransportMoreLikeThisAction;
 import org.elasticsearch.client.transport.action.percolate.ClientTransportPercolateAction;
+import org.elasticsearch.client.transport.action.search.ClientTransportMultiSearchAction;
 import org.elasticsearch.client.transport.action.search.ClientTransportSearchAction;
 import org.elasticsearch.client.transport.action.search.ClientTransportSearchScrollAction;
 import org.elasticsearch.cluster.node.DiscoveryNode;
@@ -78,12 +84,16 @@ public class InternalTransportClient extends AbstractClient implements InternalC
 
     private final ClientTransportGetAction getAction;
 
+    private final ClientTransportMultiGetAction multiGetAction;
+
     private final ClientTransportDeleteByQueryAction deleteByQueryAction;
 
     private final ClientTransportCountAction countAction;
 
     private final ClientTransportSearchAction searchAction;
 
+    private final ClientTransportMultiSearchAction multiSearchAction;
+
     private final ClientTransportSearchScrollAction searchScrollAction;
 
     private final ClientTransportMoreLikeThisAction moreLikeThisAction;
@@ -92,9 +102,9 @@ public class InternalTransportClient extends AbstractClient implements InternalC
 
     @Inject public InternalTransportClient(Settings settings, ThreadPool threadPool,
                                            TransportClientNodesService nodesService, InternalTransportAdminClient adminClient,
-                                           ClientTransportIndexAction indexAction, ClientTransportDeleteAction deleteAction, ClientTransportBulkAction bulkAction, ClientTransportGetAction getAction,
+                                           ClientTransportIndexAction indexAction, ClientTransportDeleteAction deleteAction, ClientTransportBulkAction bulkAction, ClientTransportGetAction getAction, ClientTransportMultiGetAction multiGetAction,
                                            ClientTransportDeleteByQueryAction deleteByQueryAction, ClientTransportCountAction countAction,
-                                           ClientTransportSearchAction searchAction, ClientTransportSearchScrollAction searchScrollAction,
+                                           ClientTransportSearchAction searchAction, ClientTransportMultiSearchAction multiSearchAction, ClientTransportSearchScrollAction searchScrollAction,
                                            ClientTransportMoreLikeThisAction moreLikeThisAction, ClientTransportPercolateAction percolateAction) {
         this.threadPool = threadPool;
         this.nodesService = nodesService;
@@ -104,9 +114,11 @@ public class InternalTransportClient extends AbstractClient implements InternalC
         this.deleteAction = deleteAction;
         this.bulkAction = bulkAction;
         this.getAction = getAction;
+        this.multiGetAction = multiGetAction;
         this.deleteByQueryAction = deleteByQueryAction;
         this.countAction = countAction;
         this.searchAction = searchAction;
+        this.multiSearchAction = multiSearchAction;
         this.searchScrollAction = searchScrollAction;
         this.moreLikeThisAction = moreLikeThisAction;
         this.percolateAction = percolateAction;
@@ -209,6 +221,23 @@ public class InternalTransportClient extends AbstractClient implements InternalC
         });
     }
 
+    @Override public ActionFuture<MultiGetResponse> multiGet(final MultiGetRequest request) {
+        return nodesService.execute(new TransportClientNodesService.NodeCallback<ActionFuture<MultiGetResponse>>() {
+            @Override public ActionFuture<MultiGetResponse> doWithNode(DiscoveryNode node) throws ElasticSearchException {
+                return multiGetAction.execute(node, request);
+            }
+        });
+    }
+
+    @Override public void multiGet(final MultiGetRequest request, final ActionListener<MultiGetResponse> listener) {
+        nodesService.execute(new TransportClientNodesService.NodeCallback<Object>() {
+            @Override public Object doWithNode(DiscoveryNode node) throws ElasticSearchException {
+                multiGetAction.execute(node, request, listener);
+                return null;
+            }
+        });
+    }
+
     @Override public ActionFuture<CountResponse> count(final CountRequest request) {
         return nodesService.execute(new TransportClientNodesService.NodeCallback<ActionFuture<CountResponse>>() {
             @Override public ActionFuture<CountResponse> doWithNode(DiscoveryNode node) throws ElasticSearchException {
@@ -243,6 +272,23 @@ public class InternalTransportClient extends AbstractClient implements InternalC
         });
     }
 
+    @Override public ActionFuture<MultiSearchResponse> multiSearch(final MultiSearchRequest request) {
+        return nodesService.execute(new TransportClientNodesService.NodeCallback<ActionFuture<MultiSearchResponse>>() {
+            @Override public ActionFuture<MultiSearchResponse> doWithNode(DiscoveryNode node) throws ElasticSearchException {
+                return multiSearchAction.execute(node, request);
+            }
+        });
+    }
+
+    @Override public void multiSearch(final MultiSearchRequest request, final ActionListener<MultiSearchResponse> listener) {
+        nodesService.execute(new TransportClientNodesService.NodeCallback<Object>() {
+            @Override public Object doWithNode(DiscoveryNode node) throws ElasticSearchException {
+                multiSearchAction.execute(node, request, listener);
+                return null;
+            }
+        });
+    }
+
     @Override public ActionFuture<SearchResponse> searchScroll(final SearchScrollRequest request) {
         return nodesService.execute(new TransportClientNodesService.NodeCallback<ActionFuture<SearchResponse>>() {
             @Override public ActionFuture<SearchResponse> doWithNode(DiscoveryNode node) throws ElasticSearchException {
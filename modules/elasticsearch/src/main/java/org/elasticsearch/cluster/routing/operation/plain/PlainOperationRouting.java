@@ -24,20 +24,27 @@ import org.elasticsearch.cluster.metadata.IndexMetaData;
 import org.elasticsearch.cluster.routing.GroupShardsIterator;
 import org.elasticsearch.cluster.routing.IndexRoutingTable;
 import org.elasticsearch.cluster.routing.IndexShardRoutingTable;
+import org.elasticsearch.cluster.routing.PlainShardIterator;
 import org.elasticsearch.cluster.routing.ShardIterator;
+import org.elasticsearch.cluster.routing.ShardRouting;
 import org.elasticsearch.cluster.routing.operation.OperationRouting;
 import org.elasticsearch.cluster.routing.operation.hash.HashFunction;
 import org.elasticsearch.common.component.AbstractComponent;
 import org.elasticsearch.common.inject.Inject;
 import org.elasticsearch.common.settings.Settings;
+import org.elasticsearch.common.util.concurrent.jsr166y.ThreadLocalRandom;
 import org.elasticsearch.index.Index;
 import org.elasticsearch.index.IndexShardMissingException;
 import org.elasticsearch.index.shard.ShardId;
 import org.elasticsearch.indices.IndexMissingException;
+import org.elasticsearch.transport.NodeResponseStats;
+import org.elasticsearch.transport.TransportService;
 
 import javax.annotation.Nullable;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashSet;
+import java.util.Random;
 import java.util.regex.Pattern;
 
 /**
@@ -51,10 +58,16 @@ public class PlainOperationRouting extends AbstractComponent implements Operatio
 
     private final boolean useType;
 
-    @Inject public PlainOperationRouting(Settings indexSettings, HashFunction hashFunction) {
+    private final TransportService transportService;
+
+    private final boolean adaptiveReplicaSelection;
+
+    @Inject public PlainOperationRouting(Settings indexSettings, HashFunction hashFunction, @Nullable TransportService transportService) {
         super(indexSettings);
         this.hashFunction = hashFunction;
+        this.transportService = transportService;
         this.useType = indexSettings.getAsBoolean("cluster.routing.operation.use_type", false);
+        this.adaptiveReplicaSelection = indexSettings.getAsBoolean("cluster.routing.operation.adaptive_replica_selection", true);
     }
 
     @Override public ShardIterator indexShards(ClusterState clusterState, String index, String type, String id, @Nullable String routing) throws IndexMissingException, IndexShardMissingException {
@@ -66,7 +79,15 @@ public class PlainOperationRouting extends AbstractComponent implements Operatio
     }
 
     @Override public ShardIterator getShards(ClusterState clusterState, String index, String type, String id, @Nullable String routing) throws IndexMissingException, IndexShardMissingException {
-        return shards(clusterState, index, type, id, routing).shardsRandomIt();
+        return preferredShardsIt(shards(clusterState, index, type, id, routing));
+    }
+
+    @Override public ShardIterator getShards(ClusterState clusterState, String index, int shardId) throws IndexMissingException, IndexShardMissingException {
+        IndexShardRoutingTable indexShard = indexRoutingTable(clusterState, index).shard(shardId);
+        if (indexShard == null) {
+            throw new IndexShardMissingException(new ShardId(index, shardId));
+        }
+        return preferredShardsIt(indexShard);
     }
 
     @Override public GroupShardsIterator broadcastDeleteShards(ClusterState clusterState, String index) throws IndexMissingException {
@@ -119,7 +140,7 @@ public class PlainOperationRouting extends AbstractComponent implements Operatio
                         throw new IndexShardMissingException(new ShardId(index, shardId));
                     }
                     // we might get duplicates, but that's ok, they will override one another
-                    set.add(indexShard.shardsRandomIt());
+                    set.add(preferredShardsIt(indexShard));
                 }
             }
             return new GroupShardsIterator(set);
@@ -129,13 +150,92 @@ public class PlainOperationRouting extends AbstractComponent implements Operatio
             for (String index : indices) {
                 IndexRoutingTable indexRouting = indexRoutingTable(clusterState, index);
                 for (IndexShardRoutingTable indexShard : indexRouting) {
-                    set.add(indexShard.shardsRandomIt());
+                    set.add(preferredShardsIt(indexShard));
                 }
             }
             return new GroupShardsIterator(set);
         }
     }
 
+    /**
+     * Returns the copies of the shard in a random order weighted by the rank of the node they are allocated
+     * on (see {@link NodeResponseStats#rank()}), so the copy expected to respond the fastest is the most likely
+     * to be tried first. The order is not deterministic on purpose: slower copies still get a share of the
+     * requests proportional to their speed, which keeps their statistics up to date (and lets a node that
+     * recovered from a slow period get its traffic back). Copies on nodes we have no response statistics for
+     * yet (including the local node, which is not reached through the transport) are ranked as the average
+     * of the known ones.
+     */
+    protected ShardIterator preferredShardsIt(IndexShardRoutingTable indexShard) {
+        ShardIterator shardsIt = indexShard.shardsRandomIt();
+        if (!adaptiveReplicaSelection || transportService == null || shardsIt.size() < 2) {
+            return shardsIt;
+        }
+        ShardRouting[] shards = new ShardRouting[shardsIt.size()];
+        double[] ranks = new double[shards.length];
+        double knownRanksSum = 0;
+        int knownRanksCount = 0;
+        for (int i = 0; shardsIt.hasNext(); i++) {
+            ShardRouting shard = shardsIt.next();
+            double rank = -1;
+            if (shard.currentNodeId() != null) {
+                NodeResponseStats stats = transportService.nodeResponseStats(shard.currentNodeId());
+                if (stats != null) {
+                    rank = stats.rank();
+                }
+            }
+            if (rank >= 0) {
+                knownRanksSum += rank;
+                knownRanksCount++;
+            }
+            shards[i] = shard;
+            ranks[i] = rank;
+        }
+        if (knownRanksCount == 0) {
+            return shardsIt.reset();
+        }
+        double averageRank = knownRanksSum / knownRanksCount;
+        for (int i = 0; i < ranks.length; i++) {
+            if (ranks[i] < 0) {
+                ranks[i] = averageRank;
+            }
+        }
+        weightedShuffle(shards, ranks, ThreadLocalRandom.current());
+        return new PlainShardIterator(indexShard.shardId(), Arrays.asList(shards));
+    }
+
+    /**
+     * Shuffles the shards in place, each position picking one of the remaining shards with a probability
+     * inversely proportional to its rank (a shard ranked twice as low is picked twice as often).
+     */
+    static void weightedShuffle(ShardRouting[] shards, double[] ranks, Random random) {
+        double[] weights = new double[shards.length];
+        double weightsSum = 0;
+        for (int i = 0; i < shards.length; i++) {
+            // ranks are in nanoseconds, anything below one is as good as one
+            weights[i] = 1 / Math.max(ranks[i], 1);
+            weightsSum += weights[i];
+        }
+        for (int i = 0; i < shards.length - 1; i++) {
+            double target = random.nextDouble() * weightsSum;
+            int picked = shards.length - 1;
+            for (int j = i; j < shards.length; j++) {
+                target -= weights[j];
+                if (target < 0) {
+                    picked = j;
+                    break;
+                }
+            }
+            weightsSum -= weights[picked];
+            ShardRouting shard = shards[picked];
+            shards[picked] = shards[i];
+            shards[i] = shard;
+            double weight = weights[picked];
+            weights[picked] = weights[i];
+            weights[i] = weight;
+        }
+    }
+
     public IndexMetaData indexMetaData(ClusterState clusterState, String index) {
         IndexMetaData indexMetaData = clusterState.metaData().index(index);
         if (indexMetaData == null) {
@@ -0,0 +1,137 @@
+/*
+ * Licensed to Elastic Search and Shay Banon under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. Elastic Search licenses this
+ * file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.elasticsearch.common.bloom;
+
+import org.apache.lucene.util.OpenBitSet;
+import org.elasticsearch.common.RamUsage;
+
+/**
+ * A simple bloom filter over strings, allowing to check if a value might have been added to it (with
+ * a configurable false positive probability), or has definitely not been added to it.
+ *
+ * @author kimchy (shay.banon)
+ */
+public class BloomFilter {
+
+    private static final long M = 0xc6a4a7935bd1e995L;
+
+    private static final int R = 47;
+
+    /**
+     * A filter that might contain any value, used when there is no filter (yet) to check against.
+     */
+    public static final BloomFilter NONE = new BloomFilter(64, 0);
+
+    /**
+     * Creates a bloom filter sized for the expected number of insertions with the given false positive probability.
+     */
+    public static BloomFilter create(int expectedInsertions, double falsePositiveProbability) {
+        return create(expectedInsertions, falsePositiveProbability, Integer.MAX_VALUE / 8);
+    }
+
+    /**
+     * Creates a bloom filter sized for the expected number of insertions with the given false positive probability,
+     * taking at most <tt>maxSizeInBytes</tt>. If the size is capped, the actual false positive probability is higher.
+     */
+    public static BloomFilter create(int expectedInsertions, double falsePositiveProbability, long maxSizeInBytes) {
+        if (expectedInsertions <= 0) {
+            expectedInsertions = 1;
+        }
+        long numBits = (long) (-expectedInsertions * Math.log(falsePositiveProbability) / (Math.log(2) * Math.log(2)));
+        long maxNumBits = Math.min(maxSizeInBytes * 8, Integer.MAX_VALUE);
+        if (numBits > maxNumBits) {
+            numBits = maxNumBits;
+        }
+        if (numBits < 64) {
+            numBits = 64;
+        }
+        int numHashFunctions = Math.max(1, (int) Math.round(((double) numBits) / expectedInsertions * Math.log(2)));
+        return new BloomFilter((int) numBits, numHashFunctions);
+    }
+
+    private final OpenBitSet bits;
+
+    private final int numBits;
+
+    private final int numHashFunctions;
+
+    BloomFilter(int numBits, int numHashFunctions) {
+        this.bits = new OpenBitSet(numBits);
+        this.numBits = numBits;
+        this.numHashFunctions = numHashFunctions;
+    }
+
+    public void put(String value) {
+        long hash = hash(value);
+        int hash1 = (int) hash;
+        int hash2 = (int) (hash >>> 32);
+        for (int i = 1; i <= numHashFunctions; i++) {
+            int combinedHash = hash1 + (i * hash2);
+            if (combinedHash < 0) {
+                combinedHash = ~combinedHash;
+            }
+            bits.fastSet(combinedHash % numBits);
+        }
+    }
+
+    /**
+     * Returns <tt>false</tt> if the value was definitely not added to the filter, <tt>true</tt> if it might have been.
+     */
+    public boolean mightContain(String value) {
+        long hash = hash(value);
+        int hash1 = (int) hash;
+        int hash2 = (int) (hash >>> 32);
+        for (int i = 1; i <= numHashFunctions; i++) {
+            int combinedHash = hash1 + (i * hash2);
+            if (combinedHash < 0) {
+                combinedHash = ~combinedHash;
+            }
+            if (!bits.fastGet(combinedHash % numBits)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public long sizeInBytes() {
+        if (this == NONE) {
+            return 0;
+        }
+        return bits.getBits().length * RamUsage.NUM_BYTES_LONG + RamUsage.NUM_BYTES_ARRAY_HEADER;
+    }
+
+    // murmur hash (64A) variant working on the chars of the string
+    static long hash(String value) {
+        int length = value.length();
+        long h = 0x9747b28cL ^ (length * M);
+        for (int i = 0; i < length; i++) {
+            long k = value.charAt(i);
+            k *= M;
+            k ^= k >>> R;
+            k *= M;
+            h ^= k;
+            h *= M;
+        }
+        h ^= h >>> R;
+        h *= M;
+        h ^= h >>> R;
+        return h;
+    }
+}
@@ -26,9 +26,16 @@ import org.apache.lucene.index.IndexWriter;
 import org.apache.lucene.index.Term;
 import org.apache.lucene.index.TermDocs;
 import org.apache.lucene.search.*;
+import org.apache.lucene.util.OpenBitSet;
+import org.apache.lucene.util.ReaderUtil;
 import org.apache.lucene.util.Version;
 import org.elasticsearch.common.io.stream.StreamInput;
 import org.elasticsearch.common.io.stream.StreamOutput;
+import org.elasticsearch.common.lucene.docset.AllDocSet;
+import org.elasticsearch.common.lucene.docset.OpenBitDocSet;
+import org.elasticsearch.common.lucene.docset.RunLengthDocSet;
+import org.elasticsearch.common.lucene.docset.SortedIntDocSet;
+import org.elasticsearch.common.lucene.search.MatchAllDocsFilter;
 import org.elasticsearch.common.trove.TIntArrayList;
 import org.elasticsearch.index.analysis.AnalyzerScope;
 import org.elasticsearch.index.analysis.NamedAnalyzer;
@@ -36,6 +43,7 @@ import org.elasticsearch.index.analysis.NamedAnalyzer;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 
@@ -53,12 +61,124 @@ public class Lucene {
 
     public static final int NO_DOC = -1;
 
+    public static final ScoreDoc[] EMPTY_SCORE_DOCS = new ScoreDoc[0];
+
     public static long count(IndexSearcher searcher, Query query, float minScore) throws IOException {
         CountCollector countCollector = new CountCollector(minScore);
         searcher.search(query, countCollector);
         return countCollector.count();
     }
 
+    /**
+     * Counts the docs matching the query without scoring them. A match all query is counted using the number of
+     * docs of the reader. Filters (constant score and filtered queries) are counted using the cardinality of their
+     * doc sets when possible (a single cached doc set on a segment with no deletions), otherwise by iterating over the
+     * matching docs.
+     */
+    public static long count(IndexSearcher searcher, Query query) throws IOException {
+        List<Filter> filters = new ArrayList<Filter>();
+        query = searcher.rewrite(query);
+        while (query instanceof FilteredQuery) {
+            filters.add(((FilteredQuery) query).getFilter());
+            query = ((FilteredQuery) query).getQuery();
+        }
+        if (query instanceof DeletionAwareConstantScoreQuery) {
+            filters.add(((DeletionAwareConstantScoreQuery) query).getFilter());
+            query = null;
+        } else if (query instanceof ConstantScoreQuery) {
+            filters.add(((ConstantScoreQuery) query).getFilter());
+            query = null;
+        } else if (query instanceof MatchAllDocsQuery) {
+            query = null;
+        }
+        for (Iterator<Filter> it = filters.iterator(); it.hasNext();) {
+            if (it.next() instanceof MatchAllDocsFilter) {
+                it.remove();
+            }
+        }
+        if (query == null && filters.isEmpty()) {
+            return searcher.getIndexReader().numDocs();
+        }
+
+        Weight weight = query == null ? null : query.weight(searcher);
+        List<IndexReader> subReaders = new ArrayList<IndexReader>();
+        ReaderUtil.gatherSubReaders(subReaders, searcher.getIndexReader());
+        long count = 0;
+        for (IndexReader reader : subReaders) {
+            count += count(reader, weight, filters);
+        }
+        return count;
+    }
+
+    private static long count(IndexReader reader, Weight weight, List<Filter> filters) throws IOException {
+        DocIdSetIterator[] iterators = new DocIdSetIterator[filters.size() + (weight == null ? 0 : 1)];
+        int index = 0;
+        if (weight != null) {
+            Scorer scorer = weight.scorer(reader, true, false);
+            if (scorer == null) {
+                return 0;
+            }
+            iterators[index++] = scorer;
+        }
+        for (Filter filter : filters) {
+            DocIdSet docIdSet = filter.getDocIdSet(reader);
+            if (docIdSet == null) {
+                return 0;
+            }
+            // cached doc sets might still include docs deleted since they were loaded
+            if (iterators.length == 1 && !reader.hasDeletions()) {
+                if (docIdSet instanceof OpenBitDocSet) {
+                    return ((OpenBitDocSet) docIdSet).set().cardinality();
+                }
+                if (docIdSet instanceof OpenBitSet) {
+                    return ((OpenBitSet) docIdSet).cardinality();
+                }
+                if (docIdSet instanceof SortedIntDocSet) {
+                    return ((SortedIntDocSet) docIdSet).cardinality();
+                }
+                if (docIdSet instanceof RunLengthDocSet) {
+                    return ((RunLengthDocSet) docIdSet).cardinality();
+                }
+                if (docIdSet instanceof AllDocSet) {
+                    return reader.maxDoc();
+                }
+            }
+            DocIdSetIterator iterator = docIdSet.iterator();
+            if (iterator == null) {
+                return 0;
+            }
+            iterators[index++] = iterator;
+        }
+
+        // scorers already skip deleted docs
+        boolean checkDeletions = weight == null && reader.hasDeletions();
+        long count = 0;
+        DocIdSetIterator lead = iterators[0];
+        int doc = lead.nextDoc();
+        while (doc != DocIdSetIterator.NO_MORE_DOCS) {
+            int next = doc;
+            for (int i = 1; i < iterators.length; i++) {
+                int other = iterators[i].docID();
+                if (other < doc) {
+                    other = iterators[i].advance(doc);
+                }
+                if (other > doc) {
+                    next = other;
+                    break;
+                }
+            }
+            if (next == doc) {
+                if (!checkDeletions || !reader.isDeleted(doc)) {
+                    count++;
+                }
+                doc = lead.nextDoc();
+            } else {
+                doc = lead.advance(next);
+            }
+        }
+        return count;
+    }
+
     public static int docId(IndexReader reader, Term term) throws IOException {
         TermDocs termDocs = reader.termDocs(term);
         try {
@@ -37,6 +37,10 @@ public class AllDocSet extends DocSet {
         this.maxDoc = maxDoc;
     }
 
+    public int maxDoc() {
+        return maxDoc;
+    }
+
     @Override public boolean isCacheable() {
         return true;
     }
@@ -0,0 +1,113 @@
+/*
+ * Licensed to Elastic Search and Shay Banon under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. Elastic Search licenses this
+ * file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package org.elasticsearch.common.lucene.docset;
+
+import org.apache.lucene.search.DocIdSet;
+import org.apache.lucene.search.DocIdSetIterator;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Intersects sets by leapfrogging their iterators, the first iterated set leads, so it should be the most
+ * selective one (see {@link DocSets#sortByCost(java.util.List, int)}). Sets that only provide random access
+ * ({@link GetDocSet}, usually backed by field data) are not iterated, but checked on docs matching all other sets.
+ *
+ * @author kimchy (shay.banon)
+ */
+class AndDocIdSetIterator extends DocIdSetIterator {
+
+    private final DocIdSetIterator[] iterators;
+
+    private final DocSet[] getSets;
+
+    private int lastReturn = -1;
+
+    AndDocIdSetIterator(List<? extends DocIdSet> sets) throws IOException {
+        List<DocIdSetIterator> iterators = new ArrayList<DocIdSetIterator>(sets.size());
+        List<DocSet> getSets = new ArrayList<DocSet>();
+        for (DocIdSet set : sets) {
+            if (set instanceof GetDocSet) {
+                getSets.add((DocSet) set);
+                continue;
+            }
+            DocIdSetIterator it = (set == null) ? null : set.iterator();
+            if (it == null) {
+                // no docs match this set, so none match the intersection
+                lastReturn = NO_MORE_DOCS;
+                continue;
+            }
+            iterators.add(it);
+        }
+        if (iterators.isEmpty() && !getSets.isEmpty()) {
+            iterators.add(getSets.remove(0).iterator());
+        }
+        if (iterators.isEmpty()) {
+            lastReturn = NO_MORE_DOCS;
+        }
+        this.iterators = iterators.toArray(new DocIdSetIterator[iterators.size()]);
+        this.getSets = getSets.toArray(new DocSet[getSets.size()]);
+    }
+
+    @Override public int docID() {
+        return lastReturn;
+    }
+
+    @Override public int nextDoc() throws IOException {
+        if (lastReturn == NO_MORE_DOCS) {
+            return NO_MORE_DOCS;
+        }
+        return lastReturn = doNext(iterators[0].nextDoc());
+    }
+
+    @Override public int advance(int target) throws IOException {
+        if (lastReturn == NO_MORE_DOCS) {
+            return NO_MORE_DOCS;
+        }
+        return lastReturn = doNext(iterators[0].advance(target));
+    }
+
+    private int doNext(int target) throws IOException {
+        next:
+        while (target != NO_MORE_DOCS) {
+            for (int i = 1; i < iterators.length; i++) {
+                int doc = iterators[i].docID();
+                if (doc < target) {
+                    doc = iterators[i].advance(target);
+                }
+                if (doc > target) {
+                    // the lead can skip all docs up to the one this set is on
+                    target = iterators[0].advance(doc);
+                    continue next;
+                }
+            }
+            for (DocSet set : getSets) {
+                if (!set.get(target)) {
+                    target = iterators[0].nextDoc();
+                    continue next;
+                }
+            }
+            return target;
+        }
+        return NO_MORE_DOCS;
+    }
+}
@@ -19,10 +19,10 @@
 
 package org.elasticsearch.common.lucene.docset;
 
-import org.apache.lucene.search.DocIdSet;
 import org.apache.lucene.search.DocIdSetIterator;
 
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.List;
 
 /**
@@ -32,12 +32,18 @@ public class AndDocSet extends DocSet {
 
     private final List<DocSet> sets;
 
+    private final List<DocSet> getSets;
+
     public AndDocSet(List<DocSet> sets) {
         this.sets = sets;
+        this.getSets = new ArrayList<DocSet>(sets.size());
+        for (DocSet set : sets) {
+            getSets.add(DocSets.getView(set));
+        }
     }
 
     @Override public boolean get(int doc) throws IOException {
-        for (DocSet s : sets) {
+        for (DocSet s : getSets) {
             if (!s.get(doc)) return false;
         }
         return true;
@@ -64,87 +70,6 @@ public class AndDocSet extends DocSet {
     }
 
     @Override public DocIdSetIterator iterator() throws IOException {
-        return new AndDocIdSetIterator();
-    }
-
-    class AndDocIdSetIterator extends DocIdSetIterator {
-        int lastReturn = -1;
-        private DocIdSetIterator[] iterators = null;
-
-        AndDocIdSetIterator() throws IOException {
-            iterators = new DocIdSetIterator[sets.size()];
-            int j = 0;
-            for (DocIdSet set : sets) {
-                if (set != null) {
-                    DocIdSetIterator dcit = set.iterator();
-                    iterators[j++] = dcit;
-                }
-            }
-            lastReturn = (iterators.length > 0 ? -1 : DocIdSetIterator.NO_MORE_DOCS);
-        }
-
-        @Override
-        public final int docID() {
-            return lastReturn;
-        }
-
-        @Override
-        public final int nextDoc() throws IOException {
-
-            if (lastReturn == DocIdSetIterator.NO_MORE_DOCS) return DocIdSetIterator.NO_MORE_DOCS;
-
-            DocIdSetIterator dcit = iterators[0];
-            int target = dcit.nextDoc();
-            int size = iterators.length;
-            int skip = 0;
-            int i = 1;
-            while (i < size) {
-                if (i != skip) {
-                    dcit = iterators[i];
-                    int docid = dcit.advance(target);
-                    if (docid > target) {
-                        target = docid;
-                        if (i != 0) {
-                            skip = i;
-                            i = 0;
-                            continue;
-                        } else
-                            skip = 0;
-                    }
-                }
-                i++;
-            }
-            return (lastReturn = target);
-        }
-
-        @Override
-        public final int advance(int target) throws IOException {
-
-            if (lastReturn == DocIdSetIterator.NO_MORE_DOCS) return DocIdSetIterator.NO_MORE_DOCS;
-
-            DocIdSetIterator dcit = iterators[0];
-            target = dcit.advance(target);
-            int size = iterators.length;
-            int skip = 0;
-            int i = 1;
-            while (i < size) {
-                if (i != skip) {
-                    dcit = iterators[i];
-                    int docid = dcit.advance(target);
-                    if (docid > target) {
-                        target = docid;
-                        if (i != 0) {
-                            skip = i;
-                            i = 0;
-                            continue;
-                        } else {
-                            skip = 0;
-                        }
-                    }
-                }
-                i++;
-            }
-            return (lastReturn = target);
-        }
+        return new AndDocIdSetIterator(sets);
     }
 }
@@ -23,8 +23,10 @@ import org.apache.lucene.index.IndexReader;
 import org.apache.lucene.search.DocIdSet;
 import org.apache.lucene.search.DocIdSetIterator;
 import org.apache.lucene.util.OpenBitSet;
+import org.apache.lucene.util.OpenBitSetDISI;
 
 import java.io.IOException;
+import java.util.List;
 
 /**
  * @author kimchy (Shay Banon)
@@ -48,21 +50,227 @@ public class DocSets {
     }
 
     /**
-     * Returns a cacheable version of the doc id set (might be the same instance provided as a parameter).
+     * Returns a cacheable version of the doc id set (might be the same instance provided as a parameter). Bit sets
+     * are converted to the representation taking the least memory, see {@link #compact(org.apache.lucene.util.OpenBitSet, int)}.
      */
     public static DocSet cacheable(IndexReader reader, DocIdSet docIdSet) throws IOException {
         if (docIdSet == null) {
             return DocSet.EMPTY_DOC_SET;
+        } else if (docIdSet instanceof OpenBitDocSet) {
+            return compact(((OpenBitDocSet) docIdSet).set(), reader.maxDoc());
         } else if (docIdSet.isCacheable() && (docIdSet instanceof DocSet)) {
             return (DocSet) docIdSet;
         } else if (docIdSet instanceof OpenBitSet) {
-            return new OpenBitDocSet((OpenBitSet) docIdSet);
+            return compact((OpenBitSet) docIdSet, reader.maxDoc());
         } else {
             final DocIdSetIterator it = docIdSet.iterator();
             // null is allowed to be returned by iterator(),
             // in this case we wrap with the empty set,
             // which is cacheable.
-            return (it == null) ? DocSet.EMPTY_DOC_SET : new OpenBitDocSet(it, reader.maxDoc());
+            return (it == null) ? DocSet.EMPTY_DOC_SET : compact(new OpenBitSetDISI(it, reader.maxDoc()), reader.maxDoc());
+        }
+    }
+
+    /**
+     * Returns the doc set representation of the bit set taking the least memory: {@link DocSet#EMPTY_DOC_SET} and
+     * {@link AllDocSet} when no doc or all docs match, otherwise the smallest of {@link SortedIntDocSet} (sparse sets),
+     * {@link RunLengthDocSet} (sets clustered into few runs) and {@link OpenBitDocSet} (dense sets).
+     */
+    public static DocSet compact(OpenBitSet set, int maxDoc) {
+        long cardinality = set.cardinality();
+        if (cardinality == 0) {
+            return DocSet.EMPTY_DOC_SET;
+        }
+        if (cardinality == maxDoc) {
+            return new AllDocSet(maxDoc);
+        }
+        long bitSetSize = set.getBits().length * 8;
+        long sortedIntSize = cardinality * 4;
+        // count the runs, as long as it might end up as the smallest representation
+        long maxRuns = Math.min(bitSetSize, sortedIntSize) / 8;
+        int runs = 0;
+        int previous = -2;
+        for (int doc = set.nextSetBit(0); doc != -1 && runs <= maxRuns; doc = set.nextSetBit(doc + 1)) {
+            if (doc != previous + 1) {
+                runs++;
+            }
+            previous = doc;
+        }
+        if (runs <= maxRuns) {
+            int[] starts = new int[runs];
+            int[] ends = new int[runs];
+            int run = -1;
+            previous = -2;
+            for (int doc = set.nextSetBit(0); doc != -1; doc = set.nextSetBit(doc + 1)) {
+                if (doc != previous + 1) {
+                    starts[++run] = doc;
+                }
+                ends[run] = doc + 1;
+                previous = doc;
+            }
+            return new RunLengthDocSet(starts, ends);
+        }
+        if (sortedIntSize < bitSetSize) {
+            int[] docs = new int[(int) cardinality];
+            int index = 0;
+            for (int doc = set.nextSetBit(0); doc != -1; doc = set.nextSetBit(doc + 1)) {
+                docs[index++] = doc;
+            }
+            return new SortedIntDocSet(docs);
+        }
+        return new OpenBitDocSet(set);
+    }
+
+    /**
+     * Returns the set to check docs against one by one using {@link DocSet#get(int)}, by a single consumer. The
+     * sorted int and run length sets binary search each doc, and are replaced with their views that move forward
+     * from the last checked doc, see {@link SortedIntDocSet#getView()} and {@link RunLengthDocSet#getView()}.
+     */
+    public static DocSet getView(DocSet set) {
+        if (set instanceof SortedIntDocSet) {
+            return ((SortedIntDocSet) set).getView();
+        } else if (set instanceof RunLengthDocSet) {
+            return ((RunLengthDocSet) set).getView();
+        }
+        return set;
+    }
+
+    /**
+     * Returns an estimate of the number of docs iterating the set visits, used to lead intersections with the most
+     * selective set. Sets that only provide random access (such as the field data based {@link GetDocSet}) check
+     * every doc when iterated, and, like sets with an unknown cardinality, are estimated to match all docs.
+     */
+    public static long cost(DocIdSet set, int maxDoc) {
+        if (set == null || set == DocSet.EMPTY_DOC_SET) {
+            return 0;
+        } else if (set instanceof SortedIntDocSet) {
+            return ((SortedIntDocSet) set).cardinality();
+        } else if (set instanceof RunLengthDocSet) {
+            return ((RunLengthDocSet) set).cardinality();
+        } else if (set instanceof OpenBitDocSet) {
+            return ((OpenBitDocSet) set).set().cardinality();
+        } else if (set instanceof OpenBitSet) {
+            return ((OpenBitSet) set).cardinality();
+        }
+        return maxDoc;
+    }
+
+    /**
+     * Sorts the sets by their {@link #cost(org.apache.lucene.search.DocIdSet, int)}, cheapest first. Sets with the
+     * same cost keep their relative order.
+     */
+    public static <T extends DocIdSet> void sortByCost(List<T> sets, int maxDoc) {
+        int size = sets.size();
+        if (size < 2) {
+            return;
+        }
+        // compute each cost once (bit sets count their bits), there are only a few sets, so insertion sort will do
+        long[] costs = new long[size];
+        for (int i = 0; i < size; i++) {
+            costs[i] = cost(sets.get(i), maxDoc);
+        }
+        for (int i = 1; i < size; i++) {
+            long cost = costs[i];
+            T set = sets.get(i);
+            int j = i - 1;
+            while (j >= 0 && costs[j] > cost) {
+                costs[j + 1] = costs[j];
+                sets.set(j + 1, sets.get(j));
+                j--;
+            }
+            costs[j + 1] = cost;
+            sets.set(j + 1, set);
+        }
+    }
+
+    /**
+     * Adds the docs of the set to the bit set.
+     */
+    public static void or(OpenBitSetDISI into, DocIdSet set) throws IOException {
+        if (set instanceof OpenBitDocSet) {
+            into.or(((OpenBitDocSet) set).set());
+        } else if (set instanceof OpenBitSet) {
+            into.or((OpenBitSet) set);
+        } else if (set instanceof SortedIntDocSet) {
+            for (int doc : ((SortedIntDocSet) set).docs()) {
+                into.fastSet(doc);
+            }
+        } else if (set instanceof RunLengthDocSet) {
+            RunLengthDocSet runs = (RunLengthDocSet) set;
+            for (int i = 0; i < runs.runs(); i++) {
+                into.set(runs.start(i), runs.end(i));
+            }
+        } else if (set instanceof AllDocSet) {
+            into.set(0, ((AllDocSet) set).maxDoc());
+        } else if (set != null && set != DocSet.EMPTY_DOC_SET) {
+            DocIdSetIterator it = set.iterator();
+            if (it != null) {
+                into.inPlaceOr(it);
+            }
+        }
+    }
+
+    /**
+     * Keeps in the bit set only the docs that are also in the set.
+     */
+    public static void and(OpenBitSetDISI into, DocIdSet set) throws IOException {
+        if (set instanceof OpenBitDocSet) {
+            into.and(((OpenBitDocSet) set).set());
+        } else if (set instanceof OpenBitSet) {
+            into.and((OpenBitSet) set);
+        } else if (set instanceof SortedIntDocSet) {
+            long previous = 0;
+            for (int doc : ((SortedIntDocSet) set).docs()) {
+                into.clear(previous, doc);
+                previous = doc + 1;
+            }
+            into.clear(previous, into.size());
+        } else if (set instanceof RunLengthDocSet) {
+            RunLengthDocSet runs = (RunLengthDocSet) set;
+            long previous = 0;
+            for (int i = 0; i < runs.runs(); i++) {
+                into.clear(previous, runs.start(i));
+                previous = runs.end(i);
+            }
+            into.clear(previous, into.size());
+        } else if (set instanceof AllDocSet) {
+            // all docs match, nothing to remove
+        } else if (set == null || set == DocSet.EMPTY_DOC_SET) {
+            into.clear(0, into.size());
+        } else {
+            DocIdSetIterator it = set.iterator();
+            if (it == null) {
+                into.clear(0, into.size());
+            } else {
+                into.inPlaceAnd(it);
+            }
+        }
+    }
+
+    /**
+     * Removes the docs of the set from the bit set.
+     */
+    public static void andNot(OpenBitSetDISI into, DocIdSet set) throws IOException {
+        if (set instanceof OpenBitDocSet) {
+            into.andNot(((OpenBitDocSet) set).set());
+        } else if (set instanceof OpenBitSet) {
+            into.andNot((OpenBitSet) set);
+        } else if (set instanceof SortedIntDocSet) {
+            for (int doc : ((SortedIntDocSet) set).docs()) {
+                into.fastClear(doc);
+            }
+        } else if (set instanceof RunLengthDocSet) {
+            RunLengthDocSet runs = (RunLengthDocSet) set;
+            for (int i = 0; i < runs.runs(); i++) {
+                into.clear(runs.start(i), runs.end(i));
+            }
+        } else if (set instanceof AllDocSet) {
+            into.clear(0, into.size());
+        } else if (set != null && set != DocSet.EMPTY_DOC_SET) {
+            DocIdSetIterator it = set.iterator();
+            if (it != null) {
+                into.inPlaceNot(it);
+            }
         }
     }
 
@@ -34,6 +34,10 @@ public abstract class GetDocSet extends DocSet {
         this.maxDoc = maxDoc;
     }
 
+    public int maxDoc() {
+        return maxDoc;
+    }
+
     @Override public long sizeInBytes() {
         return 0;
     }
@@ -19,6 +19,8 @@
 
 package org.elasticsearch.common.lucene.docset;
 
+import org.apache.lucene.search.DocIdSetIterator;
+
 import java.io.IOException;
 
 /**
@@ -28,9 +30,12 @@ public class NotDocSet extends GetDocSet {
 
     private final DocSet set;
 
+    private final DocSet getSet;
+
     public NotDocSet(DocSet set, int max) {
         super(max);
         this.set = set;
+        this.getSet = DocSets.getView(set);
     }
 
     @Override public boolean isCacheable() {
@@ -41,13 +46,57 @@ public class NotDocSet extends GetDocSet {
     }
 
     @Override public boolean get(int doc) throws IOException {
-        return !set.get(doc);
+        return !getSet.get(doc);
     }
 
     @Override public long sizeInBytes() {
         return set.sizeInBytes();
     }
 
+    @Override public DocIdSetIterator iterator() throws IOException {
+        if (set instanceof SortedIntDocSet || set instanceof RunLengthDocSet) {
+            // checking each doc against these sets requires a binary search, skip over their docs instead
+            return new SkippingNotDocIdSetIterator(set.iterator());
+        }
+        return super.iterator();
+    }
+
+    class SkippingNotDocIdSetIterator extends DocIdSetIterator {
+
+        private final DocIdSetIterator it;
+
+        private int excluded = -1;
+
+        private int doc = -1;
+
+        SkippingNotDocIdSetIterator(DocIdSetIterator it) {
+            this.it = it;
+        }
+
+        @Override public int docID() {
+            return doc;
+        }
+
+        @Override public int nextDoc() throws IOException {
+            return advance(doc + 1);
+        }
+
+        @Override public int advance(int target) throws IOException {
+            if (doc == NO_MORE_DOCS) {
+                return doc;
+            }
+            for (doc = target; doc < maxDoc(); doc++) {
+                if (excluded < doc) {
+                    excluded = it.advance(doc);
+                }
+                if (excluded != doc) {
+                    return doc;
+                }
+            }
+            return doc = NO_MORE_DOCS;
+        }
+    }
+
     // This seems like overhead compared to testing with get and iterating over docs
 //    @Override public DocIdSetIterator iterator() throws IOException {
 //        return new NotDocIdSetIterator();
@@ -23,6 +23,7 @@ import org.apache.lucene.search.DocIdSet;
 import org.apache.lucene.search.DocIdSetIterator;
 
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.List;
 
 /**
@@ -32,12 +33,18 @@ public class OrDocSet extends DocSet {
 
     private final List<DocSet> sets;
 
+    private final List<DocSet> getSets;
+
     public OrDocSet(List<DocSet> sets) {
         this.sets = sets;
+        this.getSets = new ArrayList<DocSet>(sets.size());
+        for (DocSet set : sets) {
+            getSets.add(DocSets.getView(set));
+        }
     }
 
     @Override public boolean get(int doc) throws IOException {
-        for (DocSet s : sets) {
+        for (DocSet s : getSets) {
             if (s.get(doc)) return true;
         }
         return false;
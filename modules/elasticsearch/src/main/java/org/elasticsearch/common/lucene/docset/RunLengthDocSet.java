@@ -0,0 +1,170 @@
+/*
+ * Licensed to Elastic Search and Shay Banon under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. Elastic Search licenses this
+ * file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package org.elasticsearch.common.lucene.docset;
+
+import org.apache.lucene.search.DocIdSetIterator;
+import org.elasticsearch.common.RamUsage;
+
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * A doc set holding runs of consecutive matching docs (each run start, and its exclusive end), taking less
+ * memory than a bit set or the sorted doc ids for sets clustered into few runs, for example, a type filter
+ * on an index where each type was indexed in bulk.
+ *
+ * <p>Iterating it is cheaper than iterating a bit set, but {@link #get(int)} is a binary search over the runs
+ * instead of a single bit lookup. Consumers checking docs one by one (collectors) should use {@link #getView()}.
+ *
+ * @author kimchy (shay.banon)
+ */
+public class RunLengthDocSet extends DocSet {
+
+    private final int[] starts;
+
+    private final int[] ends;
+
+    /**
+     * @param starts the (sorted) first doc of each run
+     * @param ends   the (exclusive) end doc of each run
+     */
+    public RunLengthDocSet(int[] starts, int[] ends) {
+        this.starts = starts;
+        this.ends = ends;
+    }
+
+    public int runs() {
+        return starts.length;
+    }
+
+    public int start(int run) {
+        return starts[run];
+    }
+
+    public int end(int run) {
+        return ends[run];
+    }
+
+    public long cardinality() {
+        long cardinality = 0;
+        for (int i = 0; i < starts.length; i++) {
+            cardinality += ends[i] - starts[i];
+        }
+        return cardinality;
+    }
+
+    @Override public boolean isCacheable() {
+        return true;
+    }
+
+    @Override public boolean get(int doc) throws IOException {
+        int run = Arrays.binarySearch(starts, doc);
+        if (run >= 0) {
+            return true;
+        }
+        run = -run - 2;
+        return run >= 0 && doc < ends[run];
+    }
+
+    /**
+     * Returns a view of the set whose {@link #get(int)} gallops forward from the run of the last checked doc, so
+     * checking docs in increasing order costs about the same as iterating the set. Docs checked out of order fall
+     * back to a binary search. The view holds a position, and should only be used by a single consumer.
+     */
+    public DocSet getView() {
+        return new GetView();
+    }
+
+    @Override public long sizeInBytes() {
+        return 2 * (starts.length * RamUsage.NUM_BYTES_INT + RamUsage.NUM_BYTES_ARRAY_HEADER);
+    }
+
+    @Override public DocIdSetIterator iterator() throws IOException {
+        return new RunLengthDocIdSetIterator();
+    }
+
+    class RunLengthDocIdSetIterator extends DocIdSetIterator {
+
+        private int run = 0;
+
+        private int doc = -1;
+
+        @Override public int docID() {
+            return doc;
+        }
+
+        @Override public int nextDoc() throws IOException {
+            if (doc == NO_MORE_DOCS) {
+                return doc;
+            }
+            if (doc == -1) {
+                return doc = starts.length == 0 ? NO_MORE_DOCS : starts[0];
+            }
+            if (++doc < ends[run]) {
+                return doc;
+            }
+            if (++run < starts.length) {
+                return doc = starts[run];
+            }
+            return doc = NO_MORE_DOCS;
+        }
+
+        @Override public int advance(int target) throws IOException {
+            if (doc == NO_MORE_DOCS) {
+                return doc;
+            }
+            while (run < starts.length && ends[run] <= target) {
+                run++;
+            }
+            if (run == starts.length) {
+                return doc = NO_MORE_DOCS;
+            }
+            return doc = Math.max(target, starts[run]);
+        }
+    }
+
+    class GetView extends DocSet {
+
+        // all the runs before it end before (or at) the last checked doc
+        private int run = 0;
+
+        @Override public boolean get(int doc) throws IOException {
+            if (run > 0 && ends[run - 1] > doc) {
+                // checked out of order
+                return RunLengthDocSet.this.get(doc);
+            }
+            run = SortedIntDocSet.gallop(ends, run, doc + 1);
+            return run < starts.length && starts[run] <= doc;
+        }
+
+        @Override public boolean isCacheable() {
+            return false;
+        }
+
+        @Override public long sizeInBytes() {
+            return RunLengthDocSet.this.sizeInBytes();
+        }
+
+        @Override public DocIdSetIterator iterator() throws IOException {
+            return RunLengthDocSet.this.iterator();
+        }
+    }
+}
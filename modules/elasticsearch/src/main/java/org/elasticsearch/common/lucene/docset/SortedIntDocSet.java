@@ -0,0 +1,155 @@
+/*
+ * Licensed to Elastic Search and Shay Banon under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. Elastic Search licenses this
+ * file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package org.elasticsearch.common.lucene.docset;
+
+import org.apache.lucene.search.DocIdSetIterator;
+import org.elasticsearch.common.RamUsage;
+
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * A doc set holding the sorted matching doc ids, taking less memory than a bit set for sparse sets (less than
+ * one matching doc out of 32).
+ *
+ * <p>Iterating it is as fast as iterating a bit set, but {@link #get(int)} is a binary search over the docs
+ * instead of a single bit lookup. Consumers checking docs one by one (collectors) should use {@link #getView()}.
+ *
+ * @author kimchy (shay.banon)
+ */
+public class SortedIntDocSet extends DocSet {
+
+    private final int[] docs;
+
+    public SortedIntDocSet(int[] docs) {
+        this.docs = docs;
+    }
+
+    public int[] docs() {
+        return docs;
+    }
+
+    public int cardinality() {
+        return docs.length;
+    }
+
+    @Override public boolean isCacheable() {
+        return true;
+    }
+
+    @Override public boolean get(int doc) throws IOException {
+        return Arrays.binarySearch(docs, doc) >= 0;
+    }
+
+    /**
+     * Returns a view of the set whose {@link #get(int)} gallops forward from the last checked doc, so checking
+     * docs in increasing order costs about the same as iterating the set. Docs checked out of order fall back
+     * to a binary search. The view holds a position, and should only be used by a single consumer.
+     */
+    public DocSet getView() {
+        return new GetView();
+    }
+
+    @Override public long sizeInBytes() {
+        return docs.length * RamUsage.NUM_BYTES_INT + RamUsage.NUM_BYTES_ARRAY_HEADER;
+    }
+
+    @Override public DocIdSetIterator iterator() throws IOException {
+        return new SortedIntDocIdSetIterator();
+    }
+
+    class SortedIntDocIdSetIterator extends DocIdSetIterator {
+
+        private int index = -1;
+
+        private int doc = -1;
+
+        @Override public int docID() {
+            return doc;
+        }
+
+        @Override public int nextDoc() throws IOException {
+            if (++index < docs.length) {
+                return doc = docs[index];
+            }
+            return doc = NO_MORE_DOCS;
+        }
+
+        @Override public int advance(int target) throws IOException {
+            index = gallop(docs, index + 1, target);
+            if (index < docs.length) {
+                return doc = docs[index];
+            }
+            return doc = NO_MORE_DOCS;
+        }
+    }
+
+    class GetView extends DocSet {
+
+        // all the docs before it are lower than the last checked doc
+        private int index = 0;
+
+        @Override public boolean get(int doc) throws IOException {
+            if (index > 0 && docs[index - 1] >= doc) {
+                // checked out of order
+                return SortedIntDocSet.this.get(doc);
+            }
+            index = gallop(docs, index, doc);
+            return index < docs.length && docs[index] == doc;
+        }
+
+        @Override public boolean isCacheable() {
+            return false;
+        }
+
+        @Override public long sizeInBytes() {
+            return SortedIntDocSet.this.sizeInBytes();
+        }
+
+        @Override public DocIdSetIterator iterator() throws IOException {
+            return SortedIntDocSet.this.iterator();
+        }
+    }
+
+    /**
+     * Returns the index of the first value (from the provided index on) that is greater or equal to the target, or
+     * the length of the values if there is none. Gallops from the provided index, and then binary searches within
+     * the found range.
+     */
+    static int gallop(int[] values, int from, int target) {
+        int low = from;
+        int step = 1;
+        int high = low;
+        while (high < values.length && values[high] < target) {
+            low = high + 1;
+            high += step;
+            step <<= 1;
+        }
+        if (high >= values.length) {
+            high = values.length - 1;
+        }
+        if (low > high) {
+            return values.length;
+        }
+        int found = Arrays.binarySearch(values, low, high + 1, target);
+        return found >= 0 ? found : -found - 1;
+    }
+}
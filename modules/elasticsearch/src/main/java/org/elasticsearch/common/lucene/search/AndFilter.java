@@ -23,9 +23,11 @@ import org.apache.lucene.index.IndexReader;
 import org.apache.lucene.search.DocIdSet;
 import org.apache.lucene.search.Filter;
 import org.elasticsearch.common.collect.Lists;
+import org.elasticsearch.common.lucene.docset.AllDocSet;
 import org.elasticsearch.common.lucene.docset.AndDocIdSet;
 import org.elasticsearch.common.lucene.docset.AndDocSet;
 import org.elasticsearch.common.lucene.docset.DocSet;
+import org.elasticsearch.common.lucene.docset.DocSets;
 
 import java.io.IOException;
 import java.util.List;
@@ -51,13 +53,30 @@ public class AndFilter extends Filter {
         }
         List sets = Lists.newArrayListWithExpectedSize(filters.size());
         boolean allAreDocSet = true;
+        DocIdSet allDocsSet = null;
         for (Filter filter : filters) {
             DocIdSet set = filter.getDocIdSet(reader);
+            if (set == null || set == DocSet.EMPTY_DOC_SET) {
+                return DocSet.EMPTY_DOC_SET;
+            }
+            if (set instanceof AllDocSet) {
+                // matches all docs, no need to check it
+                allDocsSet = set;
+                continue;
+            }
             if (!(set instanceof DocSet)) {
                 allAreDocSet = false;
             }
             sets.add(set);
         }
+        if (sets.isEmpty()) {
+            return allDocsSet;
+        }
+        if (sets.size() == 1) {
+            return (DocIdSet) sets.get(0);
+        }
+        // lead the intersection with the most selective set, the rest are only advanced to the docs it matches
+        DocSets.sortByCost(sets, reader.maxDoc());
         if (allAreDocSet) {
             return new AndDocSet(sets);
         }
@@ -20,7 +20,18 @@
 package org.elasticsearch.common.lucene.search;
 
 import org.apache.lucene.index.IndexReader;
-import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.*;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 /**
  * @author kimchy (shay.banon)
@@ -44,6 +55,157 @@ public class ExtendedIndexSearcher extends IndexSearcher {
         return this.docStarts;
     }
 
+    /**
+     * Searches for the top n docs (sorted by score) with the segments partitioned into (up to) the
+     * provided number of slices of about the same number of docs. Each slice is collected into its
+     * own top docs, concurrently using the provided executor (the first slice is collected by the
+     * calling thread), and the slices top docs are then merged. If any of the slices was only partially
+     * collected, {@link #partialSlices()} is called once on the calling thread after the merge.
+     *
+     * <p>The query must be safe to use by several threads.
+     */
+    public TopDocs search(Query query, final int nDocs, int slices, ExecutorService executor) throws IOException {
+        final Weight weight = createWeight(query);
+        List<int[]> segmentSlices = slices(slices);
+        if (segmentSlices.size() < 2) {
+            TopScoreDocCollector collector = TopScoreDocCollector.create(nDocs, !weight.scoresDocsOutOfOrder());
+            search(weight, null, collector);
+            return collector.topDocs();
+        }
+
+        final AtomicBoolean partial = new AtomicBoolean();
+        List<Future<TopDocs>> futures = new ArrayList<Future<TopDocs>>(segmentSlices.size() - 1);
+        for (int i = 1; i < segmentSlices.size(); i++) {
+            final int[] segmentSlice = segmentSlices.get(i);
+            futures.add(executor.submit(new Callable<TopDocs>() {
+                @Override public TopDocs call() throws Exception {
+                    return searchSlice(weight, nDocs, segmentSlice, partial);
+                }
+            }));
+        }
+
+        TopDocs[] slicesTopDocs = new TopDocs[segmentSlices.size()];
+        try {
+            slicesTopDocs[0] = searchSlice(weight, nDocs, segmentSlices.get(0), partial);
+            for (int i = 0; i < futures.size(); i++) {
+                slicesTopDocs[i + 1] = futures.get(i).get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while searching slices");
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            }
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new IOException("Failed to search slice: " + cause);
+        } finally {
+            for (Future<TopDocs> future : futures) {
+                future.cancel(false);
+            }
+        }
+        TopDocs topDocs = merge(slicesTopDocs, nDocs);
+        if (partial.get()) {
+            partialSlices();
+        }
+        return topDocs;
+    }
+
+    /**
+     * Collects the given segments (indices into {@link #subReaders()}) into the collector. Can be overridden
+     * to wrap the collector of each slice, in which case it should return <tt>false</tt> if the slice was
+     * only partially collected. Called concurrently by the slices threads.
+     */
+    protected boolean searchSlice(Weight weight, int[] segments, Collector collector) throws IOException {
+        for (int segment : segments) {
+            collector.setNextReader(subReaders[segment], docStarts[segment]);
+            Scorer scorer = weight.scorer(subReaders[segment], !collector.acceptsDocsOutOfOrder(), true);
+            if (scorer != null) {
+                scorer.score(collector);
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Called on the searching thread once the slices were merged, if any of them was only partially collected.
+     */
+    protected void partialSlices() {
+    }
+
+    private TopDocs searchSlice(Weight weight, int nDocs, int[] segments, AtomicBoolean partial) throws IOException {
+        TopScoreDocCollector collector = TopScoreDocCollector.create(nDocs, !weight.scoresDocsOutOfOrder());
+        if (!searchSlice(weight, segments, collector)) {
+            partial.set(true);
+        }
+        return collector.topDocs();
+    }
+
+    /**
+     * Partitions the segments into contiguous slices, each holding about the same number of docs.
+     */
+    private List<int[]> slices(int slices) {
+        List<int[]> result = new ArrayList<int[]>(slices);
+        if (slices < 2 || subReaders.length < 2) {
+            int[] all = new int[subReaders.length];
+            for (int i = 0; i < all.length; i++) {
+                all[i] = i;
+            }
+            result.add(all);
+            return result;
+        }
+        long maxDoc = maxDoc();
+        long docsPerSlice = Math.max(1, maxDoc / slices);
+        int sliceStart = 0;
+        long sliceDocs = 0;
+        for (int i = 0; i < subReaders.length; i++) {
+            sliceDocs += subReaders[i].maxDoc();
+            if (sliceDocs >= docsPerSlice || i == subReaders.length - 1) {
+                int[] slice = new int[i - sliceStart + 1];
+                for (int j = 0; j < slice.length; j++) {
+                    slice[j] = sliceStart + j;
+                }
+                result.add(slice);
+                sliceStart = i + 1;
+                sliceDocs = 0;
+            }
+        }
+        return result;
+    }
+
+    private static final Comparator<ScoreDoc> SCORE_DOC_COMPARATOR = new Comparator<ScoreDoc>() {
+        @Override public int compare(ScoreDoc o1, ScoreDoc o2) {
+            if (o1.score == o2.score) {
+                return o1.doc - o2.doc;
+            }
+            return o1.score > o2.score ? -1 : 1;
+        }
+    };
+
+    private static TopDocs merge(TopDocs[] slicesTopDocs, int nDocs) {
+        int totalHits = 0;
+        float maxScore = Float.NaN;
+        List<ScoreDoc> scoreDocs = new ArrayList<ScoreDoc>();
+        for (TopDocs topDocs : slicesTopDocs) {
+            totalHits += topDocs.totalHits;
+            if (!Float.isNaN(topDocs.getMaxScore()) && (Float.isNaN(maxScore) || topDocs.getMaxScore() > maxScore)) {
+                maxScore = topDocs.getMaxScore();
+            }
+            scoreDocs.addAll(Arrays.asList(topDocs.scoreDocs));
+        }
+        ScoreDoc[] sorted = scoreDocs.toArray(new ScoreDoc[scoreDocs.size()]);
+        Arrays.sort(sorted, SCORE_DOC_COMPARATOR);
+        if (sorted.length > nDocs) {
+            ScoreDoc[] top = new ScoreDoc[nDocs];
+            System.arraycopy(sorted, 0, top, 0, nDocs);
+            sorted = top;
+        }
+        return new TopDocs(totalHits, sorted, maxScore);
+    }
+
     // taken from DirectoryReader#readerIndex
 
     public int readerIndex(int doc) {
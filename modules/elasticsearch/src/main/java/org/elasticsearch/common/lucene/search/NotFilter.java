@@ -22,6 +22,7 @@ package org.elasticsearch.common.lucene.search;
 import org.apache.lucene.index.IndexReader;
 import org.apache.lucene.search.DocIdSet;
 import org.apache.lucene.search.Filter;
+import org.elasticsearch.common.lucene.docset.AllDocSet;
 import org.elasticsearch.common.lucene.docset.DocSet;
 import org.elasticsearch.common.lucene.docset.NotDocIdSet;
 import org.elasticsearch.common.lucene.docset.NotDocSet;
@@ -45,6 +46,12 @@ public class NotFilter extends Filter {
 
     @Override public DocIdSet getDocIdSet(IndexReader reader) throws IOException {
         DocIdSet set = filter.getDocIdSet(reader);
+        if (set == DocSet.EMPTY_DOC_SET) {
+            return new AllDocSet(reader.maxDoc());
+        }
+        if (set instanceof AllDocSet) {
+            return DocSet.EMPTY_DOC_SET;
+        }
         if (set instanceof DocSet) {
             return new NotDocSet((DocSet) set, reader.maxDoc());
         }
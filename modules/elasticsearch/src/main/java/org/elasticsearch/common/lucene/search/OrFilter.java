@@ -23,6 +23,7 @@ import org.apache.lucene.index.IndexReader;
 import org.apache.lucene.search.DocIdSet;
 import org.apache.lucene.search.Filter;
 import org.elasticsearch.common.collect.Lists;
+import org.elasticsearch.common.lucene.docset.AllDocSet;
 import org.elasticsearch.common.lucene.docset.DocSet;
 import org.elasticsearch.common.lucene.docset.OrDocIdSet;
 import org.elasticsearch.common.lucene.docset.OrDocSet;
@@ -53,11 +54,24 @@ public class OrFilter extends Filter {
         boolean allAreDocSet = true;
         for (Filter filter : filters) {
             DocIdSet set = filter.getDocIdSet(reader);
+            if (set == null || set == DocSet.EMPTY_DOC_SET) {
+                // matches no docs, no need to check it
+                continue;
+            }
+            if (set instanceof AllDocSet) {
+                return set;
+            }
             if (!(set instanceof DocSet)) {
                 allAreDocSet = false;
             }
             sets.add(set);
         }
+        if (sets.isEmpty()) {
+            return DocSet.EMPTY_DOC_SET;
+        }
+        if (sets.size() == 1) {
+            return (DocIdSet) sets.get(0);
+        }
         if (allAreDocSet) {
             return new OrDocSet(sets);
         }
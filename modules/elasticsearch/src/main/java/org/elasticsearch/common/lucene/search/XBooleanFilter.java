@@ -23,7 +23,10 @@ import org.apache.lucene.index.IndexReader;
 import org.apache.lucene.search.*;
 import org.apache.lucene.util.OpenBitSet;
 import org.apache.lucene.util.OpenBitSetDISI;
+import org.elasticsearch.common.lucene.docset.AllDocSet;
+import org.elasticsearch.common.lucene.docset.AndDocIdSet;
 import org.elasticsearch.common.lucene.docset.DocSet;
+import org.elasticsearch.common.lucene.docset.DocSets;
 import org.elasticsearch.common.lucene.docset.OpenBitDocSet;
 
 import java.io.IOException;
@@ -64,22 +67,59 @@ public class XBooleanFilter extends Filter {
     public DocIdSet getDocIdSet(IndexReader reader) throws IOException {
         OpenBitSetDISI res = null;
 
+        if (mustFilters != null) {
+            // evaluate the must clauses first, no need to evaluate the rest once one of them matches no docs, and
+            // intersect them by leapfrogging, led by the most selective one, instead of and'ing bit sets
+            List<DocIdSet> sets = new ArrayList<DocIdSet>(mustFilters.size());
+            DocIdSet allDocsSet = null;
+            for (int i = 0; i < mustFilters.size(); i++) {
+                DocIdSet dis = mustFilters.get(i).getDocIdSet(reader);
+                if (dis == null || dis == DocSet.EMPTY_DOC_SET) {
+                    return DocSet.EMPTY_DOC_SET;
+                }
+                if (dis instanceof AllDocSet) {
+                    // matches all docs, no need to check it
+                    allDocsSet = dis;
+                    continue;
+                }
+                sets.add(dis);
+            }
+            if (sets.isEmpty()) {
+                sets.add(allDocsSet);
+            }
+            DocIdSetIterator it;
+            if (sets.size() == 1) {
+                it = sets.get(0).iterator();
+            } else {
+                DocSets.sortByCost(sets, reader.maxDoc());
+                it = new AndDocIdSet(sets).iterator();
+            }
+            if (it == null) {
+                return DocSet.EMPTY_DOC_SET;
+            }
+            res = new OpenBitSetDISI(it, reader.maxDoc());
+        }
+
         if (shouldFilters != null) {
+            OpenBitSetDISI should = null;
             for (int i = 0; i < shouldFilters.size(); i++) {
-                if (res == null) {
-                    res = new OpenBitSetDISI(getDISI(shouldFilters, i, reader), reader.maxDoc());
+                if (should == null) {
+                    should = new OpenBitSetDISI(getDISI(shouldFilters, i, reader), reader.maxDoc());
                 } else {
                     DocIdSet dis = shouldFilters.get(i).getDocIdSet(reader);
-                    if (dis instanceof OpenBitSet) {
-                        // optimized case for OpenBitSets
-                        res.or((OpenBitSet) dis);
-                    } else if (dis instanceof OpenBitDocSet) {
-                        res.or(((OpenBitDocSet) dis).set());
+                    if (dis instanceof OpenBitSet || dis instanceof DocSet) {
+                        // optimized case for OpenBitSets and the cached doc set formats
+                        DocSets.or(should, dis);
                     } else {
-                        res.inPlaceOr(getDISI(shouldFilters, i, reader));
+                        should.inPlaceOr(getDISI(shouldFilters, i, reader));
                     }
                 }
             }
+            if (res == null) {
+                res = should;
+            } else {
+                res.and(should);
+            }
         }
 
         if (notFilters != null) {
@@ -89,11 +129,9 @@ public class XBooleanFilter extends Filter {
                     res.flip(0, reader.maxDoc()); // NOTE: may set bits on deleted docs
                 } else {
                     DocIdSet dis = notFilters.get(i).getDocIdSet(reader);
-                    if (dis instanceof OpenBitSet) {
-                        // optimized case for OpenBitSets
-                        res.andNot((OpenBitSet) dis);
-                    } else if (dis instanceof OpenBitDocSet) {
-                        res.andNot(((OpenBitDocSet) dis).set());
+                    if (dis instanceof OpenBitSet || dis instanceof DocSet) {
+                        // optimized case for OpenBitSets and the cached doc set formats
+                        DocSets.andNot(res, dis);
                     } else {
                         res.inPlaceNot(getDISI(notFilters, i, reader));
                     }
@@ -101,24 +139,6 @@ public class XBooleanFilter extends Filter {
             }
         }
 
-        if (mustFilters != null) {
-            for (int i = 0; i < mustFilters.size(); i++) {
-                if (res == null) {
-                    res = new OpenBitSetDISI(getDISI(mustFilters, i, reader), reader.maxDoc());
-                } else {
-                    DocIdSet dis = mustFilters.get(i).getDocIdSet(reader);
-                    if (dis instanceof OpenBitSet) {
-                        // optimized case for OpenBitSets
-                        res.and((OpenBitSet) dis);
-                    } else if (dis instanceof OpenBitDocSet) {
-                        res.and(((OpenBitDocSet) dis).set());
-                    } else {
-                        res.inPlaceAnd(getDISI(mustFilters, i, reader));
-                    }
-                }
-            }
-        }
-
         if (res != null)
             return new OpenBitDocSet(res);
 
@@ -0,0 +1,276 @@
+/*
+ * Licensed to Elastic Search and Shay Banon under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. Elastic Search licenses this
+ * file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package org.elasticsearch.common.util.concurrent;
+
+import javax.annotation.Nullable;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * A concurrent map evicting its least recently used entries once the total weight of its values exceeds its
+ * capacity (in the spirit of <tt>ConcurrentLinkedHashMap</tt>).
+ *
+ * <p>Lookups never lock: accesses are recorded in a buffer, and applied to the recency order in batches by whichever
+ * thread gets hold of the eviction lock. Only additions and removals take the eviction lock. Since the recency order
+ * can lag behind the last few accesses, the evicted entries are an approximation of the least recently used ones.
+ *
+ * @author kimchy (shay.banon)
+ */
+public class ConcurrentLruMap<K, V> {
+
+    /**
+     * Computes the weight of a value, which must not change while the value is in the map.
+     */
+    public static interface Weigher<V> {
+
+        long weigh(V value);
+    }
+
+    /**
+     * Notified (outside of any lock) of entries evicted because the map exceeded its capacity.
+     */
+    public static interface EvictionListener<K, V> {
+
+        void onEviction(K key, V value, long weight);
+    }
+
+    // the number of recorded accesses after which a lookup tries to apply them
+    private static final int DRAIN_THRESHOLD = 64;
+
+    private final long capacity;
+
+    private final Weigher<V> weigher;
+
+    private final EvictionListener<K, V> listener;
+
+    private final ConcurrentMap<K, Node<K, V>> map = ConcurrentCollections.newConcurrentMap();
+
+    private final Queue<Node<K, V>> recencyQueue = new ConcurrentLinkedQueue<Node<K, V>>();
+
+    private final AtomicInteger recencyQueueLength = new AtomicInteger();
+
+    private final ReentrantLock evictionLock = new ReentrantLock();
+
+    // sentinel of the recency list (head.next is the least recently used), guarded by the eviction lock
+    private final Node<K, V> head = new Node<K, V>(null, null, 0);
+
+    // written while holding the eviction lock
+    private volatile long weightedSize = 0;
+
+    public ConcurrentLruMap(long capacity, Weigher<V> weigher, @Nullable EvictionListener<K, V> listener) {
+        this.capacity = capacity;
+        this.weigher = weigher;
+        this.listener = listener;
+        head.prev = head;
+        head.next = head;
+    }
+
+    /**
+     * Returns the value of the key (<tt>null</tt> if there is none), marking it as recently used.
+     */
+    public V get(K key) {
+        Node<K, V> node = map.get(key);
+        if (node == null) {
+            return null;
+        }
+        recordAccess(node);
+        return node.value;
+    }
+
+    /**
+     * Returns the value of the key (<tt>null</tt> if there is none), without marking it as recently used.
+     */
+    public V peek(K key) {
+        Node<K, V> node = map.get(key);
+        return node == null ? null : node.value;
+    }
+
+    /**
+     * Adds the value unless the key already has one, evicting the least recently used entries if the map exceeds
+     * its capacity (but never the value just added). Returns the existing value, or <tt>null</tt> if added.
+     */
+    public V putIfAbsent(K key, V value) {
+        Node<K, V> node = new Node<K, V>(key, value, weigher.weigh(value));
+        Node<K, V> existing = map.putIfAbsent(key, node);
+        if (existing != null) {
+            recordAccess(existing);
+            return existing.value;
+        }
+        List<Node<K, V>> evicted = null;
+        evictionLock.lock();
+        try {
+            drainRecencyQueue();
+            // it might have been removed before we got the lock
+            if (!node.removed) {
+                link(node);
+                weightedSize += node.weight;
+                while (weightedSize > capacity && head.next != node) {
+                    Node<K, V> lru = head.next;
+                    map.remove(lru.key, lru);
+                    removeNode(lru);
+                    if (evicted == null) {
+                        evicted = new ArrayList<Node<K, V>>();
+                    }
+                    evicted.add(lru);
+                }
+            }
+        } finally {
+            evictionLock.unlock();
+        }
+        if (evicted != null && listener != null) {
+            for (Node<K, V> evictedNode : evicted) {
+                listener.onEviction(evictedNode.key, evictedNode.value, evictedNode.weight);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Removes the key, returning its value (<tt>null</tt> if there was none). The eviction listener is not notified.
+     */
+    public V remove(K key) {
+        Node<K, V> node = map.remove(key);
+        if (node == null) {
+            return null;
+        }
+        evictionLock.lock();
+        try {
+            removeNode(node);
+        } finally {
+            evictionLock.unlock();
+        }
+        return node.value;
+    }
+
+    public void clear() {
+        evictionLock.lock();
+        try {
+            for (K key : map.keySet()) {
+                Node<K, V> node = map.remove(key);
+                if (node != null) {
+                    removeNode(node);
+                }
+            }
+            drainRecencyQueue();
+        } finally {
+            evictionLock.unlock();
+        }
+    }
+
+    /**
+     * The keys currently in the map, a weakly consistent view.
+     */
+    public Set<K> keySet() {
+        return Collections.unmodifiableSet(map.keySet());
+    }
+
+    public int size() {
+        return map.size();
+    }
+
+    /**
+     * The total weight of the values in the map.
+     */
+    public long weightedSize() {
+        return weightedSize;
+    }
+
+    public long capacity() {
+        return capacity;
+    }
+
+    private void recordAccess(Node<K, V> node) {
+        recencyQueue.add(node);
+        if (recencyQueueLength.incrementAndGet() >= DRAIN_THRESHOLD && evictionLock.tryLock()) {
+            try {
+                drainRecencyQueue();
+            } finally {
+                evictionLock.unlock();
+            }
+        }
+    }
+
+    /**
+     * Moves the recently accessed nodes to the tail of the recency list, must be called while holding the eviction lock.
+     */
+    private void drainRecencyQueue() {
+        Node<K, V> node;
+        while ((node = recencyQueue.poll()) != null) {
+            recencyQueueLength.decrementAndGet();
+            if (node.linked) {
+                unlink(node);
+                link(node);
+            }
+        }
+    }
+
+    /**
+     * Must be called while holding the eviction lock, once the node was removed from the map.
+     */
+    private void removeNode(Node<K, V> node) {
+        if (node.linked) {
+            unlink(node);
+            weightedSize -= node.weight;
+        }
+        node.removed = true;
+    }
+
+    private void link(Node<K, V> node) {
+        node.prev = head.prev;
+        node.next = head;
+        head.prev.next = node;
+        head.prev = node;
+        node.linked = true;
+    }
+
+    private void unlink(Node<K, V> node) {
+        node.prev.next = node.next;
+        node.next.prev = node.prev;
+        node.prev = null;
+        node.next = null;
+        node.linked = false;
+    }
+
+    static class Node<K, V> {
+        final K key;
+        final V value;
+        final long weight;
+
+        // guarded by the eviction lock
+        Node<K, V> prev;
+        Node<K, V> next;
+        boolean linked;
+        boolean removed;
+
+        Node(K key, V value, long weight) {
+            this.key = key;
+            this.value = value;
+            this.weight = weight;
+        }
+    }
+}
@@ -29,10 +29,12 @@ import org.elasticsearch.common.inject.Inject;
 import org.elasticsearch.common.settings.Settings;
 import org.elasticsearch.index.AbstractIndexComponent;
 import org.elasticsearch.index.Index;
+import org.elasticsearch.index.cache.bloom.BloomCache;
 import org.elasticsearch.index.cache.field.data.FieldDataCache;
 import org.elasticsearch.index.cache.filter.FilterCache;
 import org.elasticsearch.index.cache.id.IdCache;
 import org.elasticsearch.index.cache.query.parser.QueryParserCache;
+import org.elasticsearch.index.cache.query.result.QueryResultCache;
 import org.elasticsearch.index.settings.IndexSettings;
 
 import javax.annotation.Nullable;
@@ -50,15 +52,21 @@ public class IndexCache extends AbstractIndexComponent implements CloseableCompo
 
     private final IdCache idCache;
 
+    private final QueryResultCache queryResultCache;
+
+    private final BloomCache bloomCache;
+
     private ClusterService clusterService;
 
     @Inject public IndexCache(Index index, @IndexSettings Settings indexSettings, FilterCache filterCache, FieldDataCache fieldDataCache,
-                              QueryParserCache queryParserCache, IdCache idCache) {
+                              QueryParserCache queryParserCache, IdCache idCache, QueryResultCache queryResultCache, BloomCache bloomCache) {
         super(index, indexSettings);
         this.filterCache = filterCache;
         this.fieldDataCache = fieldDataCache;
         this.queryParserCache = queryParserCache;
         this.idCache = idCache;
+        this.queryResultCache = queryResultCache;
+        this.bloomCache = bloomCache;
     }
 
     @Inject(optional = true)
@@ -85,11 +93,21 @@ public class IndexCache extends AbstractIndexComponent implements CloseableCompo
         return this.queryParserCache;
     }
 
+    public QueryResultCache queryResult() {
+        return this.queryResultCache;
+    }
+
+    public BloomCache bloomCache() {
+        return this.bloomCache;
+    }
+
     @Override public void close() throws ElasticSearchException {
         filterCache.close();
         fieldDataCache.close();
         idCache.close();
         queryParserCache.close();
+        queryResultCache.close();
+        bloomCache.close();
         if (clusterService != null) {
             clusterService.remove(this);
         }
@@ -99,6 +117,7 @@ public class IndexCache extends AbstractIndexComponent implements CloseableCompo
         filterCache.clear(reader);
         fieldDataCache.clear(reader);
         idCache.clear(reader);
+        bloomCache.clear(reader);
     }
 
     public void clear() {
@@ -106,6 +125,8 @@ public class IndexCache extends AbstractIndexComponent implements CloseableCompo
         fieldDataCache.clear();
         idCache.clear();
         queryParserCache.clear();
+        queryResultCache.clear();
+        bloomCache.clear();
     }
 
     public void clearUnreferenced() {
@@ -115,9 +136,10 @@ public class IndexCache extends AbstractIndexComponent implements CloseableCompo
     }
 
     @Override public void clusterChanged(ClusterChangedEvent event) {
-        // clear the query parser cache if the metadata (mappings) changed...
+        // clear the query parser and query result caches if the metadata (mappings) changed...
         if (event.metaDataChanged()) {
             queryParserCache.clear();
+            queryResultCache.clear();
         }
     }
 }
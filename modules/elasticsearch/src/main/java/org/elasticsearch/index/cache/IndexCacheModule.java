@@ -21,10 +21,12 @@ package org.elasticsearch.index.cache;
 
 import org.elasticsearch.common.inject.AbstractModule;
 import org.elasticsearch.common.settings.Settings;
+import org.elasticsearch.index.cache.bloom.BloomCacheModule;
 import org.elasticsearch.index.cache.field.data.FieldDataCacheModule;
 import org.elasticsearch.index.cache.filter.FilterCacheModule;
 import org.elasticsearch.index.cache.id.IdCacheModule;
 import org.elasticsearch.index.cache.query.parser.QueryParserCacheModule;
+import org.elasticsearch.index.cache.query.result.QueryResultCache;
 
 /**
  * @author kimchy (shay.banon)
@@ -42,6 +44,8 @@ public class IndexCacheModule extends AbstractModule {
         new FieldDataCacheModule(settings).configure(binder());
         new IdCacheModule(settings).configure(binder());
         new QueryParserCacheModule(settings).configure(binder());
+        new BloomCacheModule(settings).configure(binder());
+        bind(QueryResultCache.class).asEagerSingleton();
 
         bind(IndexCache.class).asEagerSingleton();
     }
@@ -0,0 +1,48 @@
+/*
+ * Licensed to Elastic Search and Shay Banon under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. Elastic Search licenses this
+ * file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package org.elasticsearch.index.cache.bloom;
+
+import org.apache.lucene.index.IndexReader;
+import org.elasticsearch.common.bloom.BloomFilter;
+import org.elasticsearch.common.component.CloseableComponent;
+import org.elasticsearch.index.IndexComponent;
+
+/**
+ * A per segment cache of bloom filters over the terms of a field.
+ *
+ * @author kimchy (shay.banon)
+ */
+public interface BloomCache extends IndexComponent, CloseableComponent {
+
+    /**
+     * The bloom filter of the field terms of the segment reader. If <tt>asyncLoad</tt> is set and the filter is not
+     * loaded yet, it is loaded in the background and {@link BloomFilter#NONE} is returned in the meantime.
+     */
+    BloomFilter filter(IndexReader reader, String fieldName, boolean asyncLoad);
+
+    void clear();
+
+    void clear(IndexReader reader);
+
+    long sizeInBytes();
+
+    long sizeInBytes(String fieldName);
+}
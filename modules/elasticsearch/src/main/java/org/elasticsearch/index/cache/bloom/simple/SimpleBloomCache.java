@@ -0,0 +1,179 @@
+/*
+ * Licensed to Elastic Search and Shay Banon under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. Elastic Search licenses this
+ * file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package org.elasticsearch.index.cache.bloom.simple;
+
+import org.apache.lucene.index.IndexReader;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.index.TermEnum;
+import org.apache.lucene.util.StringHelper;
+import org.elasticsearch.ElasticSearchException;
+import org.elasticsearch.common.bloom.BloomFilter;
+import org.elasticsearch.common.inject.Inject;
+import org.elasticsearch.common.settings.Settings;
+import org.elasticsearch.common.unit.ByteSizeUnit;
+import org.elasticsearch.common.unit.ByteSizeValue;
+import org.elasticsearch.common.util.concurrent.ConcurrentCollections;
+import org.elasticsearch.index.AbstractIndexComponent;
+import org.elasticsearch.index.Index;
+import org.elasticsearch.index.cache.bloom.BloomCache;
+import org.elasticsearch.index.settings.IndexSettings;
+import org.elasticsearch.threadpool.ThreadPool;
+
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * A bloom cache keeping the filters per segment (core) until the segment is closed (and the cache is cleared for it).
+ * Filters are sized by the number of documents of the segment for a false positive probability of <tt>fpp</tt>
+ * (defaults to <tt>0.01</tt>), but never take more than <tt>max_size</tt> (defaults to <tt>16mb</tt>), trading a
+ * higher false positive probability for memory on very large segments.
+ *
+ * @author kimchy (shay.banon)
+ */
+public class SimpleBloomCache extends AbstractIndexComponent implements BloomCache {
+
+    private final ThreadPool threadPool;
+
+    private final double fpp;
+
+    private final long maxSizeInBytes;
+
+    private final ConcurrentMap<Object, ConcurrentMap<String, BloomFilterEntry>> cache = ConcurrentCollections.newConcurrentMap();
+
+    @Inject public SimpleBloomCache(Index index, @IndexSettings Settings indexSettings, ThreadPool threadPool) {
+        super(index, indexSettings);
+        this.threadPool = threadPool;
+        this.fpp = componentSettings.getAsDouble("fpp", 0.01);
+        this.maxSizeInBytes = componentSettings.getAsBytesSize("max_size", new ByteSizeValue(16, ByteSizeUnit.MB)).bytes();
+    }
+
+    @Override public BloomFilter filter(IndexReader reader, String fieldName, boolean asyncLoad) {
+        ConcurrentMap<String, BloomFilterEntry> fieldCache = cache.get(reader.getFieldCacheKey());
+        if (fieldCache == null) {
+            fieldCache = ConcurrentCollections.newConcurrentMap();
+            ConcurrentMap<String, BloomFilterEntry> existing = cache.putIfAbsent(reader.getFieldCacheKey(), fieldCache);
+            if (existing != null) {
+                fieldCache = existing;
+            }
+        }
+        BloomFilterEntry entry = fieldCache.get(fieldName);
+        if (entry != null) {
+            return entry.filter;
+        }
+        entry = new BloomFilterEntry();
+        BloomFilterEntry existing = fieldCache.putIfAbsent(fieldName, entry);
+        if (existing != null) {
+            // loading (or loaded) by someone else
+            return existing.filter;
+        }
+        BloomFilterLoader loader = new BloomFilterLoader(reader, fieldName, entry, asyncLoad);
+        if (asyncLoad) {
+            // keep the reader open until the filter is loaded, closing it clears its filters anyhow
+            reader.incRef();
+            threadPool.cached().execute(loader);
+        } else {
+            loader.run();
+        }
+        return entry.filter;
+    }
+
+    @Override public void clear() {
+        cache.clear();
+    }
+
+    @Override public void clear(IndexReader reader) {
+        cache.remove(reader.getFieldCacheKey());
+    }
+
+    @Override public long sizeInBytes() {
+        long sizeInBytes = 0;
+        for (ConcurrentMap<String, BloomFilterEntry> fieldCache : cache.values()) {
+            for (BloomFilterEntry entry : fieldCache.values()) {
+                sizeInBytes += entry.filter.sizeInBytes();
+            }
+        }
+        return sizeInBytes;
+    }
+
+    @Override public long sizeInBytes(String fieldName) {
+        long sizeInBytes = 0;
+        for (ConcurrentMap<String, BloomFilterEntry> fieldCache : cache.values()) {
+            BloomFilterEntry entry = fieldCache.get(fieldName);
+            if (entry != null) {
+                sizeInBytes += entry.filter.sizeInBytes();
+            }
+        }
+        return sizeInBytes;
+    }
+
+    @Override public void close() throws ElasticSearchException {
+        clear();
+    }
+
+    class BloomFilterLoader implements Runnable {
+
+        private final IndexReader reader;
+
+        private final String fieldName;
+
+        private final BloomFilterEntry entry;
+
+        private final boolean releaseReader;
+
+        BloomFilterLoader(IndexReader reader, String fieldName, BloomFilterEntry entry, boolean releaseReader) {
+            this.reader = reader;
+            this.fieldName = StringHelper.intern(fieldName);
+            this.entry = entry;
+            this.releaseReader = releaseReader;
+        }
+
+        @Override public void run() {
+            try {
+                BloomFilter filter = BloomFilter.create(reader.numDocs(), fpp, maxSizeInBytes);
+                TermEnum termEnum = reader.terms(new Term(fieldName));
+                try {
+                    do {
+                        Term term = termEnum.term();
+                        if (term == null || term.field() != fieldName) break;
+                        filter.put(term.text());
+                    } while (termEnum.next());
+                } finally {
+                    termEnum.close();
+                }
+                entry.filter = filter;
+            } catch (Exception e) {
+                // the segment will be checked without a filter
+                logger.debug("failed to load bloom filter for [{}]", e, fieldName);
+            } finally {
+                if (releaseReader) {
+                    try {
+                        reader.decRef();
+                    } catch (Exception e) {
+                        // ignore
+                    }
+                }
+            }
+        }
+    }
+
+    static class BloomFilterEntry {
+        volatile BloomFilter filter = BloomFilter.NONE;
+    }
+}
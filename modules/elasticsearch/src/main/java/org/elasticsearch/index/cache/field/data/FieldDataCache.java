@@ -44,6 +44,10 @@ public interface FieldDataCache extends IndexComponent, CloseableComponent {
 
     long evictions();
 
+    long hits();
+
+    long misses();
+
     long sizeInBytes();
 
     long sizeInBytes(String fieldName);
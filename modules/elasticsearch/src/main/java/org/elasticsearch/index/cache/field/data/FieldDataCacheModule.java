@@ -31,6 +31,8 @@ public class FieldDataCacheModule extends AbstractModule {
 
     public static final class FieldDataCacheSettings {
         public static final String FIELD_DATA_CACHE_TYPE = "index.cache.field.type";
+        // keep the per doc ordinals (only) of loaded field data in direct buffers, outside of the heap
+        public static final String FIELD_DATA_DIRECT = "index.cache.field.direct";
     }
 
     private final Settings settings;
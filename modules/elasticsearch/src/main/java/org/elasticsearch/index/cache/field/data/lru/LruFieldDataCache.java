@@ -0,0 +1,153 @@
+/*
+ * Licensed to Elastic Search and Shay Banon under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. Elastic Search licenses this
+ * file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.elasticsearch.index.cache.field.data.lru;
+
+import org.apache.lucene.index.IndexReader;
+import org.elasticsearch.ElasticSearchException;
+import org.elasticsearch.cache.field.data.NodeFieldDataCache;
+import org.elasticsearch.common.inject.Inject;
+import org.elasticsearch.common.settings.Settings;
+import org.elasticsearch.common.util.concurrent.ConcurrentCollections;
+import org.elasticsearch.index.AbstractIndexComponent;
+import org.elasticsearch.index.Index;
+import org.elasticsearch.index.cache.field.data.FieldDataCache;
+import org.elasticsearch.index.cache.field.data.FieldDataCacheModule;
+import org.elasticsearch.index.cache.field.data.support.FieldDataKey;
+import org.elasticsearch.index.field.data.FieldData;
+import org.elasticsearch.index.field.data.FieldDataType;
+import org.elasticsearch.index.settings.IndexSettings;
+
+import java.io.IOException;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A field data cache storing the per segment field data in the {@link NodeFieldDataCache}, which evicts the least
+ * recently used entries of all the indices once the node wide <tt>cache.field.data.max_size</tt> is exceeded (the
+ * budget is shared by all the indices on the node, not given to each of them). Keeps the hits, misses, evictions and
+ * memory of this index.
+ *
+ * @author kimchy (shay.banon)
+ */
+public class LruFieldDataCache extends AbstractIndexComponent implements FieldDataCache, NodeFieldDataCache.Owner {
+
+    private final NodeFieldDataCache nodeFieldDataCache;
+
+    private final boolean direct;
+
+    private final ConcurrentMap<FieldDataKey, Object> loadMutexes = ConcurrentCollections.newConcurrentMap();
+
+    private final AtomicLong sizeInBytes = new AtomicLong();
+
+    private final AtomicLong hits = new AtomicLong();
+
+    private final AtomicLong misses = new AtomicLong();
+
+    private final AtomicLong evictions = new AtomicLong();
+
+    @Inject public LruFieldDataCache(Index index, @IndexSettings Settings indexSettings, NodeFieldDataCache nodeFieldDataCache) {
+        super(index, indexSettings);
+        this.nodeFieldDataCache = nodeFieldDataCache;
+        this.direct = indexSettings.getAsBoolean(FieldDataCacheModule.FieldDataCacheSettings.FIELD_DATA_DIRECT, false);
+    }
+
+    @Override public String type() {
+        return "lru";
+    }
+
+    @Override public FieldData cache(FieldDataType type, IndexReader reader, String fieldName) throws IOException {
+        FieldDataKey key = new FieldDataKey(reader.getFieldCacheKey(), fieldName);
+        FieldData fieldData = nodeFieldDataCache.get(this, key);
+        if (fieldData != null) {
+            hits.incrementAndGet();
+            return fieldData;
+        }
+        // concurrent loads of the same field on the same reader wait on a single load, other fields load in parallel
+        Object loadMutex = new Object();
+        Object existingLoadMutex = loadMutexes.putIfAbsent(key, loadMutex);
+        if (existingLoadMutex != null) {
+            loadMutex = existingLoadMutex;
+        }
+        try {
+            synchronized (loadMutex) {
+                fieldData = nodeFieldDataCache.get(this, key);
+                if (fieldData != null) {
+                    hits.incrementAndGet();
+                    return fieldData;
+                }
+                misses.incrementAndGet();
+                fieldData = load(type, reader, fieldName);
+                FieldData cached = nodeFieldDataCache.put(this, key, fieldData);
+                if (cached == fieldData) {
+                    sizeInBytes.addAndGet(fieldData.sizeInBytes());
+                }
+                return cached;
+            }
+        } finally {
+            loadMutexes.remove(key, loadMutex);
+        }
+    }
+
+    protected FieldData load(FieldDataType type, IndexReader reader, String fieldName) throws IOException {
+        return FieldData.load(type, reader, fieldName, direct);
+    }
+
+    @Override public void onEviction(long sizeInBytes) {
+        this.sizeInBytes.addAndGet(-sizeInBytes);
+        evictions.incrementAndGet();
+    }
+
+    @Override public void clear() {
+        nodeFieldDataCache.clear(this);
+        sizeInBytes.set(0);
+    }
+
+    @Override public void clear(IndexReader reader) {
+        sizeInBytes.addAndGet(-nodeFieldDataCache.clear(this, reader.getFieldCacheKey()));
+    }
+
+    @Override public void clearUnreferenced() {
+        nodeFieldDataCache.evictExpired();
+    }
+
+    @Override public void close() throws ElasticSearchException {
+        clear();
+    }
+
+    @Override public long evictions() {
+        return evictions.get();
+    }
+
+    @Override public long hits() {
+        return hits.get();
+    }
+
+    @Override public long misses() {
+        return misses.get();
+    }
+
+    @Override public long sizeInBytes() {
+        return sizeInBytes.get();
+    }
+
+    @Override public long sizeInBytes(String fieldName) {
+        return nodeFieldDataCache.sizeInBytes(this, fieldName);
+    }
+}
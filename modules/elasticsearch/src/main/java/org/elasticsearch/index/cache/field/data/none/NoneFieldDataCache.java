@@ -26,6 +26,7 @@ import org.elasticsearch.common.settings.Settings;
 import org.elasticsearch.index.AbstractIndexComponent;
 import org.elasticsearch.index.Index;
 import org.elasticsearch.index.cache.field.data.FieldDataCache;
+import org.elasticsearch.index.cache.field.data.FieldDataCacheModule;
 import org.elasticsearch.index.field.data.FieldData;
 import org.elasticsearch.index.field.data.FieldDataType;
 import org.elasticsearch.index.settings.IndexSettings;
@@ -37,13 +38,16 @@ import java.io.IOException;
  */
 public class NoneFieldDataCache extends AbstractIndexComponent implements FieldDataCache {
 
+    private final boolean direct;
+
     @Inject public NoneFieldDataCache(Index index, @IndexSettings Settings indexSettings) {
         super(index, indexSettings);
+        this.direct = indexSettings.getAsBoolean(FieldDataCacheModule.FieldDataCacheSettings.FIELD_DATA_DIRECT, false);
         logger.debug("Using no field cache");
     }
 
     @Override public FieldData cache(FieldDataType type, IndexReader reader, String fieldName) throws IOException {
-        return FieldData.load(type, reader, fieldName);
+        return FieldData.load(type, reader, fieldName, direct);
     }
 
     @Override public String type() {
@@ -73,4 +77,12 @@ public class NoneFieldDataCache extends AbstractIndexComponent implements FieldD
     @Override public long evictions() {
         return 0;
     }
+
+    @Override public long hits() {
+        return 0;
+    }
+
+    @Override public long misses() {
+        return 0;
+    }
 }
@@ -27,12 +27,14 @@ import org.elasticsearch.common.util.concurrent.ConcurrentCollections;
 import org.elasticsearch.index.AbstractIndexComponent;
 import org.elasticsearch.index.Index;
 import org.elasticsearch.index.cache.field.data.FieldDataCache;
+import org.elasticsearch.index.cache.field.data.FieldDataCacheModule;
 import org.elasticsearch.index.field.data.FieldData;
 import org.elasticsearch.index.field.data.FieldDataType;
 import org.elasticsearch.index.settings.IndexSettings;
 
 import java.io.IOException;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * @author kimchy (shay.banon)
@@ -43,11 +45,21 @@ public abstract class AbstractConcurrentMapFieldDataCache extends AbstractIndexC
 
     private final Object creationMutex = new Object();
 
+    // mutexes of the field data currently being loaded, keyed by (reader, field)
+    private final ConcurrentMap<FieldDataKey, Object> loadMutexes = ConcurrentCollections.newConcurrentMap();
+
+    private final boolean direct;
+
+    private final AtomicLong hits = new AtomicLong();
+
+    private final AtomicLong misses = new AtomicLong();
+
     protected AbstractConcurrentMapFieldDataCache(Index index, @IndexSettings Settings indexSettings) {
         super(index, indexSettings);
         // weak keys is fine, it will only be cleared once IndexReader references will be removed
         // (assuming clear(...) will not be called)
         this.cache = new MapMaker().weakKeys().makeMap();
+        this.direct = indexSettings.getAsBoolean(FieldDataCacheModule.FieldDataCacheSettings.FIELD_DATA_DIRECT, false);
     }
 
     @Override public void close() throws ElasticSearchException {
@@ -70,6 +82,14 @@ public abstract class AbstractConcurrentMapFieldDataCache extends AbstractIndexC
         // nothing to do here...
     }
 
+    @Override public long hits() {
+        return hits.get();
+    }
+
+    @Override public long misses() {
+        return misses.get();
+    }
+
     @Override public long sizeInBytes() {
         // the overhead of the map is not really relevant...
         long sizeInBytes = 0;
@@ -104,16 +124,37 @@ public abstract class AbstractConcurrentMapFieldDataCache extends AbstractIndexC
             }
         }
         FieldData fieldData = fieldDataCache.get(fieldName);
-        if (fieldData == null) {
-            synchronized (fieldDataCache) {
+        if (fieldData != null) {
+            hits.incrementAndGet();
+            return fieldData;
+        }
+        // concurrent loads of the same field on the same reader wait on a single load, other fields load in parallel
+        FieldDataKey loadKey = new FieldDataKey(reader.getFieldCacheKey(), fieldName);
+        Object loadMutex = new Object();
+        Object existingLoadMutex = loadMutexes.putIfAbsent(loadKey, loadMutex);
+        if (existingLoadMutex != null) {
+            loadMutex = existingLoadMutex;
+        }
+        try {
+            synchronized (loadMutex) {
                 fieldData = fieldDataCache.get(fieldName);
-                if (fieldData == null) {
-                    fieldData = FieldData.load(type, reader, fieldName);
-                    fieldDataCache.put(fieldName, fieldData);
+                if (fieldData != null) {
+                    hits.incrementAndGet();
+                    return fieldData;
                 }
+                misses.incrementAndGet();
+                fieldData = load(type, reader, fieldName);
+                fieldDataCache.put(fieldName, fieldData);
+                return fieldData;
             }
+        } finally {
+            // the field data is in the cache by now, later callers will not need the mutex
+            loadMutexes.remove(loadKey, loadMutex);
         }
-        return fieldData;
+    }
+
+    protected FieldData load(FieldDataType type, IndexReader reader, String fieldName) throws IOException {
+        return FieldData.load(type, reader, fieldName, direct);
     }
 
     protected ConcurrentMap<String, FieldData> buildFieldDataMap() {
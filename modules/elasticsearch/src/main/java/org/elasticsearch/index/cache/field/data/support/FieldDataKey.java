@@ -0,0 +1,57 @@
+/*
+ * Licensed to Elastic Search and Shay Banon under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. Elastic Search licenses this
+ * file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package org.elasticsearch.index.cache.field.data.support;
+
+/**
+ * The field data of a field of a segment, keyed by the reader field cache key (compared by identity) and the field name.
+ *
+ * @author kimchy (shay.banon)
+ */
+public class FieldDataKey {
+
+    private final Object readerKey;
+
+    private final String fieldName;
+
+    public FieldDataKey(Object readerKey, String fieldName) {
+        this.readerKey = readerKey;
+        this.fieldName = fieldName;
+    }
+
+    public Object readerKey() {
+        return readerKey;
+    }
+
+    public String fieldName() {
+        return fieldName;
+    }
+
+    @Override public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof FieldDataKey)) return false;
+        FieldDataKey key = (FieldDataKey) o;
+        return readerKey == key.readerKey && fieldName.equals(key.fieldName);
+    }
+
+    @Override public int hashCode() {
+        return 31 * System.identityHashCode(readerKey) + fieldName.hashCode();
+    }
+}
@@ -47,4 +47,19 @@ public interface FilterCache extends IndexComponent, CloseableComponent {
     void clearUnreferenced();
 
     long sizeInBytes();
+
+    /**
+     * The number of cached doc sets evicted from the cache (explicitly, not by the GC).
+     */
+    long evictions();
+
+    /**
+     * The number of times a filter doc set was found in the cache.
+     */
+    long hits();
+
+    /**
+     * The number of times a filter doc set had to be loaded into the cache.
+     */
+    long misses();
 }
@@ -30,6 +30,10 @@ import org.elasticsearch.index.cache.filter.soft.SoftFilterCache;
 public class FilterCacheModule extends AbstractModule {
 
     public static final class FilterCacheSettings {
+        /**
+         * The filter cache type: <tt>soft</tt> (default), <tt>weak</tt>, <tt>none</tt>, or <tt>lru</tt> (bounded by the
+         * node wide <tt>cache.filter.max_size</tt>).
+         */
         public static final String FILTER_CACHE_TYPE = "index.cache.filter.type";
     }
 
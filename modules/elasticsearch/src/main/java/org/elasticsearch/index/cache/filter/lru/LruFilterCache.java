@@ -0,0 +1,165 @@
+/*
+ * Licensed to Elastic Search and Shay Banon under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. Elastic Search licenses this
+ * file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package org.elasticsearch.index.cache.filter.lru;
+
+import org.apache.lucene.index.IndexReader;
+import org.apache.lucene.search.DocIdSet;
+import org.apache.lucene.search.Filter;
+import org.elasticsearch.cache.filter.NodeFilterCache;
+import org.elasticsearch.common.inject.Inject;
+import org.elasticsearch.common.lucene.docset.DocSet;
+import org.elasticsearch.common.settings.Settings;
+import org.elasticsearch.index.AbstractIndexComponent;
+import org.elasticsearch.index.Index;
+import org.elasticsearch.index.cache.filter.FilterCache;
+import org.elasticsearch.index.settings.IndexSettings;
+
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.elasticsearch.common.lucene.docset.DocSets.*;
+
+/**
+ * A filter cache storing the per segment doc sets in the {@link NodeFilterCache}, which evicts the least recently
+ * used entries of all the indices once the node wide <tt>cache.filter.max_size</tt> is exceeded. Keeps the hits,
+ * misses, evictions and memory of this index.
+ *
+ * @author kimchy (shay.banon)
+ */
+public class LruFilterCache extends AbstractIndexComponent implements FilterCache, NodeFilterCache.Owner {
+
+    private final NodeFilterCache nodeFilterCache;
+
+    private final AtomicLong sizeInBytes = new AtomicLong();
+
+    private final AtomicLong hits = new AtomicLong();
+
+    private final AtomicLong misses = new AtomicLong();
+
+    private final AtomicLong evictions = new AtomicLong();
+
+    @Inject public LruFilterCache(Index index, @IndexSettings Settings indexSettings, NodeFilterCache nodeFilterCache) {
+        super(index, indexSettings);
+        this.nodeFilterCache = nodeFilterCache;
+    }
+
+    @Override public String type() {
+        return "lru";
+    }
+
+    @Override public Filter cache(Filter filterToCache) {
+        if (isCached(filterToCache)) {
+            return filterToCache;
+        }
+        return new LruCacheFilterWrapper(filterToCache, this);
+    }
+
+    @Override public Filter weakCache(Filter filterToCache) {
+        return cache(filterToCache);
+    }
+
+    @Override public boolean isCached(Filter filter) {
+        return filter instanceof LruCacheFilterWrapper;
+    }
+
+    @Override public void onCached(long sizeInBytes) {
+        this.sizeInBytes.addAndGet(sizeInBytes);
+    }
+
+    @Override public void onRemoved(long sizeInBytes) {
+        this.sizeInBytes.addAndGet(-sizeInBytes);
+    }
+
+    @Override public void onEviction(long sizeInBytes) {
+        this.sizeInBytes.addAndGet(-sizeInBytes);
+        evictions.incrementAndGet();
+    }
+
+    @Override public void clear(IndexReader reader) {
+        nodeFilterCache.clear(this, reader.getFieldCacheKey());
+    }
+
+    @Override public void clear() {
+        nodeFilterCache.clear(this);
+    }
+
+    @Override public void clearUnreferenced() {
+        // entries are removed once their reader is closed, or evicted
+    }
+
+    @Override public void close() {
+        clear();
+    }
+
+    @Override public long sizeInBytes() {
+        return sizeInBytes.get();
+    }
+
+    @Override public long evictions() {
+        return evictions.get();
+    }
+
+    @Override public long hits() {
+        return hits.get();
+    }
+
+    @Override public long misses() {
+        return misses.get();
+    }
+
+    static class LruCacheFilterWrapper extends Filter {
+
+        private final Filter filter;
+
+        private final LruFilterCache cache;
+
+        LruCacheFilterWrapper(Filter filter, LruFilterCache cache) {
+            this.filter = filter;
+            this.cache = cache;
+        }
+
+        @Override public DocIdSet getDocIdSet(IndexReader reader) throws IOException {
+            Object readerKey = reader.getFieldCacheKey();
+            DocSet docSet = cache.nodeFilterCache.get(cache, readerKey, filter);
+            if (docSet != null) {
+                cache.hits.incrementAndGet();
+                return docSet;
+            }
+            cache.misses.incrementAndGet();
+            docSet = cacheable(reader, filter.getDocIdSet(reader));
+            // the node cache accounts for the doc set (if cached) through the owner callbacks
+            return cache.nodeFilterCache.put(cache, readerKey, filter, docSet);
+        }
+
+        public String toString() {
+            return "LruCacheFilterWrapper(" + filter + ")";
+        }
+
+        public boolean equals(Object o) {
+            if (!(o instanceof LruCacheFilterWrapper)) return false;
+            return this.filter.equals(((LruCacheFilterWrapper) o).filter);
+        }
+
+        public int hashCode() {
+            return filter.hashCode() ^ 0x1117BF25;
+        }
+    }
+}
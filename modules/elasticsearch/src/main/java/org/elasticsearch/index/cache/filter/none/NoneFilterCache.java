@@ -73,4 +73,16 @@ public class NoneFilterCache extends AbstractIndexComponent implements FilterCac
     @Override public long sizeInBytes() {
         return 0;
     }
+
+    @Override public long evictions() {
+        return 0;
+    }
+
+    @Override public long hits() {
+        return 0;
+    }
+
+    @Override public long misses() {
+        return 0;
+    }
 }
\ No newline at end of file
@@ -0,0 +1,221 @@
+/*
+ * Licensed to Elastic Search and Shay Banon under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. Elastic Search licenses this
+ * file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package org.elasticsearch.index.cache.query.result;
+
+import org.elasticsearch.ElasticSearchException;
+import org.elasticsearch.common.component.CloseableComponent;
+import org.elasticsearch.common.inject.Inject;
+import org.elasticsearch.common.settings.Settings;
+import org.elasticsearch.common.unit.ByteSizeValue;
+import org.elasticsearch.index.AbstractIndexComponent;
+import org.elasticsearch.index.Index;
+import org.elasticsearch.index.settings.IndexSettings;
+import org.elasticsearch.monitor.jvm.JvmInfo;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A cache of serialized shard level query results, keyed by the shard, the version of the reader the query
+ * was executed against and the serialized request. Once a shard is refreshed (its reader version changes), the
+ * entries of the older reader are dropped. The cache is bounded by the size of the cached results (<tt>max_size</tt>,
+ * either an absolute size or a percentage of the heap, defaults to <tt>1%</tt>), evicting the least recently used
+ * entries. Disabled by default, enabled using <tt>index.cache.query.result.enabled</tt>.
+ *
+ * @author kimchy (shay.banon)
+ */
+public class QueryResultCache extends AbstractIndexComponent implements CloseableComponent {
+
+    private final boolean enabled;
+
+    private final long maxSizeInBytes;
+
+    // access ordered, guarded by itself
+    private final LinkedHashMap<Key, byte[]> cache = new LinkedHashMap<Key, byte[]>(16, 0.75f, true);
+
+    // the latest reader version cached per shard, guarded by the cache
+    private final Map<Integer, Long> shardsReaderVersion = new HashMap<Integer, Long>();
+
+    private long sizeInBytes = 0;
+
+    private final AtomicLong hits = new AtomicLong();
+
+    private final AtomicLong misses = new AtomicLong();
+
+    private final AtomicLong evictions = new AtomicLong();
+
+    @Inject public QueryResultCache(Index index, @IndexSettings Settings indexSettings) {
+        super(index, indexSettings);
+        this.enabled = componentSettings.getAsBoolean("enabled", false);
+        String maxSize = componentSettings.get("max_size", "1%");
+        if (maxSize.endsWith("%")) {
+            double percent = Double.parseDouble(maxSize.substring(0, maxSize.length() - 1));
+            this.maxSizeInBytes = (long) (((double) JvmInfo.jvmInfo().mem().heapMax().bytes()) * (percent / 100));
+        } else {
+            this.maxSizeInBytes = ByteSizeValue.parseBytesSizeValue(maxSize).bytes();
+        }
+        if (enabled) {
+            logger.debug("using query result cache with max_size [{}]", new ByteSizeValue(maxSizeInBytes));
+        }
+    }
+
+    public boolean enabled() {
+        return this.enabled;
+    }
+
+    /**
+     * Returns the cached result of the request executed on the shard with the provided reader version, or
+     * <tt>null</tt> if it is not cached.
+     */
+    public byte[] get(int shardId, long readerVersion, byte[] request) {
+        Key key = new Key(shardId, readerVersion, request);
+        byte[] result;
+        synchronized (cache) {
+            result = cache.get(key);
+        }
+        if (result == null) {
+            misses.incrementAndGet();
+        } else {
+            hits.incrementAndGet();
+        }
+        return result;
+    }
+
+    public void put(int shardId, long readerVersion, byte[] request, byte[] result) {
+        Key key = new Key(shardId, readerVersion, request);
+        long entrySizeInBytes = key.sizeInBytes() + result.length;
+        if (entrySizeInBytes > maxSizeInBytes) {
+            return;
+        }
+        synchronized (cache) {
+            Long shardReaderVersion = shardsReaderVersion.get(shardId);
+            if (shardReaderVersion != null && shardReaderVersion > readerVersion) {
+                // executed against an older reader than the one already cached, no need to keep it
+                return;
+            }
+            if (shardReaderVersion == null || shardReaderVersion < readerVersion) {
+                // the shard was refreshed, drop the results of the older reader
+                clearShard(shardId);
+                shardsReaderVersion.put(shardId, readerVersion);
+            }
+            byte[] existing = cache.put(key, result);
+            if (existing != null) {
+                sizeInBytes -= key.sizeInBytes() + existing.length;
+            }
+            sizeInBytes += entrySizeInBytes;
+            Iterator<Map.Entry<Key, byte[]>> it = cache.entrySet().iterator();
+            while (sizeInBytes > maxSizeInBytes) {
+                Map.Entry<Key, byte[]> evicted = it.next();
+                it.remove();
+                sizeInBytes -= evicted.getKey().sizeInBytes() + evicted.getValue().length;
+                evictions.incrementAndGet();
+            }
+        }
+    }
+
+    /**
+     * Clears the cached results of the shard, for example, when the shard is closed.
+     */
+    public void clear(int shardId) {
+        synchronized (cache) {
+            clearShard(shardId);
+            shardsReaderVersion.remove(shardId);
+        }
+    }
+
+    public void clear() {
+        synchronized (cache) {
+            cache.clear();
+            shardsReaderVersion.clear();
+            sizeInBytes = 0;
+        }
+    }
+
+    /**
+     * Must be called while holding the cache lock.
+     */
+    private void clearShard(int shardId) {
+        for (Iterator<Map.Entry<Key, byte[]>> it = cache.entrySet().iterator(); it.hasNext();) {
+            Map.Entry<Key, byte[]> entry = it.next();
+            if (entry.getKey().shardId == shardId) {
+                it.remove();
+                sizeInBytes -= entry.getKey().sizeInBytes() + entry.getValue().length;
+            }
+        }
+    }
+
+    @Override public void close() throws ElasticSearchException {
+        clear();
+    }
+
+    public long hits() {
+        return hits.get();
+    }
+
+    public long misses() {
+        return misses.get();
+    }
+
+    public long evictions() {
+        return evictions.get();
+    }
+
+    public long sizeInBytes() {
+        synchronized (cache) {
+            return sizeInBytes;
+        }
+    }
+
+    static class Key {
+        final int shardId;
+        final long readerVersion;
+        final byte[] request;
+        final int hashCode;
+
+        Key(int shardId, long readerVersion, byte[] request) {
+            this.shardId = shardId;
+            this.readerVersion = readerVersion;
+            this.request = request;
+            int result = shardId;
+            result = 31 * result + (int) (readerVersion ^ (readerVersion >>> 32));
+            result = 31 * result + Arrays.hashCode(request);
+            this.hashCode = result;
+        }
+
+        long sizeInBytes() {
+            return request.length;
+        }
+
+        @Override public boolean equals(Object o) {
+            if (this == o) return true;
+            Key key = (Key) o;
+            return shardId == key.shardId && readerVersion == key.readerVersion && Arrays.equals(request, key.request);
+        }
+
+        @Override public int hashCode() {
+            return hashCode;
+        }
+    }
+}
@@ -65,6 +65,13 @@ public interface Engine extends IndexShardComponent, CloseableComponent {
 
     void delete(DeleteByQuery delete) throws EngineException;
 
+    /**
+     * Realtime get of the latest version of a document. Returns the result read from the transaction log for
+     * documents changed since the last flush, or <tt>null</tt> if the document should be loaded using a
+     * {@link #searcher()}, in which case the searcher is guaranteed to reflect its latest version.
+     */
+    @Nullable GetResult get(Get get) throws EngineException;
+
     Searcher searcher() throws EngineException;
 
     /**
@@ -125,6 +132,48 @@ public interface Engine extends IndexShardComponent, CloseableComponent {
         IndexSearcher searcher();
     }
 
+    static class Get {
+
+        private final Term uid;
+
+        public Get(Term uid) {
+            this.uid = uid;
+        }
+
+        public Term uid() {
+            return uid;
+        }
+    }
+
+    static class GetResult {
+
+        public static final GetResult NOT_EXISTS = new GetResult(false, -1, null);
+
+        private final boolean exists;
+
+        private final long version;
+
+        private final byte[] source;
+
+        public GetResult(boolean exists, long version, @Nullable byte[] source) {
+            this.exists = exists;
+            this.version = version;
+            this.source = source;
+        }
+
+        public boolean exists() {
+            return this.exists;
+        }
+
+        public long version() {
+            return this.version;
+        }
+
+        @Nullable public byte[] source() {
+            return this.source;
+        }
+    }
+
     static class Refresh {
 
         private final boolean waitForOperations;
@@ -287,6 +336,8 @@ public interface Engine extends IndexShardComponent, CloseableComponent {
         private final ParsedDocument doc;
         private boolean refresh;
         private long version;
+        private boolean autoGeneratedId;
+        private boolean canHaveDuplicates;
         private Origin origin = Origin.PRIMARY;
 
         public Create(Term uid, ParsedDocument doc) {
@@ -336,6 +387,32 @@ public interface Engine extends IndexShardComponent, CloseableComponent {
             return this;
         }
 
+        /**
+         * Is the id of the document auto generated, in which case the document is known not to exist and
+         * can be appended without resolving its current version.
+         */
+        public boolean autoGeneratedId() {
+            return this.autoGeneratedId;
+        }
+
+        public Create autoGeneratedId(boolean autoGeneratedId) {
+            this.autoGeneratedId = autoGeneratedId;
+            return this;
+        }
+
+        /**
+         * Might the document already exist because the operation is a retry, in which case an auto generated id
+         * document is not appended blindly, but replaces the document indexed by the previous attempt.
+         */
+        public boolean canHaveDuplicates() {
+            return this.canHaveDuplicates;
+        }
+
+        public Create canHaveDuplicates(boolean canHaveDuplicates) {
+            this.canHaveDuplicates = canHaveDuplicates;
+            return this;
+        }
+
         public String parent() {
             return this.doc.parent();
         }
@@ -27,6 +27,7 @@ import org.apache.lucene.search.IndexSearcher;
 import org.apache.lucene.store.AlreadyClosedException;
 import org.elasticsearch.ElasticSearchException;
 import org.elasticsearch.common.Preconditions;
+import org.elasticsearch.common.bloom.BloomFilter;
 import org.elasticsearch.common.inject.Inject;
 import org.elasticsearch.common.lucene.IndexWriters;
 import org.elasticsearch.common.lucene.ReaderSearcherHolder;
@@ -37,9 +38,11 @@ import org.elasticsearch.common.unit.ByteSizeValue;
 import org.elasticsearch.common.unit.TimeValue;
 import org.elasticsearch.common.util.concurrent.resource.AcquirableResource;
 import org.elasticsearch.index.analysis.AnalysisService;
+import org.elasticsearch.index.cache.bloom.BloomCache;
 import org.elasticsearch.index.deletionpolicy.SnapshotDeletionPolicy;
 import org.elasticsearch.index.deletionpolicy.SnapshotIndexCommit;
 import org.elasticsearch.index.engine.*;
+import org.elasticsearch.index.mapper.UidFieldMapper;
 import org.elasticsearch.index.merge.policy.MergePolicyProvider;
 import org.elasticsearch.index.merge.scheduler.MergeSchedulerProvider;
 import org.elasticsearch.index.settings.IndexSettings;
@@ -48,7 +51,9 @@ import org.elasticsearch.index.shard.ShardId;
 import org.elasticsearch.index.similarity.SimilarityService;
 import org.elasticsearch.index.store.Store;
 import org.elasticsearch.index.translog.Translog;
+import org.elasticsearch.index.warmer.IndexWarmer;
 
+import javax.annotation.Nullable;
 import java.io.IOException;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
@@ -107,13 +112,26 @@ public class RobinEngine extends AbstractIndexShardComponent implements Engine,
 
     private volatile int disableFlushCounter = 0;
 
+    // a delete by query was executed since the last refresh
+    private volatile boolean deleteByQueryPending = false;
+
     private final ConcurrentMap<String, VersionValue> versionMap;
 
     private final Object[] dirtyLocks;
 
+    private final boolean optimizeAutoGeneratedId;
+
+    private final BloomCache bloomCache;
+
+    private final boolean uidBloomFilter;
+
+    private final boolean asyncLoadBloomFilter;
+
+    private volatile IndexWarmer indexWarmer;
+
     @Inject public RobinEngine(ShardId shardId, @IndexSettings Settings indexSettings, Store store, SnapshotDeletionPolicy deletionPolicy, Translog translog,
                                MergePolicyProvider mergePolicyProvider, MergeSchedulerProvider mergeScheduler,
-                               AnalysisService analysisService, SimilarityService similarityService) throws EngineException {
+                               AnalysisService analysisService, SimilarityService similarityService, BloomCache bloomCache) throws EngineException {
         super(shardId, indexSettings);
         Preconditions.checkNotNull(store, "Store must be provided to the engine");
         Preconditions.checkNotNull(deletionPolicy, "Snapshot deletion policy must be provided to the engine");
@@ -132,12 +150,21 @@ public class RobinEngine extends AbstractIndexShardComponent implements Engine,
         this.mergeScheduler = mergeScheduler;
         this.analysisService = analysisService;
         this.similarityService = similarityService;
+        this.bloomCache = bloomCache;
 
         this.versionMap = new ConcurrentHashMap<String, VersionValue>(1000);
         this.dirtyLocks = new Object[componentSettings.getAsInt("concurrency", 10000)];
         for (int i = 0; i < dirtyLocks.length; i++) {
             dirtyLocks[i] = new Object();
         }
+        this.optimizeAutoGeneratedId = componentSettings.getAsBoolean("optimize_auto_generated_id", true);
+        this.uidBloomFilter = componentSettings.getAsBoolean("uid_bloom_filter.enabled", true);
+        this.asyncLoadBloomFilter = componentSettings.getAsBoolean("async_load_bloom", true);
+    }
+
+    @Inject(optional = true)
+    public void setIndexWarmer(@Nullable IndexWarmer indexWarmer) {
+        this.indexWarmer = indexWarmer;
     }
 
     @Override public void updateIndexingBufferSize(ByteSizeValue indexingBufferSize) {
@@ -290,16 +317,20 @@ public class RobinEngine extends AbstractIndexShardComponent implements Engine,
     }
 
     private void innerCreate(Create create, IndexWriter writer) throws IOException {
+        if (optimizeAutoGeneratedId && create.autoGeneratedId() && !create.canHaveDuplicates() && create.origin() != Operation.Origin.RECOVERY) {
+            innerCreateAutoGeneratedId(create, writer);
+            return;
+        }
         synchronized (dirtyLock(create.uid())) {
             UidField uidField = create.uidField();
             if (create.origin() == Operation.Origin.RECOVERY) {
                 // on recovery, we get the actual version we want to use
-                if (create.version() != 0) {
-                    versionMap.put(create.uid().text(), new VersionValue(create.version(), false));
-                }
                 uidField.version(create.version());
                 writer.addDocument(create.doc(), create.analyzer());
-                translog.add(new Translog.Create(create));
+                Translog.Location translogLocation = translog.add(new Translog.Create(create));
+                if (create.version() != 0) {
+                    versionMap.put(create.uid().text(), new VersionValue(create.version(), false, translogLocation));
+                }
             } else {
                 long expectedVersion = create.version();
                 long currentVersion;
@@ -340,23 +371,58 @@ public class RobinEngine extends AbstractIndexShardComponent implements Engine,
                 }
 
                 // if the doc does not exists or it exists but not delete
-                if (versionValue != null) {
-                    if (!versionValue.delete()) {
+                boolean doUpdate = false;
+                if ((versionValue != null && !versionValue.delete()) || (versionValue == null && currentVersion != -1)) {
+                    if (create.origin() == Operation.Origin.PRIMARY && create.autoGeneratedId() && create.canHaveDuplicates() && currentVersion == 1) {
+                        // a retry of an auto generated id create that already got indexed, replace it instead of failing
+                        updatedVersion = currentVersion;
+                        doUpdate = true;
+                    } else {
+                        // its not deleted, its already there
                         throw new DocumentAlreadyExistsEngineException(shardId, create.type(), create.id());
                     }
-                } else if (currentVersion != -1) {
-                    // its not deleted, its already there
-                    throw new DocumentAlreadyExistsEngineException(shardId, create.type(), create.id());
                 }
 
-                versionMap.put(create.uid().text(), new VersionValue(updatedVersion, false));
                 uidField.version(updatedVersion);
                 create.version(updatedVersion);
 
-                writer.addDocument(create.doc(), create.analyzer());
-                translog.add(new Translog.Create(create));
+                Translog.Location translogLocation;
+                if (doUpdate) {
+                    writer.updateDocument(create.uid(), create.doc(), create.analyzer());
+                    translogLocation = translog.add(new Translog.Index(create));
+                } else {
+                    writer.addDocument(create.doc(), create.analyzer());
+                    translogLocation = translog.add(new Translog.Create(create));
+                }
+                versionMap.put(create.uid().text(), new VersionValue(updatedVersion, false, translogLocation));
+            }
+        }
+    }
+
+    /**
+     * The id was generated on the coordinating node and this is the first attempt to execute the operation (retries
+     * are marked with {@link Create#canHaveDuplicates()}), so no other document exists with it and no other operation
+     * can concurrently refer to it. We can append the document without locking and resolving the current version.
+     */
+    private void innerCreateAutoGeneratedId(Create create, IndexWriter writer) throws IOException {
+        long updatedVersion;
+        if (create.origin() == Operation.Origin.PRIMARY) {
+            if (create.version() != 0) {
+                // an explicit version is provided, but there can't be a doc under it
+                throw new VersionConflictEngineException(shardId, create.type(), create.id(), -1, create.version());
             }
+            updatedVersion = 1;
+        } else {
+            // replicas already hold the "future" version
+            updatedVersion = create.version();
         }
+        create.uidField().version(updatedVersion);
+        create.version(updatedVersion);
+
+        writer.addDocument(create.doc(), create.analyzer());
+        Translog.Location translogLocation = translog.add(new Translog.Create(create));
+        // still maintain the version map, so operations on the returned id will be resolved before a refresh
+        versionMap.put(create.uid().text(), new VersionValue(updatedVersion, false, translogLocation));
     }
 
     @Override public void index(Index index) throws EngineException {
@@ -384,12 +450,12 @@ public class RobinEngine extends AbstractIndexShardComponent implements Engine,
             UidField uidField = index.uidField();
             if (index.origin() == Operation.Origin.RECOVERY) {
                 // on recovery, we get the actual version we want to use
-                if (index.version() != 0) {
-                    versionMap.put(index.uid().text(), new VersionValue(index.version(), false));
-                }
                 uidField.version(index.version());
                 writer.updateDocument(index.uid(), index.doc(), index.analyzer());
-                translog.add(new Translog.Index(index));
+                Translog.Location translogLocation = translog.add(new Translog.Index(index));
+                if (index.version() != 0) {
+                    versionMap.put(index.uid().text(), new VersionValue(index.version(), false, translogLocation));
+                }
             } else {
                 long expectedVersion = index.version();
                 long currentVersion;
@@ -429,7 +495,6 @@ public class RobinEngine extends AbstractIndexShardComponent implements Engine,
                     updatedVersion = index.version();
                 }
 
-                versionMap.put(index.uid().text(), new VersionValue(updatedVersion, false));
                 uidField.version(updatedVersion);
                 index.version(updatedVersion);
 
@@ -439,7 +504,8 @@ public class RobinEngine extends AbstractIndexShardComponent implements Engine,
                 } else {
                     writer.updateDocument(index.uid(), index.doc(), index.analyzer());
                 }
-                translog.add(new Translog.Index(index));
+                Translog.Location translogLocation = translog.add(new Translog.Index(index));
+                versionMap.put(index.uid().text(), new VersionValue(updatedVersion, false, translogLocation));
             }
         }
     }
@@ -535,6 +601,8 @@ public class RobinEngine extends AbstractIndexShardComponent implements Engine,
             }
             writer.deleteDocuments(delete.query());
             translog.add(new Translog.DeleteByQuery(delete));
+            // the version map can't tell which docs were deleted, realtime gets need a refresh to see it
+            deleteByQueryPending = true;
             dirty = true;
         } catch (IOException e) {
             throw new DeleteByQueryFailedEngineException(shardId, delete, e);
@@ -543,6 +611,37 @@ public class RobinEngine extends AbstractIndexShardComponent implements Engine,
         }
     }
 
+    @Override public GetResult get(Get get) throws EngineException {
+        // the read lock makes sure we don't run concurrently with a flush clearing the version map and rolling the translog
+        rwl.readLock().lock();
+        try {
+            if (indexWriter == null) {
+                throw new EngineClosedException(shardId);
+            }
+            VersionValue versionValue = versionMap.get(get.uid().text());
+            if (versionValue == null) {
+                // no operation on the doc since the last flush (which refreshed), the searcher has its latest version
+                return null;
+            }
+            if (versionValue.delete()) {
+                return GetResult.NOT_EXISTS;
+            }
+            if (!deleteByQueryPending && versionValue.translogLocation() != null) {
+                Translog.Operation operation = translog.read(versionValue.translogLocation());
+                if (operation instanceof Translog.Create) {
+                    return new GetResult(true, versionValue.version(), ((Translog.Create) operation).source());
+                } else if (operation instanceof Translog.Index) {
+                    return new GetResult(true, versionValue.version(), ((Translog.Index) operation).source());
+                }
+            }
+            // can't resolve it from the translog, make sure the searcher reflects the latest version
+            refresh(new Refresh(true));
+            return null;
+        } finally {
+            rwl.readLock().unlock();
+        }
+    }
+
     @Override public Searcher searcher() throws EngineException {
         AcquirableResource<ReaderSearcherHolder> holder;
         for (; ;) {
@@ -585,9 +684,11 @@ public class RobinEngine extends AbstractIndexShardComponent implements Engine,
                 try {
                     if (dirty) {
                         dirty = false;
+                        deleteByQueryPending = false;
                         AcquirableResource<ReaderSearcherHolder> current = nrtResource;
                         IndexReader newReader = current.resource().reader().reopen(true);
                         if (newReader != current.resource().reader()) {
+                            warm(newReader, current.resource().reader());
                             IndexSearcher indexSearcher = new IndexSearcher(newReader);
                             indexSearcher.setSimilarity(similarityService.defaultSearchSimilarity());
                             nrtResource = newAcquirableResource(new ReaderSearcherHolder(indexSearcher));
@@ -621,6 +722,10 @@ public class RobinEngine extends AbstractIndexShardComponent implements Engine,
         if (disableFlushCounter > 0) {
             throw new FlushNotAllowedEngineException(shardId, "Recovery is in progress, flush is not allowed");
         }
+        if (!flush.full()) {
+            // refresh (and warm) outside the write lock first, so only the segment the commit writes is warmed under it
+            refresh(new Refresh(false));
+        }
         rwl.writeLock().lock();
         try {
             if (indexWriter == null) {
@@ -640,6 +745,7 @@ public class RobinEngine extends AbstractIndexShardComponent implements Engine,
                     indexWriter.close();
                     indexWriter = createWriter();
                     AcquirableResource<ReaderSearcherHolder> current = nrtResource;
+                    // the new writer opens all the segments with new cores, so they are all warmed again
                     nrtResource = buildNrtResource(indexWriter);
                     current.markForClose();
                     translog.newTranslog(newTransactionLogId());
@@ -658,6 +764,8 @@ public class RobinEngine extends AbstractIndexShardComponent implements Engine,
             }
             versionMap.clear();
             dirty = true; // force a refresh
+            // the refresh has to happen under the write lock (operations resolve versions using the new reader once
+            // the version map is cleared), and the new reader is warmed before it is exposed
             refresh(new Refresh(true));
         } finally {
             rwl.writeLock().unlock();
@@ -833,12 +941,37 @@ public class RobinEngine extends AbstractIndexShardComponent implements Engine,
         // no version, get the version from the index
         Searcher searcher = searcher();
         try {
-            return UidField.loadVersion(searcher.reader(), uid);
+            IndexReader[] subReaders = searcher.reader().getSequentialSubReaders();
+            if (!uidBloomFilter || subReaders == null) {
+                return UidField.loadVersion(searcher.reader(), uid);
+            }
+            // only seek the uid in segments that might contain it, segments with filters still loading are always checked
+            for (IndexReader subReader : subReaders) {
+                BloomFilter bloomFilter = bloomCache.filter(subReader, UidFieldMapper.NAME, asyncLoadBloomFilter);
+                if (!bloomFilter.mightContain(uid.text())) {
+                    continue;
+                }
+                long version = UidField.loadVersion(subReader, uid);
+                if (version != -1) {
+                    return version;
+                }
+            }
+            return -1;
         } finally {
             searcher.release();
         }
     }
 
+    /**
+     * Warms the new segments of the reader before it is exposed for search.
+     */
+    private void warm(IndexReader newReader, @Nullable IndexReader previousReader) {
+        IndexWarmer indexWarmer = this.indexWarmer;
+        if (indexWarmer != null) {
+            indexWarmer.warm(shardId, newReader, previousReader);
+        }
+    }
+
     private IndexWriter createWriter() throws IOException {
         IndexWriter indexWriter = null;
         try {
@@ -866,6 +999,7 @@ public class RobinEngine extends AbstractIndexShardComponent implements Engine,
 
     private AcquirableResource<ReaderSearcherHolder> buildNrtResource(IndexWriter indexWriter) throws IOException {
         IndexReader indexReader = indexWriter.getReader();
+        warm(indexReader, null);
         IndexSearcher indexSearcher = new IndexSearcher(indexReader);
         indexSearcher.setSimilarity(similarityService.defaultSearchSimilarity());
         return newAcquirableResource(new ReaderSearcherHolder(indexSearcher));
@@ -904,10 +1038,16 @@ public class RobinEngine extends AbstractIndexShardComponent implements Engine,
     static class VersionValue {
         private long version;
         private final boolean delete;
+        private final Translog.Location translogLocation;
 
         VersionValue(long version, boolean delete) {
+            this(version, delete, null);
+        }
+
+        VersionValue(long version, boolean delete, @Nullable Translog.Location translogLocation) {
             this.version = version;
             this.delete = delete;
+            this.translogLocation = translogLocation;
         }
 
         public long version() {
@@ -917,5 +1057,9 @@ public class RobinEngine extends AbstractIndexShardComponent implements Engine,
         public boolean delete() {
             return delete;
         }
+
+        @Nullable public Translog.Location translogLocation() {
+            return translogLocation;
+        }
     }
 }
@@ -99,6 +99,10 @@ public abstract class FieldData<Doc extends DocFieldData> {
     public abstract FieldDataType type();
 
     public static FieldData load(FieldDataType type, IndexReader reader, String fieldName) throws IOException {
-        return type.load(reader, fieldName);
+        return load(type, reader, fieldName, false);
+    }
+
+    public static FieldData load(FieldDataType type, IndexReader reader, String fieldName, boolean direct) throws IOException {
+        return type.load(reader, fieldName, direct);
     }
 }
@@ -49,5 +49,9 @@ public interface FieldDataType<T extends FieldData> {
 
     FieldComparatorSource newFieldComparatorSource(FieldDataCache cache);
 
-    T load(IndexReader reader, String fieldName) throws IOException;
+    /**
+     * Loads the field data of the field, with <tt>direct</tt> the per doc ordinals (of single and multi valued
+     * field data) are bit packed into direct buffers outside of the heap. The per term values are kept on the heap.
+     */
+    T load(IndexReader reader, String fieldName, boolean direct) throws IOException;
 }
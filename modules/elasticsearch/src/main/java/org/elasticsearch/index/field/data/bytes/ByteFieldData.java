@@ -26,6 +26,7 @@ import org.elasticsearch.common.trove.TByteArrayList;
 import org.elasticsearch.index.field.data.FieldDataType;
 import org.elasticsearch.index.field.data.NumericFieldData;
 import org.elasticsearch.index.field.data.support.FieldDataLoader;
+import org.elasticsearch.index.field.data.support.PackedInts;
 
 import java.io.IOException;
 
@@ -114,15 +115,19 @@ public abstract class ByteFieldData extends NumericFieldData<ByteDocFieldData> {
     }
 
     public static ByteFieldData load(IndexReader reader, String field) throws IOException {
-        return FieldDataLoader.load(reader, field, new ByteTypeLoader());
+        return load(reader, field, false);
+    }
+
+    public static ByteFieldData load(IndexReader reader, String field, boolean direct) throws IOException {
+        return FieldDataLoader.load(reader, field, new ByteTypeLoader(direct));
     }
 
     static class ByteTypeLoader extends FieldDataLoader.FreqsTypeLoader<ByteFieldData> {
 
         private final TByteArrayList terms = new TByteArrayList();
 
-        ByteTypeLoader() {
-            super();
+        ByteTypeLoader(boolean direct) {
+            super(direct);
             // the first one indicates null value
             terms.add((byte) 0);
         }
@@ -132,10 +137,16 @@ public abstract class ByteFieldData extends NumericFieldData<ByteDocFieldData> {
         }
 
         @Override public ByteFieldData buildSingleValue(String field, int[] ordinals) {
+            if (direct) {
+                return new SingleValueByteFieldData(field, PackedInts.pack(ordinals, true), terms.toNativeArray());
+            }
             return new SingleValueByteFieldData(field, ordinals, terms.toNativeArray());
         }
 
         @Override public ByteFieldData buildMultiValue(String field, int[][] ordinals) {
+            if (direct) {
+                return new MultiValueByteFieldData(field, PackedInts.pack(ordinals, true), terms.toNativeArray());
+            }
             return new MultiValueByteFieldData(field, ordinals, terms.toNativeArray());
         }
     }
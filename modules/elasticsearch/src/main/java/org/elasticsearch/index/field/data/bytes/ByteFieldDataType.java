@@ -41,7 +41,7 @@ public class ByteFieldDataType implements FieldDataType<ByteFieldData> {
         };
     }
 
-    @Override public ByteFieldData load(IndexReader reader, String fieldName) throws IOException {
-        return ByteFieldData.load(reader, fieldName);
+    @Override public ByteFieldData load(IndexReader reader, String fieldName, boolean direct) throws IOException {
+        return ByteFieldData.load(reader, fieldName, direct);
     }
 }
@@ -22,6 +22,7 @@ package org.elasticsearch.index.field.data.bytes;
 import org.elasticsearch.common.RamUsage;
 import org.elasticsearch.common.thread.ThreadLocals;
 import org.elasticsearch.index.field.data.doubles.DoubleFieldData;
+import org.elasticsearch.index.field.data.support.PackedInts;
 
 /**
  * @author kimchy (shay.banon)
@@ -40,29 +41,45 @@ public class SingleValueByteFieldData extends ByteFieldData {
         }
     };
 
-    // order with value 0 indicates no value
+    // order with value 0 indicates no value, either on the heap or (direct field data) packed in a direct buffer
     private final int[] ordinals;
 
+    private final PackedInts directOrdinals;
+
     public SingleValueByteFieldData(String fieldName, int[] ordinals, byte[] values) {
         super(fieldName, values);
         this.ordinals = ordinals;
+        this.directOrdinals = null;
+    }
+
+    public SingleValueByteFieldData(String fieldName, PackedInts directOrdinals, byte[] values) {
+        super(fieldName, values);
+        this.ordinals = null;
+        this.directOrdinals = directOrdinals;
     }
 
     @Override protected long computeSizeInBytes() {
+        if (ordinals == null) {
+            return super.computeSizeInBytes() + RamUsage.NUM_BYTES_OBJECT_HEADER + directOrdinals.sizeInBytes();
+        }
         return super.computeSizeInBytes() +
                 RamUsage.NUM_BYTES_INT * ordinals.length + RamUsage.NUM_BYTES_ARRAY_HEADER;
     }
 
+    private int ordinal(int docId) {
+        return ordinals != null ? ordinals[docId] : directOrdinals.get(docId);
+    }
+
     @Override public boolean multiValued() {
         return false;
     }
 
     @Override public boolean hasValue(int docId) {
-        return ordinals[docId] != 0;
+        return ordinal(docId) != 0;
     }
 
     @Override public void forEachValueInDoc(int docId, StringValueInDocProc proc) {
-        int loc = ordinals[docId];
+        int loc = ordinal(docId);
         if (loc == 0) {
             return;
         }
@@ -70,7 +87,7 @@ public class SingleValueByteFieldData extends ByteFieldData {
     }
 
     @Override public void forEachValueInDoc(int docId, DoubleValueInDocProc proc) {
-        int loc = ordinals[docId];
+        int loc = ordinal(docId);
         if (loc == 0) {
             return;
         }
@@ -78,7 +95,7 @@ public class SingleValueByteFieldData extends ByteFieldData {
     }
 
     @Override public void forEachValueInDoc(int docId, ValueInDocProc proc) {
-        int loc = ordinals[docId];
+        int loc = ordinal(docId);
         if (loc == 0) {
             return;
         }
@@ -86,11 +103,11 @@ public class SingleValueByteFieldData extends ByteFieldData {
     }
 
     @Override public byte value(int docId) {
-        return values[ordinals[docId]];
+        return values[ordinal(docId)];
     }
 
     @Override public double[] doubleValues(int docId) {
-        int loc = ordinals[docId];
+        int loc = ordinal(docId);
         if (loc == 0) {
             return DoubleFieldData.EMPTY_DOUBLE_ARRAY;
         }
@@ -100,7 +117,7 @@ public class SingleValueByteFieldData extends ByteFieldData {
     }
 
     @Override public byte[] values(int docId) {
-        int loc = ordinals[docId];
+        int loc = ordinal(docId);
         if (loc == 0) {
             return EMPTY_BYTE_ARRAY;
         }
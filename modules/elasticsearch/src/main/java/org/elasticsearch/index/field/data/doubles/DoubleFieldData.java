@@ -26,6 +26,7 @@ import org.elasticsearch.common.trove.TDoubleArrayList;
 import org.elasticsearch.index.field.data.FieldDataType;
 import org.elasticsearch.index.field.data.NumericFieldData;
 import org.elasticsearch.index.field.data.support.FieldDataLoader;
+import org.elasticsearch.index.field.data.support.PackedInts;
 
 import java.io.IOException;
 
@@ -114,15 +115,19 @@ public abstract class DoubleFieldData extends NumericFieldData<DoubleDocFieldDat
     }
 
     public static DoubleFieldData load(IndexReader reader, String field) throws IOException {
-        return FieldDataLoader.load(reader, field, new DoubleTypeLoader());
+        return load(reader, field, false);
+    }
+
+    public static DoubleFieldData load(IndexReader reader, String field, boolean direct) throws IOException {
+        return FieldDataLoader.load(reader, field, new DoubleTypeLoader(direct));
     }
 
     static class DoubleTypeLoader extends FieldDataLoader.FreqsTypeLoader<DoubleFieldData> {
 
         private final TDoubleArrayList terms = new TDoubleArrayList();
 
-        DoubleTypeLoader() {
-            super();
+        DoubleTypeLoader(boolean direct) {
+            super(direct);
             // the first one indicates null value
             terms.add(0);
         }
@@ -132,10 +137,16 @@ public abstract class DoubleFieldData extends NumericFieldData<DoubleDocFieldDat
         }
 
         @Override public DoubleFieldData buildSingleValue(String field, int[] ordinals) {
+            if (direct) {
+                return new SingleValueDoubleFieldData(field, PackedInts.pack(ordinals, true), terms.toNativeArray());
+            }
             return new SingleValueDoubleFieldData(field, ordinals, terms.toNativeArray());
         }
 
         @Override public DoubleFieldData buildMultiValue(String field, int[][] ordinals) {
+            if (direct) {
+                return new MultiValueDoubleFieldData(field, PackedInts.pack(ordinals, true), terms.toNativeArray());
+            }
             return new MultiValueDoubleFieldData(field, ordinals, terms.toNativeArray());
         }
     }
@@ -40,7 +40,7 @@ public class DoubleFieldDataType implements FieldDataType<DoubleFieldData> {
         };
     }
 
-    @Override public DoubleFieldData load(IndexReader reader, String fieldName) throws IOException {
-        return DoubleFieldData.load(reader, fieldName);
+    @Override public DoubleFieldData load(IndexReader reader, String fieldName, boolean direct) throws IOException {
+        return DoubleFieldData.load(reader, fieldName, direct);
     }
 }
@@ -21,6 +21,7 @@ package org.elasticsearch.index.field.data.doubles;
 
 import org.elasticsearch.common.RamUsage;
 import org.elasticsearch.common.thread.ThreadLocals;
+import org.elasticsearch.index.field.data.support.PackedInts;
 
 /**
  * @author kimchy (shay.banon)
@@ -39,30 +40,53 @@ public class MultiValueDoubleFieldData extends DoubleFieldData {
         }
     };
 
-    // order with value 0 indicates no value
+    // order with value 0 indicates no value, either on the heap or (direct field data) packed in direct buffers
     private final int[][] ordinals;
 
+    private final PackedInts[] directOrdinals;
+
+    private final int numOrdinals;
+
     public MultiValueDoubleFieldData(String fieldName, int[][] ordinals, double[] values) {
         super(fieldName, values);
         this.ordinals = ordinals;
+        this.directOrdinals = null;
+        this.numOrdinals = ordinals.length;
+    }
+
+    public MultiValueDoubleFieldData(String fieldName, PackedInts[] directOrdinals, double[] values) {
+        super(fieldName, values);
+        this.ordinals = null;
+        this.directOrdinals = directOrdinals;
+        this.numOrdinals = directOrdinals.length;
     }
 
     @Override protected long computeSizeInBytes() {
         long size = super.computeSizeInBytes();
         size += RamUsage.NUM_BYTES_ARRAY_HEADER; // for the top level array
+        if (ordinals == null) {
+            for (PackedInts ordinal : directOrdinals) {
+                size += RamUsage.NUM_BYTES_OBJECT_HEADER + ordinal.sizeInBytes();
+            }
+            return size;
+        }
         for (int[] ordinal : ordinals) {
             size += RamUsage.NUM_BYTES_INT * ordinal.length + RamUsage.NUM_BYTES_ARRAY_HEADER;
         }
         return size;
     }
 
+    private int ordinal(int ord, int docId) {
+        return ordinals != null ? ordinals[ord][docId] : directOrdinals[ord].get(docId);
+    }
+
     @Override public boolean multiValued() {
         return true;
     }
 
     @Override public boolean hasValue(int docId) {
-        for (int[] ordinal : ordinals) {
-            if (ordinal[docId] != 0) {
+        for (int ord = 0; ord < numOrdinals; ord++) {
+            if (ordinal(ord, docId) != 0) {
                 return true;
             }
         }
@@ -70,8 +94,8 @@ public class MultiValueDoubleFieldData extends DoubleFieldData {
     }
 
     @Override public void forEachValueInDoc(int docId, StringValueInDocProc proc) {
-        for (int[] ordinal : ordinals) {
-            int loc = ordinal[docId];
+        for (int ord = 0; ord < numOrdinals; ord++) {
+            int loc = ordinal(ord, docId);
             if (loc != 0) {
                 proc.onValue(docId, Double.toString(values[loc]));
             }
@@ -79,8 +103,8 @@ public class MultiValueDoubleFieldData extends DoubleFieldData {
     }
 
     @Override public void forEachValueInDoc(int docId, DoubleValueInDocProc proc) {
-        for (int[] ordinal : ordinals) {
-            int loc = ordinal[docId];
+        for (int ord = 0; ord < numOrdinals; ord++) {
+            int loc = ordinal(ord, docId);
             if (loc != 0) {
                 proc.onValue(docId, values[loc]);
             }
@@ -88,8 +112,8 @@ public class MultiValueDoubleFieldData extends DoubleFieldData {
     }
 
     @Override public void forEachValueInDoc(int docId, ValueInDocProc proc) {
-        for (int[] ordinal : ordinals) {
-            int loc = ordinal[docId];
+        for (int ord = 0; ord < numOrdinals; ord++) {
+            int loc = ordinal(ord, docId);
             if (loc != 0) {
                 proc.onValue(docId, values[loc]);
             }
@@ -101,8 +125,8 @@ public class MultiValueDoubleFieldData extends DoubleFieldData {
     }
 
     @Override public double value(int docId) {
-        for (int[] ordinal : ordinals) {
-            int loc = ordinal[docId];
+        for (int ord = 0; ord < numOrdinals; ord++) {
+            int loc = ordinal(ord, docId);
             if (loc != 0) {
                 return values[loc];
             }
@@ -112,8 +136,8 @@ public class MultiValueDoubleFieldData extends DoubleFieldData {
 
     @Override public double[] values(int docId) {
         int length = 0;
-        for (int[] ordinal : ordinals) {
-            if (ordinal[docId] != 0) {
+        for (int ord = 0; ord < numOrdinals; ord++) {
+            if (ordinal(ord, docId) != 0) {
                 length++;
             }
         }
@@ -127,8 +151,8 @@ public class MultiValueDoubleFieldData extends DoubleFieldData {
             doubles = new double[length];
         }
         int i = 0;
-        for (int[] ordinal : ordinals) {
-            int loc = ordinal[docId];
+        for (int ord = 0; ord < numOrdinals; ord++) {
+            int loc = ordinal(ord, docId);
             if (loc != 0) {
                 doubles[i++] = values[loc];
             }
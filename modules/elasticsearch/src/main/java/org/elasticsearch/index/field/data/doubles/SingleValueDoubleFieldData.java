@@ -21,6 +21,7 @@ package org.elasticsearch.index.field.data.doubles;
 
 import org.elasticsearch.common.RamUsage;
 import org.elasticsearch.common.thread.ThreadLocals;
+import org.elasticsearch.index.field.data.support.PackedInts;
 
 /**
  * @author kimchy (shay.banon)
@@ -33,29 +34,45 @@ public class SingleValueDoubleFieldData extends DoubleFieldData {
         }
     };
 
-    // order with value 0 indicates no value
+    // order with value 0 indicates no value, either on the heap or (direct field data) packed in a direct buffer
     private final int[] ordinals;
 
+    private final PackedInts directOrdinals;
+
     public SingleValueDoubleFieldData(String fieldName, int[] ordinals, double[] values) {
         super(fieldName, values);
         this.ordinals = ordinals;
+        this.directOrdinals = null;
+    }
+
+    public SingleValueDoubleFieldData(String fieldName, PackedInts directOrdinals, double[] values) {
+        super(fieldName, values);
+        this.ordinals = null;
+        this.directOrdinals = directOrdinals;
     }
 
     @Override protected long computeSizeInBytes() {
+        if (ordinals == null) {
+            return super.computeSizeInBytes() + RamUsage.NUM_BYTES_OBJECT_HEADER + directOrdinals.sizeInBytes();
+        }
         return super.computeSizeInBytes() +
                 RamUsage.NUM_BYTES_INT * ordinals.length + RamUsage.NUM_BYTES_ARRAY_HEADER;
     }
 
+    private int ordinal(int docId) {
+        return ordinals != null ? ordinals[docId] : directOrdinals.get(docId);
+    }
+
     @Override public boolean multiValued() {
         return false;
     }
 
     @Override public boolean hasValue(int docId) {
-        return ordinals[docId] != 0;
+        return ordinal(docId) != 0;
     }
 
     @Override public void forEachValueInDoc(int docId, StringValueInDocProc proc) {
-        int loc = ordinals[docId];
+        int loc = ordinal(docId);
         if (loc == 0) {
             return;
         }
@@ -63,7 +80,7 @@ public class SingleValueDoubleFieldData extends DoubleFieldData {
     }
 
     @Override public void forEachValueInDoc(int docId, DoubleValueInDocProc proc) {
-        int loc = ordinals[docId];
+        int loc = ordinal(docId);
         if (loc == 0) {
             return;
         }
@@ -71,7 +88,7 @@ public class SingleValueDoubleFieldData extends DoubleFieldData {
     }
 
     @Override public void forEachValueInDoc(int docId, ValueInDocProc proc) {
-        int loc = ordinals[docId];
+        int loc = ordinal(docId);
         if (loc == 0) {
             return;
         }
@@ -83,11 +100,11 @@ public class SingleValueDoubleFieldData extends DoubleFieldData {
     }
 
     @Override public double value(int docId) {
-        return values[ordinals[docId]];
+        return values[ordinal(docId)];
     }
 
     @Override public double[] values(int docId) {
-        int loc = ordinals[docId];
+        int loc = ordinal(docId);
         if (loc == 0) {
             return EMPTY_DOUBLE_ARRAY;
         }
@@ -26,6 +26,7 @@ import org.elasticsearch.common.trove.TFloatArrayList;
 import org.elasticsearch.index.field.data.FieldDataType;
 import org.elasticsearch.index.field.data.NumericFieldData;
 import org.elasticsearch.index.field.data.support.FieldDataLoader;
+import org.elasticsearch.index.field.data.support.PackedInts;
 
 import java.io.IOException;
 
@@ -114,15 +115,19 @@ public abstract class FloatFieldData extends NumericFieldData<FloatDocFieldData>
     }
 
     public static FloatFieldData load(IndexReader reader, String field) throws IOException {
-        return FieldDataLoader.load(reader, field, new FloatTypeLoader());
+        return load(reader, field, false);
+    }
+
+    public static FloatFieldData load(IndexReader reader, String field, boolean direct) throws IOException {
+        return FieldDataLoader.load(reader, field, new FloatTypeLoader(direct));
     }
 
     static class FloatTypeLoader extends FieldDataLoader.FreqsTypeLoader<FloatFieldData> {
 
         private final TFloatArrayList terms = new TFloatArrayList();
 
-        FloatTypeLoader() {
-            super();
+        FloatTypeLoader(boolean direct) {
+            super(direct);
             // the first one indicates null value
             terms.add(0);
         }
@@ -132,10 +137,16 @@ public abstract class FloatFieldData extends NumericFieldData<FloatDocFieldData>
         }
 
         @Override public FloatFieldData buildSingleValue(String field, int[] ordinals) {
+            if (direct) {
+                return new SingleValueFloatFieldData(field, PackedInts.pack(ordinals, true), terms.toNativeArray());
+            }
             return new SingleValueFloatFieldData(field, ordinals, terms.toNativeArray());
         }
 
         @Override public FloatFieldData buildMultiValue(String field, int[][] ordinals) {
+            if (direct) {
+                return new MultiValueFloatFieldData(field, PackedInts.pack(ordinals, true), terms.toNativeArray());
+            }
             return new MultiValueFloatFieldData(field, ordinals, terms.toNativeArray());
         }
     }
@@ -40,7 +40,7 @@ public class FloatFieldDataType implements FieldDataType<FloatFieldData> {
         };
     }
 
-    @Override public FloatFieldData load(IndexReader reader, String fieldName) throws IOException {
-        return FloatFieldData.load(reader, fieldName);
+    @Override public FloatFieldData load(IndexReader reader, String fieldName, boolean direct) throws IOException {
+        return FloatFieldData.load(reader, fieldName, direct);
     }
 }
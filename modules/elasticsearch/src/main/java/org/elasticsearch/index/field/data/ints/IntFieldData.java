@@ -26,6 +26,7 @@ import org.elasticsearch.common.trove.TIntArrayList;
 import org.elasticsearch.index.field.data.FieldDataType;
 import org.elasticsearch.index.field.data.NumericFieldData;
 import org.elasticsearch.index.field.data.support.FieldDataLoader;
+import org.elasticsearch.index.field.data.support.PackedInts;
 
 import java.io.IOException;
 
@@ -114,15 +115,19 @@ public abstract class IntFieldData extends NumericFieldData<IntDocFieldData> {
     }
 
     public static IntFieldData load(IndexReader reader, String field) throws IOException {
-        return FieldDataLoader.load(reader, field, new IntTypeLoader());
+        return load(reader, field, false);
+    }
+
+    public static IntFieldData load(IndexReader reader, String field, boolean direct) throws IOException {
+        return FieldDataLoader.load(reader, field, new IntTypeLoader(direct));
     }
 
     static class IntTypeLoader extends FieldDataLoader.FreqsTypeLoader<IntFieldData> {
 
         private final TIntArrayList terms = new TIntArrayList();
 
-        IntTypeLoader() {
-            super();
+        IntTypeLoader(boolean direct) {
+            super(direct);
             // the first one indicates null value
             terms.add(0);
         }
@@ -132,10 +137,16 @@ public abstract class IntFieldData extends NumericFieldData<IntDocFieldData> {
         }
 
         @Override public IntFieldData buildSingleValue(String field, int[] ordinals) {
+            if (direct) {
+                return new SingleValueIntFieldData(field, PackedInts.pack(ordinals, true), terms.toNativeArray());
+            }
             return new SingleValueIntFieldData(field, ordinals, terms.toNativeArray());
         }
 
         @Override public IntFieldData buildMultiValue(String field, int[][] ordinals) {
+            if (direct) {
+                return new MultiValueIntFieldData(field, PackedInts.pack(ordinals, true), terms.toNativeArray());
+            }
             return new MultiValueIntFieldData(field, ordinals, terms.toNativeArray());
         }
     }
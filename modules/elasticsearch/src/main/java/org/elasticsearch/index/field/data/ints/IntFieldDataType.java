@@ -40,7 +40,7 @@ public class IntFieldDataType implements FieldDataType<IntFieldData> {
         };
     }
 
-    @Override public IntFieldData load(IndexReader reader, String fieldName) throws IOException {
-        return IntFieldData.load(reader, fieldName);
+    @Override public IntFieldData load(IndexReader reader, String fieldName, boolean direct) throws IOException {
+        return IntFieldData.load(reader, fieldName, direct);
     }
 }
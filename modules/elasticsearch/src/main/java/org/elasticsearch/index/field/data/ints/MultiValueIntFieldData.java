@@ -22,6 +22,7 @@ package org.elasticsearch.index.field.data.ints;
 import org.elasticsearch.common.RamUsage;
 import org.elasticsearch.common.thread.ThreadLocals;
 import org.elasticsearch.index.field.data.doubles.DoubleFieldData;
+import org.elasticsearch.index.field.data.support.PackedInts;
 
 /**
  * @author kimchy (shay.banon)
@@ -50,30 +51,53 @@ public class MultiValueIntFieldData extends IntFieldData {
         }
     };
 
-    // order with value 0 indicates no value
+    // order with value 0 indicates no value, either on the heap or (direct field data) packed in direct buffers
     private final int[][] ordinals;
 
+    private final PackedInts[] directOrdinals;
+
+    private final int numOrdinals;
+
     public MultiValueIntFieldData(String fieldName, int[][] ordinals, int[] values) {
         super(fieldName, values);
         this.ordinals = ordinals;
+        this.directOrdinals = null;
+        this.numOrdinals = ordinals.length;
+    }
+
+    public MultiValueIntFieldData(String fieldName, PackedInts[] directOrdinals, int[] values) {
+        super(fieldName, values);
+        this.ordinals = null;
+        this.directOrdinals = directOrdinals;
+        this.numOrdinals = directOrdinals.length;
     }
 
     @Override protected long computeSizeInBytes() {
         long size = super.computeSizeInBytes();
         size += RamUsage.NUM_BYTES_ARRAY_HEADER; // for the top level array
+        if (ordinals == null) {
+            for (PackedInts ordinal : directOrdinals) {
+                size += RamUsage.NUM_BYTES_OBJECT_HEADER + ordinal.sizeInBytes();
+            }
+            return size;
+        }
         for (int[] ordinal : ordinals) {
             size += RamUsage.NUM_BYTES_INT * ordinal.length + RamUsage.NUM_BYTES_ARRAY_HEADER;
         }
         return size;
     }
 
+    private int ordinal(int ord, int docId) {
+        return ordinals != null ? ordinals[ord][docId] : directOrdinals[ord].get(docId);
+    }
+
     @Override public boolean multiValued() {
         return true;
     }
 
     @Override public boolean hasValue(int docId) {
-        for (int[] ordinal : ordinals) {
-            if (ordinal[docId] != 0) {
+        for (int ord = 0; ord < numOrdinals; ord++) {
+            if (ordinal(ord, docId) != 0) {
                 return true;
             }
         }
@@ -81,8 +105,8 @@ public class MultiValueIntFieldData extends IntFieldData {
     }
 
     @Override public void forEachValueInDoc(int docId, StringValueInDocProc proc) {
-        for (int[] ordinal : ordinals) {
-            int loc = ordinal[docId];
+        for (int ord = 0; ord < numOrdinals; ord++) {
+            int loc = ordinal(ord, docId);
             if (loc != 0) {
                 proc.onValue(docId, Integer.toString(values[loc]));
             }
@@ -90,8 +114,8 @@ public class MultiValueIntFieldData extends IntFieldData {
     }
 
     @Override public void forEachValueInDoc(int docId, DoubleValueInDocProc proc) {
-        for (int[] ordinal : ordinals) {
-            int loc = ordinal[docId];
+        for (int ord = 0; ord < numOrdinals; ord++) {
+            int loc = ordinal(ord, docId);
             if (loc != 0) {
                 proc.onValue(docId, values[loc]);
             }
@@ -99,8 +123,8 @@ public class MultiValueIntFieldData extends IntFieldData {
     }
 
     @Override public void forEachValueInDoc(int docId, ValueInDocProc proc) {
-        for (int[] ordinal : ordinals) {
-            int loc = ordinal[docId];
+        for (int ord = 0; ord < numOrdinals; ord++) {
+            int loc = ordinal(ord, docId);
             if (loc != 0) {
                 proc.onValue(docId, values[loc]);
             }
@@ -109,8 +133,8 @@ public class MultiValueIntFieldData extends IntFieldData {
 
     @Override public double[] doubleValues(int docId) {
         int length = 0;
-        for (int[] ordinal : ordinals) {
-            if (ordinal[docId] != 0) {
+        for (int ord = 0; ord < numOrdinals; ord++) {
+            if (ordinal(ord, docId) != 0) {
                 length++;
             }
         }
@@ -124,8 +148,8 @@ public class MultiValueIntFieldData extends IntFieldData {
             doubles = new double[length];
         }
         int i = 0;
-        for (int[] ordinal : ordinals) {
-            int loc = ordinal[docId];
+        for (int ord = 0; ord < numOrdinals; ord++) {
+            int loc = ordinal(ord, docId);
             if (loc != 0) {
                 doubles[i++] = values[loc];
             }
@@ -134,8 +158,8 @@ public class MultiValueIntFieldData extends IntFieldData {
     }
 
     @Override public int value(int docId) {
-        for (int[] ordinal : ordinals) {
-            int loc = ordinal[docId];
+        for (int ord = 0; ord < numOrdinals; ord++) {
+            int loc = ordinal(ord, docId);
             if (loc != 0) {
                 return values[loc];
             }
@@ -145,8 +169,8 @@ public class MultiValueIntFieldData extends IntFieldData {
 
     @Override public int[] values(int docId) {
         int length = 0;
-        for (int[] ordinal : ordinals) {
-            if (ordinal[docId] != 0) {
+        for (int ord = 0; ord < numOrdinals; ord++) {
+            if (ordinal(ord, docId) != 0) {
                 length++;
             }
         }
@@ -160,8 +184,8 @@ public class MultiValueIntFieldData extends IntFieldData {
             ints = new int[length];
         }
         int i = 0;
-        for (int[] ordinal : ordinals) {
-            int loc = ordinal[docId];
+        for (int ord = 0; ord < numOrdinals; ord++) {
+            int loc = ordinal(ord, docId);
             if (loc != 0) {
                 ints[i++] = values[loc];
             }
@@ -29,6 +29,7 @@ import org.elasticsearch.common.trove.TLongArrayList;
 import org.elasticsearch.index.field.data.FieldDataType;
 import org.elasticsearch.index.field.data.NumericFieldData;
 import org.elasticsearch.index.field.data.support.FieldDataLoader;
+import org.elasticsearch.index.field.data.support.PackedInts;
 
 import java.io.IOException;
 
@@ -144,15 +145,19 @@ public abstract class LongFieldData extends NumericFieldData<LongDocFieldData> {
     }
 
     public static LongFieldData load(IndexReader reader, String field) throws IOException {
-        return FieldDataLoader.load(reader, field, new LongTypeLoader());
+        return load(reader, field, false);
+    }
+
+    public static LongFieldData load(IndexReader reader, String field, boolean direct) throws IOException {
+        return FieldDataLoader.load(reader, field, new LongTypeLoader(direct));
     }
 
     static class LongTypeLoader extends FieldDataLoader.FreqsTypeLoader<LongFieldData> {
 
         private final TLongArrayList terms = new TLongArrayList();
 
-        LongTypeLoader() {
-            super();
+        LongTypeLoader(boolean direct) {
+            super(direct);
             // the first one indicates null value
             terms.add(0);
         }
@@ -162,10 +167,16 @@ public abstract class LongFieldData extends NumericFieldData<LongDocFieldData> {
         }
 
         @Override public LongFieldData buildSingleValue(String field, int[] ordinals) {
+            if (direct) {
+                return new SingleValueLongFieldData(field, PackedInts.pack(ordinals, true), terms.toNativeArray());
+            }
             return new SingleValueLongFieldData(field, ordinals, terms.toNativeArray());
         }
 
         @Override public LongFieldData buildMultiValue(String field, int[][] ordinals) {
+            if (direct) {
+                return new MultiValueLongFieldData(field, PackedInts.pack(ordinals, true), terms.toNativeArray());
+            }
             return new MultiValueLongFieldData(field, ordinals, terms.toNativeArray());
         }
     }
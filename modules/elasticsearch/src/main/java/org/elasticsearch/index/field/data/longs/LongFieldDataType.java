@@ -40,7 +40,7 @@ public class LongFieldDataType implements FieldDataType<LongFieldData> {
         };
     }
 
-    @Override public LongFieldData load(IndexReader reader, String fieldName) throws IOException {
-        return LongFieldData.load(reader, fieldName);
+    @Override public LongFieldData load(IndexReader reader, String fieldName, boolean direct) throws IOException {
+        return LongFieldData.load(reader, fieldName, direct);
     }
 }
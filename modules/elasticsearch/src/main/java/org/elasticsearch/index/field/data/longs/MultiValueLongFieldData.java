@@ -24,6 +24,7 @@ import org.elasticsearch.common.joda.time.DateTimeZone;
 import org.elasticsearch.common.joda.time.MutableDateTime;
 import org.elasticsearch.common.thread.ThreadLocals;
 import org.elasticsearch.index.field.data.doubles.DoubleFieldData;
+import org.elasticsearch.index.field.data.support.PackedInts;
 
 /**
  * @author kimchy (shay.banon)
@@ -66,30 +67,53 @@ public class MultiValueLongFieldData extends LongFieldData {
         }
     };
 
-    // order with value 0 indicates no value
+    // order with value 0 indicates no value, either on the heap or (direct field data) packed in direct buffers
     private final int[][] ordinals;
 
+    private final PackedInts[] directOrdinals;
+
+    private final int numOrdinals;
+
     public MultiValueLongFieldData(String fieldName, int[][] ordinals, long[] values) {
         super(fieldName, values);
         this.ordinals = ordinals;
+        this.directOrdinals = null;
+        this.numOrdinals = ordinals.length;
+    }
+
+    public MultiValueLongFieldData(String fieldName, PackedInts[] directOrdinals, long[] values) {
+        super(fieldName, values);
+        this.ordinals = null;
+        this.directOrdinals = directOrdinals;
+        this.numOrdinals = directOrdinals.length;
     }
 
     @Override protected long computeSizeInBytes() {
         long size = super.computeSizeInBytes();
         size += RamUsage.NUM_BYTES_ARRAY_HEADER; // for the top level array
+        if (ordinals == null) {
+            for (PackedInts ordinal : directOrdinals) {
+                size += RamUsage.NUM_BYTES_OBJECT_HEADER + ordinal.sizeInBytes();
+            }
+            return size;
+        }
         for (int[] ordinal : ordinals) {
             size += RamUsage.NUM_BYTES_INT * ordinal.length + RamUsage.NUM_BYTES_ARRAY_HEADER;
         }
         return size;
     }
 
+    private int ordinal(int ord, int docId) {
+        return ordinals != null ? ordinals[ord][docId] : directOrdinals[ord].get(docId);
+    }
+
     @Override public boolean multiValued() {
         return true;
     }
 
     @Override public boolean hasValue(int docId) {
-        for (int[] ordinal : ordinals) {
-            if (ordinal[docId] != 0) {
+        for (int ord = 0; ord < numOrdinals; ord++) {
+            if (ordinal(ord, docId) != 0) {
                 return true;
             }
         }
@@ -97,8 +121,8 @@ public class MultiValueLongFieldData extends LongFieldData {
     }
 
     @Override public void forEachValueInDoc(int docId, StringValueInDocProc proc) {
-        for (int[] ordinal : ordinals) {
-            int loc = ordinal[docId];
+        for (int ord = 0; ord < numOrdinals; ord++) {
+            int loc = ordinal(ord, docId);
             if (loc != 0) {
                 proc.onValue(docId, Long.toString(values[loc]));
             }
@@ -106,8 +130,8 @@ public class MultiValueLongFieldData extends LongFieldData {
     }
 
     @Override public void forEachValueInDoc(int docId, DoubleValueInDocProc proc) {
-        for (int[] ordinal : ordinals) {
-            int loc = ordinal[docId];
+        for (int ord = 0; ord < numOrdinals; ord++) {
+            int loc = ordinal(ord, docId);
             if (loc != 0) {
                 proc.onValue(docId, values[loc]);
             }
@@ -115,8 +139,8 @@ public class MultiValueLongFieldData extends LongFieldData {
     }
 
     @Override public void forEachValueInDoc(int docId, ValueInDocProc proc) {
-        for (int[] ordinal : ordinals) {
-            int loc = ordinal[docId];
+        for (int ord = 0; ord < numOrdinals; ord++) {
+            int loc = ordinal(ord, docId);
             if (loc != 0) {
                 proc.onValue(docId, values[loc]);
             }
@@ -125,8 +149,8 @@ public class MultiValueLongFieldData extends LongFieldData {
 
     @Override public void forEachValueInDoc(int docId, DateValueInDocProc proc) {
         MutableDateTime dateTime = dateTimeCache.get().get();
-        for (int[] ordinal : ordinals) {
-            int loc = ordinal[docId];
+        for (int ord = 0; ord < numOrdinals; ord++) {
+            int loc = ordinal(ord, docId);
             if (loc != 0) {
                 dateTime.setMillis(values[loc]);
                 proc.onValue(docId, dateTime);
@@ -135,8 +159,8 @@ public class MultiValueLongFieldData extends LongFieldData {
     }
 
     @Override public void forEachValueInDoc(int docId, MutableDateTime dateTime, DateValueInDocProc proc) {
-        for (int[] ordinal : ordinals) {
-            int loc = ordinal[docId];
+        for (int ord = 0; ord < numOrdinals; ord++) {
+            int loc = ordinal(ord, docId);
             if (loc != 0) {
                 dateTime.setMillis(values[loc]);
                 proc.onValue(docId, dateTime);
@@ -146,8 +170,8 @@ public class MultiValueLongFieldData extends LongFieldData {
 
     @Override public MutableDateTime[] dates(int docId) {
         int length = 0;
-        for (int[] ordinal : ordinals) {
-            if (ordinal[docId] != 0) {
+        for (int ord = 0; ord < numOrdinals; ord++) {
+            if (ordinal(ord, docId) != 0) {
                 length++;
             }
         }
@@ -164,8 +188,8 @@ public class MultiValueLongFieldData extends LongFieldData {
             }
         }
         int i = 0;
-        for (int[] ordinal : ordinals) {
-            int loc = ordinal[docId];
+        for (int ord = 0; ord < numOrdinals; ord++) {
+            int loc = ordinal(ord, docId);
             if (loc != 0) {
                 dates[i++].setMillis(values[loc]);
             }
@@ -175,8 +199,8 @@ public class MultiValueLongFieldData extends LongFieldData {
 
     @Override public double[] doubleValues(int docId) {
         int length = 0;
-        for (int[] ordinal : ordinals) {
-            if (ordinal[docId] != 0) {
+        for (int ord = 0; ord < numOrdinals; ord++) {
+            if (ordinal(ord, docId) != 0) {
                 length++;
             }
         }
@@ -190,8 +214,8 @@ public class MultiValueLongFieldData extends LongFieldData {
             doubles = new double[length];
         }
         int i = 0;
-        for (int[] ordinal : ordinals) {
-            int loc = ordinal[docId];
+        for (int ord = 0; ord < numOrdinals; ord++) {
+            int loc = ordinal(ord, docId);
             if (loc != 0) {
                 doubles[i++] = values[loc];
             }
@@ -200,8 +224,8 @@ public class MultiValueLongFieldData extends LongFieldData {
     }
 
     @Override public long value(int docId) {
-        for (int[] ordinal : ordinals) {
-            int loc = ordinal[docId];
+        for (int ord = 0; ord < numOrdinals; ord++) {
+            int loc = ordinal(ord, docId);
             if (loc != 0) {
                 return values[loc];
             }
@@ -211,8 +235,8 @@ public class MultiValueLongFieldData extends LongFieldData {
 
     @Override public long[] values(int docId) {
         int length = 0;
-        for (int[] ordinal : ordinals) {
-            if (ordinal[docId] != 0) {
+        for (int ord = 0; ord < numOrdinals; ord++) {
+            if (ordinal(ord, docId) != 0) {
                 length++;
             }
         }
@@ -226,8 +250,8 @@ public class MultiValueLongFieldData extends LongFieldData {
             longs = new long[length];
         }
         int i = 0;
-        for (int[] ordinal : ordinals) {
-            int loc = ordinal[docId];
+        for (int ord = 0; ord < numOrdinals; ord++) {
+            int loc = ordinal(ord, docId);
             if (loc != 0) {
                 longs[i++] = values[loc];
             }
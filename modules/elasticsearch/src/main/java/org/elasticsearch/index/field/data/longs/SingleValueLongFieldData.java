@@ -24,6 +24,7 @@ import org.elasticsearch.common.joda.time.DateTimeZone;
 import org.elasticsearch.common.joda.time.MutableDateTime;
 import org.elasticsearch.common.thread.ThreadLocals;
 import org.elasticsearch.index.field.data.doubles.DoubleFieldData;
+import org.elasticsearch.index.field.data.support.PackedInts;
 
 /**
  * @author kimchy (shay.banon)
@@ -50,29 +51,45 @@ public class SingleValueLongFieldData extends LongFieldData {
         }
     };
 
-    // order with value 0 indicates no value
+    // order with value 0 indicates no value, either on the heap or (direct field data) packed in a direct buffer
     private final int[] ordinals;
 
+    private final PackedInts directOrdinals;
+
     public SingleValueLongFieldData(String fieldName, int[] ordinals, long[] values) {
         super(fieldName, values);
         this.ordinals = ordinals;
+        this.directOrdinals = null;
+    }
+
+    public SingleValueLongFieldData(String fieldName, PackedInts directOrdinals, long[] values) {
+        super(fieldName, values);
+        this.ordinals = null;
+        this.directOrdinals = directOrdinals;
     }
 
     @Override protected long computeSizeInBytes() {
+        if (ordinals == null) {
+            return super.computeSizeInBytes() + RamUsage.NUM_BYTES_OBJECT_HEADER + directOrdinals.sizeInBytes();
+        }
         return super.computeSizeInBytes() +
                 RamUsage.NUM_BYTES_INT * ordinals.length + RamUsage.NUM_BYTES_ARRAY_HEADER;
     }
 
+    private int ordinal(int docId) {
+        return ordinals != null ? ordinals[docId] : directOrdinals.get(docId);
+    }
+
     @Override public boolean multiValued() {
         return false;
     }
 
     @Override public boolean hasValue(int docId) {
-        return ordinals[docId] != 0;
+        return ordinal(docId) != 0;
     }
 
     @Override public void forEachValueInDoc(int docId, StringValueInDocProc proc) {
-        int loc = ordinals[docId];
+        int loc = ordinal(docId);
         if (loc == 0) {
             return;
         }
@@ -80,7 +97,7 @@ public class SingleValueLongFieldData extends LongFieldData {
     }
 
     @Override public void forEachValueInDoc(int docId, DoubleValueInDocProc proc) {
-        int loc = ordinals[docId];
+        int loc = ordinal(docId);
         if (loc == 0) {
             return;
         }
@@ -88,7 +105,7 @@ public class SingleValueLongFieldData extends LongFieldData {
     }
 
     @Override public void forEachValueInDoc(int docId, ValueInDocProc proc) {
-        int loc = ordinals[docId];
+        int loc = ordinal(docId);
         if (loc == 0) {
             return;
         }
@@ -96,7 +113,7 @@ public class SingleValueLongFieldData extends LongFieldData {
     }
 
     @Override public void forEachValueInDoc(int docId, DateValueInDocProc proc) {
-        int loc = ordinals[docId];
+        int loc = ordinal(docId);
         if (loc == 0) {
             return;
         }
@@ -106,7 +123,7 @@ public class SingleValueLongFieldData extends LongFieldData {
     }
 
     @Override public void forEachValueInDoc(int docId, MutableDateTime dateTime, DateValueInDocProc proc) {
-        int loc = ordinals[docId];
+        int loc = ordinal(docId);
         if (loc == 0) {
             return;
         }
@@ -115,7 +132,7 @@ public class SingleValueLongFieldData extends LongFieldData {
     }
 
     @Override public MutableDateTime[] dates(int docId) {
-        int loc = ordinals[docId];
+        int loc = ordinal(docId);
         if (loc == 0) {
             return EMPTY_DATETIME_ARRAY;
         }
@@ -125,7 +142,7 @@ public class SingleValueLongFieldData extends LongFieldData {
     }
 
     @Override public double[] doubleValues(int docId) {
-        int loc = ordinals[docId];
+        int loc = ordinal(docId);
         if (loc == 0) {
             return DoubleFieldData.EMPTY_DOUBLE_ARRAY;
         }
@@ -135,11 +152,11 @@ public class SingleValueLongFieldData extends LongFieldData {
     }
 
     @Override public long value(int docId) {
-        return values[ordinals[docId]];
+        return values[ordinal(docId)];
     }
 
     @Override public long[] values(int docId) {
-        int loc = ordinals[docId];
+        int loc = ordinal(docId);
         if (loc == 0) {
             return EMPTY_LONG_ARRAY;
         }
@@ -26,6 +26,7 @@ import org.elasticsearch.common.trove.TShortArrayList;
 import org.elasticsearch.index.field.data.FieldDataType;
 import org.elasticsearch.index.field.data.NumericFieldData;
 import org.elasticsearch.index.field.data.support.FieldDataLoader;
+import org.elasticsearch.index.field.data.support.PackedInts;
 
 import java.io.IOException;
 
@@ -114,15 +115,19 @@ public abstract class ShortFieldData extends NumericFieldData<ShortDocFieldData>
     }
 
     public static ShortFieldData load(IndexReader reader, String field) throws IOException {
-        return FieldDataLoader.load(reader, field, new ShortTypeLoader());
+        return load(reader, field, false);
+    }
+
+    public static ShortFieldData load(IndexReader reader, String field, boolean direct) throws IOException {
+        return FieldDataLoader.load(reader, field, new ShortTypeLoader(direct));
     }
 
     static class ShortTypeLoader extends FieldDataLoader.FreqsTypeLoader<ShortFieldData> {
 
         private final TShortArrayList terms = new TShortArrayList();
 
-        ShortTypeLoader() {
-            super();
+        ShortTypeLoader(boolean direct) {
+            super(direct);
             // the first one indicates null value
             terms.add((short) 0);
         }
@@ -132,10 +137,16 @@ public abstract class ShortFieldData extends NumericFieldData<ShortDocFieldData>
         }
 
         @Override public ShortFieldData buildSingleValue(String field, int[] ordinals) {
+            if (direct) {
+                return new SingleValueShortFieldData(field, PackedInts.pack(ordinals, true), terms.toNativeArray());
+            }
             return new SingleValueShortFieldData(field, ordinals, terms.toNativeArray());
         }
 
         @Override public ShortFieldData buildMultiValue(String field, int[][] ordinals) {
+            if (direct) {
+                return new MultiValueShortFieldData(field, PackedInts.pack(ordinals, true), terms.toNativeArray());
+            }
             return new MultiValueShortFieldData(field, ordinals, terms.toNativeArray());
         }
     }
@@ -40,7 +40,7 @@ public class ShortFieldDataType implements FieldDataType<ShortFieldData> {
         };
     }
 
-    @Override public ShortFieldData load(IndexReader reader, String fieldName) throws IOException {
-        return ShortFieldData.load(reader, fieldName);
+    @Override public ShortFieldData load(IndexReader reader, String fieldName, boolean direct) throws IOException {
+        return ShortFieldData.load(reader, fieldName, direct);
     }
 }
@@ -22,6 +22,7 @@ package org.elasticsearch.index.field.data.strings;
 import org.elasticsearch.common.RamUsage;
 import org.elasticsearch.common.Strings;
 import org.elasticsearch.common.thread.ThreadLocals;
+import org.elasticsearch.index.field.data.support.PackedInts;
 
 /**
  * @author kimchy (shay.banon)
@@ -40,21 +41,41 @@ public class MultiValueStringFieldData extends StringFieldData {
         }
     };
 
-    // order with value 0 indicates no value
-    private final int[][] ordinals;
+    // the ordinals of doc are stored at [offsets[doc], offsets[doc + 1]) in ordinals, no value is not stored
+    private final PackedInts offsets;
 
-    public MultiValueStringFieldData(String fieldName, int[][] ordinals, String[] values) {
+    private final PackedInts ordinals;
+
+    public MultiValueStringFieldData(String fieldName, int[][] ordinals, String[] values, boolean direct) {
         super(fieldName, values);
-        this.ordinals = ordinals;
+        int maxDoc = ordinals[0].length;
+        int numOrdinals = 0;
+        for (int[] ordinal : ordinals) {
+            for (int docId = 0; docId < maxDoc; docId++) {
+                if (ordinal[docId] != 0) {
+                    numOrdinals++;
+                }
+            }
+        }
+        this.offsets = PackedInts.create(maxDoc + 1, numOrdinals, direct);
+        this.ordinals = PackedInts.create(numOrdinals, values.length - 1, direct);
+        int offset = 0;
+        for (int docId = 0; docId < maxDoc; docId++) {
+            offsets.set(docId, offset);
+            // ordinals of a doc are filled in term order, and with no gaps
+            for (int[] ordinal : ordinals) {
+                int loc = ordinal[docId];
+                if (loc == 0) {
+                    break;
+                }
+                this.ordinals.set(offset++, loc);
+            }
+        }
+        offsets.set(maxDoc, offset);
     }
 
     @Override protected long computeSizeInBytes() {
-        long size = super.computeSizeInBytes();
-        size += RamUsage.NUM_BYTES_ARRAY_HEADER; // for the top level array
-        for (int[] ordinal : ordinals) {
-            size += RamUsage.NUM_BYTES_INT * ordinal.length + RamUsage.NUM_BYTES_ARRAY_HEADER;
-        }
-        return size;
+        return super.computeSizeInBytes() + 2 * RamUsage.NUM_BYTES_OBJECT_HEADER + offsets.sizeInBytes() + ordinals.sizeInBytes();
     }
 
     @Override public boolean multiValued() {
@@ -62,40 +83,34 @@ public class MultiValueStringFieldData extends StringFieldData {
     }
 
     @Override public boolean hasValue(int docId) {
-        for (int[] ordinal : ordinals) {
-            if (ordinal[docId] != 0) {
-                return true;
-            }
-        }
-        return false;
+        return offsets.get(docId) != offsets.get(docId + 1);
     }
 
     @Override public void forEachValueInDoc(int docId, StringValueInDocProc proc) {
-        for (int[] ordinal : ordinals) {
-            int loc = ordinal[docId];
-            if (loc != 0) {
-                proc.onValue(docId, values[loc]);
-            }
+        int end = offsets.get(docId + 1);
+        for (int i = offsets.get(docId); i < end; i++) {
+            proc.onValue(docId, values[ordinals.get(i)]);
+        }
+    }
+
+    @Override public void forEachOrdinalInDoc(int docId, OrdinalInDocProc proc) {
+        int end = offsets.get(docId + 1);
+        for (int i = offsets.get(docId); i < end; i++) {
+            proc.onOrdinal(docId, ordinals.get(i));
         }
     }
 
     @Override public String value(int docId) {
-        for (int[] ordinal : ordinals) {
-            int loc = ordinal[docId];
-            if (loc != 0) {
-                return values[loc];
-            }
+        int start = offsets.get(docId);
+        if (start == offsets.get(docId + 1)) {
+            return null;
         }
-        return null;
+        return values[ordinals.get(start)];
     }
 
     @Override public String[] values(int docId) {
-        int length = 0;
-        for (int[] ordinal : ordinals) {
-            if (ordinal[docId] != 0) {
-                length++;
-            }
-        }
+        int start = offsets.get(docId);
+        int length = offsets.get(docId + 1) - start;
         if (length == 0) {
             return Strings.EMPTY_ARRAY;
         }
@@ -105,13 +120,9 @@ public class MultiValueStringFieldData extends StringFieldData {
         } else {
             strings = new String[length];
         }
-        int i = 0;
-        for (int[] ordinal : ordinals) {
-            int loc = ordinal[docId];
-            if (loc != 0) {
-                strings[i++] = values[loc];
-            }
+        for (int i = 0; i < length; i++) {
+            strings[i] = values[ordinals.get(start + i)];
         }
         return strings;
     }
-}
\ No newline at end of file
+}
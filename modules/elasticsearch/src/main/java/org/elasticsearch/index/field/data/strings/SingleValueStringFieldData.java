@@ -22,6 +22,7 @@ package org.elasticsearch.index.field.data.strings;
 import org.elasticsearch.common.RamUsage;
 import org.elasticsearch.common.Strings;
 import org.elasticsearch.common.thread.ThreadLocals;
+import org.elasticsearch.index.field.data.support.PackedInts;
 
 /**
  * @author kimchy (shay.banon)
@@ -34,49 +35,52 @@ public class SingleValueStringFieldData extends StringFieldData {
         }
     };
 
-    // order with value 0 indicates no value
-    private final int[] ordinals;
+    // order with value 0 indicates no value, packed using just the bits required for the number of terms
+    private final PackedInts ordinals;
 
-    public SingleValueStringFieldData(String fieldName, int[] ordinals, String[] values) {
+    public SingleValueStringFieldData(String fieldName, PackedInts ordinals, String[] values) {
         super(fieldName, values);
         this.ordinals = ordinals;
     }
 
     @Override protected long computeSizeInBytes() {
-        return super.computeSizeInBytes() +
-                RamUsage.NUM_BYTES_INT * ordinals.length + RamUsage.NUM_BYTES_ARRAY_HEADER;
+        return super.computeSizeInBytes() + RamUsage.NUM_BYTES_OBJECT_HEADER + ordinals.sizeInBytes();
     }
 
-    int[] ordinals() {
+    PackedInts ordinals() {
         return ordinals;
     }
 
-    String[] values() {
-        return this.values;
-    }
-
     @Override public boolean multiValued() {
         return false;
     }
 
     @Override public boolean hasValue(int docId) {
-        return ordinals[docId] != 0;
+        return ordinals.get(docId) != 0;
     }
 
     @Override public void forEachValueInDoc(int docId, StringValueInDocProc proc) {
-        int loc = ordinals[docId];
+        int loc = ordinals.get(docId);
         if (loc == 0) {
             return;
         }
         proc.onValue(docId, values[loc]);
     }
 
+    @Override public void forEachOrdinalInDoc(int docId, OrdinalInDocProc proc) {
+        int loc = ordinals.get(docId);
+        if (loc == 0) {
+            return;
+        }
+        proc.onOrdinal(docId, loc);
+    }
+
     @Override public String value(int docId) {
-        return values[ordinals[docId]];
+        return values[ordinals.get(docId)];
     }
 
     @Override public String[] values(int docId) {
-        int loc = ordinals[docId];
+        int loc = ordinals.get(docId);
         if (loc == 0) {
             return Strings.EMPTY_ARRAY;
         }
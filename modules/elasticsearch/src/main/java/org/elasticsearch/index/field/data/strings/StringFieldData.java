@@ -24,6 +24,7 @@ import org.elasticsearch.common.RamUsage;
 import org.elasticsearch.index.field.data.FieldData;
 import org.elasticsearch.index.field.data.FieldDataType;
 import org.elasticsearch.index.field.data.support.FieldDataLoader;
+import org.elasticsearch.index.field.data.support.PackedInts;
 
 import java.io.IOException;
 import java.util.ArrayList;
@@ -48,10 +49,28 @@ public abstract class StringFieldData extends FieldData<StringDocFieldData> {
         return size;
     }
 
+    /**
+     * The sorted unique values of this field data, indexed by ordinal. The value at ordinal
+     * <tt>0</tt> is <tt>null</tt> and indicates no value.
+     */
+    public String[] values() {
+        return this.values;
+    }
+
     abstract public String value(int docId);
 
     abstract public String[] values(int docId);
 
+    /**
+     * Calls the provided proc with the ordinal (into {@link #values()}) of each value of the doc. Documents
+     * with no value are not reported.
+     */
+    public abstract void forEachOrdinalInDoc(int docId, OrdinalInDocProc proc);
+
+    public static interface OrdinalInDocProc {
+        void onOrdinal(int docId, int ordinal);
+    }
+
     @Override public StringDocFieldData docFieldData(int docId) {
         return super.docFieldData(docId);
     }
@@ -75,15 +94,19 @@ public abstract class StringFieldData extends FieldData<StringDocFieldData> {
     }
 
     public static StringFieldData load(IndexReader reader, String field) throws IOException {
-        return FieldDataLoader.load(reader, field, new StringTypeLoader());
+        return load(reader, field, false);
+    }
+
+    public static StringFieldData load(IndexReader reader, String field, boolean direct) throws IOException {
+        return FieldDataLoader.load(reader, field, new StringTypeLoader(direct));
     }
 
     static class StringTypeLoader extends FieldDataLoader.FreqsTypeLoader<StringFieldData> {
 
         private final ArrayList<String> terms = new ArrayList<String>();
 
-        StringTypeLoader() {
-            super();
+        StringTypeLoader(boolean direct) {
+            super(direct);
             // the first one indicates null value
             terms.add(null);
         }
@@ -93,11 +116,11 @@ public abstract class StringFieldData extends FieldData<StringDocFieldData> {
         }
 
         @Override public StringFieldData buildSingleValue(String field, int[] ordinals) {
-            return new SingleValueStringFieldData(field, ordinals, terms.toArray(new String[terms.size()]));
+            return new SingleValueStringFieldData(field, PackedInts.pack(ordinals, direct), terms.toArray(new String[terms.size()]));
         }
 
         @Override public StringFieldData buildMultiValue(String field, int[][] ordinals) {
-            return new MultiValueStringFieldData(field, ordinals, terms.toArray(new String[terms.size()]));
+            return new MultiValueStringFieldData(field, ordinals, terms.toArray(new String[terms.size()]), direct);
         }
     }
 }
@@ -40,7 +40,7 @@ public class StringFieldDataType implements FieldDataType<StringFieldData> {
         };
     }
 
-    @Override public StringFieldData load(IndexReader reader, String fieldName) throws IOException {
-        return StringFieldData.load(reader, fieldName);
+    @Override public StringFieldData load(IndexReader reader, String fieldName, boolean direct) throws IOException {
+        return StringFieldData.load(reader, fieldName, direct);
     }
 }
@@ -24,6 +24,7 @@ import org.apache.lucene.search.FieldComparator;
 import org.elasticsearch.index.cache.field.data.FieldDataCache;
 import org.elasticsearch.index.field.data.FieldData;
 import org.elasticsearch.index.field.data.FieldDataType;
+import org.elasticsearch.index.field.data.support.PackedInts;
 
 import java.io.IOException;
 
@@ -41,7 +42,7 @@ public class StringOrdValFieldDataComparator extends FieldComparator {
 
     private int currentReaderGen = -1;
     private String[] lookup;
-    private int[] order;
+    private PackedInts order;
     private final String field;
 
     private int bottomSlot = -1;
@@ -83,7 +84,7 @@ public class StringOrdValFieldDataComparator extends FieldComparator {
 
     @Override public int compareBottom(int doc) {
         assert bottomSlot != -1;
-        int order = this.order[doc];
+        int order = this.order.get(doc);
         final int cmp = bottomOrd - order;
         if (cmp != 0) {
             return cmp;
@@ -133,7 +134,7 @@ public class StringOrdValFieldDataComparator extends FieldComparator {
     }
 
     @Override public void copy(int slot, int doc) {
-        final int ord = order[doc];
+        final int ord = order.get(doc);
         ords[slot] = ord;
         assert ord >= 0;
         values[slot] = lookup[ord];
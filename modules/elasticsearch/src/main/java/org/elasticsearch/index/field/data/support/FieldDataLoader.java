@@ -109,7 +109,11 @@ public class FieldDataLoader {
 
     public static abstract class FreqsTypeLoader<T extends FieldData> implements TypeLoader<T> {
 
-        protected FreqsTypeLoader() {
+        // should the per doc ordinals be stored in direct buffers, outside of the heap
+        protected final boolean direct;
+
+        protected FreqsTypeLoader(boolean direct) {
+            this.direct = direct;
         }
 
         @Override public void init() {
@@ -0,0 +1,217 @@
+/*
+ * Licensed to Elastic Search and Shay Banon under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. Elastic Search licenses this
+ * file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.elasticsearch.index.field.data.support;
+
+import org.elasticsearch.common.RamUsage;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.LongBuffer;
+
+/**
+ * A fixed size array of non negative ints, each stored using just the number of bits required for the
+ * largest value it can hold, packed into longs. The longs can either be kept on the heap, or in a direct
+ * buffer outside of it (see {@link #create(int, int, boolean)}).
+ *
+ * @author kimchy (shay.banon)
+ */
+public abstract class PackedInts {
+
+    protected final int bitsPerValue;
+
+    protected final long mask;
+
+    protected final int size;
+
+    protected PackedInts(int size, int maxValue) {
+        this.size = size;
+        this.bitsPerValue = bitsRequired(maxValue);
+        this.mask = (1L << bitsPerValue) - 1;
+    }
+
+    /**
+     * Creates a packed array of the provided size.
+     *
+     * @param size     The number of values
+     * @param maxValue The largest value that will be stored
+     * @param direct   Should the values be stored in a direct buffer outside of the heap
+     */
+    public static PackedInts create(int size, int maxValue, boolean direct) {
+        if (direct) {
+            return new Direct(size, maxValue);
+        }
+        return new Heap(size, maxValue);
+    }
+
+    /**
+     * Packs the provided values, sizing the bits per value based on the largest one.
+     */
+    public static PackedInts pack(int[] values, boolean direct) {
+        int maxValue = 0;
+        for (int value : values) {
+            if (value > maxValue) {
+                maxValue = value;
+            }
+        }
+        PackedInts packed = create(values.length, maxValue, direct);
+        for (int i = 0; i < values.length; i++) {
+            packed.set(i, values[i]);
+        }
+        return packed;
+    }
+
+    /**
+     * Packs each of the provided arrays of values, see {@link #pack(int[], boolean)}.
+     */
+    public static PackedInts[] pack(int[][] values, boolean direct) {
+        PackedInts[] packed = new PackedInts[values.length];
+        for (int i = 0; i < values.length; i++) {
+            packed[i] = pack(values[i], direct);
+        }
+        return packed;
+    }
+
+    /**
+     * The number of bits required to represent the value, at least 1.
+     */
+    public static int bitsRequired(int maxValue) {
+        return Math.max(1, 32 - Integer.numberOfLeadingZeros(maxValue));
+    }
+
+    static int numBlocks(int size, int bitsPerValue) {
+        return (int) (((long) size * bitsPerValue + 63) >>> 6);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int bitsPerValue() {
+        return bitsPerValue;
+    }
+
+    /**
+     * Is the data stored outside of the heap.
+     */
+    public abstract boolean direct();
+
+    public abstract int get(int index);
+
+    public abstract void set(int index, int value);
+
+    /**
+     * The memory used by the values, either on the heap or in a direct buffer.
+     */
+    public abstract long sizeInBytes();
+
+    static final class Heap extends PackedInts {
+
+        private final long[] blocks;
+
+        Heap(int size, int maxValue) {
+            super(size, maxValue);
+            this.blocks = new long[numBlocks(size, bitsPerValue)];
+        }
+
+        @Override public boolean direct() {
+            return false;
+        }
+
+        @Override public int get(int index) {
+            long bitPosition = (long) index * bitsPerValue;
+            int block = (int) (bitPosition >>> 6);
+            int shift = (int) (bitPosition & 63);
+            long value = blocks[block] >>> shift;
+            int endBits = shift + bitsPerValue - 64;
+            if (endBits > 0) {
+                // the value spans two blocks
+                value |= blocks[block + 1] << (bitsPerValue - endBits);
+            }
+            return (int) (value & mask);
+        }
+
+        @Override public void set(int index, int value) {
+            long bitPosition = (long) index * bitsPerValue;
+            int block = (int) (bitPosition >>> 6);
+            int shift = (int) (bitPosition & 63);
+            long lValue = value & mask;
+            blocks[block] = (blocks[block] & ~(mask << shift)) | (lValue << shift);
+            int endBits = shift + bitsPerValue - 64;
+            if (endBits > 0) {
+                int written = bitsPerValue - endBits;
+                blocks[block + 1] = (blocks[block + 1] & ~(mask >>> written)) | (lValue >>> written);
+            }
+        }
+
+        @Override public long sizeInBytes() {
+            return RamUsage.NUM_BYTES_LONG * blocks.length + RamUsage.NUM_BYTES_ARRAY_HEADER;
+        }
+    }
+
+    /**
+     * Stores the blocks in a direct buffer, its memory is released once the buffer is garbage collected.
+     */
+    static final class Direct extends PackedInts {
+
+        private final LongBuffer blocks;
+
+        private final int numBlocks;
+
+        Direct(int size, int maxValue) {
+            super(size, maxValue);
+            this.numBlocks = numBlocks(size, bitsPerValue);
+            this.blocks = ByteBuffer.allocateDirect(numBlocks * RamUsage.NUM_BYTES_LONG).order(ByteOrder.nativeOrder()).asLongBuffer();
+        }
+
+        @Override public boolean direct() {
+            return true;
+        }
+
+        @Override public int get(int index) {
+            long bitPosition = (long) index * bitsPerValue;
+            int block = (int) (bitPosition >>> 6);
+            int shift = (int) (bitPosition & 63);
+            long value = blocks.get(block) >>> shift;
+            int endBits = shift + bitsPerValue - 64;
+            if (endBits > 0) {
+                // the value spans two blocks
+                value |= blocks.get(block + 1) << (bitsPerValue - endBits);
+            }
+            return (int) (value & mask);
+        }
+
+        @Override public void set(int index, int value) {
+            long bitPosition = (long) index * bitsPerValue;
+            int block = (int) (bitPosition >>> 6);
+            int shift = (int) (bitPosition & 63);
+            long lValue = value & mask;
+            blocks.put(block, (blocks.get(block) & ~(mask << shift)) | (lValue << shift));
+            int endBits = shift + bitsPerValue - 64;
+            if (endBits > 0) {
+                int written = bitsPerValue - endBits;
+                blocks.put(block + 1, (blocks.get(block + 1) & ~(mask >>> written)) | (lValue >>> written));
+            }
+        }
+
+        @Override public long sizeInBytes() {
+            return (long) RamUsage.NUM_BYTES_LONG * numBlocks;
+        }
+    }
+}
@@ -27,6 +27,7 @@ import org.elasticsearch.common.unit.DistanceUnit;
 import org.elasticsearch.index.field.data.FieldData;
 import org.elasticsearch.index.field.data.FieldDataType;
 import org.elasticsearch.index.field.data.support.FieldDataLoader;
+import org.elasticsearch.index.field.data.support.PackedInts;
 import org.elasticsearch.index.search.geo.GeoDistance;
 import org.elasticsearch.index.search.geo.GeoHashUtils;
 
@@ -143,7 +144,11 @@ public abstract class GeoPointFieldData extends FieldData<GeoPointDocFieldData>
     }
 
     public static GeoPointFieldData load(IndexReader reader, String field) throws IOException {
-        return FieldDataLoader.load(reader, field, new StringTypeLoader());
+        return load(reader, field, false);
+    }
+
+    public static GeoPointFieldData load(IndexReader reader, String field, boolean direct) throws IOException {
+        return FieldDataLoader.load(reader, field, new StringTypeLoader(direct));
     }
 
     static class StringTypeLoader extends FieldDataLoader.FreqsTypeLoader<GeoPointFieldData> {
@@ -151,8 +156,8 @@ public abstract class GeoPointFieldData extends FieldData<GeoPointDocFieldData>
         private final TDoubleArrayList lat = new TDoubleArrayList();
         private final TDoubleArrayList lon = new TDoubleArrayList();
 
-        StringTypeLoader() {
-            super();
+        StringTypeLoader(boolean direct) {
+            super(direct);
             // the first one indicates null value
             lat.add(0);
             lon.add(0);
@@ -166,10 +171,16 @@ public abstract class GeoPointFieldData extends FieldData<GeoPointDocFieldData>
         }
 
         @Override public GeoPointFieldData buildSingleValue(String field, int[] ordinals) {
+            if (direct) {
+                return new SingleValueGeoPointFieldData(field, PackedInts.pack(ordinals, true), lat.toNativeArray(), lon.toNativeArray());
+            }
             return new SingleValueGeoPointFieldData(field, ordinals, lat.toNativeArray(), lon.toNativeArray());
         }
 
         @Override public GeoPointFieldData buildMultiValue(String field, int[][] ordinals) {
+            if (direct) {
+                return new MultiValueGeoPointFieldData(field, PackedInts.pack(ordinals, true), lat.toNativeArray(), lon.toNativeArray());
+            }
             return new MultiValueGeoPointFieldData(field, ordinals, lat.toNativeArray(), lon.toNativeArray());
         }
     }
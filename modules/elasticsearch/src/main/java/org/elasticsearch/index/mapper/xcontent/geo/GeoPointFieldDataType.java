@@ -43,7 +43,7 @@ public class GeoPointFieldDataType implements FieldDataType<GeoPointFieldData> {
         };
     }
 
-    @Override public GeoPointFieldData load(IndexReader reader, String fieldName) throws IOException {
-        return GeoPointFieldData.load(reader, fieldName);
+    @Override public GeoPointFieldData load(IndexReader reader, String fieldName, boolean direct) throws IOException {
+        return GeoPointFieldData.load(reader, fieldName, direct);
     }
 }
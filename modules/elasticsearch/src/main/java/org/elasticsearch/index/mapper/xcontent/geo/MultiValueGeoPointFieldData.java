@@ -22,6 +22,7 @@ package org.elasticsearch.index.mapper.xcontent.geo;
 import org.elasticsearch.common.RamUsage;
 import org.elasticsearch.common.thread.ThreadLocals;
 import org.elasticsearch.index.field.data.doubles.DoubleFieldData;
+import org.elasticsearch.index.field.data.support.PackedInts;
 import org.elasticsearch.index.search.geo.GeoHashUtils;
 
 /**
@@ -64,30 +65,53 @@ public class MultiValueGeoPointFieldData extends GeoPointFieldData {
         }
     };
 
-    // order with value 0 indicates no value
+    // order with value 0 indicates no value, either on the heap or (direct field data) packed in direct buffers
     private final int[][] ordinals;
 
+    private final PackedInts[] directOrdinals;
+
+    private final int numOrdinals;
+
     public MultiValueGeoPointFieldData(String fieldName, int[][] ordinals, double[] lat, double[] lon) {
         super(fieldName, lat, lon);
         this.ordinals = ordinals;
+        this.directOrdinals = null;
+        this.numOrdinals = ordinals.length;
+    }
+
+    public MultiValueGeoPointFieldData(String fieldName, PackedInts[] directOrdinals, double[] lat, double[] lon) {
+        super(fieldName, lat, lon);
+        this.ordinals = null;
+        this.directOrdinals = directOrdinals;
+        this.numOrdinals = directOrdinals.length;
     }
 
     @Override protected long computeSizeInBytes() {
         long size = super.computeSizeInBytes();
         size += RamUsage.NUM_BYTES_ARRAY_HEADER; // for the top level array
+        if (ordinals == null) {
+            for (PackedInts ordinal : directOrdinals) {
+                size += RamUsage.NUM_BYTES_OBJECT_HEADER + ordinal.sizeInBytes();
+            }
+            return size;
+        }
         for (int[] ordinal : ordinals) {
             size += RamUsage.NUM_BYTES_INT * ordinal.length + RamUsage.NUM_BYTES_ARRAY_HEADER;
         }
         return size;
     }
 
+    private int ordinal(int ord, int docId) {
+        return ordinals != null ? ordinals[ord][docId] : directOrdinals[ord].get(docId);
+    }
+
     @Override public boolean multiValued() {
         return true;
     }
 
     @Override public boolean hasValue(int docId) {
-        for (int[] ordinal : ordinals) {
-            if (ordinal[docId] != 0) {
+        for (int ord = 0; ord < numOrdinals; ord++) {
+            if (ordinal(ord, docId) != 0) {
                 return true;
             }
         }
@@ -95,8 +119,8 @@ public class MultiValueGeoPointFieldData extends GeoPointFieldData {
     }
 
     @Override public void forEachValueInDoc(int docId, StringValueInDocProc proc) {
-        for (int[] ordinal : ordinals) {
-            int loc = ordinal[docId];
+        for (int ord = 0; ord < numOrdinals; ord++) {
+            int loc = ordinal(ord, docId);
             if (loc != 0) {
                 proc.onValue(docId, GeoHashUtils.encode(lat[loc], lon[loc]));
             }
@@ -104,8 +128,8 @@ public class MultiValueGeoPointFieldData extends GeoPointFieldData {
     }
 
     @Override public GeoPoint value(int docId) {
-        for (int[] ordinal : ordinals) {
-            int loc = ordinal[docId];
+        for (int ord = 0; ord < numOrdinals; ord++) {
+            int loc = ordinal(ord, docId);
             if (loc != 0) {
                 GeoPoint point = valuesCache.get().get();
                 point.latlon(lat[loc], lon[loc]);
@@ -117,8 +141,8 @@ public class MultiValueGeoPointFieldData extends GeoPointFieldData {
 
     @Override public GeoPoint[] values(int docId) {
         int length = 0;
-        for (int[] ordinal : ordinals) {
-            if (ordinal[docId] != 0) {
+        for (int ord = 0; ord < numOrdinals; ord++) {
+            if (ordinal(ord, docId) != 0) {
                 length++;
             }
         }
@@ -129,8 +153,8 @@ public class MultiValueGeoPointFieldData extends GeoPointFieldData {
         if (length < VALUE_CACHE_SIZE) {
             points = valuesArrayCache.get().get()[length];
             int i = 0;
-            for (int[] ordinal : ordinals) {
-                int loc = ordinal[docId];
+            for (int ord = 0; ord < numOrdinals; ord++) {
+                int loc = ordinal(ord, docId);
                 if (loc != 0) {
                     points[i++].latlon(lat[loc], lon[loc]);
                 }
@@ -138,8 +162,8 @@ public class MultiValueGeoPointFieldData extends GeoPointFieldData {
         } else {
             points = new GeoPoint[length];
             int i = 0;
-            for (int[] ordinal : ordinals) {
-                int loc = ordinal[docId];
+            for (int ord = 0; ord < numOrdinals; ord++) {
+                int loc = ordinal(ord, docId);
                 if (loc != 0) {
                     points[i++] = new GeoPoint(lat[loc], lon[loc]);
                 }
@@ -149,8 +173,8 @@ public class MultiValueGeoPointFieldData extends GeoPointFieldData {
     }
 
     @Override public double latValue(int docId) {
-        for (int[] ordinal : ordinals) {
-            int loc = ordinal[docId];
+        for (int ord = 0; ord < numOrdinals; ord++) {
+            int loc = ordinal(ord, docId);
             if (loc != 0) {
                 return lat[loc];
             }
@@ -159,8 +183,8 @@ public class MultiValueGeoPointFieldData extends GeoPointFieldData {
     }
 
     @Override public double lonValue(int docId) {
-        for (int[] ordinal : ordinals) {
-            int loc = ordinal[docId];
+        for (int ord = 0; ord < numOrdinals; ord++) {
+            int loc = ordinal(ord, docId);
             if (loc != 0) {
                 return lon[loc];
             }
@@ -170,8 +194,8 @@ public class MultiValueGeoPointFieldData extends GeoPointFieldData {
 
     @Override public double[] latValues(int docId) {
         int length = 0;
-        for (int[] ordinal : ordinals) {
-            if (ordinal[docId] != 0) {
+        for (int ord = 0; ord < numOrdinals; ord++) {
+            if (ordinal(ord, docId) != 0) {
                 length++;
             }
         }
@@ -185,8 +209,8 @@ public class MultiValueGeoPointFieldData extends GeoPointFieldData {
             doubles = new double[length];
         }
         int i = 0;
-        for (int[] ordinal : ordinals) {
-            int loc = ordinal[docId];
+        for (int ord = 0; ord < numOrdinals; ord++) {
+            int loc = ordinal(ord, docId);
             if (loc != 0) {
                 doubles[i++] = lat[loc];
             }
@@ -196,8 +220,8 @@ public class MultiValueGeoPointFieldData extends GeoPointFieldData {
 
     @Override public double[] lonValues(int docId) {
         int length = 0;
-        for (int[] ordinal : ordinals) {
-            if (ordinal[docId] != 0) {
+        for (int ord = 0; ord < numOrdinals; ord++) {
+            if (ordinal(ord, docId) != 0) {
                 length++;
             }
         }
@@ -211,8 +235,8 @@ public class MultiValueGeoPointFieldData extends GeoPointFieldData {
             doubles = new double[length];
         }
         int i = 0;
-        for (int[] ordinal : ordinals) {
-            int loc = ordinal[docId];
+        for (int ord = 0; ord < numOrdinals; ord++) {
+            int loc = ordinal(ord, docId);
             if (loc != 0) {
                 doubles[i++] = lon[loc];
             }
@@ -22,6 +22,7 @@ package org.elasticsearch.index.mapper.xcontent.geo;
 import org.elasticsearch.common.RamUsage;
 import org.elasticsearch.common.thread.ThreadLocals;
 import org.elasticsearch.index.field.data.doubles.DoubleFieldData;
+import org.elasticsearch.index.field.data.support.PackedInts;
 import org.elasticsearch.index.search.geo.GeoHashUtils;
 
 /**
@@ -50,29 +51,45 @@ public class SingleValueGeoPointFieldData extends GeoPointFieldData {
     };
 
 
-    // order with value 0 indicates no value
+    // order with value 0 indicates no value, either on the heap or (direct field data) packed in a direct buffer
     private final int[] ordinals;
 
+    private final PackedInts directOrdinals;
+
     public SingleValueGeoPointFieldData(String fieldName, int[] ordinals, double[] lat, double[] lon) {
         super(fieldName, lat, lon);
         this.ordinals = ordinals;
+        this.directOrdinals = null;
+    }
+
+    public SingleValueGeoPointFieldData(String fieldName, PackedInts directOrdinals, double[] lat, double[] lon) {
+        super(fieldName, lat, lon);
+        this.ordinals = null;
+        this.directOrdinals = directOrdinals;
     }
 
     @Override protected long computeSizeInBytes() {
+        if (ordinals == null) {
+            return super.computeSizeInBytes() + RamUsage.NUM_BYTES_OBJECT_HEADER + directOrdinals.sizeInBytes();
+        }
         return super.computeSizeInBytes() +
                 RamUsage.NUM_BYTES_INT * ordinals.length + RamUsage.NUM_BYTES_ARRAY_HEADER;
     }
 
+    private int ordinal(int docId) {
+        return ordinals != null ? ordinals[docId] : directOrdinals.get(docId);
+    }
+
     @Override public boolean multiValued() {
         return false;
     }
 
     @Override public boolean hasValue(int docId) {
-        return ordinals[docId] != 0;
+        return ordinal(docId) != 0;
     }
 
     @Override public void forEachValueInDoc(int docId, StringValueInDocProc proc) {
-        int loc = ordinals[docId];
+        int loc = ordinal(docId);
         if (loc == 0) {
             return;
         }
@@ -80,7 +97,7 @@ public class SingleValueGeoPointFieldData extends GeoPointFieldData {
     }
 
     @Override public GeoPoint value(int docId) {
-        int loc = ordinals[docId];
+        int loc = ordinal(docId);
         if (loc == 0) {
             return null;
         }
@@ -90,7 +107,7 @@ public class SingleValueGeoPointFieldData extends GeoPointFieldData {
     }
 
     @Override public GeoPoint[] values(int docId) {
-        int loc = ordinals[docId];
+        int loc = ordinal(docId);
         if (loc == 0) {
             return EMPTY_ARRAY;
         }
@@ -100,15 +117,15 @@ public class SingleValueGeoPointFieldData extends GeoPointFieldData {
     }
 
     @Override public double latValue(int docId) {
-        return lat[ordinals[docId]];
+        return lat[ordinal(docId)];
     }
 
     @Override public double lonValue(int docId) {
-        return lon[ordinals[docId]];
+        return lon[ordinal(docId)];
     }
 
     @Override public double[] latValues(int docId) {
-        int loc = ordinals[docId];
+        int loc = ordinal(docId);
         if (loc == 0) {
             return DoubleFieldData.EMPTY_DOUBLE_ARRAY;
         }
@@ -118,7 +135,7 @@ public class SingleValueGeoPointFieldData extends GeoPointFieldData {
     }
 
     @Override public double[] lonValues(int docId) {
-        int loc = ordinals[docId];
+        int loc = ordinal(docId);
         if (loc == 0) {
             return DoubleFieldData.EMPTY_DOUBLE_ARRAY;
         }
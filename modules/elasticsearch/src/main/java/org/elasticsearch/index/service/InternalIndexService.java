@@ -400,6 +400,7 @@ public class InternalIndexService extends AbstractIndexComponent implements Inde
         }
 
         @Override public void afterIndexShardClosed(ShardId shardId, boolean delete) {
+            indexCache.queryResult().clear(shardId.id());
             indexCache.clearUnreferenced();
         }
     }
@@ -100,6 +100,21 @@ public class IndexShardManagement extends AbstractIndexShardComponent implements
         return translog.estimateMemorySize().toString();
     }
 
+    @ManagedAttribute(description = "Number of transaction log syncs performed for operations")
+    public long getTranslogSyncs() {
+        return translog.syncStats().syncs();
+    }
+
+    @ManagedAttribute(description = "Average number of transaction log operations covered by a single sync")
+    public double getTranslogSyncAverageBatchSize() {
+        return translog.syncStats().averageBatchSize();
+    }
+
+    @ManagedAttribute(description = "Average time an operation waited for its transaction log sync")
+    public String getTranslogSyncAverageWaitTime() {
+        return translog.syncStats().averageWaitTime().toString();
+    }
+
     @ManagedAttribute(description = "The state of the shard")
     public String getState() {
         return indexShard.state().toString();
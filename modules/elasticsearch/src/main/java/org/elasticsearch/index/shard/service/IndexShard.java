@@ -83,6 +83,8 @@ public interface IndexShard extends IndexShardComponent {
 
     void recover(Engine.RecoveryHandler recoveryHandler) throws EngineException;
 
+    Engine.GetResult get(Engine.Get get) throws ElasticSearchException;
+
     Engine.Searcher searcher();
 
     /**
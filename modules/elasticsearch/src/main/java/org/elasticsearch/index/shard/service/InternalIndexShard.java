@@ -397,7 +397,13 @@ public class InternalIndexShard extends AbstractIndexShardComponent implements I
         query = filterByTypesIfNeeded(query, types);
         Engine.Searcher searcher = engine.searcher();
         try {
-            long count = Lucene.count(searcher.searcher(), query, minScore);
+            long count;
+            if (minScore < 0) {
+                // no min score to check, count without scoring
+                count = Lucene.count(searcher.searcher(), query);
+            } else {
+                count = Lucene.count(searcher.searcher(), query, minScore);
+            }
             if (logger.isTraceEnabled()) {
                 logger.trace("count of [{}] is [{}]", query, count);
             }
@@ -447,6 +453,11 @@ public class InternalIndexShard extends AbstractIndexShardComponent implements I
         engine.recover(recoveryHandler);
     }
 
+    @Override public Engine.GetResult get(Engine.Get get) throws ElasticSearchException {
+        readAllowed();
+        return engine.get(get);
+    }
+
     @Override public Engine.Searcher searcher() {
         readAllowed();
         return engine.searcher();
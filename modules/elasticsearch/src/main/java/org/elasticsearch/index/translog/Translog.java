@@ -69,9 +69,15 @@ public interface Translog extends IndexShardComponent {
     void newTranslog(long id) throws TranslogException;
 
     /**
-     * Adds a create operation to the transaction log.
+     * Adds a create operation to the transaction log, returning the location it was written to.
      */
-    void add(Operation operation) throws TranslogException;
+    Location add(Operation operation) throws TranslogException;
+
+    /**
+     * Reads back the operation written at the provided location. Returns <tt>null</tt> if the location
+     * belongs to a transaction log that is no longer the current one.
+     */
+    @Nullable Operation read(Location location) throws TranslogException;
 
     /**
      * Snapshots the current transaction log allowing to safely iterate over the snapshot.
@@ -95,13 +101,37 @@ public interface Translog extends IndexShardComponent {
      */
     void sync();
 
+    /**
+     * Should the translog sync each operation before returning from {@link #add(Operation)}. Implementations
+     * may group concurrent operations so that a single sync covers all of them.
+     */
     void syncOnEachOperation(boolean syncOnEachOperation);
 
+    /**
+     * The statistics of the syncs performed on behalf of operations added to the translog.
+     */
+    TranslogSyncStats syncStats();
+
     /**
      * Closes the transaction log.
      */
     void close(boolean delete);
 
+    /**
+     * The location of an operation within the transaction log it was written to.
+     */
+    static class Location {
+        public final long translogId;
+        public final long translogLocation;
+        public final int size;
+
+        public Location(long translogId, long translogLocation, int size) {
+            this.translogId = translogId;
+            this.translogLocation = translogLocation;
+            this.size = size;
+        }
+    }
+
     /**
      * A snapshot of the transaction log, allows to iterate over all the transaction log operations.
      */
@@ -306,6 +336,17 @@ public interface Translog extends IndexShardComponent {
             this.version = index.version();
         }
 
+        /**
+         * A create that replaced an existing document (a retried auto generated id create), replayed as an index
+         * operation so it replaces the document on recovery as well.
+         */
+        public Index(Engine.Create create) {
+            this(create.type(), create.id(), create.source());
+            this.routing = create.routing();
+            this.parent = create.parent();
+            this.version = create.version();
+        }
+
         public Index(String type, String id, byte[] source) {
             this.type = type;
             this.id = id;
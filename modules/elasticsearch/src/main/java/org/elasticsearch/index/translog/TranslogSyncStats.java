@@ -0,0 +1,175 @@
+/*
+ * Licensed to Elastic Search and Shay Banon under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. Elastic Search licenses this
+ * file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.elasticsearch.index.translog;
+
+import org.elasticsearch.common.io.stream.StreamInput;
+import org.elasticsearch.common.io.stream.StreamOutput;
+import org.elasticsearch.common.io.stream.Streamable;
+import org.elasticsearch.common.unit.TimeValue;
+import org.elasticsearch.common.xcontent.ToXContent;
+import org.elasticsearch.common.xcontent.XContentBuilder;
+import org.elasticsearch.common.xcontent.XContentBuilderString;
+
+import java.io.IOException;
+import java.io.Serializable;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Statistics on the syncs (fsync) performed by a translog on behalf of its operations. When the
+ * translog uses group commit, a single sync covers several operations, and the batch size and
+ * the time operations waited for their sync are reflected here.
+ *
+ * @author kimchy (shay.banon)
+ */
+public class TranslogSyncStats implements Streamable, Serializable, ToXContent {
+
+    private long syncs;
+
+    private long syncedOperations;
+
+    private long waitTimeInNanos;
+
+    TranslogSyncStats() {
+    }
+
+    public TranslogSyncStats(long syncs, long syncedOperations, long waitTimeInNanos) {
+        this.syncs = syncs;
+        this.syncedOperations = syncedOperations;
+        this.waitTimeInNanos = waitTimeInNanos;
+    }
+
+    /**
+     * The number of syncs performed for operations.
+     */
+    public long syncs() {
+        return this.syncs;
+    }
+
+    /**
+     * The number of syncs performed for operations.
+     */
+    public long getSyncs() {
+        return syncs();
+    }
+
+    /**
+     * The number of operations that were made durable by the syncs.
+     */
+    public long syncedOperations() {
+        return this.syncedOperations;
+    }
+
+    /**
+     * The number of operations that were made durable by the syncs.
+     */
+    public long getSyncedOperations() {
+        return syncedOperations();
+    }
+
+    /**
+     * The average number of operations covered by a single sync.
+     */
+    public double averageBatchSize() {
+        if (syncs == 0) {
+            return 0;
+        }
+        return ((double) syncedOperations) / syncs;
+    }
+
+    /**
+     * The average number of operations covered by a single sync.
+     */
+    public double getAverageBatchSize() {
+        return averageBatchSize();
+    }
+
+    /**
+     * The total time operations waited for their sync to complete.
+     */
+    public TimeValue waitTime() {
+        return new TimeValue(waitTimeInNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * The total time operations waited for their sync to complete.
+     */
+    public TimeValue getWaitTime() {
+        return waitTime();
+    }
+
+    /**
+     * The average time a single operation waited for its sync to complete.
+     */
+    public TimeValue averageWaitTime() {
+        if (syncedOperations == 0) {
+            return new TimeValue(0);
+        }
+        return new TimeValue(waitTimeInNanos / syncedOperations, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * The average time a single operation waited for its sync to complete.
+     */
+    public TimeValue getAverageWaitTime() {
+        return averageWaitTime();
+    }
+
+    public static TranslogSyncStats readTranslogSyncStats(StreamInput in) throws IOException {
+        TranslogSyncStats stats = new TranslogSyncStats();
+        stats.readFrom(in);
+        return stats;
+    }
+
+    @Override public void readFrom(StreamInput in) throws IOException {
+        syncs = in.readVLong();
+        syncedOperations = in.readVLong();
+        waitTimeInNanos = in.readVLong();
+    }
+
+    @Override public void writeTo(StreamOutput out) throws IOException {
+        out.writeVLong(syncs);
+        out.writeVLong(syncedOperations);
+        out.writeVLong(waitTimeInNanos);
+    }
+
+    @Override public XContentBuilder toXContent(XContentBuilder builder, Params params) throws IOException {
+        builder.startObject(Fields.SYNC);
+        builder.field(Fields.SYNCS, syncs);
+        builder.field(Fields.SYNCED_OPERATIONS, syncedOperations);
+        builder.field(Fields.AVERAGE_BATCH_SIZE, averageBatchSize());
+        builder.field(Fields.WAIT_TIME, waitTime().toString());
+        builder.field(Fields.WAIT_TIME_IN_MILLIS, waitTime().millis());
+        builder.field(Fields.AVERAGE_WAIT_TIME, averageWaitTime().toString());
+        builder.field(Fields.AVERAGE_WAIT_TIME_IN_MILLIS, averageWaitTime().millis());
+        builder.endObject();
+        return builder;
+    }
+
+    static final class Fields {
+        static final XContentBuilderString SYNC = new XContentBuilderString("sync");
+        static final XContentBuilderString SYNCS = new XContentBuilderString("syncs");
+        static final XContentBuilderString SYNCED_OPERATIONS = new XContentBuilderString("synced_operations");
+        static final XContentBuilderString AVERAGE_BATCH_SIZE = new XContentBuilderString("average_batch_size");
+        static final XContentBuilderString WAIT_TIME = new XContentBuilderString("wait_time");
+        static final XContentBuilderString WAIT_TIME_IN_MILLIS = new XContentBuilderString("wait_time_in_millis");
+        static final XContentBuilderString AVERAGE_WAIT_TIME = new XContentBuilderString("average_wait_time");
+        static final XContentBuilderString AVERAGE_WAIT_TIME_IN_MILLIS = new XContentBuilderString("average_wait_time_in_millis");
+    }
+}
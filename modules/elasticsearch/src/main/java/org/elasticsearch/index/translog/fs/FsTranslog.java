@@ -20,6 +20,7 @@
 package org.elasticsearch.index.translog.fs;
 
 import org.elasticsearch.common.inject.Inject;
+import org.elasticsearch.common.io.stream.BytesStreamInput;
 import org.elasticsearch.common.io.stream.BytesStreamOutput;
 import org.elasticsearch.common.io.stream.CachedStreamOutput;
 import org.elasticsearch.common.settings.Settings;
@@ -32,7 +33,9 @@ import org.elasticsearch.index.shard.ShardId;
 import org.elasticsearch.index.translog.Translog;
 import org.elasticsearch.index.translog.TranslogException;
 import org.elasticsearch.index.translog.TranslogStreams;
+import org.elasticsearch.index.translog.TranslogSyncStats;
 
+import java.io.EOFException;
 import java.io.File;
 import java.io.IOException;
 import java.nio.ByteBuffer;
@@ -48,6 +51,8 @@ public class FsTranslog extends AbstractIndexShardComponent implements Translog
 
     private final boolean useStream;
 
+    private final boolean groupCommit;
+
     private final Object mutex = new Object();
 
     private boolean syncOnEachOperation = false;
@@ -61,11 +66,33 @@ public class FsTranslog extends AbstractIndexShardComponent implements Translog
 
     private RafReference raf;
 
+    // group commit: writes are appended in order under the write mutex, so the written position is
+    // contiguous, and a single sync under the sync mutex covers all the operations written before it
+
+    private final Object groupCommitWriteMutex = new Object();
+
+    private final Object groupCommitSyncMutex = new Object();
+
+    private volatile long groupCommitWrittenPosition = 0;
+
+    private volatile int groupCommitWrittenOperations = 0;
+
+    private volatile long groupCommitSyncedPosition = 0;
+
+    private int groupCommitSyncedOperations = 0;
+
+    private final AtomicLong syncs = new AtomicLong();
+
+    private final AtomicLong syncedOperations = new AtomicLong();
+
+    private final AtomicLong syncWaitTime = new AtomicLong();
+
     @Inject public FsTranslog(ShardId shardId, @IndexSettings Settings indexSettings, NodeEnvironment nodeEnv) {
         super(shardId, indexSettings);
         this.location = new File(nodeEnv.shardLocation(shardId), "translog");
         this.location.mkdirs();
         this.useStream = componentSettings.getAsBoolean("use_stream", false);
+        this.groupCommit = componentSettings.getAsBoolean("group_commit", false);
     }
 
     public FsTranslog(ShardId shardId, @IndexSettings Settings indexSettings, File location) {
@@ -77,6 +104,7 @@ public class FsTranslog extends AbstractIndexShardComponent implements Translog
         this.location = location;
         this.location.mkdirs();
         this.useStream = useStream;
+        this.groupCommit = componentSettings.getAsBoolean("group_commit", false);
     }
 
     public File location() {
@@ -118,6 +146,7 @@ public class FsTranslog extends AbstractIndexShardComponent implements Translog
             operationCounter.set(0);
             lastPosition.set(0);
             lastWrittenPosition.set(0);
+            resetGroupCommit();
             this.id = id + 1;
             if (raf != null) {
                 raf.decreaseRefCount(true);
@@ -137,6 +166,7 @@ public class FsTranslog extends AbstractIndexShardComponent implements Translog
             operationCounter.set(0);
             lastPosition.set(0);
             lastWrittenPosition.set(0);
+            resetGroupCommit();
             this.id = id;
             if (raf != null) {
                 raf.decreaseRefCount(true);
@@ -152,7 +182,7 @@ public class FsTranslog extends AbstractIndexShardComponent implements Translog
         }
     }
 
-    @Override public void add(Operation operation) throws TranslogException {
+    @Override public Location add(Operation operation) throws TranslogException {
         try {
             BytesStreamOutput out = CachedStreamOutput.cachedBytes();
             out.writeInt(0); // marker for the size...
@@ -163,22 +193,107 @@ public class FsTranslog extends AbstractIndexShardComponent implements Translog
             out.seek(0);
             out.writeInt(size - 4);
 
+            if (groupCommit && syncOnEachOperation) {
+                long position;
+                synchronized (groupCommitWriteMutex) {
+                    position = lastPosition.getAndAdd(size);
+                    raf.channel().write(ByteBuffer.wrap(out.unsafeByteArray(), 0, size), position);
+                    groupCommitWrittenOperations++;
+                    groupCommitWrittenPosition = position + size;
+                }
+                synchronized (mutex) {
+                    lastWrittenPosition.getAndAdd(size);
+                    operationCounter.incrementAndGet();
+                }
+                groupCommitSync(position + size);
+                // skip the size marker, the location points at the operation itself
+                return new Location(id, position + 4, size - 4);
+            }
+
             long position = lastPosition.getAndAdd(size);
             // use channel#write and not raf#write since it allows for concurrent writes
             // with regards to positions
             raf.channel().write(ByteBuffer.wrap(out.unsafeByteArray(), 0, size), position);
             if (syncOnEachOperation) {
+                long start = System.nanoTime();
                 raf.channel().force(false);
+                syncs.incrementAndGet();
+                syncedOperations.incrementAndGet();
+                syncWaitTime.addAndGet(System.nanoTime() - start);
             }
             synchronized (mutex) {
                 lastWrittenPosition.getAndAdd(size);
                 operationCounter.incrementAndGet();
             }
+            return new Location(id, position + 4, size - 4);
         } catch (Exception e) {
             throw new TranslogException(shardId, "Failed to write operation [" + operation + "]", e);
         }
     }
 
+    @Override public Operation read(Location location) {
+        RafReference raf;
+        synchronized (mutex) {
+            if (this.raf == null || location.translogId != id) {
+                return null;
+            }
+            raf = this.raf;
+            raf.increaseRefCount();
+        }
+        try {
+            ByteBuffer buffer = ByteBuffer.allocate(location.size);
+            long position = location.translogLocation;
+            while (buffer.hasRemaining()) {
+                int read = raf.channel().read(buffer, position);
+                if (read < 0) {
+                    throw new EOFException("read past the end of translog [" + location.translogId + "]");
+                }
+                position += read;
+            }
+            return TranslogStreams.readTranslogOperation(new BytesStreamInput(buffer.array()));
+        } catch (IOException e) {
+            throw new TranslogException(shardId, "Failed to read operation from translog [" + location.translogId + "]", e);
+        } finally {
+            raf.decreaseRefCount(false);
+        }
+    }
+
+    /**
+     * Makes sure everything up to the provided position is synced. If a sync that started after the position
+     * was written already covered it, returns without syncing, otherwise syncs everything written so far,
+     * covering the operations of all the threads that are waiting for a sync as well.
+     */
+    private void groupCommitSync(long position) throws IOException {
+        long start = System.nanoTime();
+        synchronized (groupCommitSyncMutex) {
+            if (groupCommitSyncedPosition < position) {
+                long syncPosition;
+                int syncOperations;
+                synchronized (groupCommitWriteMutex) {
+                    syncPosition = groupCommitWrittenPosition;
+                    syncOperations = groupCommitWrittenOperations;
+                }
+                raf.channel().force(false);
+                syncs.incrementAndGet();
+                syncedOperations.addAndGet(syncOperations - groupCommitSyncedOperations);
+                groupCommitSyncedOperations = syncOperations;
+                groupCommitSyncedPosition = syncPosition;
+            }
+        }
+        syncWaitTime.addAndGet(System.nanoTime() - start);
+    }
+
+    private void resetGroupCommit() {
+        synchronized (groupCommitSyncMutex) {
+            synchronized (groupCommitWriteMutex) {
+                groupCommitWrittenPosition = 0;
+                groupCommitWrittenOperations = 0;
+                groupCommitSyncedPosition = 0;
+                groupCommitSyncedOperations = 0;
+            }
+        }
+    }
+
     @Override public Snapshot snapshot() throws TranslogException {
         synchronized (mutex) {
             try {
@@ -236,6 +351,10 @@ public class FsTranslog extends AbstractIndexShardComponent implements Translog
         }
     }
 
+    @Override public TranslogSyncStats syncStats() {
+        return new TranslogSyncStats(syncs.get(), syncedOperations.get(), syncWaitTime.get());
+    }
+
     @Override public void close(boolean delete) {
         synchronized (mutex) {
             if (raf != null) {
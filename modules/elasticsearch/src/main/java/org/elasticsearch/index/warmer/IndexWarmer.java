@@ -0,0 +1,145 @@
+/*
+ * Licensed to Elastic Search and Shay Banon under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. Elastic Search licenses this
+ * file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.elasticsearch.index.warmer;
+
+import org.apache.lucene.index.IndexReader;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.Query;
+import org.elasticsearch.common.inject.Inject;
+import org.elasticsearch.common.settings.Settings;
+import org.elasticsearch.common.unit.TimeValue;
+import org.elasticsearch.index.AbstractIndexComponent;
+import org.elasticsearch.index.Index;
+import org.elasticsearch.index.cache.IndexCache;
+import org.elasticsearch.index.mapper.FieldMapper;
+import org.elasticsearch.index.mapper.MapperService;
+import org.elasticsearch.index.query.IndexQueryParserService;
+import org.elasticsearch.index.settings.IndexSettings;
+import org.elasticsearch.index.shard.ShardId;
+
+import javax.annotation.Nullable;
+import java.util.*;
+
+/**
+ * Warms a newly opened reader of a shard. Only the segments that are not part of the previously used reader are
+ * warmed: the field data of the <tt>index.warmer.field_data.fields</tt> fields is loaded, and the
+ * <tt>index.warmer.queries</tt> queries are executed against each new segment, populating its filter cache entries.
+ *
+ * <p>Segments are identified by their field cache key, the key the field data and filter caches use, so a segment
+ * that is opened again by a new writer (after a full flush) is warmed again, as its cache entries are not reused.
+ *
+ * @author kimchy (shay.banon)
+ */
+public class IndexWarmer extends AbstractIndexComponent {
+
+    private final IndexCache indexCache;
+
+    private final MapperService mapperService;
+
+    private final IndexQueryParserService queryParserService;
+
+    private final boolean enabled;
+
+    private final String[] fieldDataFields;
+
+    private final String[] queries;
+
+    @Inject public IndexWarmer(Index index, @IndexSettings Settings indexSettings, IndexCache indexCache,
+                               MapperService mapperService, IndexQueryParserService queryParserService) {
+        super(index, indexSettings);
+        this.indexCache = indexCache;
+        this.mapperService = mapperService;
+        this.queryParserService = queryParserService;
+
+        this.enabled = componentSettings.getAsBoolean("enabled", true);
+        this.fieldDataFields = componentSettings.getAsArray("field_data.fields");
+        this.queries = componentSettings.getAsArray("queries");
+
+        logger.debug("using enabled [{}], field_data.fields {}, [{}] queries", enabled, Arrays.toString(fieldDataFields), queries.length);
+    }
+
+    /**
+     * Warms the segments of the new reader that are not part of the previous reader (if there is one).
+     * Failures are logged and do not prevent the new reader from being used.
+     */
+    public void warm(ShardId shardId, IndexReader newReader, @Nullable IndexReader previousReader) {
+        if (!enabled || (fieldDataFields.length == 0 && queries.length == 0)) {
+            return;
+        }
+        List<IndexReader> newSegments = newSegments(newReader, previousReader);
+        if (newSegments.isEmpty()) {
+            return;
+        }
+        long start = System.currentTimeMillis();
+        for (IndexReader segmentReader : newSegments) {
+            for (String fieldName : fieldDataFields) {
+                FieldMapper fieldMapper = mapperService.smartNameFieldMapper(fieldName);
+                if (fieldMapper == null) {
+                    // not mapped (yet)
+                    continue;
+                }
+                try {
+                    indexCache.fieldData().cache(fieldMapper.fieldDataType(), segmentReader, fieldMapper.names().indexName());
+                } catch (Exception e) {
+                    logger.warn("{} failed to warm field data for [{}]", e, shardId, fieldName);
+                }
+            }
+            if (queries.length > 0) {
+                IndexSearcher searcher = new IndexSearcher(segmentReader);
+                for (String querySource : queries) {
+                    try {
+                        Query query = queryParserService.defaultIndexQueryParser().parse(querySource).query();
+                        searcher.search(query, 1);
+                    } catch (Exception e) {
+                        logger.warn("{} failed to execute warmup query [{}]", e, shardId, querySource);
+                    }
+                }
+            }
+        }
+        if (logger.isTraceEnabled()) {
+            logger.trace("{} warmed [{}] new segments, took [{}]", shardId, newSegments.size(), TimeValue.timeValueMillis(System.currentTimeMillis() - start));
+        }
+    }
+
+    static List<IndexReader> newSegments(IndexReader newReader, @Nullable IndexReader previousReader) {
+        List<IndexReader> newSegments = new ArrayList<IndexReader>();
+        IndexReader[] newSubReaders = newReader.getSequentialSubReaders();
+        if (newSubReaders == null) {
+            newSubReaders = new IndexReader[]{newReader};
+        }
+        // the caches key segments by identity
+        Set<Object> previousKeys = Collections.newSetFromMap(new IdentityHashMap<Object, Boolean>());
+        if (previousReader != null) {
+            IndexReader[] previousSubReaders = previousReader.getSequentialSubReaders();
+            if (previousSubReaders == null) {
+                previousSubReaders = new IndexReader[]{previousReader};
+            }
+            for (IndexReader previousSubReader : previousSubReaders) {
+                previousKeys.add(previousSubReader.getFieldCacheKey());
+            }
+        }
+        for (IndexReader newSubReader : newSubReaders) {
+            if (!previousKeys.contains(newSubReader.getFieldCacheKey())) {
+                newSegments.add(newSubReader);
+            }
+        }
+        return newSegments;
+    }
+}
@@ -45,15 +45,48 @@ public class IndicesStats implements Streamable, Serializable, ToXContent {
 
     private long fieldCacheEvictions;
 
+    private long fieldCacheHits;
+
+    private long fieldCacheMisses;
+
+    private long filterCacheEvictions;
+
+    private long filterCacheHits;
+
+    private long filterCacheMisses;
+
+    private ByteSizeValue queryResultCacheSize;
+
+    private long queryResultCacheEvictions;
+
+    private long queryResultCacheHits;
+
+    private long queryResultCacheMisses;
+
+    private ByteSizeValue bloomCacheSize;
+
     IndicesStats() {
     }
 
     public IndicesStats(ByteSizeValue storeSize, ByteSizeValue fieldCacheSize, ByteSizeValue filterCacheSize,
-                        long fieldCacheEvictions) {
+                        long fieldCacheEvictions, long fieldCacheHits, long fieldCacheMisses,
+                        long filterCacheEvictions, long filterCacheHits, long filterCacheMisses,
+                        ByteSizeValue queryResultCacheSize, long queryResultCacheEvictions, long queryResultCacheHits, long queryResultCacheMisses,
+                        ByteSizeValue bloomCacheSize) {
         this.storeSize = storeSize;
         this.fieldCacheSize = fieldCacheSize;
         this.filterCacheSize = filterCacheSize;
         this.fieldCacheEvictions = fieldCacheEvictions;
+        this.fieldCacheHits = fieldCacheHits;
+        this.fieldCacheMisses = fieldCacheMisses;
+        this.filterCacheEvictions = filterCacheEvictions;
+        this.filterCacheHits = filterCacheHits;
+        this.filterCacheMisses = filterCacheMisses;
+        this.queryResultCacheSize = queryResultCacheSize;
+        this.queryResultCacheEvictions = queryResultCacheEvictions;
+        this.queryResultCacheHits = queryResultCacheHits;
+        this.queryResultCacheMisses = queryResultCacheMisses;
+        this.bloomCacheSize = bloomCacheSize;
     }
 
     /**
@@ -94,6 +127,110 @@ public class IndicesStats implements Streamable, Serializable, ToXContent {
         return fieldCacheEvictions();
     }
 
+    /**
+     * The number of times field data was found in the field cache.
+     */
+    public long fieldCacheHits() {
+        return this.fieldCacheHits;
+    }
+
+    public long getFieldCacheHits() {
+        return fieldCacheHits();
+    }
+
+    /**
+     * The number of times field data had to be loaded into the field cache.
+     */
+    public long fieldCacheMisses() {
+        return this.fieldCacheMisses;
+    }
+
+    public long getFieldCacheMisses() {
+        return fieldCacheMisses();
+    }
+
+    public long filterCacheEvictions() {
+        return this.filterCacheEvictions;
+    }
+
+    public long getFilterCacheEvictions() {
+        return filterCacheEvictions();
+    }
+
+    /**
+     * The number of times a filter doc set was found in the filter cache.
+     */
+    public long filterCacheHits() {
+        return this.filterCacheHits;
+    }
+
+    public long getFilterCacheHits() {
+        return filterCacheHits();
+    }
+
+    /**
+     * The number of times a filter doc set had to be loaded into the filter cache.
+     */
+    public long filterCacheMisses() {
+        return this.filterCacheMisses;
+    }
+
+    public long getFilterCacheMisses() {
+        return filterCacheMisses();
+    }
+
+    /**
+     * The size of the shard query results cached on the node.
+     */
+    public ByteSizeValue queryResultCacheSize() {
+        return this.queryResultCacheSize;
+    }
+
+    public ByteSizeValue getQueryResultCacheSize() {
+        return queryResultCacheSize();
+    }
+
+    public long queryResultCacheEvictions() {
+        return this.queryResultCacheEvictions;
+    }
+
+    public long getQueryResultCacheEvictions() {
+        return queryResultCacheEvictions();
+    }
+
+    /**
+     * The number of times a shard query result was found in the query result cache.
+     */
+    public long queryResultCacheHits() {
+        return this.queryResultCacheHits;
+    }
+
+    public long getQueryResultCacheHits() {
+        return queryResultCacheHits();
+    }
+
+    /**
+     * The number of times a shard query result was not found in the query result cache (and had to be executed).
+     */
+    public long queryResultCacheMisses() {
+        return this.queryResultCacheMisses;
+    }
+
+    public long getQueryResultCacheMisses() {
+        return queryResultCacheMisses();
+    }
+
+    /**
+     * The size of the (uid) bloom filters kept in memory on the node.
+     */
+    public ByteSizeValue bloomCacheSize() {
+        return this.bloomCacheSize;
+    }
+
+    public ByteSizeValue getBloomCacheSize() {
+        return bloomCacheSize();
+    }
+
     public static IndicesStats readIndicesStats(StreamInput in) throws IOException {
         IndicesStats stats = new IndicesStats();
         stats.readFrom(in);
@@ -104,12 +241,34 @@ public class IndicesStats implements Streamable, Serializable, ToXContent {
         storeSize = ByteSizeValue.readBytesSizeValue(in);
         fieldCacheSize = ByteSizeValue.readBytesSizeValue(in);
         filterCacheSize = ByteSizeValue.readBytesSizeValue(in);
+        fieldCacheEvictions = in.readVLong();
+        fieldCacheHits = in.readVLong();
+        fieldCacheMisses = in.readVLong();
+        filterCacheEvictions = in.readVLong();
+        filterCacheHits = in.readVLong();
+        filterCacheMisses = in.readVLong();
+        queryResultCacheSize = ByteSizeValue.readBytesSizeValue(in);
+        queryResultCacheEvictions = in.readVLong();
+        queryResultCacheHits = in.readVLong();
+        queryResultCacheMisses = in.readVLong();
+        bloomCacheSize = ByteSizeValue.readBytesSizeValue(in);
     }
 
     @Override public void writeTo(StreamOutput out) throws IOException {
         storeSize.writeTo(out);
         fieldCacheSize.writeTo(out);
         filterCacheSize.writeTo(out);
+        out.writeVLong(fieldCacheEvictions);
+        out.writeVLong(fieldCacheHits);
+        out.writeVLong(fieldCacheMisses);
+        out.writeVLong(filterCacheEvictions);
+        out.writeVLong(filterCacheHits);
+        out.writeVLong(filterCacheMisses);
+        queryResultCacheSize.writeTo(out);
+        out.writeVLong(queryResultCacheEvictions);
+        out.writeVLong(queryResultCacheHits);
+        out.writeVLong(queryResultCacheMisses);
+        bloomCacheSize.writeTo(out);
     }
 
     @Override public XContentBuilder toXContent(XContentBuilder builder, Params params) throws IOException {
@@ -117,10 +276,22 @@ public class IndicesStats implements Streamable, Serializable, ToXContent {
         builder.field(Fields.STORE_SIZE, storeSize.toString());
         builder.field(Fields.STORE_SIZE_IN_BYTES, storeSize.bytes());
         builder.field(Fields.FIELD_CACHE_EVICTIONS, fieldCacheEvictions);
+        builder.field(Fields.FIELD_CACHE_HITS, fieldCacheHits);
+        builder.field(Fields.FIELD_CACHE_MISSES, fieldCacheMisses);
         builder.field(Fields.FIELD_CACHE_SIZE, fieldCacheSize.toString());
         builder.field(Fields.FIELD_CACHE_SIZE_IN_BYTES, fieldCacheSize.bytes());
+        builder.field(Fields.FILTER_CACHE_EVICTIONS, filterCacheEvictions);
+        builder.field(Fields.FILTER_CACHE_HITS, filterCacheHits);
+        builder.field(Fields.FILTER_CACHE_MISSES, filterCacheMisses);
         builder.field(Fields.FILTER_CACHE_SIZE, filterCacheSize.toString());
         builder.field(Fields.FILTER_CACHE_SIZE_IN_BYTES, filterCacheSize.bytes());
+        builder.field(Fields.QUERY_RESULT_CACHE_EVICTIONS, queryResultCacheEvictions);
+        builder.field(Fields.QUERY_RESULT_CACHE_HITS, queryResultCacheHits);
+        builder.field(Fields.QUERY_RESULT_CACHE_MISSES, queryResultCacheMisses);
+        builder.field(Fields.QUERY_RESULT_CACHE_SIZE, queryResultCacheSize.toString());
+        builder.field(Fields.QUERY_RESULT_CACHE_SIZE_IN_BYTES, queryResultCacheSize.bytes());
+        builder.field(Fields.BLOOM_CACHE_SIZE, bloomCacheSize.toString());
+        builder.field(Fields.BLOOM_CACHE_SIZE_IN_BYTES, bloomCacheSize.bytes());
         builder.endObject();
         return builder;
     }
@@ -132,7 +303,19 @@ public class IndicesStats implements Streamable, Serializable, ToXContent {
         static final XContentBuilderString FIELD_CACHE_SIZE = new XContentBuilderString("field_cache_size");
         static final XContentBuilderString FIELD_CACHE_SIZE_IN_BYTES = new XContentBuilderString("field_cache_size_in_bytes");
         static final XContentBuilderString FIELD_CACHE_EVICTIONS = new XContentBuilderString("field_cache_evictions");
+        static final XContentBuilderString FIELD_CACHE_HITS = new XContentBuilderString("field_cache_hits");
+        static final XContentBuilderString FIELD_CACHE_MISSES = new XContentBuilderString("field_cache_misses");
         static final XContentBuilderString FILTER_CACHE_SIZE = new XContentBuilderString("filter_cache_size");
         static final XContentBuilderString FILTER_CACHE_SIZE_IN_BYTES = new XContentBuilderString("filter_cache_size_in_bytes");
+        static final XContentBuilderString FILTER_CACHE_EVICTIONS = new XContentBuilderString("filter_cache_evictions");
+        static final XContentBuilderString FILTER_CACHE_HITS = new XContentBuilderString("filter_cache_hits");
+        static final XContentBuilderString FILTER_CACHE_MISSES = new XContentBuilderString("filter_cache_misses");
+        static final XContentBuilderString QUERY_RESULT_CACHE_SIZE = new XContentBuilderString("query_result_cache_size");
+        static final XContentBuilderString QUERY_RESULT_CACHE_SIZE_IN_BYTES = new XContentBuilderString("query_result_cache_size_in_bytes");
+        static final XContentBuilderString QUERY_RESULT_CACHE_EVICTIONS = new XContentBuilderString("query_result_cache_evictions");
+        static final XContentBuilderString QUERY_RESULT_CACHE_HITS = new XContentBuilderString("query_result_cache_hits");
+        static final XContentBuilderString QUERY_RESULT_CACHE_MISSES = new XContentBuilderString("query_result_cache_misses");
+        static final XContentBuilderString BLOOM_CACHE_SIZE = new XContentBuilderString("bloom_cache_size");
+        static final XContentBuilderString BLOOM_CACHE_SIZE_IN_BYTES = new XContentBuilderString("bloom_cache_size_in_bytes");
     }
 }
@@ -57,6 +57,7 @@ import org.elasticsearch.index.shard.service.IndexShard;
 import org.elasticsearch.index.shard.service.InternalIndexShard;
 import org.elasticsearch.index.similarity.SimilarityModule;
 import org.elasticsearch.index.store.IndexStoreModule;
+import org.elasticsearch.index.warmer.IndexWarmerModule;
 import org.elasticsearch.indices.analysis.IndicesAnalysisService;
 import org.elasticsearch.indices.store.IndicesStore;
 import org.elasticsearch.plugins.IndexPluginsModule;
@@ -159,8 +160,18 @@ public class InternalIndicesService extends AbstractLifecycleComponent<IndicesSe
     @Override public IndicesStats stats() {
         long storeTotalSize = 0;
         long fieldCacheEvictions = 0;
+        long fieldCacheHits = 0;
+        long fieldCacheMisses = 0;
         long fieldCacheTotalSize = 0;
         long filterCacheTotalSize = 0;
+        long filterCacheEvictions = 0;
+        long filterCacheHits = 0;
+        long filterCacheMisses = 0;
+        long queryResultCacheTotalSize = 0;
+        long queryResultCacheEvictions = 0;
+        long queryResultCacheHits = 0;
+        long queryResultCacheMisses = 0;
+        long bloomCacheTotalSize = 0;
         for (IndexService indexService : indices.values()) {
             for (IndexShard indexShard : indexService) {
                 try {
@@ -170,10 +181,23 @@ public class InternalIndicesService extends AbstractLifecycleComponent<IndicesSe
                 }
             }
             fieldCacheEvictions += indexService.cache().fieldData().evictions();
+            fieldCacheHits += indexService.cache().fieldData().hits();
+            fieldCacheMisses += indexService.cache().fieldData().misses();
             fieldCacheTotalSize += indexService.cache().fieldData().sizeInBytes();
             filterCacheTotalSize += indexService.cache().filter().sizeInBytes();
+            filterCacheEvictions += indexService.cache().filter().evictions();
+            filterCacheHits += indexService.cache().filter().hits();
+            filterCacheMisses += indexService.cache().filter().misses();
+            queryResultCacheTotalSize += indexService.cache().queryResult().sizeInBytes();
+            queryResultCacheEvictions += indexService.cache().queryResult().evictions();
+            queryResultCacheHits += indexService.cache().queryResult().hits();
+            queryResultCacheMisses += indexService.cache().queryResult().misses();
+            bloomCacheTotalSize += indexService.cache().bloomCache().sizeInBytes();
         }
-        return new IndicesStats(new ByteSizeValue(storeTotalSize), new ByteSizeValue(fieldCacheTotalSize), new ByteSizeValue(filterCacheTotalSize), fieldCacheEvictions);
+        return new IndicesStats(new ByteSizeValue(storeTotalSize), new ByteSizeValue(fieldCacheTotalSize), new ByteSizeValue(filterCacheTotalSize), fieldCacheEvictions, fieldCacheHits, fieldCacheMisses,
+                filterCacheEvictions, filterCacheHits, filterCacheMisses,
+                new ByteSizeValue(queryResultCacheTotalSize), queryResultCacheEvictions, queryResultCacheHits, queryResultCacheMisses,
+                new ByteSizeValue(bloomCacheTotalSize));
     }
 
     /**
@@ -240,6 +264,7 @@ public class InternalIndicesService extends AbstractLifecycleComponent<IndicesSe
         modules.add(new IndexGatewayModule(indexSettings, injector.getInstance(Gateway.class)));
         modules.add(new IndexModule());
         modules.add(new PercolatorModule());
+        modules.add(new IndexWarmerModule());
 
         Injector indexInjector = modules.createChildInjector(injector);
 
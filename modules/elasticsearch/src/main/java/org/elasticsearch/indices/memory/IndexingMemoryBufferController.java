@@ -19,34 +19,71 @@
 
 package org.elasticsearch.indices.memory;
 
-import org.elasticsearch.common.component.AbstractComponent;
+import org.elasticsearch.ElasticSearchException;
+import org.elasticsearch.common.collect.Maps;
+import org.elasticsearch.common.collect.Sets;
+import org.elasticsearch.common.component.AbstractLifecycleComponent;
 import org.elasticsearch.common.inject.Inject;
 import org.elasticsearch.common.settings.Settings;
 import org.elasticsearch.common.unit.ByteSizeUnit;
 import org.elasticsearch.common.unit.ByteSizeValue;
+import org.elasticsearch.common.unit.TimeValue;
+import org.elasticsearch.index.engine.Engine;
+import org.elasticsearch.index.engine.EngineClosedException;
+import org.elasticsearch.index.engine.FlushNotAllowedEngineException;
 import org.elasticsearch.index.service.IndexService;
+import org.elasticsearch.index.shard.IndexShardState;
 import org.elasticsearch.index.shard.ShardId;
 import org.elasticsearch.index.shard.service.IndexShard;
 import org.elasticsearch.index.shard.service.InternalIndexShard;
 import org.elasticsearch.indices.IndicesLifecycle;
 import org.elasticsearch.indices.IndicesService;
 import org.elasticsearch.monitor.jvm.JvmInfo;
+import org.elasticsearch.threadpool.ThreadPool;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ScheduledFuture;
 
 /**
+ * Splits the node level indexing buffer between the shards allocated on the node. Shards that have not
+ * seen any indexing activity for a while are flushed and shrunk down to a minimal buffer, and the freed
+ * memory is split between the active shards.
+ *
  * @author kimchy (shay.banon)
  */
-public class IndexingMemoryBufferController extends AbstractComponent {
+public class IndexingMemoryBufferController extends AbstractLifecycleComponent<IndexingMemoryBufferController> {
+
+    private final ThreadPool threadPool;
+
+    private final IndicesService indicesService;
 
     private final ByteSizeValue indexingBuffer;
 
     private final ByteSizeValue minShardIndexBufferSize;
 
-    private final IndicesService indicesService;
+    private final ByteSizeValue maxShardIndexBufferSize;
+
+    private final ByteSizeValue inactiveShardIndexBufferSize;
+
+    private final TimeValue inactiveTime;
+
+    private final TimeValue interval;
 
     private final Listener listener = new Listener();
 
-    @Inject public IndexingMemoryBufferController(Settings settings, IndicesService indicesService) {
+    private final Map<ShardId, ShardIndexingStatus> shardsIndicesStatus = Maps.newHashMap();
+
+    // shards marked as inactive whose flush is still running, guarded by the mutex
+    private final Set<ShardId> flushingShards = Sets.newHashSet();
+
+    private final Object mutex = new Object();
+
+    private volatile ScheduledFuture scheduler;
+
+    @Inject public IndexingMemoryBufferController(Settings settings, ThreadPool threadPool, IndicesService indicesService) {
         super(settings);
+        this.threadPool = threadPool;
         this.indicesService = indicesService;
 
         ByteSizeValue indexingBuffer;
@@ -69,54 +106,204 @@ public class IndexingMemoryBufferController extends AbstractComponent {
 
         this.indexingBuffer = indexingBuffer;
         this.minShardIndexBufferSize = componentSettings.getAsBytesSize("min_shard_index_buffer_size", new ByteSizeValue(4, ByteSizeUnit.MB));
+        this.maxShardIndexBufferSize = componentSettings.getAsBytesSize("max_shard_index_buffer_size", new ByteSizeValue(512, ByteSizeUnit.MB));
+        this.inactiveShardIndexBufferSize = componentSettings.getAsBytesSize("inactive_shard_index_buffer_size", new ByteSizeValue(500, ByteSizeUnit.KB));
 
-        logger.debug("using index_buffer_size [{}], with min_shard_index_buffer_size [{}]", this.indexingBuffer, this.minShardIndexBufferSize);
+        this.inactiveTime = componentSettings.getAsTime("shard_inactive_time", TimeValue.timeValueMinutes(30));
+        this.interval = componentSettings.getAsTime("interval", TimeValue.timeValueSeconds(30));
 
+        logger.debug("using index_buffer_size [{}], with min_shard_index_buffer_size [{}], max_shard_index_buffer_size [{}], shard_inactive_time [{}]", this.indexingBuffer, this.minShardIndexBufferSize, this.maxShardIndexBufferSize, this.inactiveTime);
+    }
+
+    @Override protected void doStart() throws ElasticSearchException {
         indicesService.indicesLifecycle().addListener(listener);
+        // its fine to run it on the scheduler thread, no busy work (flushing inactive shards is forked)
+        this.scheduler = threadPool.scheduleWithFixedDelay(new ShardsIndicesStatusChecker(), interval);
     }
 
-    private class Listener extends IndicesLifecycle.Listener {
+    @Override protected void doStop() throws ElasticSearchException {
+        indicesService.indicesLifecycle().removeListener(listener);
+        if (scheduler != null) {
+            scheduler.cancel(false);
+            scheduler = null;
+        }
+    }
 
-        @Override public void afterIndexShardCreated(IndexShard indexShard) {
-            calcAndSetShardIndexingBuffer("created_shard[" + indexShard.shardId().index().name() + "][" + indexShard.shardId().id() + "]");
+    @Override protected void doClose() throws ElasticSearchException {
+    }
+
+    private class ShardsIndicesStatusChecker implements Runnable {
+        @Override public void run() {
+            synchronized (mutex) {
+                boolean activeInactiveStatusChanges = false;
+                Set<ShardId> shardIds = Sets.newHashSet();
+                long time = System.currentTimeMillis();
+                for (IndexService indexService : indicesService) {
+                    for (IndexShard indexShard : indexService) {
+                        if (indexShard.state() != IndexShardState.STARTED) {
+                            // not ready for indexing yet, or closing
+                            continue;
+                        }
+                        InternalIndexShard internalIndexShard = (InternalIndexShard) indexShard;
+                        shardIds.add(indexShard.shardId());
+                        if (flushingShards.contains(indexShard.shardId())) {
+                            // its status is updated once the flush is done
+                            continue;
+                        }
+
+                        long translogId = internalIndexShard.translog().currentId();
+                        int translogNumberOfOperations = internalIndexShard.translog().size();
+
+                        ShardIndexingStatus status = shardsIndicesStatus.get(indexShard.shardId());
+                        if (status == null) {
+                            // new shard, consider it active
+                            status = new ShardIndexingStatus();
+                            shardsIndicesStatus.put(indexShard.shardId(), status);
+                            activeInactiveStatusChanges = true;
+                        } else if (status.translogId == translogId && status.translogNumberOfOperations == translogNumberOfOperations) {
+                            // no indexing since the last check
+                            if (status.time == -1) {
+                                status.time = time;
+                            }
+                            if (!status.inactive && (time - status.time) > inactiveTime.millis()) {
+                                status.inactive = true;
+                                activeInactiveStatusChanges = true;
+                                logger.debug("marking shard [{}][{}] as inactive (inactive_time[{}]), setting size to [{}]", indexShard.shardId().index().name(), indexShard.shardId().id(), inactiveTime, inactiveShardIndexBufferSize);
+                                try {
+                                    internalIndexShard.engine().updateIndexingBufferSize(inactiveShardIndexBufferSize);
+                                } catch (EngineClosedException e) {
+                                    // ignore
+                                } catch (Exception e) {
+                                    logger.warn("failed to set shard [{}][{}] index buffer to [{}]", e, indexShard.shardId().index().name(), indexShard.shardId().id(), inactiveShardIndexBufferSize);
+                                }
+                                // flush what is held in the buffer so its memory is released, not on the scheduler thread
+                                flushingShards.add(indexShard.shardId());
+                                threadPool.cached().execute(new InactiveShardFlusher(internalIndexShard));
+                            }
+                        } else {
+                            if (status.inactive) {
+                                status.inactive = false;
+                                activeInactiveStatusChanges = true;
+                                logger.debug("marking shard [{}][{}] as active", indexShard.shardId().index().name(), indexShard.shardId().id());
+                            }
+                            status.time = -1;
+                        }
+                        status.translogId = translogId;
+                        status.translogNumberOfOperations = translogNumberOfOperations;
+                    }
+                }
+                // drop the status of shards that are no longer allocated (or started) on this node
+                if (shardsIndicesStatus.keySet().retainAll(shardIds)) {
+                    activeInactiveStatusChanges = true;
+                }
+                if (activeInactiveStatusChanges) {
+                    calcAndSetShardIndexingBuffer("active/inactive status changes");
+                }
+            }
         }
+    }
 
-        @Override public void afterIndexShardClosed(ShardId shardId, boolean delete) {
-            calcAndSetShardIndexingBuffer("removed_shard[" + shardId.index().name() + "][" + shardId.id() + "]");
+    private class InactiveShardFlusher implements Runnable {
+
+        private final InternalIndexShard indexShard;
+
+        private InactiveShardFlusher(InternalIndexShard indexShard) {
+            this.indexShard = indexShard;
         }
 
-        private void calcAndSetShardIndexingBuffer(String reason) {
-            int shardsCount = countShards();
-            if (shardsCount == 0) {
-                return;
-            }
-            ByteSizeValue shardIndexingBufferSize = calcShardIndexingBuffer(shardsCount);
-            if (shardIndexingBufferSize == null) {
-                return;
+        @Override public void run() {
+            try {
+                indexShard.flush(new Engine.Flush());
+            } catch (EngineClosedException e) {
+                // ignore
+            } catch (FlushNotAllowedEngineException e) {
+                // ignore
+            } catch (Exception e) {
+                logger.warn("failed to flush inactive shard [{}][{}]", e, indexShard.shardId().index().name(), indexShard.shardId().id());
+            } finally {
+                synchronized (mutex) {
+                    flushingShards.remove(indexShard.shardId());
+                    ShardIndexingStatus status = shardsIndicesStatus.get(indexShard.shardId());
+                    if (status != null && status.inactive) {
+                        // the flush creates a new translog, which should not count as indexing activity
+                        try {
+                            status.translogId = indexShard.translog().currentId();
+                            status.translogNumberOfOperations = indexShard.translog().size();
+                        } catch (Exception e) {
+                            // closed in the meantime, its status is dropped on the next check
+                        }
+                    }
+                }
             }
-            if (shardIndexingBufferSize.bytes() < minShardIndexBufferSize.bytes()) {
-                shardIndexingBufferSize = minShardIndexBufferSize;
+        }
+    }
+
+    private class Listener extends IndicesLifecycle.Listener {
+
+        @Override public void afterIndexShardCreated(IndexShard indexShard) {
+            synchronized (mutex) {
+                calcAndSetShardIndexingBuffer("created_shard[" + indexShard.shardId().index().name() + "][" + indexShard.shardId().id() + "]");
+                shardsIndicesStatus.put(indexShard.shardId(), new ShardIndexingStatus());
             }
-            logger.debug("recalculating shard indexing buffer (reason={}), total is [{}] with [{}] shards, each shard set to [{}]", reason, indexingBuffer, shardsCount, shardIndexingBufferSize);
-            for (IndexService indexService : indicesService) {
-                for (IndexShard indexShard : indexService) {
-                    ((InternalIndexShard) indexShard).engine().updateIndexingBufferSize(shardIndexingBufferSize);
-                }
+        }
+
+        @Override public void afterIndexShardClosed(ShardId shardId, boolean delete) {
+            synchronized (mutex) {
+                calcAndSetShardIndexingBuffer("removed_shard[" + shardId.index().name() + "][" + shardId.id() + "]");
+                shardsIndicesStatus.remove(shardId);
             }
         }
+    }
 
-        private ByteSizeValue calcShardIndexingBuffer(int shardsCount) {
-            return new ByteSizeValue(indexingBuffer.bytes() / shardsCount);
+    /**
+     * Splits the indexing buffer between the active shards, inactive shards are left with the inactive buffer size.
+     */
+    private void calcAndSetShardIndexingBuffer(String reason) {
+        int shardsCount = countActiveShards();
+        if (shardsCount == 0) {
+            return;
+        }
+        ByteSizeValue shardIndexingBufferSize = new ByteSizeValue(indexingBuffer.bytes() / shardsCount);
+        if (shardIndexingBufferSize.bytes() < minShardIndexBufferSize.bytes()) {
+            shardIndexingBufferSize = minShardIndexBufferSize;
+        }
+        if (shardIndexingBufferSize.bytes() > maxShardIndexBufferSize.bytes()) {
+            shardIndexingBufferSize = maxShardIndexBufferSize;
         }
+        logger.debug("recalculating shard indexing buffer (reason={}), total is [{}] with [{}] active shards, each shard set to [{}]", reason, indexingBuffer, shardsCount, shardIndexingBufferSize);
+        for (IndexService indexService : indicesService) {
+            for (IndexShard indexShard : indexService) {
+                ShardIndexingStatus status = shardsIndicesStatus.get(indexShard.shardId());
+                if (status == null || !status.inactive) {
+                    try {
+                        ((InternalIndexShard) indexShard).engine().updateIndexingBufferSize(shardIndexingBufferSize);
+                    } catch (EngineClosedException e) {
+                        // ignore
+                    } catch (Exception e) {
+                        logger.warn("failed to set shard [{}][{}] index buffer to [{}]", e, indexShard.shardId().index().name(), indexShard.shardId().id(), shardIndexingBufferSize);
+                    }
+                }
+            }
+        }
+    }
 
-        private int countShards() {
-            int shardsCount = 0;
-            for (IndexService indexService : indicesService) {
-                for (IndexShard indexShard : indexService) {
+    private int countActiveShards() {
+        int shardsCount = 0;
+        for (IndexService indexService : indicesService) {
+            for (IndexShard indexShard : indexService) {
+                ShardIndexingStatus status = shardsIndicesStatus.get(indexShard.shardId());
+                if (status == null || !status.inactive) {
                     shardsCount++;
                 }
             }
-            return shardsCount;
         }
+        return shardsCount;
+    }
+
+    static class ShardIndexingStatus {
+        long translogId = -1;
+        int translogNumberOfOperations = -1;
+        boolean inactive = false;
+        long time = -1; // contains the first time we saw this shard with no operations done on it
     }
 }
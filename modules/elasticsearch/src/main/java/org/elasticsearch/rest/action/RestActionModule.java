@@ -53,10 +53,12 @@ import org.elasticsearch.rest.action.count.RestCountAction;
 import org.elasticsearch.rest.action.delete.RestDeleteAction;
 import org.elasticsearch.rest.action.deletebyquery.RestDeleteByQueryAction;
 import org.elasticsearch.rest.action.get.RestGetAction;
+import org.elasticsearch.rest.action.get.RestMultiGetAction;
 import org.elasticsearch.rest.action.index.RestIndexAction;
 import org.elasticsearch.rest.action.main.RestMainAction;
 import org.elasticsearch.rest.action.mlt.RestMoreLikeThisAction;
 import org.elasticsearch.rest.action.percolate.RestPercolateAction;
+import org.elasticsearch.rest.action.search.RestMultiSearchAction;
 import org.elasticsearch.rest.action.search.RestSearchAction;
 import org.elasticsearch.rest.action.search.RestSearchScrollAction;
 
@@ -105,6 +107,7 @@ public class RestActionModule extends AbstractModule {
         bind(RestIndexAction.class).asEagerSingleton();
 
         bind(RestGetAction.class).asEagerSingleton();
+        bind(RestMultiGetAction.class).asEagerSingleton();
 
         bind(RestDeleteAction.class).asEagerSingleton();
 
@@ -114,6 +117,7 @@ public class RestActionModule extends AbstractModule {
         bind(RestBulkAction.class).asEagerSingleton();
 
         bind(RestSearchAction.class).asEagerSingleton();
+        bind(RestMultiSearchAction.class).asEagerSingleton();
         bind(RestSearchScrollAction.class).asEagerSingleton();
 
         bind(RestMoreLikeThisAction.class).asEagerSingleton();
@@ -127,6 +127,9 @@ public class RestIndicesStatusAction extends BaseRestHandler {
                                     builder.startObject("translog");
                                     builder.field("id", shardStatus.translogId());
                                     builder.field("operations", shardStatus.translogOperations());
+                                    if (shardStatus.translogSyncStats() != null) {
+                                        shardStatus.translogSyncStats().toXContent(builder, request);
+                                    }
                                     builder.endObject();
                                 }
 
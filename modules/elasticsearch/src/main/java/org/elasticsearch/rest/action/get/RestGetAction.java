@@ -58,6 +58,7 @@ public class RestGetAction extends BaseRestHandler {
         // if we have a local operation, execute it on a thread since we don't spawn
         getRequest.operationThreaded(true);
         getRequest.refresh(request.paramAsBoolean("refresh", getRequest.refresh()));
+        getRequest.realtime(request.paramAsBoolean("realtime", getRequest.realtime()));
         getRequest.routing(request.param("routing"));
 
 
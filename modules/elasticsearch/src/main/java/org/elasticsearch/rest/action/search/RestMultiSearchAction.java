@@ -0,0 +1,105 @@
+/*
+ * Licensed to Elastic Search and Shay Banon under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. Elastic Search licenses this
+ * file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package org.elasticsearch.rest.action.search;
+
+import org.elasticsearch.action.ActionListener;
+import org.elasticsearch.action.search.MultiSearchRequest;
+import org.elasticsearch.action.search.MultiSearchResponse;
+import org.elasticsearch.client.Client;
+import org.elasticsearch.common.inject.Inject;
+import org.elasticsearch.common.settings.Settings;
+import org.elasticsearch.common.xcontent.XContentBuilder;
+import org.elasticsearch.rest.*;
+import org.elasticsearch.rest.action.support.RestActions;
+
+import java.io.IOException;
+
+import static org.elasticsearch.rest.RestRequest.Method.*;
+import static org.elasticsearch.rest.RestResponse.Status.*;
+import static org.elasticsearch.rest.action.support.RestXContentBuilder.*;
+
+/**
+ * <pre>
+ * { "index" : "test", "type" : "type1" }
+ * { "query" : { "match_all" : {} } }
+ * {}
+ * { "query" : { "term" : { "user" : "kimchy" } } }
+ * </pre>
+ * An empty header uses the index and type set on the path.
+ *
+ * @author kimchy (shay.banon)
+ */
+public class RestMultiSearchAction extends BaseRestHandler {
+
+    @Inject public RestMultiSearchAction(Settings settings, Client client, RestController controller) {
+        super(settings, client);
+
+        controller.registerHandler(GET, "/_msearch", this);
+        controller.registerHandler(POST, "/_msearch", this);
+        controller.registerHandler(GET, "/{index}/_msearch", this);
+        controller.registerHandler(POST, "/{index}/_msearch", this);
+        controller.registerHandler(GET, "/{index}/{type}/_msearch", this);
+        controller.registerHandler(POST, "/{index}/{type}/_msearch", this);
+    }
+
+    @Override public void handleRequest(final RestRequest request, final RestChannel channel) {
+        MultiSearchRequest multiSearchRequest = new MultiSearchRequest();
+        // no need to have a threaded listener since we just send back a response
+        multiSearchRequest.listenerThreaded(false);
+
+        String[] indices = RestActions.splitIndices(request.param("index"));
+        String[] types = RestActions.splitTypes(request.param("type"));
+
+        try {
+            multiSearchRequest.add(request.contentByteArray(), request.contentByteArrayOffset(), request.contentLength(), request.contentUnsafe(), indices, types);
+        } catch (Exception e) {
+            try {
+                XContentBuilder builder = restContentBuilder(request);
+                channel.sendResponse(new XContentRestResponse(request, BAD_REQUEST, builder.startObject().field("error", e.getMessage()).endObject()));
+            } catch (IOException e1) {
+                logger.error("Failed to send failure response", e1);
+            }
+            return;
+        }
+
+        client.multiSearch(multiSearchRequest, new ActionListener<MultiSearchResponse>() {
+            @Override public void onResponse(MultiSearchResponse response) {
+                try {
+                    XContentBuilder builder = restContentBuilder(request);
+                    builder.startObject();
+                    response.toXContent(builder, request);
+                    builder.endObject();
+                    channel.sendResponse(new XContentRestResponse(request, OK, builder));
+                } catch (Exception e) {
+                    onFailure(e);
+                }
+            }
+
+            @Override public void onFailure(Throwable e) {
+                try {
+                    channel.sendResponse(new XContentThrowableRestResponse(request, e));
+                } catch (IOException e1) {
+                    logger.error("Failed to send failure response", e1);
+                }
+            }
+        });
+    }
+}
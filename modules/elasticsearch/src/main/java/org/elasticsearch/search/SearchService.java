@@ -21,11 +21,15 @@ package org.elasticsearch.search;
 
 import org.apache.lucene.search.TopDocs;
 import org.elasticsearch.ElasticSearchException;
+import org.elasticsearch.ElasticSearchIllegalArgumentException;
 import org.elasticsearch.cluster.ClusterService;
 import org.elasticsearch.common.Unicode;
 import org.elasticsearch.common.collect.ImmutableMap;
 import org.elasticsearch.common.component.AbstractLifecycleComponent;
 import org.elasticsearch.common.inject.Inject;
+import org.elasticsearch.common.io.stream.BytesStreamInput;
+import org.elasticsearch.common.io.stream.BytesStreamOutput;
+import org.elasticsearch.common.lucene.Lucene;
 import org.elasticsearch.common.settings.Settings;
 import org.elasticsearch.common.unit.TimeValue;
 import org.elasticsearch.common.util.concurrent.ConcurrentCollections;
@@ -33,6 +37,7 @@ import org.elasticsearch.common.util.concurrent.ConcurrentMapLong;
 import org.elasticsearch.common.xcontent.XContentFactory;
 import org.elasticsearch.common.xcontent.XContentParser;
 import org.elasticsearch.index.Index;
+import org.elasticsearch.index.cache.query.result.QueryResultCache;
 import org.elasticsearch.index.engine.Engine;
 import org.elasticsearch.index.service.IndexService;
 import org.elasticsearch.index.shard.ShardId;
@@ -43,11 +48,13 @@ import org.elasticsearch.script.ScriptService;
 import org.elasticsearch.search.dfs.CachedDfSource;
 import org.elasticsearch.search.dfs.DfsPhase;
 import org.elasticsearch.search.dfs.DfsSearchResult;
+import org.elasticsearch.search.facet.InternalFacets;
 import org.elasticsearch.search.fetch.*;
 import org.elasticsearch.search.internal.InternalScrollSearchRequest;
 import org.elasticsearch.search.internal.InternalSearchRequest;
 import org.elasticsearch.search.internal.SearchContext;
 import org.elasticsearch.search.query.*;
+import org.elasticsearch.search.scan.ScanContext;
 import org.elasticsearch.threadpool.ThreadPool;
 import org.elasticsearch.timer.TimerService;
 
@@ -130,6 +137,7 @@ public class SearchService extends AbstractLifecycleComponent<SearchService> {
 
     @Override protected void doClose() throws ElasticSearchException {
         keepAliveReaper.cancel(false);
+        queryPhase.close();
         indicesService.indicesLifecycle().removeListener(indicesLifecycleListener);
     }
 
@@ -165,10 +173,16 @@ public class SearchService extends AbstractLifecycleComponent<SearchService> {
         }
     }
 
-    public QuerySearchResult executeQueryPhase(InternalSearchRequest request) throws ElasticSearchException {
+    public QuerySearchResult executeScan(InternalSearchRequest request) throws ElasticSearchException {
         SearchContext context = createContext(request);
         activeContexts.put(context.id(), context);
         try {
+            if (context.scroll() == null) {
+                throw new ElasticSearchIllegalArgumentException("Scroll must be provided when scanning");
+            }
+            context.scanContext(new ScanContext());
+            // scanning returns all the docs it moves on to, size docs each scroll
+            context.from(0);
             contextProcessing(context);
             queryPhase.execute(context);
             contextProcessedSuccessfully(context);
@@ -181,6 +195,49 @@ public class SearchService extends AbstractLifecycleComponent<SearchService> {
         }
     }
 
+    public ScrollQueryFetchSearchResult executeScan(InternalScrollSearchRequest request) throws ElasticSearchException {
+        SearchContext context = findContext(request.id());
+        contextProcessing(context);
+        try {
+            if (context.scanContext() == null) {
+                throw new ElasticSearchIllegalArgumentException("Search context [" + request.id() + "] is not a scan context");
+            }
+            processScroll(request, context);
+            queryPhase.execute(context);
+            shortcutDocIdsToLoad(context);
+            fetchPhase.execute(context);
+            // the context is kept around even once the scan is exhausted (until the scroll keep alive expires),
+            // so shards that are done before others don't show up as failures in the following scroll requests
+            if (context.scroll() == null) {
+                freeContext(request.id());
+            } else {
+                contextProcessedSuccessfully(context);
+            }
+            return new ScrollQueryFetchSearchResult(new QueryFetchSearchResult(context.queryResult(), context.fetchResult()), context.shardTarget());
+        } catch (RuntimeException e) {
+            freeContext(context);
+            throw e;
+        } finally {
+            cleanContext(context);
+        }
+    }
+
+    public QuerySearchResult executeQueryPhase(InternalSearchRequest request) throws ElasticSearchException {
+        SearchContext context = createContext(request);
+        activeContexts.put(context.id(), context);
+        try {
+            contextProcessing(context);
+            executeQueryPhase(request, context);
+            contextProcessedSuccessfully(context);
+            return context.queryResult();
+        } catch (RuntimeException e) {
+            freeContext(context);
+            throw e;
+        } finally {
+            cleanContext(context);
+        }
+    }
+
     public ScrollQuerySearchResult executeQueryPhase(InternalScrollSearchRequest request) throws ElasticSearchException {
         SearchContext context = findContext(request.id());
         try {
@@ -311,6 +368,60 @@ public class SearchService extends AbstractLifecycleComponent<SearchService> {
         }
     }
 
+    /**
+     * Executes the query phase, using the shard query result cache when it is enabled for the index. Scroll requests
+     * are not cached, and neither are results that timed out. The results are cached serialized, since a result
+     * returned to the local node is reduced (and modified) in place.
+     */
+    private void executeQueryPhase(InternalSearchRequest request, SearchContext context) throws ElasticSearchException {
+        QueryResultCache queryResultCache = indicesService.indexServiceSafe(request.index()).cache().queryResult();
+        if (!queryResultCache.enabled() || request.scroll() != null) {
+            queryPhase.execute(context);
+            return;
+        }
+        long readerVersion = context.searcher().getIndexReader().getVersion();
+        byte[] cacheKey;
+        try {
+            BytesStreamOutput out = new BytesStreamOutput();
+            request.writeTo(out);
+            cacheKey = out.copiedByteArray();
+            byte[] cachedResult = queryResultCache.get(request.shardId(), readerVersion, cacheKey);
+            if (cachedResult != null) {
+                BytesStreamInput in = new BytesStreamInput(cachedResult);
+                context.queryResult().from(context.from());
+                context.queryResult().size(context.size());
+                context.queryResult().topDocs(Lucene.readTopDocs(in));
+                if (in.readBoolean()) {
+                    context.queryResult().facets(InternalFacets.readFacets(in));
+                }
+                context.queryResult().searchTimedOut(false);
+                return;
+            }
+        } catch (IOException e) {
+            throw new QueryPhaseExecutionException(context, "Failed to read cached query result", e);
+        }
+
+        queryPhase.execute(context);
+
+        if (context.queryResult().searchTimedOut()) {
+            return;
+        }
+        try {
+            BytesStreamOutput out = new BytesStreamOutput();
+            Lucene.writeTopDocs(out, context.queryResult().topDocs(), 0);
+            InternalFacets facets = (InternalFacets) context.queryResult().facets();
+            if (facets == null) {
+                out.writeBoolean(false);
+            } else {
+                out.writeBoolean(true);
+                facets.writeTo(out);
+            }
+            queryResultCache.put(request.shardId(), readerVersion, cacheKey, out.copiedByteArray());
+        } catch (IOException e) {
+            logger.debug("failed to cache query result", e);
+        }
+    }
+
     private SearchContext findContext(long id) throws SearchContextMissingException {
         SearchContext context = activeContexts.get(id);
         if (context == null) {
@@ -445,8 +556,10 @@ public class SearchService extends AbstractLifecycleComponent<SearchService> {
     }
 
     private void processScroll(InternalScrollSearchRequest request, SearchContext context) {
-        // process scroll
-        context.from(context.from() + context.size());
+        // process scroll (scanning keeps its own position, and always loads its docs from the start)
+        if (context.scanContext() == null) {
+            context.from(context.from() + context.size());
+        }
         context.scroll(request.scroll());
         // update the context keep alive based on the new scroll value
         if (request.scroll() != null && request.scroll().keepAlive() != null) {
@@ -85,6 +85,8 @@ public class SearchServiceTransportAction extends AbstractComponent {
         transportService.registerHandler(SearchQueryQueryFetchTransportHandler.ACTION, new SearchQueryQueryFetchTransportHandler());
         transportService.registerHandler(SearchQueryFetchScrollTransportHandler.ACTION, new SearchQueryFetchScrollTransportHandler());
         transportService.registerHandler(SearchFetchByIdTransportHandler.ACTION, new SearchFetchByIdTransportHandler());
+        transportService.registerHandler(SearchScanTransportHandler.ACTION, new SearchScanTransportHandler());
+        transportService.registerHandler(SearchScanScrollTransportHandler.ACTION, new SearchScanScrollTransportHandler());
     }
 
     public void sendFreeContext(DiscoveryNode node, final long contextId) {
@@ -335,6 +337,66 @@ public class SearchServiceTransportAction extends AbstractComponent {
         }
     }
 
+    public void sendExecuteScan(DiscoveryNode node, final InternalSearchRequest request, final SearchServiceListener<QuerySearchResult> listener) {
+        if (clusterService.state().nodes().localNodeId().equals(node.id())) {
+            try {
+                QuerySearchResult result = searchService.executeScan(request);
+                listener.onResult(result);
+            } catch (Exception e) {
+                listener.onFailure(e);
+            }
+        } else {
+            transportService.sendRequest(node, SearchScanTransportHandler.ACTION, request, new BaseTransportResponseHandler<QuerySearchResult>() {
+
+                @Override public QuerySearchResult newInstance() {
+                    return new QuerySearchResult();
+                }
+
+                @Override public void handleResponse(QuerySearchResult response) {
+                    listener.onResult(response);
+                }
+
+                @Override public void handleException(TransportException exp) {
+                    listener.onFailure(exp);
+                }
+
+                @Override public boolean spawn() {
+                    return false;
+                }
+            });
+        }
+    }
+
+    public void sendExecuteScan(DiscoveryNode node, final InternalScrollSearchRequest request, final SearchServiceListener<QueryFetchSearchResult> listener) {
+        if (clusterService.state().nodes().localNodeId().equals(node.id())) {
+            try {
+                ScrollQueryFetchSearchResult result = searchService.executeScan(request);
+                listener.onResult(result.result());
+            } catch (Exception e) {
+                listener.onFailure(e);
+            }
+        } else {
+            transportService.sendRequest(node, SearchScanScrollTransportHandler.ACTION, request, new BaseTransportResponseHandler<ScrollQueryFetchSearchResult>() {
+
+                @Override public ScrollQueryFetchSearchResult newInstance() {
+                    return new ScrollQueryFetchSearchResult();
+                }
+
+                @Override public void handleResponse(ScrollQueryFetchSearchResult response) {
+                    listener.onResult(response.result());
+                }
+
+                @Override public void handleException(TransportException exp) {
+                    listener.onFailure(exp);
+                }
+
+                @Override public boolean spawn() {
+                    return false;
+                }
+            });
+        }
+    }
+
     private class SearchFreeContextTransportHandler extends BaseTransportRequestHandler<LongStreamable> {
 
         static final String ACTION = "search/freeContext";
@@ -461,4 +523,32 @@ public class SearchServiceTransportAction extends AbstractComponent {
             channel.sendResponse(result);
         }
     }
+
+    private class SearchScanTransportHandler extends BaseTransportRequestHandler<InternalSearchRequest> {
+
+        static final String ACTION = "search/phase/scan";
+
+        @Override public InternalSearchRequest newInstance() {
+            return new InternalSearchRequest();
+        }
+
+        @Override public void messageReceived(InternalSearchRequest request, TransportChannel channel) throws Exception {
+            QuerySearchResult result = searchService.executeScan(request);
+            channel.sendResponse(result);
+        }
+    }
+
+    private class SearchScanScrollTransportHandler extends BaseTransportRequestHandler<InternalScrollSearchRequest> {
+
+        static final String ACTION = "search/phase/scan/scroll";
+
+        @Override public InternalScrollSearchRequest newInstance() {
+            return new InternalScrollSearchRequest();
+        }
+
+        @Override public void messageReceived(InternalScrollSearchRequest request, TransportChannel channel) throws Exception {
+            ScrollQueryFetchSearchResult result = searchService.executeScan(request);
+            channel.sendResponse(result);
+        }
+    }
 }
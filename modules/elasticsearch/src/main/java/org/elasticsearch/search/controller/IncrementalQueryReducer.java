@@ -0,0 +1,250 @@
+/*
+ * Licensed to Elastic Search and Shay Banon under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. Elastic Search licenses this
+ * file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package org.elasticsearch.search.controller;
+
+import org.apache.lucene.search.ScoreDoc;
+import org.apache.lucene.search.TopDocs;
+import org.apache.lucene.search.TopFieldDocs;
+import org.elasticsearch.common.collect.ImmutableSet;
+import org.elasticsearch.common.collect.Lists;
+import org.elasticsearch.common.collect.Maps;
+import org.elasticsearch.search.SearchShardTarget;
+import org.elasticsearch.search.facet.Facet;
+import org.elasticsearch.search.facet.FacetProcessors;
+import org.elasticsearch.search.facet.InternalFacets;
+import org.elasticsearch.search.facet.datehistogram.DateHistogramFacet;
+import org.elasticsearch.search.facet.filter.FilterFacet;
+import org.elasticsearch.search.facet.geodistance.GeoDistanceFacet;
+import org.elasticsearch.search.facet.histogram.HistogramFacet;
+import org.elasticsearch.search.facet.query.QueryFacet;
+import org.elasticsearch.search.facet.range.RangeFacet;
+import org.elasticsearch.search.facet.statistical.StatisticalFacet;
+import org.elasticsearch.search.query.QuerySearchResult;
+import org.elasticsearch.search.query.QuerySearchResultProvider;
+
+import javax.annotation.Nullable;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Collects the query results of a search into a map, and every batch of results reduces their top docs
+ * as they arrive (instead of keeping all of them around until the last one arrived). Reducing a batch pushes
+ * the batch top docs into a running top from + size queue, and trims all the reduced results top docs to the
+ * docs that can still make it into the final top docs (score sorting only).
+ *
+ * <p>Facets that can be reduced in steps (counts, totals and ranges, like the statistical, histogram or range
+ * facets) are reduced with every batch into a running facet and dropped from the reduced results. Facets that
+ * only keep their top entries (terms facets) are kept on the reduced results and reduced once all results
+ * arrived, since reducing them in batches is not the same as reducing all of them at once.
+ *
+ * <p>The reduced results replace the original ones in the map, so {@link SearchPhaseController#sortDocs(java.util.Collection)}
+ * can be used on it as usual once all results arrived, and {@link #facets()} passed to
+ * {@link SearchPhaseController#merge(ShardDoc[], java.util.Map, java.util.Map, org.elasticsearch.search.facet.InternalFacets)}.
+ *
+ * @author kimchy (shay.banon)
+ */
+public class IncrementalQueryReducer {
+
+    private static final Set<String> BATCH_REDUCIBLE_FACETS = ImmutableSet.of(StatisticalFacet.TYPE, HistogramFacet.TYPE,
+            DateHistogramFacet.TYPE, RangeFacet.TYPE, GeoDistanceFacet.TYPE, FilterFacet.TYPE, QueryFacet.TYPE);
+
+    private final SearchPhaseController searchPhaseController;
+
+    private final FacetProcessors facetProcessors;
+
+    private final Map<SearchShardTarget, QuerySearchResultProvider> queryResults;
+
+    private final int batchSize;
+
+    private final List<QuerySearchResult> buffer;
+
+    private final List<QuerySearchResult> reduced = Lists.newArrayList();
+
+    private ScoreDocQueue queue;
+
+    private int queueSize;
+
+    // the facets (in order) of the first reduced batch, and the running reduction of the batch reducible ones
+    private List<Facet> facetsOrder;
+
+    private final Map<String, Facet> reducedFacets = Maps.newHashMap();
+
+    IncrementalQueryReducer(SearchPhaseController searchPhaseController, FacetProcessors facetProcessors,
+                            Map<SearchShardTarget, QuerySearchResultProvider> queryResults, int batchSize) {
+        this.searchPhaseController = searchPhaseController;
+        this.facetProcessors = facetProcessors;
+        this.queryResults = queryResults;
+        this.batchSize = batchSize;
+        this.buffer = new ArrayList<QuerySearchResult>(batchSize);
+    }
+
+    public synchronized void add(QuerySearchResult result) {
+        queryResults.put(result.shardTarget(), result);
+        if (batchSize <= 0) {
+            return;
+        }
+        buffer.add(result);
+        if (buffer.size() >= batchSize) {
+            reduceBuffer();
+        }
+    }
+
+    /**
+     * Reduces the facets of all the results, to be called once all results arrived. Returns <tt>null</tt>
+     * if there are no facets.
+     */
+    @Nullable public synchronized InternalFacets facets() {
+        if (facetsOrder == null) {
+            // no batch with facets was reduced, all the results still have all their facets
+            return searchPhaseController.reduceFacets(queryResults.values());
+        }
+        List<Facet> aggregatedFacets = Lists.newArrayList();
+        List<Facet> namedFacets = Lists.newArrayList();
+        for (Facet facet : facetsOrder) {
+            namedFacets.clear();
+            if (BATCH_REDUCIBLE_FACETS.contains(facet.type())) {
+                // the reduced results no longer have it, reduce what is left in the buffer into the running facet
+                namedFacets.add(reducedFacets.get(facet.name()));
+                for (QuerySearchResult result : buffer) {
+                    addNamedFacets(result, facet.name(), namedFacets);
+                }
+            } else {
+                for (QuerySearchResultProvider resultProvider : queryResults.values()) {
+                    addNamedFacets(resultProvider.queryResult(), facet.name(), namedFacets);
+                }
+            }
+            aggregatedFacets.add(facetProcessors.processor(facet.type()).reduce(facet.name(), namedFacets));
+        }
+        return new InternalFacets(aggregatedFacets);
+    }
+
+    private void reduceBuffer() {
+        boolean trimDocs = !(buffer.get(0).topDocs() instanceof TopFieldDocs);
+
+        if (trimDocs) {
+            if (queue == null) {
+                queueSize = Math.max(1, buffer.get(0).from() + buffer.get(0).size());
+                queue = new ScoreDocQueue(queueSize);
+            }
+            for (QuerySearchResult result : buffer) {
+                for (ScoreDoc doc : result.topDocs().scoreDocs) {
+                    ScoreDoc scoreDoc = new ScoreDoc(doc.doc, doc.score);
+                    if (queue.insertWithOverflow(scoreDoc) == scoreDoc) {
+                        // filled the queue, the rest of the shard docs are not competitive
+                        break;
+                    }
+                }
+            }
+        }
+
+        for (QuerySearchResult result : buffer) {
+            QuerySearchResult reducedResult = new QuerySearchResult(result.id(), result.shardTarget());
+            reducedResult.from(result.from());
+            reducedResult.size(result.size());
+            reducedResult.topDocs(result.topDocs());
+            reducedResult.searchTimedOut(result.searchTimedOut());
+            reducedResult.facets(unreducedFacets(result.facets()));
+            reduced.add(reducedResult);
+            queryResults.put(reducedResult.shardTarget(), reducedResult);
+        }
+        reduceBufferFacets();
+        buffer.clear();
+
+        if (trimDocs && queue.size() == queueSize) {
+            // docs that are worse than the worst doc in a full queue will never make it to the final top docs
+            ScoreDoc threshold = queue.top();
+            for (QuerySearchResult result : reduced) {
+                TopDocs topDocs = result.topDocs();
+                int competitive = 0;
+                while (competitive < topDocs.scoreDocs.length && !worse(topDocs.scoreDocs[competitive], threshold)) {
+                    competitive++;
+                }
+                if (competitive < topDocs.scoreDocs.length) {
+                    ScoreDoc[] scoreDocs = new ScoreDoc[competitive];
+                    System.arraycopy(topDocs.scoreDocs, 0, scoreDocs, 0, competitive);
+                    result.topDocs(new TopDocs(topDocs.totalHits, scoreDocs, topDocs.getMaxScore()));
+                }
+            }
+        }
+    }
+
+    private void reduceBufferFacets() {
+        if (facetsOrder == null) {
+            InternalFacets facets = buffer.get(0).facets();
+            if (facets == null || facets.facets() == null || facets.facets().isEmpty()) {
+                return;
+            }
+            facetsOrder = new ArrayList<Facet>(facets.facets());
+        }
+        List<Facet> namedFacets = Lists.newArrayList();
+        for (Facet facet : facetsOrder) {
+            if (!BATCH_REDUCIBLE_FACETS.contains(facet.type())) {
+                continue;
+            }
+            namedFacets.clear();
+            Facet reducedFacet = reducedFacets.get(facet.name());
+            if (reducedFacet != null) {
+                namedFacets.add(reducedFacet);
+            }
+            for (QuerySearchResult result : buffer) {
+                addNamedFacets(result, facet.name(), namedFacets);
+            }
+            reducedFacets.put(facet.name(), facetProcessors.processor(facet.type()).reduce(facet.name(), namedFacets));
+        }
+    }
+
+    /**
+     * The facets the reduced results keep, the ones that have to be reduced once all results arrived.
+     */
+    private static InternalFacets unreducedFacets(InternalFacets facets) {
+        if (facets == null || facets.facets() == null) {
+            return facets;
+        }
+        List<Facet> remaining = Lists.newArrayList();
+        for (Facet facet : facets) {
+            if (!BATCH_REDUCIBLE_FACETS.contains(facet.type())) {
+                remaining.add(facet);
+            }
+        }
+        return new InternalFacets(remaining);
+    }
+
+    private static void addNamedFacets(QuerySearchResult result, String name, List<Facet> namedFacets) {
+        if (result.facets() == null) {
+            return;
+        }
+        for (Facet facet : result.facets()) {
+            if (name.equals(facet.name())) {
+                namedFacets.add(facet);
+            }
+        }
+    }
+
+    // same order as ScoreDocQueue
+    private static boolean worse(ScoreDoc doc, ScoreDoc threshold) {
+        if (doc.score == threshold.score) {
+            return doc.doc > threshold.doc;
+        }
+        return doc.score < threshold.score;
+    }
+}
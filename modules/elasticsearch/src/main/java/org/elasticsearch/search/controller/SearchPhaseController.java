@@ -26,7 +26,9 @@ import org.elasticsearch.common.collect.Iterables;
 import org.elasticsearch.common.collect.Lists;
 import org.elasticsearch.common.collect.Maps;
 import org.elasticsearch.common.collect.Ordering;
+import org.elasticsearch.common.component.AbstractComponent;
 import org.elasticsearch.common.inject.Inject;
+import org.elasticsearch.common.settings.Settings;
 import org.elasticsearch.common.trove.ExtTIntArrayList;
 import org.elasticsearch.common.trove.ExtTObjectIntHasMap;
 import org.elasticsearch.search.SearchShardTarget;
@@ -52,7 +54,7 @@ import java.util.Map;
 /**
  * @author kimchy (shay.banon)
  */
-public class SearchPhaseController {
+public class SearchPhaseController extends AbstractComponent {
 
     public static Ordering<QuerySearchResultProvider> QUERY_RESULT_ORDERING = new Ordering<QuerySearchResultProvider>() {
         @Override public int compare(@Nullable QuerySearchResultProvider o1, @Nullable QuerySearchResultProvider o2) {
@@ -68,8 +70,20 @@ public class SearchPhaseController {
 
     private final FacetProcessors facetProcessors;
 
-    @Inject public SearchPhaseController(FacetProcessors facetProcessors) {
+    private final int reduceBatchSize;
+
+    @Inject public SearchPhaseController(Settings settings, FacetProcessors facetProcessors) {
+        super(settings);
         this.facetProcessors = facetProcessors;
+        this.reduceBatchSize = componentSettings.getAsInt("reduce_batch_size", 32);
+    }
+
+    /**
+     * Creates a reducer that collects query results into the provided map, reducing them in batches
+     * as they arrive. See {@link IncrementalQueryReducer}.
+     */
+    public IncrementalQueryReducer incrementalReducer(Map<SearchShardTarget, QuerySearchResultProvider> queryResults) {
+        return new IncrementalQueryReducer(this, facetProcessors, queryResults, reduceBatchSize);
     }
 
     public AggregatedDfs aggregateDfs(Iterable<DfsSearchResult> results) {
@@ -179,6 +193,59 @@ public class SearchPhaseController {
         return shardDocs;
     }
 
+    /**
+     * Returns the docs of all the results, shard after shard, in the order each shard returned them (no
+     * sorting or scoring across shards). Used when scanning.
+     */
+    public ShardDoc[] docsInShardOrder(Collection<? extends QuerySearchResultProvider> results) {
+        int totalNumDocs = 0;
+        for (QuerySearchResultProvider resultProvider : results) {
+            totalNumDocs += resultProvider.queryResult().topDocs().scoreDocs.length;
+        }
+        if (totalNumDocs == 0) {
+            return EMPTY;
+        }
+        ShardDoc[] shardDocs = new ShardDoc[totalNumDocs];
+        int counter = 0;
+        for (QuerySearchResultProvider resultProvider : QUERY_RESULT_ORDERING.sortedCopy(results)) {
+            QuerySearchResult result = resultProvider.queryResult();
+            for (ScoreDoc doc : result.topDocs().scoreDocs) {
+                shardDocs[counter++] = new ShardScoreDoc(result.shardTarget(), doc.doc, doc.score);
+            }
+        }
+        return shardDocs;
+    }
+
+    /**
+     * Reduces the facets of the provided results. Returns <tt>null</tt> if there are no facets.
+     */
+    @Nullable public InternalFacets reduceFacets(Collection<? extends QuerySearchResultProvider> queryResults) {
+        if (queryResults.isEmpty()) {
+            return null;
+        }
+        // we rely on the fact that the order of facets is the same on all query results
+        QuerySearchResult queryResult = queryResults.iterator().next().queryResult();
+        if (queryResult.facets() == null || queryResult.facets().facets() == null || queryResult.facets().facets().isEmpty()) {
+            return null;
+        }
+        List<Facet> aggregatedFacets = Lists.newArrayList();
+        List<Facet> namedFacets = Lists.newArrayList();
+        for (Facet facet : queryResult.facets()) {
+            // aggregate each facet name into a single list, and aggregate it
+            namedFacets.clear();
+            for (QuerySearchResultProvider queryResultProvider : queryResults) {
+                for (Facet facet1 : queryResultProvider.queryResult().facets()) {
+                    if (facet.name().equals(facet1.name())) {
+                        namedFacets.add(facet1);
+                    }
+                }
+            }
+            Facet aggregatedFacet = facetProcessors.processor(facet.type()).reduce(facet.name(), namedFacets);
+            aggregatedFacets.add(aggregatedFacet);
+        }
+        return new InternalFacets(aggregatedFacets);
+    }
+
     public Map<SearchShardTarget, ExtTIntArrayList> docIdsToLoad(ShardDoc[] shardDocs) {
         Map<SearchShardTarget, ExtTIntArrayList> result = Maps.newHashMap();
         for (ShardDoc shardDoc : shardDocs) {
@@ -193,6 +260,14 @@ public class SearchPhaseController {
     }
 
     public InternalSearchResponse merge(ShardDoc[] sortedDocs, Map<SearchShardTarget, ? extends QuerySearchResultProvider> queryResults, Map<SearchShardTarget, ? extends FetchSearchResultProvider> fetchResults) {
+        return merge(sortedDocs, queryResults, fetchResults, reduceFacets(queryResults.values()));
+    }
+
+    /**
+     * Merges the results using the already reduced facets (see {@link IncrementalQueryReducer#facets()}).
+     */
+    public InternalSearchResponse merge(ShardDoc[] sortedDocs, Map<SearchShardTarget, ? extends QuerySearchResultProvider> queryResults, Map<SearchShardTarget, ? extends FetchSearchResultProvider> fetchResults,
+                                        @Nullable InternalFacets facets) {
 
         boolean sorted = false;
         int sortScoreIndex = -1;
@@ -208,32 +283,6 @@ public class SearchPhaseController {
             }
         }
 
-        // merge facets
-        InternalFacets facets = null;
-        if (!queryResults.isEmpty()) {
-            // we rely on the fact that the order of facets is the same on all query results
-            QuerySearchResult queryResult = queryResults.values().iterator().next().queryResult();
-
-            if (queryResult.facets() != null && queryResult.facets().facets() != null && !queryResult.facets().facets().isEmpty()) {
-                List<Facet> aggregatedFacets = Lists.newArrayList();
-                List<Facet> namedFacets = Lists.newArrayList();
-                for (Facet facet : queryResult.facets()) {
-                    // aggregate each facet name into a single list, and aggregate it
-                    namedFacets.clear();
-                    for (QuerySearchResultProvider queryResultProvider : queryResults.values()) {
-                        for (Facet facet1 : queryResultProvider.queryResult().facets()) {
-                            if (facet.name().equals(facet1.name())) {
-                                namedFacets.add(facet1);
-                            }
-                        }
-                    }
-                    Facet aggregatedFacet = facetProcessors.processor(facet.type()).reduce(facet.name(), namedFacets);
-                    aggregatedFacets.add(aggregatedFacet);
-                }
-                facets = new InternalFacets(aggregatedFacets);
-            }
-        }
-
         // count the total (we use the query result provider here, since we might not get any hits (we scrolled past them))
         long totalHits = 0;
         float maxScore = Float.NEGATIVE_INFINITY;
@@ -62,7 +62,7 @@ public abstract class AbstractFacetCollector extends FacetCollector {
 
     @Override public void setNextReader(IndexReader reader, int docBase) throws IOException {
         if (filter != null) {
-            docSet = DocSets.convert(reader, filter.getDocIdSet(reader));
+            docSet = DocSets.getView(DocSets.convert(reader, filter.getDocIdSet(reader)));
         }
         doSetNextReader(reader, docBase);
     }
@@ -46,7 +46,7 @@ public class FilterFacetCollector extends AbstractFacetCollector {
     }
 
     @Override protected void doSetNextReader(IndexReader reader, int docBase) throws IOException {
-        docSet = DocSets.convert(reader, filter.getDocIdSet(reader));
+        docSet = DocSets.getView(DocSets.convert(reader, filter.getDocIdSet(reader)));
     }
 
     @Override protected void doCollect(int doc) throws IOException {
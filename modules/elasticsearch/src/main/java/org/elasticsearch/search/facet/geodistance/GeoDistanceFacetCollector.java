@@ -29,6 +29,7 @@ import org.elasticsearch.index.search.geo.GeoDistance;
 import org.elasticsearch.search.facet.AbstractFacetCollector;
 import org.elasticsearch.search.facet.Facet;
 import org.elasticsearch.search.facet.FacetPhaseExecutionException;
+import org.elasticsearch.search.facet.range.RangeLookup;
 import org.elasticsearch.search.internal.SearchContext;
 
 import java.io.IOException;
@@ -56,6 +57,8 @@ public class GeoDistanceFacetCollector extends AbstractFacetCollector {
 
     protected final GeoDistanceFacet.Entry[] entries;
 
+    protected final RangeLookup lookup;
+
     public GeoDistanceFacetCollector(String facetName, String fieldName, double lat, double lon, DistanceUnit unit, GeoDistance geoDistance,
                                      GeoDistanceFacet.Entry[] entries, SearchContext context) {
         super(facetName);
@@ -64,6 +67,13 @@ public class GeoDistanceFacetCollector extends AbstractFacetCollector {
         this.lon = lon;
         this.unit = unit;
         this.entries = entries;
+        double[] froms = new double[entries.length];
+        double[] tos = new double[entries.length];
+        for (int i = 0; i < entries.length; i++) {
+            froms[i] = entries[i].getFrom();
+            tos[i] = entries[i].getTo();
+        }
+        this.lookup = new RangeLookup(froms, tos);
         this.geoDistance = geoDistance;
         this.fieldDataCache = context.fieldDataCache();
 
@@ -97,20 +107,18 @@ public class GeoDistanceFacetCollector extends AbstractFacetCollector {
             double[] lons = fieldData.lonValues(doc);
             for (int i = 0; i < lats.length; i++) {
                 double distance = geoDistance.calculate(lat, lon, lats[i], lons[i], unit);
-                for (GeoDistanceFacet.Entry entry : entries) {
-                    if (distance >= entry.getFrom() && distance < entry.getTo()) {
-                        entry.count++;
-                        entry.total += distance;
-                    }
+                for (int index : lookup.find(distance)) {
+                    GeoDistanceFacet.Entry entry = entries[index];
+                    entry.count++;
+                    entry.total += distance;
                 }
             }
         } else {
             double distance = geoDistance.calculate(lat, lon, fieldData.latValue(doc), fieldData.lonValue(doc), unit);
-            for (GeoDistanceFacet.Entry entry : entries) {
-                if (distance >= entry.getFrom() && distance < entry.getTo()) {
-                    entry.count++;
-                    entry.total += distance;
-                }
+            for (int index : lookup.find(distance)) {
+                GeoDistanceFacet.Entry entry = entries[index];
+                entry.count++;
+                entry.total += distance;
             }
         }
     }
@@ -60,21 +60,19 @@ public class ScriptGeoDistanceFacetCollector extends GeoDistanceFacetCollector {
             GeoPoint[] points = fieldData.values(doc);
             for (GeoPoint point : points) {
                 double distance = geoDistance.calculate(lat, lon, point.lat(), point.lon(), unit);
-                for (GeoDistanceFacet.Entry entry : entries) {
-                    if (distance >= entry.getFrom() && distance < entry.getTo()) {
-                        entry.count++;
-                        entry.total += value;
-                    }
+                for (int index : lookup.find(distance)) {
+                    GeoDistanceFacet.Entry entry = entries[index];
+                    entry.count++;
+                    entry.total += value;
                 }
             }
         } else {
             GeoPoint point = fieldData.value(doc);
             double distance = geoDistance.calculate(lat, lon, point.lat(), point.lon(), unit);
-            for (GeoDistanceFacet.Entry entry : entries) {
-                if (distance >= entry.getFrom() && distance < entry.getTo()) {
-                    entry.count++;
-                    entry.total += value;
-                }
+            for (int index : lookup.find(distance)) {
+                GeoDistanceFacet.Entry entry = entries[index];
+                entry.count++;
+                entry.total += value;
             }
         }
     }
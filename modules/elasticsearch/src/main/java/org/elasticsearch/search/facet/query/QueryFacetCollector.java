@@ -55,7 +55,7 @@ public class QueryFacetCollector extends AbstractFacetCollector {
     }
 
     @Override protected void doSetNextReader(IndexReader reader, int docBase) throws IOException {
-        docSet = DocSets.convert(reader, filter.getDocIdSet(reader));
+        docSet = DocSets.getView(DocSets.convert(reader, filter.getDocIdSet(reader)));
     }
 
     @Override protected void doCollect(int doc) throws IOException {
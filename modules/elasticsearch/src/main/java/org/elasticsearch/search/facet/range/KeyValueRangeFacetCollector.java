@@ -53,11 +53,14 @@ public class KeyValueRangeFacetCollector extends AbstractFacetCollector {
 
     private final RangeFacet.Entry[] entries;
 
+    private final RangeLookup lookup;
+
     public KeyValueRangeFacetCollector(String facetName, String keyFieldName, String valueFieldName, RangeFacet.Entry[] entries, SearchContext context) {
         super(facetName);
         this.keyFieldName = keyFieldName;
         this.valueFieldName = valueFieldName;
         this.entries = entries;
+        this.lookup = RangeLookup.forEntries(entries);
         this.fieldDataCache = context.fieldDataCache();
 
         MapperService.SmartNameFieldMappers smartMappers = context.mapperService().smartName(keyFieldName);
@@ -95,44 +98,40 @@ public class KeyValueRangeFacetCollector extends AbstractFacetCollector {
                 int size = Math.min(keys.length, values.length);
                 for (int i = 0; i < size; i++) {
                     double key = keys[i];
-                    for (RangeFacet.Entry entry : entries) {
-                        if (key >= entry.getFrom() && key < entry.getTo()) {
-                            entry.count++;
-                            entry.total += values[i];
-                        }
+                    for (int index : lookup.find(key)) {
+                        RangeFacet.Entry entry = entries[index];
+                        entry.count++;
+                        entry.total += values[i];
                     }
                 }
             } else {
                 // key multi valued, value is a single value
                 double value = valueFieldData.doubleValue(doc);
                 for (double key : keyFieldData.doubleValues(doc)) {
-                    for (RangeFacet.Entry entry : entries) {
-                        if (key >= entry.getFrom() && key < entry.getTo()) {
-                            entry.count++;
-                            entry.total += value;
-                        }
+                    for (int index : lookup.find(key)) {
+                        RangeFacet.Entry entry = entries[index];
+                        entry.count++;
+                        entry.total += value;
                     }
                 }
             }
         } else {
             double key = keyFieldData.doubleValue(doc);
             if (valueFieldData.multiValued()) {
-                for (RangeFacet.Entry entry : entries) {
-                    if (key >= entry.getFrom() && key < entry.getTo()) {
-                        entry.count++;
-                        for (double value : valueFieldData.doubleValues(doc)) {
-                            entry.total += value;
-                        }
+                for (int index : lookup.find(key)) {
+                    RangeFacet.Entry entry = entries[index];
+                    entry.count++;
+                    for (double value : valueFieldData.doubleValues(doc)) {
+                        entry.total += value;
                     }
                 }
             } else {
                 // both key and value are not multi valued
                 double value = valueFieldData.doubleValue(doc);
-                for (RangeFacet.Entry entry : entries) {
-                    if (key >= entry.getFrom() && key < entry.getTo()) {
-                        entry.count++;
-                        entry.total += value;
-                    }
+                for (int index : lookup.find(key)) {
+                    RangeFacet.Entry entry = entries[index];
+                    entry.count++;
+                    entry.total += value;
                 }
             }
         }
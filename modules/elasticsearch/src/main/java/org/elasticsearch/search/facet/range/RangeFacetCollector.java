@@ -69,7 +69,7 @@ public class RangeFacetCollector extends AbstractFacetCollector {
         indexFieldName = smartMappers.mapper().names().indexName();
         fieldDataType = smartMappers.mapper().fieldDataType();
 
-        rangeProc = new RangeProc(entries);
+        rangeProc = new RangeProc(entries, RangeLookup.forEntries(entries));
     }
 
     @Override protected void doSetNextReader(IndexReader reader, int docBase) throws IOException {
@@ -88,16 +88,18 @@ public class RangeFacetCollector extends AbstractFacetCollector {
 
         private final RangeFacet.Entry[] entries;
 
-        public RangeProc(RangeFacet.Entry[] entries) {
+        private final RangeLookup lookup;
+
+        public RangeProc(RangeFacet.Entry[] entries, RangeLookup lookup) {
             this.entries = entries;
+            this.lookup = lookup;
         }
 
         @Override public void onValue(int docId, double value) {
-            for (RangeFacet.Entry entry : entries) {
-                if (value >= entry.getFrom() && value < entry.getTo()) {
-                    entry.count++;
-                    entry.total += value;
-                }
+            for (int index : lookup.find(value)) {
+                RangeFacet.Entry entry = entries[index];
+                entry.count++;
+                entry.total += value;
             }
         }
     }
@@ -0,0 +1,114 @@
+/*
+ * Licensed to Elastic Search and Shay Banon under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. Elastic Search licenses this
+ * file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package org.elasticsearch.search.facet.range;
+
+import java.util.Arrays;
+
+/**
+ * Finds the ranges (<tt>from</tt> inclusive, <tt>to</tt> exclusive) a value falls in with a binary search, instead of
+ * checking it against each range.
+ *
+ * <p>The distinct range boundaries are sorted, splitting the values into intervals no range starts or ends in, so all
+ * the values of an interval fall in the same ranges. The ranges of each interval are computed once, which handles
+ * overlapping ranges as well, and {@link #find(double)} returns them without allocating.
+ *
+ * @author kimchy (shay.banon)
+ */
+public class RangeLookup {
+
+    private static final int[] NO_RANGES = new int[0];
+
+    private final double[] boundaries;
+
+    // the indices of the ranges each interval falls in, interval i is [boundaries[i - 1], boundaries[i])
+    private final int[][] ranges;
+
+    public static RangeLookup forEntries(RangeFacet.Entry[] entries) {
+        double[] froms = new double[entries.length];
+        double[] tos = new double[entries.length];
+        for (int i = 0; i < entries.length; i++) {
+            froms[i] = entries[i].getFrom();
+            tos[i] = entries[i].getTo();
+        }
+        return new RangeLookup(froms, tos);
+    }
+
+    public RangeLookup(double[] froms, double[] tos) {
+        double[] all = new double[froms.length + tos.length];
+        int size = 0;
+        for (double from : froms) {
+            if (!Double.isInfinite(from) && !Double.isNaN(from)) {
+                all[size++] = from;
+            }
+        }
+        for (double to : tos) {
+            if (!Double.isInfinite(to) && !Double.isNaN(to)) {
+                all[size++] = to;
+            }
+        }
+        Arrays.sort(all, 0, size);
+        int distinct = 0;
+        for (int i = 0; i < size; i++) {
+            // compare with == and not Arrays.sort order, so -0.0 and 0.0 are the same boundary
+            if (distinct == 0 || all[i] != all[distinct - 1]) {
+                all[distinct++] = all[i];
+            }
+        }
+        this.boundaries = Arrays.copyOf(all, distinct);
+
+        this.ranges = new int[distinct + 1][];
+        int[] matches = new int[froms.length];
+        for (int interval = 0; interval <= distinct; interval++) {
+            // all values of the interval fall in the same ranges as its lower bound
+            double value = interval == 0 ? Double.NEGATIVE_INFINITY : boundaries[interval - 1];
+            int count = 0;
+            for (int i = 0; i < froms.length; i++) {
+                if (value >= froms[i] && value < tos[i]) {
+                    matches[count++] = i;
+                }
+            }
+            ranges[interval] = count == 0 ? NO_RANGES : Arrays.copyOf(matches, count);
+        }
+    }
+
+    /**
+     * Returns the indices (in ascending order) of the ranges the value falls in. The returned array is shared and
+     * must not be modified.
+     */
+    public int[] find(double value) {
+        if (Double.isNaN(value) || value == Double.POSITIVE_INFINITY) {
+            // no range includes these, the last interval ends (exclusive) with positive infinity
+            return NO_RANGES;
+        }
+        // find the number of boundaries lower or equal to the value, which is the index of its interval
+        int low = 0;
+        int high = boundaries.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (boundaries[mid] <= value) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return ranges[low];
+    }
+}
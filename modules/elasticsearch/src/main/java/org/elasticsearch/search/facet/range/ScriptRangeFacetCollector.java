@@ -39,11 +39,14 @@ public class ScriptRangeFacetCollector extends AbstractFacetCollector {
 
     private final RangeFacet.Entry[] entries;
 
+    private final RangeLookup lookup;
+
     public ScriptRangeFacetCollector(String facetName, String scriptLang, String keyScript, String valueScript, Map<String, Object> params, RangeFacet.Entry[] entries, SearchContext context) {
         super(facetName);
         this.keyScript = new SearchScript(context.lookup(), scriptLang, keyScript, params, context.scriptService());
         this.valueScript = new SearchScript(context.lookup(), scriptLang, valueScript, params, context.scriptService());
         this.entries = entries;
+        this.lookup = RangeLookup.forEntries(entries);
     }
 
     @Override protected void doSetNextReader(IndexReader reader, int docBase) throws IOException {
@@ -55,11 +58,10 @@ public class ScriptRangeFacetCollector extends AbstractFacetCollector {
         double key = ((Number) keyScript.execute(doc)).doubleValue();
         double value = ((Number) valueScript.execute(doc)).doubleValue();
 
-        for (RangeFacet.Entry entry : entries) {
-            if (key >= entry.getFrom() && key < entry.getTo()) {
-                entry.count++;
-                entry.total += value;
-            }
+        for (int index : lookup.find(key)) {
+            RangeFacet.Entry entry = entries[index];
+            entry.count++;
+            entry.total += value;
         }
     }
 
@@ -45,6 +45,7 @@ public class TermsFacetBuilder extends AbstractFacetBuilder {
     private String script;
     private String lang;
     private Map<String, Object> params;
+    private String executionHint;
 
     /**
      * Construct a new term facet with the provided facet name.
@@ -162,6 +163,15 @@ public class TermsFacetBuilder extends AbstractFacetBuilder {
         return this;
     }
 
+    /**
+     * An execution hint to how the facet is computed. When set to <tt>ordinals</tt> on a string field (and
+     * with no script), counts are aggregated per term ordinal instead of per term value.
+     */
+    public TermsFacetBuilder executionHint(String executionHint) {
+        this.executionHint = executionHint;
+        return this;
+    }
+
     /**
      * A parameter that will be passed to the script.
      *
@@ -220,6 +230,10 @@ public class TermsFacetBuilder extends AbstractFacetBuilder {
             }
         }
 
+        if (executionHint != null) {
+            builder.field("execution_hint", executionHint);
+        }
+
         builder.endObject();
 
         addFilterFacetAndGlobal(builder, params);
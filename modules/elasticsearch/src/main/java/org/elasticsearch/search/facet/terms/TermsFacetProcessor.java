@@ -41,6 +41,7 @@ import org.elasticsearch.search.facet.terms.shorts.TermsShortFacetCollector;
 import org.elasticsearch.search.facet.terms.strings.FieldsTermsStringFacetCollector;
 import org.elasticsearch.search.facet.terms.strings.ScriptTermsStringFieldFacetCollector;
 import org.elasticsearch.search.facet.terms.strings.TermsStringFacetCollector;
+import org.elasticsearch.search.facet.terms.strings.TermsStringOrdinalsFacetCollector;
 import org.elasticsearch.search.internal.SearchContext;
 
 import java.io.IOException;
@@ -74,6 +75,7 @@ public class TermsFacetProcessor extends AbstractComponent implements FacetProce
         String scriptLang = null;
         String script = null;
         Map<String, Object> params = null;
+        String executionHint = null;
 
         String currentFieldName = null;
         XContentParser.Token token;
@@ -115,6 +117,8 @@ public class TermsFacetProcessor extends AbstractComponent implements FacetProce
                     script = parser.text();
                 } else if ("lang".equals(currentFieldName)) {
                     scriptLang = parser.text();
+                } else if ("execution_hint".equals(currentFieldName) || "executionHint".equals(currentFieldName)) {
+                    executionHint = parser.text();
                 }
             }
         }
@@ -150,6 +154,10 @@ public class TermsFacetProcessor extends AbstractComponent implements FacetProce
                 return new TermsByteFacetCollector(facetName, field, size, comparatorType, context, scriptLang, script, params);
             }
         }
+        if ("ordinals".equals(executionHint) && script == null &&
+                (fieldMapper == null || fieldMapper.fieldDataType() == FieldDataType.DefaultTypes.STRING)) {
+            return new TermsStringOrdinalsFacetCollector(facetName, field, size, comparatorType, context, excluded, pattern);
+        }
         return new TermsStringFacetCollector(facetName, field, size, comparatorType, context, excluded, pattern, scriptLang, script, params);
     }
 
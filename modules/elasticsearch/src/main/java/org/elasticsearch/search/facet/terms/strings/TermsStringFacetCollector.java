@@ -30,6 +30,7 @@ import org.elasticsearch.common.trove.TObjectIntIterator;
 import org.elasticsearch.index.cache.field.data.FieldDataCache;
 import org.elasticsearch.index.field.data.FieldData;
 import org.elasticsearch.index.field.data.FieldDataType;
+import org.elasticsearch.index.field.data.strings.StringFieldData;
 import org.elasticsearch.index.mapper.MapperService;
 import org.elasticsearch.script.search.SearchScript;
 import org.elasticsearch.search.facet.AbstractFacetCollector;
@@ -39,6 +40,7 @@ import org.elasticsearch.search.internal.SearchContext;
 
 import java.io.IOException;
 import java.util.ArrayDeque;
+import java.util.Arrays;
 import java.util.Deque;
 import java.util.Map;
 import java.util.regex.Matcher;
@@ -74,6 +76,10 @@ public class TermsStringFacetCollector extends AbstractFacetCollector {
 
     private final StaticAggregatorValueProc aggregator;
 
+    private final OrdinalAggregatorProc ordinalAggregator;
+
+    private StringFieldData ordinalFieldData;
+
     private final SearchScript script;
 
     public TermsStringFacetCollector(String facetName, String fieldName, int size, TermsFacet.ComparatorType comparatorType, SearchContext context,
@@ -108,20 +114,38 @@ public class TermsStringFacetCollector extends AbstractFacetCollector {
 
         if (excluded.isEmpty() && pattern == null && this.script == null) {
             aggregator = new StaticAggregatorValueProc(popFacets());
+            ordinalAggregator = null;
         } else {
-            aggregator = new AggregatorValueProc(popFacets(), excluded, pattern, this.script);
+            AggregatorValueProc valueAggregator = new AggregatorValueProc(popFacets(), excluded, pattern, this.script);
+            aggregator = valueAggregator;
+            if (excluded.isEmpty() && pattern == null) {
+                ordinalAggregator = null;
+            } else {
+                // excluded and pattern only depend on the term, so check them once per term of each segment
+                ordinalAggregator = new OrdinalAggregatorProc(valueAggregator);
+            }
         }
     }
 
     @Override protected void doSetNextReader(IndexReader reader, int docBase) throws IOException {
         fieldData = fieldDataCache.cache(fieldDataType, reader, indexFieldName);
+        if (ordinalAggregator != null && fieldData instanceof StringFieldData) {
+            ordinalFieldData = (StringFieldData) fieldData;
+            ordinalAggregator.setNextValues(ordinalFieldData.values());
+        } else {
+            ordinalFieldData = null;
+        }
         if (script != null) {
             script.setNextReader(reader);
         }
     }
 
     @Override protected void doCollect(int doc) throws IOException {
-        fieldData.forEachValueInDoc(doc, aggregator);
+        if (ordinalFieldData != null) {
+            ordinalFieldData.forEachOrdinalInDoc(doc, ordinalAggregator);
+        } else {
+            fieldData.forEachValueInDoc(doc, aggregator);
+        }
     }
 
     @Override public Facet facet() {
@@ -182,12 +206,28 @@ public class TermsStringFacetCollector extends AbstractFacetCollector {
         }
 
         @Override public void onValue(int docId, String value) {
+            if (accept(value)) {
+                onAcceptedValue(docId, value);
+            }
+        }
+
+        /**
+         * Returns <tt>true</tt> if the value is not excluded, and matches the pattern (if there is one).
+         */
+        public boolean accept(String value) {
             if (excluded != null && excluded.contains(value)) {
-                return;
+                return false;
             }
             if (matcher != null && !matcher.reset(value).matches()) {
-                return;
+                return false;
             }
+            return true;
+        }
+
+        /**
+         * Aggregates a value that is already {@link #accept(String) accepted}, running the script on it if there is one.
+         */
+        public void onAcceptedValue(int docId, String value) {
             if (script != null) {
                 scriptParams.put("term", value);
                 Object scriptValue = script.execute(docId, scriptParams);
@@ -206,6 +246,50 @@ public class TermsStringFacetCollector extends AbstractFacetCollector {
         }
     }
 
+    /**
+     * Aggregates the values of a segment by their ordinal, checking if the value of an ordinal is accepted only the
+     * first time the ordinal is seen, instead of for every value of every doc.
+     */
+    public static class OrdinalAggregatorProc implements StringFieldData.OrdinalInDocProc {
+
+        private static final byte UNKNOWN = 0;
+
+        private static final byte ACCEPTED = 1;
+
+        private static final byte REJECTED = 2;
+
+        private final AggregatorValueProc aggregator;
+
+        private String[] values;
+
+        // the state of each ordinal of the current segment, reused across segments
+        private byte[] states = new byte[0];
+
+        public OrdinalAggregatorProc(AggregatorValueProc aggregator) {
+            this.aggregator = aggregator;
+        }
+
+        public void setNextValues(String[] values) {
+            this.values = values;
+            if (states.length < values.length) {
+                states = new byte[values.length];
+            } else {
+                Arrays.fill(states, 0, values.length, UNKNOWN);
+            }
+        }
+
+        @Override public void onOrdinal(int docId, int ordinal) {
+            byte state = states[ordinal];
+            if (state == UNKNOWN) {
+                state = aggregator.accept(values[ordinal]) ? ACCEPTED : REJECTED;
+                states[ordinal] = state;
+            }
+            if (state == ACCEPTED) {
+                aggregator.onAcceptedValue(docId, values[ordinal]);
+            }
+        }
+    }
+
     public static class StaticAggregatorValueProc implements FieldData.StringValueInDocProc {
 
         private final TObjectIntHashMap<String> facets;
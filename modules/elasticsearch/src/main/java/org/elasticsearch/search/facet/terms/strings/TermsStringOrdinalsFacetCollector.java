@@ -0,0 +1,210 @@
+/*
+ * Licensed to Elastic Search and Shay Banon under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. Elastic Search licenses this
+ * file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.elasticsearch.search.facet.terms.strings;
+
+import org.apache.lucene.index.IndexReader;
+import org.apache.lucene.util.PriorityQueue;
+import org.elasticsearch.common.collect.BoundedTreeSet;
+import org.elasticsearch.common.collect.ImmutableList;
+import org.elasticsearch.common.collect.ImmutableSet;
+import org.elasticsearch.common.collect.Lists;
+import org.elasticsearch.index.cache.field.data.FieldDataCache;
+import org.elasticsearch.index.field.data.FieldDataType;
+import org.elasticsearch.index.field.data.strings.StringFieldData;
+import org.elasticsearch.index.mapper.MapperService;
+import org.elasticsearch.search.facet.AbstractFacetCollector;
+import org.elasticsearch.search.facet.Facet;
+import org.elasticsearch.search.facet.terms.TermsFacet;
+import org.elasticsearch.search.internal.SearchContext;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * A terms facet collector on string field data that counts the ordinals of the values of each segment
+ * into a primitive <tt>int[]</tt>, and only resolves the (already loaded) term values when the per segment
+ * counts are merged into the top terms.
+ *
+ * @author kimchy (shay.banon)
+ */
+public class TermsStringOrdinalsFacetCollector extends AbstractFacetCollector {
+
+    private final FieldDataCache fieldDataCache;
+
+    private final String fieldName;
+
+    private final String indexFieldName;
+
+    private final TermsFacet.ComparatorType comparatorType;
+
+    private final int size;
+
+    private final int numberOfShards;
+
+    private final ImmutableSet<String> excluded;
+
+    private final Matcher matcher;
+
+    private final List<ReaderAggregator> aggregators;
+
+    private StringFieldData fieldData;
+
+    private ReaderAggregator current;
+
+    public TermsStringOrdinalsFacetCollector(String facetName, String fieldName, int size, TermsFacet.ComparatorType comparatorType, SearchContext context,
+                                             ImmutableSet<String> excluded, Pattern pattern) {
+        super(facetName);
+        this.fieldDataCache = context.fieldDataCache();
+        this.size = size;
+        this.comparatorType = comparatorType;
+        this.numberOfShards = context.numberOfShards();
+
+        this.fieldName = fieldName;
+
+        MapperService.SmartNameFieldMappers smartMappers = context.mapperService().smartName(fieldName);
+        if (smartMappers == null || !smartMappers.hasMapper()) {
+            this.indexFieldName = fieldName;
+        } else {
+            // add type filter if there is exact doc mapper associated with it
+            if (smartMappers.hasDocMapper()) {
+                setFilter(context.filterCache().cache(smartMappers.docMapper().typeFilter()));
+            }
+
+            this.indexFieldName = smartMappers.mapper().names().indexName();
+        }
+
+        if (excluded == null || excluded.isEmpty()) {
+            this.excluded = null;
+        } else {
+            this.excluded = excluded;
+        }
+        this.matcher = pattern != null ? pattern.matcher("") : null;
+
+        this.aggregators = Lists.newArrayListWithCapacity(context.searcher().subReaders().length);
+    }
+
+    @Override protected void doSetNextReader(IndexReader reader, int docBase) throws IOException {
+        if (current != null && current.total > 0) {
+            aggregators.add(current);
+        }
+        fieldData = (StringFieldData) fieldDataCache.cache(FieldDataType.DefaultTypes.STRING, reader, indexFieldName);
+        current = new ReaderAggregator(fieldData);
+    }
+
+    @Override protected void doCollect(int doc) throws IOException {
+        fieldData.forEachOrdinalInDoc(doc, current);
+    }
+
+    @Override public Facet facet() {
+        if (current != null) {
+            if (current.total > 0) {
+                aggregators.add(current);
+            }
+            current = null;
+        }
+
+        AggregatorPriorityQueue queue = new AggregatorPriorityQueue(aggregators.size());
+        for (ReaderAggregator aggregator : aggregators) {
+            if (aggregator.nextPosition()) {
+                queue.add(aggregator);
+            }
+        }
+        if (queue.size() == 0) {
+            return new InternalStringTermsFacet(facetName, fieldName, comparatorType, size, ImmutableList.<InternalStringTermsFacet.StringEntry>of());
+        }
+
+        // we need to fetch facets of "size * numberOfShards" because of problems in how they are distributed across shards
+        BoundedTreeSet<InternalStringTermsFacet.StringEntry> ordered = new BoundedTreeSet<InternalStringTermsFacet.StringEntry>(comparatorType.comparator(), size * numberOfShards);
+        // the values of each segment are sorted, so we merge them in order and sum the counts of the same term
+        while (queue.size() > 0) {
+            ReaderAggregator agg = queue.top();
+            String value = agg.current;
+            int count = 0;
+            do {
+                count += agg.counts[agg.position];
+                if (agg.nextPosition()) {
+                    agg = queue.updateTop();
+                } else {
+                    queue.pop();
+                    agg = queue.top();
+                }
+            } while (agg != null && value.equals(agg.current));
+
+            if (excluded != null && excluded.contains(value)) {
+                continue;
+            }
+            if (matcher != null && !matcher.reset(value).matches()) {
+                continue;
+            }
+            ordered.add(new InternalStringTermsFacet.StringEntry(value, count));
+        }
+        aggregators.clear();
+        return new InternalStringTermsFacet(facetName, fieldName, comparatorType, size, ordered);
+    }
+
+    public static class ReaderAggregator implements StringFieldData.OrdinalInDocProc {
+
+        final String[] values;
+
+        final int[] counts;
+
+        int total;
+
+        int position = 0;
+
+        String current;
+
+        public ReaderAggregator(StringFieldData fieldData) {
+            this.values = fieldData.values();
+            this.counts = new int[values.length];
+        }
+
+        @Override public void onOrdinal(int docId, int ordinal) {
+            counts[ordinal]++;
+            total++;
+        }
+
+        /**
+         * Moves to the next ordinal with a non zero count, returning <tt>false</tt> if there are no more.
+         */
+        public boolean nextPosition() {
+            while (++position < values.length) {
+                if (counts[position] != 0) {
+                    current = values[position];
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+    public static class AggregatorPriorityQueue extends PriorityQueue<ReaderAggregator> {
+
+        public AggregatorPriorityQueue(int size) {
+            initialize(size);
+        }
+
+        @Override protected boolean lessThan(ReaderAggregator a, ReaderAggregator b) {
+            return a.current.compareTo(b.current) < 0;
+        }
+    }
+}
@@ -117,7 +117,13 @@ public class ContextIndexSearcher extends ExtendedIndexSearcher {
 
     @Override public void search(Weight weight, Filter filter, Collector collector) throws IOException {
         if (searchContext.timeout() != null) {
-            collector = new TimeLimitingCollector(collector, searchContext.timeout().millis());
+            // the timeout applies to the whole query phase (child queries, main query and facets), not to each search
+            long timeLeft = searchContext.timeout().millis() - (System.currentTimeMillis() - searchContext.queryStartTime());
+            if (timeLeft <= 0) {
+                searchContext.queryResult().searchTimedOut(true);
+                return;
+            }
+            collector = new TimeLimitingCollector(collector, timeLeft);
         }
         if (scopeCollectors != null) {
             List<Collector> collectors = scopeCollectors.get(processingScope);
@@ -127,14 +133,35 @@ public class ContextIndexSearcher extends ExtendedIndexSearcher {
         }
         // we only compute the doc id set once since within a context, we execute the same query always...
         if (searchContext.timeout() != null) {
-            searchContext.queryResult().searchTimedOut(false);
             try {
                 super.search(weight, filter, collector);
             } catch (TimeLimitingCollector.TimeExceededException e) {
+                // keep what was collected so far, the shard result is marked as partial
                 searchContext.queryResult().searchTimedOut(true);
             }
         } else {
             super.search(weight, filter, collector);
         }
     }
-}
\ No newline at end of file
+
+    @Override protected boolean searchSlice(Weight weight, int[] segments, Collector collector) throws IOException {
+        if (searchContext.timeout() == null) {
+            return super.searchSlice(weight, segments, collector);
+        }
+        // runs on the slices threads, the shard result is marked as partial once the slices are merged (see #partialSlices)
+        long timeLeft = searchContext.timeout().millis() - (System.currentTimeMillis() - searchContext.queryStartTime());
+        if (timeLeft <= 0) {
+            return false;
+        }
+        try {
+            return super.searchSlice(weight, segments, new TimeLimitingCollector(collector, timeLeft));
+        } catch (TimeLimitingCollector.TimeExceededException e) {
+            // keep what was collected so far by this slice
+            return false;
+        }
+    }
+
+    @Override protected void partialSlices() {
+        searchContext.queryResult().searchTimedOut(true);
+    }
+}
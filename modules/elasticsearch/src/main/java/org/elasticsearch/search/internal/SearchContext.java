@@ -48,6 +48,7 @@ import org.elasticsearch.search.fetch.script.ScriptFieldsContext;
 import org.elasticsearch.search.highlight.SearchContextHighlight;
 import org.elasticsearch.search.lookup.SearchLookup;
 import org.elasticsearch.search.query.QuerySearchResult;
+import org.elasticsearch.search.scan.ScanContext;
 
 import java.util.List;
 
@@ -97,6 +98,8 @@ public class SearchContext implements Releasable {
 
     private Scroll scroll;
 
+    private ScanContext scanContext;
+
     private boolean explain;
 
     private List<String> fieldNames;
@@ -135,6 +138,8 @@ public class SearchContext implements Releasable {
 
     private volatile long lastAccessTime;
 
+    private long queryStartTime = System.currentTimeMillis();
+
     public SearchContext(long id, SearchShardTarget shardTarget, int numberOfShards, TimeValue timeout,
                          String[] types, Engine.Searcher engineSearcher, IndexService indexService, ScriptService scriptService) {
         this.id = id;
@@ -203,6 +208,18 @@ public class SearchContext implements Releasable {
         return this;
     }
 
+    /**
+     * The scanning state, <tt>null</tt> if this is not a scan search.
+     */
+    public ScanContext scanContext() {
+        return scanContext;
+    }
+
+    public SearchContext scanContext(ScanContext scanContext) {
+        this.scanContext = scanContext;
+        return this;
+    }
+
     public SearchContextFacets facets() {
         return facets;
     }
@@ -282,6 +299,18 @@ public class SearchContext implements Releasable {
         return timeout;
     }
 
+    /**
+     * The time (in millis) the execution of the query phase started, the {@link #timeout()} applies from it.
+     */
+    public long queryStartTime() {
+        return queryStartTime;
+    }
+
+    public SearchContext queryStartTime(long queryStartTime) {
+        this.queryStartTime = queryStartTime;
+        return this;
+    }
+
     public SearchContext sort(Sort sort) {
         this.sort = sort;
         return this;
@@ -417,6 +446,14 @@ public class SearchContext implements Releasable {
         return searchLookup;
     }
 
+    /**
+     * Returns <tt>true</tt> if the doc lookup was used (for example, by scripts). The lookup is not
+     * thread safe, so such a search can't be executed concurrently.
+     */
+    public boolean hasLookup() {
+        return searchLookup != null;
+    }
+
     public DfsSearchResult dfsResult() {
         return dfsResult;
     }
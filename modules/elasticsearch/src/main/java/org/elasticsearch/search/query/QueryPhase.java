@@ -21,9 +21,15 @@ package org.elasticsearch.search.query;
 
 import org.apache.lucene.search.*;
 import org.elasticsearch.common.collect.ImmutableMap;
+import org.elasticsearch.common.component.AbstractComponent;
 import org.elasticsearch.common.inject.Inject;
+import org.elasticsearch.common.lucene.Lucene;
 import org.elasticsearch.common.lucene.search.function.BoostScoreFunction;
 import org.elasticsearch.common.lucene.search.function.FunctionScoreQuery;
+import org.elasticsearch.common.settings.Settings;
+import org.elasticsearch.common.unit.TimeValue;
+import org.elasticsearch.common.util.concurrent.DynamicExecutors;
+import org.elasticsearch.common.util.concurrent.EsExecutors;
 import org.elasticsearch.index.query.ParsedQuery;
 import org.elasticsearch.search.SearchParseElement;
 import org.elasticsearch.search.SearchParseException;
@@ -35,16 +41,37 @@ import org.elasticsearch.search.internal.SearchContext;
 import org.elasticsearch.search.sort.SortParseElement;
 
 import java.util.Map;
+import java.util.concurrent.ExecutorService;
 
 /**
  * @author kimchy (Shay Banon)
  */
-public class QueryPhase implements SearchPhase {
+public class QueryPhase extends AbstractComponent implements SearchPhase {
 
     private final FacetPhase facetPhase;
 
-    @Inject public QueryPhase(FacetPhase facetPhase) {
+    private final int slices;
+
+    private final ExecutorService slicesExecutor;
+
+    @Inject public QueryPhase(Settings settings, FacetPhase facetPhase) {
+        super(settings);
         this.facetPhase = facetPhase;
+        // searching the segments of a shard concurrently is disabled by default (1 slice)
+        this.slices = componentSettings.getAsInt("slices", 1);
+        if (slices > 1) {
+            int threads = componentSettings.getAsInt("slices_threads", Runtime.getRuntime().availableProcessors());
+            this.slicesExecutor = DynamicExecutors.newScalingThreadPool(1, threads, TimeValue.timeValueSeconds(60).millis(), EsExecutors.daemonThreadFactory(settings, "[search_slices]"));
+            logger.debug("using [{}] slices, with [{}] threads", slices, threads);
+        } else {
+            this.slicesExecutor = null;
+        }
+    }
+
+    public void close() {
+        if (slicesExecutor != null) {
+            slicesExecutor.shutdownNow();
+        }
     }
 
     @Override public Map<String, ? extends SearchParseElement> parseElements() {
@@ -73,6 +100,9 @@ public class QueryPhase implements SearchPhase {
     }
 
     public void execute(SearchContext searchContext) throws QueryPhaseExecutionException {
+        searchContext.queryStartTime(System.currentTimeMillis());
+        searchContext.queryResult().searchTimedOut(false);
+
         if (searchContext.parsedQuery().scopePhases().length > 0) {
             // we have scoped queries, refresh the id cache
             try {
@@ -156,33 +186,44 @@ public class QueryPhase implements SearchPhase {
                 query = new FilteredQuery(query, searchContext.filterCache().cache(searchContext.mapperService().typesFilter(searchContext.types())));
             }
 
-            TopDocs topDocs;
-            int numDocs = searchContext.from() + searchContext.size();
-            if (numDocs == 0) {
-                // if 0 was asked, change it to 1 since 0 is not allowed
-                numDocs = 1;
-            }
-            boolean sort = false;
-            // try and optimize for a case where the sorting is based on score, this is how we work by default!
-            if (searchContext.sort() != null) {
-                if (searchContext.sort().getSort().length > 1) {
-                    sort = true;
-                } else {
-                    SortField sortField = searchContext.sort().getSort()[0];
-                    if (sortField.getType() == SortField.SCORE && !sortField.getReverse()) {
-                        sort = false;
-                    } else {
+            if (searchContext.scanContext() != null) {
+                // scanning, no scoring or sorting, just move on to the next matching docs in index order
+                searchContext.queryResult().topDocs(searchContext.scanContext().execute(searchContext, query));
+            } else if (canCount(searchContext)) {
+                // no docs were asked for, just count the hits without scoring them
+                long count = Lucene.count(searchContext.searcher(), query);
+                searchContext.queryResult().topDocs(new TopDocs((int) count, Lucene.EMPTY_SCORE_DOCS, Float.NaN));
+            } else {
+                TopDocs topDocs;
+                int numDocs = searchContext.from() + searchContext.size();
+                if (numDocs == 0) {
+                    // if 0 was asked, change it to 1 since 0 is not allowed
+                    numDocs = 1;
+                }
+                boolean sort = false;
+                // try and optimize for a case where the sorting is based on score, this is how we work by default!
+                if (searchContext.sort() != null) {
+                    if (searchContext.sort().getSort().length > 1) {
                         sort = true;
+                    } else {
+                        SortField sortField = searchContext.sort().getSort()[0];
+                        if (sortField.getType() == SortField.SCORE && !sortField.getReverse()) {
+                            sort = false;
+                        } else {
+                            sort = true;
+                        }
                     }
                 }
-            }
 
-            if (sort) {
-                topDocs = searchContext.searcher().search(query, null, numDocs, searchContext.sort());
-            } else {
-                topDocs = searchContext.searcher().search(query, numDocs);
+                if (sort) {
+                    topDocs = searchContext.searcher().search(query, null, numDocs, searchContext.sort());
+                } else if (canSearchSlices(searchContext)) {
+                    topDocs = searchContext.searcher().search(query, numDocs, slices, slicesExecutor);
+                } else {
+                    topDocs = searchContext.searcher().search(query, numDocs);
+                }
+                searchContext.queryResult().topDocs(topDocs);
             }
-            searchContext.queryResult().topDocs(topDocs);
         } catch (Exception e) {
             throw new QueryPhaseExecutionException(searchContext, "Failed to execute main query", e);
         } finally {
@@ -191,4 +232,39 @@ public class QueryPhase implements SearchPhase {
 
         facetPhase.execute(searchContext);
     }
+
+    /**
+     * Searches asking for no docs can be executed as a count, unless collectors (facets) registered on the main scope
+     * need to collect the matching docs, or a timeout is set (which is enforced by collecting).
+     */
+    private boolean canCount(SearchContext searchContext) {
+        if (searchContext.from() + searchContext.size() != 0) {
+            return false;
+        }
+        if (searchContext.timeout() != null) {
+            return false;
+        }
+        return !searchContext.searcher().hasCollectors(ContextIndexSearcher.Scopes.MAIN);
+    }
+
+    /**
+     * Slices are only used for the main query sorted by score. Collectors (facets) registered on the main scope
+     * collect all the docs in a single instance and the doc lookup used by scripts is not thread safe, in which case
+     * the segments are searched sequentially.
+     */
+    private boolean canSearchSlices(SearchContext searchContext) {
+        if (slicesExecutor == null) {
+            return false;
+        }
+        if (searchContext.searcher().subReaders().length < 2) {
+            return false;
+        }
+        if (searchContext.parsedQuery().scopePhases().length > 0) {
+            return false;
+        }
+        if (searchContext.searcher().hasCollectors(ContextIndexSearcher.Scopes.MAIN)) {
+            return false;
+        }
+        return !searchContext.hasLookup();
+    }
 }
@@ -0,0 +1,108 @@
+/*
+ * Licensed to Elastic Search and Shay Banon under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. Elastic Search licenses this
+ * file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package org.elasticsearch.search.scan;
+
+import org.apache.lucene.index.IndexReader;
+import org.apache.lucene.search.*;
+import org.elasticsearch.search.internal.ContextIndexSearcher;
+import org.elasticsearch.search.internal.SearchContext;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The scanning state of a search context. The first execution only counts the matching docs (while
+ * still feeding the main scope collectors, i.e. facets). Each subsequent execution returns the next
+ * size matching docs, in index order, continuing the per segment iteration where the previous one
+ * stopped, without scoring or sorting them.
+ *
+ * @author kimchy (shay.banon)
+ */
+public class ScanContext {
+
+    private static final ScoreDoc[] EMPTY_DOCS = new ScoreDoc[0];
+
+    private int totalHits = -1;
+
+    private Weight weight;
+
+    private int readerIndex;
+
+    private Scorer scorer;
+
+    public TopDocs execute(SearchContext context, Query query) throws IOException {
+        ContextIndexSearcher searcher = context.searcher();
+        if (totalHits == -1) {
+            CountCollector countCollector = new CountCollector();
+            searcher.search(query, countCollector);
+            totalHits = countCollector.count();
+            return new TopDocs(totalHits, EMPTY_DOCS, Float.NaN);
+        }
+
+        IndexReader[] subReaders = searcher.subReaders();
+        int[] docStarts = searcher.docStarts();
+        if (weight == null) {
+            weight = query.weight(searcher);
+        }
+        List<ScoreDoc> docs = new ArrayList<ScoreDoc>(context.size());
+        while (docs.size() < context.size() && readerIndex < subReaders.length) {
+            if (scorer == null) {
+                scorer = weight.scorer(subReaders[readerIndex], true, false);
+                if (scorer == null) {
+                    readerIndex++;
+                    continue;
+                }
+            }
+            int doc = scorer.nextDoc();
+            if (doc == DocIdSetIterator.NO_MORE_DOCS) {
+                scorer = null;
+                readerIndex++;
+                continue;
+            }
+            docs.add(new ScoreDoc(docStarts[readerIndex] + doc, 0));
+        }
+        return new TopDocs(totalHits, docs.toArray(new ScoreDoc[docs.size()]), Float.NaN);
+    }
+
+    static class CountCollector extends Collector {
+
+        private int count;
+
+        public int count() {
+            return count;
+        }
+
+        @Override public void setScorer(Scorer scorer) throws IOException {
+        }
+
+        @Override public void collect(int doc) throws IOException {
+            count++;
+        }
+
+        @Override public void setNextReader(IndexReader reader, int docBase) throws IOException {
+        }
+
+        @Override public boolean acceptsDocsOutOfOrder() {
+            return true;
+        }
+    }
+}
@@ -0,0 +1,103 @@
+/*
+ * Licensed to Elastic Search and Shay Banon under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. Elastic Search licenses this
+ * file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package org.elasticsearch.transport;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Response statistics of requests sent to a single node, namely the number of requests still waiting
+ * for a response and an exponentially weighted moving average of the time it took to get one.
+ *
+ * @author kimchy (shay.banon)
+ */
+public class NodeResponseStats {
+
+    private final double alpha;
+
+    private final AtomicInteger outstandingRequests = new AtomicInteger();
+
+    private volatile double ewmaResponseTime = -1;
+
+    NodeResponseStats(double alpha) {
+        this.alpha = alpha;
+    }
+
+    /**
+     * The number of requests sent to the node that are still waiting for a response.
+     */
+    public int outstandingRequests() {
+        return outstandingRequests.get();
+    }
+
+    /**
+     * The number of requests sent to the node that are still waiting for a response.
+     */
+    public int getOutstandingRequests() {
+        return outstandingRequests();
+    }
+
+    /**
+     * The moving average of the response time in nanoseconds, <tt>-1</tt> if no response was received yet.
+     */
+    public double ewmaResponseTime() {
+        return ewmaResponseTime;
+    }
+
+    /**
+     * The moving average of the response time in nanoseconds, <tt>-1</tt> if no response was received yet.
+     */
+    public double getEwmaResponseTime() {
+        return ewmaResponseTime();
+    }
+
+    /**
+     * The rank of the node, the lower the better. The average response time is scaled by the number
+     * of requests queued up on the node (including the one about to be sent), so a node that is
+     * already busy is not picked again just because it used to be fast. Returns <tt>-1</tt> if
+     * no response was received from the node yet.
+     */
+    public double rank() {
+        double ewmaResponseTime = this.ewmaResponseTime;
+        if (ewmaResponseTime < 0) {
+            return -1;
+        }
+        return (outstandingRequests.get() + 1) * ewmaResponseTime;
+    }
+
+    void onRequestSent() {
+        outstandingRequests.incrementAndGet();
+    }
+
+    void onRequestFailed() {
+        outstandingRequests.decrementAndGet();
+    }
+
+    void onRequestDone(long responseTimeInNanos) {
+        outstandingRequests.decrementAndGet();
+        synchronized (this) {
+            if (ewmaResponseTime < 0) {
+                ewmaResponseTime = responseTimeInNanos;
+            } else {
+                ewmaResponseTime = alpha * responseTimeInNanos + (1 - alpha) * ewmaResponseTime;
+            }
+        }
+    }
+}
@@ -68,6 +68,10 @@ public class TransportService extends AbstractLifecycleComponent<TransportServic
     final AtomicLong txBytes = new AtomicLong();
     final AtomicLong txCount = new AtomicLong();
 
+    final ConcurrentMap<String, NodeResponseStats> nodeResponseStats = newConcurrentMap();
+
+    private final double responseTimeAlpha;
+
     // An LRU (don't really care about concurrency here) that holds the latest timed out requests so if they
     // do show up, we can print more descriptive information about them
     final Map<Long, TimeoutInfoHolder> timeoutInfoHandlers = Collections.synchronizedMap(new LinkedHashMap<Long, TimeoutInfoHolder>(100, .75F, true) {
@@ -87,6 +91,7 @@ public class TransportService extends AbstractLifecycleComponent<TransportServic
         this.transport = transport;
         this.threadPool = threadPool;
         this.timerService = timerService;
+        this.responseTimeAlpha = componentSettings.getAsDouble("response_time_alpha", 0.3d);
     }
 
     @Override protected void doStart() throws ElasticSearchException {
@@ -118,6 +123,13 @@ public class TransportService extends AbstractLifecycleComponent<TransportServic
         return new TransportStats(rxCount.get(), rxBytes.get(), txCount.get(), txBytes.get());
     }
 
+    /**
+     * The response statistics of requests sent to the given node, <tt>null</tt> if no request was sent to it yet.
+     */
+    public NodeResponseStats nodeResponseStats(String nodeId) {
+        return nodeResponseStats.get(nodeId);
+    }
+
     public BoundTransportAddress boundAddress() {
         return transport.boundAddress();
     }
@@ -179,11 +191,14 @@ public class TransportService extends AbstractLifecycleComponent<TransportServic
                 timeoutX = timerService.newTimeout(new TimeoutTimerTask(requestId), options.timeout(), TimerService.ExecutionType.THREADED);
             }
             clientHandlers.put(requestId, new RequestHolder<T>(handler, node, action, timeoutX));
+            responseStats(node).onRequestSent();
             transport.sendRequest(node, requestId, action, message, options);
         } catch (final Exception e) {
             // usually happen either because we failed to connect to the node
             // or because we failed serializing the message
-            clientHandlers.remove(requestId);
+            if (clientHandlers.remove(requestId) != null) {
+                responseStats(node).onRequestFailed();
+            }
             if (timeoutX != null) {
                 timeoutX.cancel();
             }
@@ -203,6 +218,22 @@ public class TransportService extends AbstractLifecycleComponent<TransportServic
         }
     }
 
+    private NodeResponseStats responseStats(DiscoveryNode node) {
+        NodeResponseStats stats = nodeResponseStats.get(node.id());
+        if (stats == null) {
+            stats = new NodeResponseStats(responseTimeAlpha);
+            NodeResponseStats existing = nodeResponseStats.putIfAbsent(node.id(), stats);
+            if (existing != null) {
+                stats = existing;
+            }
+        }
+        return stats;
+    }
+
+    private void onRequestDone(RequestHolder holder) {
+        responseStats(holder.node()).onRequestDone(System.nanoTime() - holder.startTime());
+    }
+
     private long newRequestId() {
         return requestIds.getAndIncrement();
     }
@@ -257,6 +288,7 @@ public class TransportService extends AbstractLifecycleComponent<TransportServic
             if (holder.timeout() != null) {
                 holder.timeout().cancel();
             }
+            onRequestDone(holder);
             return holder.handler();
         }
 
@@ -282,6 +314,7 @@ public class TransportService extends AbstractLifecycleComponent<TransportServic
                         if (holder.node().equals(node)) {
                             final RequestHolder holderToNotify = clientHandlers.remove(entry.getKey());
                             if (holderToNotify != null) {
+                                onRequestDone(holderToNotify);
                                 // callback that an exception happened, but on a different thread since we don't
                                 // want handlers to worry about stack overflows
                                 threadPool.cached().execute(new Runnable() {
@@ -292,6 +325,8 @@ public class TransportService extends AbstractLifecycleComponent<TransportServic
                             }
                         }
                     }
+                    // start fresh in case the node comes back
+                    nodeResponseStats.remove(node.id());
                 }
             });
         }
@@ -311,6 +346,8 @@ public class TransportService extends AbstractLifecycleComponent<TransportServic
             }
             final RequestHolder holder = clientHandlers.remove(requestId);
             if (holder != null) {
+                // a timed out request counts as a response that took the full timeout (or more)
+                onRequestDone(holder);
                 // add it to the timeout information holder, in case we are going to get a response later
                 timeoutInfoHandlers.put(requestId, new TimeoutInfoHolder(holder.node(), holder.action()));
                 holder.handler().handleException(new ReceiveTimeoutTransportException(holder.node(), holder.action(), "request_id [" + requestId + "]"));
@@ -349,6 +386,8 @@ public class TransportService extends AbstractLifecycleComponent<TransportServic
 
         private final Timeout timeout;
 
+        private final long startTime = System.nanoTime();
+
         RequestHolder(TransportResponseHandler<T> handler, DiscoveryNode node, String action, Timeout timeout) {
             this.handler = handler;
             this.node = node;
@@ -371,5 +410,9 @@ public class TransportService extends AbstractLifecycleComponent<TransportServic
         public Timeout timeout() {
             return timeout;
         }
+
+        public long startTime() {
+            return startTime;
+        }
     }
 }
\ No newline at end of file
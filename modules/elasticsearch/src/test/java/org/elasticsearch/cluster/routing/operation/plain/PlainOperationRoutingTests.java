@@ -0,0 +1,111 @@
+/*
+ * Licensed to Elastic Search and Shay Banon under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. Elastic Search licenses this
+ * file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package org.elasticsearch.cluster.routing.operation.plain;
+
+import org.elasticsearch.cluster.routing.ImmutableShardRouting;
+import org.elasticsearch.cluster.routing.ShardRouting;
+import org.elasticsearch.cluster.routing.ShardRoutingState;
+import org.testng.annotations.Test;
+
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+import static org.hamcrest.MatcherAssert.*;
+import static org.hamcrest.Matchers.*;
+
+/**
+ * @author kimchy (shay.banon)
+ */
+public class PlainOperationRoutingTests {
+
+    @Test public void testWeightedShuffleFavorsLowerRanks() {
+        Random random = new Random(42);
+        int iterations = 7000;
+        int[] firstCounts = new int[3];
+        for (int i = 0; i < iterations; i++) {
+            // ranks 1, 2 and 4 should come first 4/7, 2/7 and 1/7 of the times
+            ShardRouting[] shards = shards(3);
+            PlainOperationRouting.weightedShuffle(shards, new double[]{1, 2, 4}, random);
+            assertPermutation(shards);
+            firstCounts[Integer.parseInt(shards[0].currentNodeId())]++;
+        }
+        assertThat(firstCounts[0], allOf(greaterThan(3700), lessThan(4300)));
+        assertThat(firstCounts[1], allOf(greaterThan(1700), lessThan(2300)));
+        // the slowest copy still gets its share of the requests, so its statistics keep being updated
+        assertThat(firstCounts[2], allOf(greaterThan(700), lessThan(1300)));
+    }
+
+    @Test public void testWeightedShuffleEqualRanks() {
+        Random random = new Random(42);
+        int iterations = 3000;
+        int[] firstCounts = new int[3];
+        int[] lastCounts = new int[3];
+        for (int i = 0; i < iterations; i++) {
+            ShardRouting[] shards = shards(3);
+            PlainOperationRouting.weightedShuffle(shards, new double[]{5, 5, 5}, random);
+            assertPermutation(shards);
+            firstCounts[Integer.parseInt(shards[0].currentNodeId())]++;
+            lastCounts[Integer.parseInt(shards[2].currentNodeId())]++;
+        }
+        for (int i = 0; i < 3; i++) {
+            assertThat(firstCounts[i], allOf(greaterThan(800), lessThan(1200)));
+            assertThat(lastCounts[i], allOf(greaterThan(800), lessThan(1200)));
+        }
+    }
+
+    @Test public void testWeightedShuffleSecondPick() {
+        Random random = new Random(42);
+        int iterations = 5000;
+        int secondIsFaster = 0;
+        int pickedFirst = 0;
+        for (int i = 0; i < iterations; i++) {
+            ShardRouting[] shards = shards(3);
+            // one very fast copy, the order of the two others should follow their relative ranks (1 to 3)
+            PlainOperationRouting.weightedShuffle(shards, new double[]{1, 100, 300}, random);
+            if (!shards[0].currentNodeId().equals("0")) {
+                continue;
+            }
+            pickedFirst++;
+            if (shards[1].currentNodeId().equals("1")) {
+                secondIsFaster++;
+            }
+        }
+        double ratio = ((double) secondIsFaster) / pickedFirst;
+        assertThat(ratio, allOf(greaterThan(0.7), lessThan(0.8)));
+    }
+
+    private ShardRouting[] shards(int size) {
+        ShardRouting[] shards = new ShardRouting[size];
+        for (int i = 0; i < size; i++) {
+            shards[i] = new ImmutableShardRouting("test", 0, Integer.toString(i), i == 0, ShardRoutingState.STARTED);
+        }
+        return shards;
+    }
+
+    private void assertPermutation(ShardRouting[] shards) {
+        Set<String> nodes = new HashSet<String>();
+        for (ShardRouting shard : shards) {
+            nodes.add(shard.currentNodeId());
+        }
+        assertThat(nodes.size(), equalTo(shards.length));
+    }
+}
@@ -0,0 +1,79 @@
+/*
+ * Licensed to Elastic Search and Shay Banon under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. Elastic Search licenses this
+ * file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.elasticsearch.common.bloom;
+
+import org.testng.annotations.Test;
+
+import static org.hamcrest.MatcherAssert.*;
+import static org.hamcrest.Matchers.*;
+
+/**
+ * @author kimchy (shay.banon)
+ */
+public class BloomFilterTests {
+
+    @Test public void testNoFalseNegatives() {
+        BloomFilter bloomFilter = BloomFilter.create(10000, 0.01);
+        for (int i = 0; i < 10000; i++) {
+            bloomFilter.put("type1#" + i);
+        }
+        for (int i = 0; i < 10000; i++) {
+            assertThat(bloomFilter.mightContain("type1#" + i), equalTo(true));
+        }
+    }
+
+    @Test public void testFalsePositiveRate() {
+        BloomFilter bloomFilter = BloomFilter.create(10000, 0.01);
+        for (int i = 0; i < 10000; i++) {
+            bloomFilter.put("type1#" + i);
+        }
+        int falsePositives = 0;
+        for (int i = 0; i < 10000; i++) {
+            if (bloomFilter.mightContain("type2#" + i)) {
+                falsePositives++;
+            }
+        }
+        // expected around 100, allow some slack
+        assertThat(falsePositives, lessThan(300));
+    }
+
+    @Test public void testMaxSize() {
+        // 10000 values at 1% need about 12kb
+        BloomFilter bloomFilter = BloomFilter.create(10000, 0.01, 1024);
+        assertThat(bloomFilter.sizeInBytes(), lessThanOrEqualTo(1024l + 64));
+        for (int i = 0; i < 10000; i++) {
+            bloomFilter.put("type1#" + i);
+        }
+        // a smaller filter has more false positives, but still no false negatives
+        for (int i = 0; i < 10000; i++) {
+            assertThat(bloomFilter.mightContain("type1#" + i), equalTo(true));
+        }
+    }
+
+    @Test public void testNone() {
+        assertThat(BloomFilter.NONE.mightContain("type1#1"), equalTo(true));
+        assertThat(BloomFilter.NONE.sizeInBytes(), equalTo(0l));
+    }
+
+    @Test public void testEmpty() {
+        BloomFilter bloomFilter = BloomFilter.create(0, 0.01);
+        assertThat(bloomFilter.mightContain("type1#1"), equalTo(false));
+    }
+}
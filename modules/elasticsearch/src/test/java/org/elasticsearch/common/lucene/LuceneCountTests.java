@@ -0,0 +1,184 @@
+/*
+ * Licensed to Elastic Search and Shay Banon under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. Elastic Search licenses this
+ * file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package org.elasticsearch.common.lucene;
+
+import org.apache.lucene.index.IndexReader;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.search.*;
+import org.apache.lucene.store.Directory;
+import org.apache.lucene.store.RAMDirectory;
+import org.apache.lucene.util.OpenBitSet;
+import org.elasticsearch.common.lucene.docset.*;
+import org.elasticsearch.common.lucene.search.Queries;
+import org.elasticsearch.common.lucene.search.TermFilter;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+
+import static org.elasticsearch.common.lucene.DocumentBuilder.*;
+import static org.hamcrest.MatcherAssert.*;
+import static org.hamcrest.Matchers.*;
+
+/**
+ * @author kimchy (shay.banon)
+ */
+public class LuceneCountTests {
+
+    @Test public void testCountWithoutScoring() throws Exception {
+        Directory dir = new RAMDirectory();
+        IndexWriter indexWriter = new IndexWriter(dir, Lucene.STANDARD_ANALYZER, true, IndexWriter.MaxFieldLength.UNLIMITED);
+        indexWriter.setMergeFactor(1000);
+        for (int i = 0; i < 100; i++) {
+            indexWriter.addDocument(doc().add(field("_id", Integer.toString(i)))
+                    .add(field("type", i % 2 == 0 ? "even" : "odd"))
+                    .add(field("text", i % 3 == 0 ? "lucene search" : "lucene")).build());
+            if (i % 25 == 24) {
+                indexWriter.commit();
+            }
+        }
+        IndexReader reader = indexWriter.getReader();
+        IndexSearcher searcher = new IndexSearcher(reader);
+        assertCounts(searcher, reader.numDocs());
+
+        // deletions, both in the scorers and in the (already loaded) cached filters
+        indexWriter.deleteDocuments(new Term("_id", "0"));
+        indexWriter.deleteDocuments(new Term("_id", "1"));
+        indexWriter.deleteDocuments(new Term("_id", "50"));
+        reader.close();
+        reader = indexWriter.getReader();
+        searcher = new IndexSearcher(reader);
+        assertCounts(searcher, reader.numDocs());
+
+        reader.close();
+        indexWriter.close();
+    }
+
+    private void assertCounts(IndexSearcher searcher, int numDocs) throws IOException {
+        assertThat(Lucene.count(searcher, new MatchAllDocsQuery()), equalTo((long) numDocs));
+        assertThat(Lucene.count(searcher, Queries.MATCH_ALL_QUERY), equalTo((long) numDocs));
+
+        Query[] queries = new Query[]{
+                new TermQuery(new Term("text", "search")),
+                new DeletionAwareConstantScoreQuery(new TermFilter(new Term("type", "even"))),
+                new ConstantScoreQuery(new TermFilter(new Term("type", "odd"))),
+                new DeletionAwareConstantScoreQuery(new CachedBitsFilter(new TermFilter(new Term("type", "odd")))),
+                new FilteredQuery(new TermQuery(new Term("text", "search")), new CachedBitsFilter(new TermFilter(new Term("type", "even")))),
+                new FilteredQuery(Queries.MATCH_ALL_QUERY, new CachedBitsFilter(new TermFilter(new Term("type", "even")))),
+                new FilteredQuery(new DeletionAwareConstantScoreQuery(new TermFilter(new Term("text", "search"))), new TermFilter(new Term("type", "odd"))),
+                new TermQuery(new Term("text", "missing")),
+                // each of the cached doc set formats, counted using their cardinality when there are no deletions
+                new DeletionAwareConstantScoreQuery(new CachedBitsFilter(new TermFilter(new Term("text", "search")), Format.SORTED_INT)),
+                new FilteredQuery(Queries.MATCH_ALL_QUERY, new CachedBitsFilter(new TermFilter(new Term("type", "even")), Format.SORTED_INT)),
+                new FilteredQuery(new TermQuery(new Term("type", "odd")), new CachedBitsFilter(new TermFilter(new Term("text", "search")), Format.SORTED_INT)),
+                new DeletionAwareConstantScoreQuery(new CachedBitsFilter(new TermFilter(new Term("type", "even")), Format.RUN_LENGTH)),
+                new FilteredQuery(Queries.MATCH_ALL_QUERY, new CachedBitsFilter(new TermFilter(new Term("text", "search")), Format.RUN_LENGTH)),
+                new FilteredQuery(new TermQuery(new Term("text", "search")), new CachedBitsFilter(new TermFilter(new Term("type", "odd")), Format.RUN_LENGTH)),
+                new DeletionAwareConstantScoreQuery(new CachedBitsFilter(new TermFilter(new Term("text", "lucene")), Format.ALL)),
+                new FilteredQuery(Queries.MATCH_ALL_QUERY, new CachedBitsFilter(new TermFilter(new Term("text", "lucene")), Format.ALL)),
+                new FilteredQuery(new TermQuery(new Term("type", "even")), new CachedBitsFilter(new TermFilter(new Term("text", "lucene")), Format.ALL))
+        };
+        for (Query query : queries) {
+            assertThat(query.toString(), Lucene.count(searcher, query), equalTo(Lucene.count(searcher, new DeletionAwareConstantScoreQuery(new QueryWrapperFilter(query)), -1)));
+        }
+        // every doc matches "lucene", so its cached doc sets (deleted docs included) match all the live docs
+        assertThat(Lucene.count(searcher, new DeletionAwareConstantScoreQuery(new CachedBitsFilter(new TermFilter(new Term("text", "lucene")), Format.ALL))), equalTo((long) numDocs));
+    }
+
+    private static enum Format {
+        CACHEABLE,
+        SORTED_INT,
+        RUN_LENGTH,
+        ALL
+    }
+
+    /**
+     * Loads the filter into a bit set, without taking deletions into account, like the filter cache does, and caches it
+     * using the requested doc set format.
+     */
+    private static class CachedBitsFilter extends Filter {
+
+        private final Filter filter;
+
+        private final Format format;
+
+        CachedBitsFilter(Filter filter) {
+            this(filter, Format.CACHEABLE);
+        }
+
+        CachedBitsFilter(Filter filter, Format format) {
+            this.filter = filter;
+            this.format = format;
+        }
+
+        @Override public DocIdSet getDocIdSet(IndexReader reader) throws IOException {
+            OpenBitSet bits = new OpenBitSet(reader.maxDoc());
+            DocIdSet docIdSet = filter.getDocIdSet(reader);
+            DocIdSetIterator it = docIdSet == null ? null : docIdSet.iterator();
+            if (it != null) {
+                for (int doc = it.nextDoc(); doc != DocIdSetIterator.NO_MORE_DOCS; doc = it.nextDoc()) {
+                    bits.fastSet(doc);
+                }
+            }
+            // simulate docs deleted after the filter was cached
+            if (reader.hasDeletions()) {
+                for (int i = 0; i < reader.maxDoc(); i++) {
+                    if (reader.isDeleted(i)) {
+                        bits.fastSet(i);
+                    }
+                }
+            }
+            switch (format) {
+                case SORTED_INT:
+                    int[] docs = new int[(int) bits.cardinality()];
+                    int index = 0;
+                    for (int doc = bits.nextSetBit(0); doc != -1; doc = bits.nextSetBit(doc + 1)) {
+                        docs[index++] = doc;
+                    }
+                    return new SortedIntDocSet(docs);
+                case RUN_LENGTH:
+                    int runs = 0;
+                    for (int doc = bits.nextSetBit(0); doc != -1; doc = bits.nextSetBit(doc + 1)) {
+                        if (doc == 0 || !bits.fastGet(doc - 1)) {
+                            runs++;
+                        }
+                    }
+                    int[] starts = new int[runs];
+                    int[] ends = new int[runs];
+                    int run = -1;
+                    for (int doc = bits.nextSetBit(0); doc != -1; doc = bits.nextSetBit(doc + 1)) {
+                        if (doc == 0 || !bits.fastGet(doc - 1)) {
+                            starts[++run] = doc;
+                        }
+                        ends[run] = doc + 1;
+                    }
+                    return new RunLengthDocSet(starts, ends);
+                case ALL:
+                    if (bits.cardinality() != reader.maxDoc()) {
+                        throw new IllegalStateException("filter [" + filter + "] does not match all docs");
+                    }
+                    return new AllDocSet(reader.maxDoc());
+                default:
+                    return DocSets.cacheable(reader, new OpenBitDocSet(bits));
+            }
+        }
+    }
+}
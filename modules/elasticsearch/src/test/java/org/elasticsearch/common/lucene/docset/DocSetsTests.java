@@ -0,0 +1,248 @@
+/*
+ * Licensed to Elastic Search and Shay Banon under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. Elastic Search licenses this
+ * file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package org.elasticsearch.common.lucene.docset;
+
+import org.apache.lucene.search.DocIdSetIterator;
+import org.apache.lucene.util.OpenBitSet;
+import org.apache.lucene.util.OpenBitSetDISI;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.hamcrest.MatcherAssert.*;
+import static org.hamcrest.Matchers.*;
+
+/**
+ * @author kimchy (shay.banon)
+ */
+public class DocSetsTests {
+
+    private static final int MAX_DOC = 10000;
+
+    @Test public void testCompactRepresentations() throws Exception {
+        assertThat(DocSets.compact(new OpenBitSet(MAX_DOC), MAX_DOC), sameInstance(DocSet.EMPTY_DOC_SET));
+
+        OpenBitSet all = new OpenBitSet(MAX_DOC);
+        all.set(0, MAX_DOC);
+        assertThat(DocSets.compact(all, MAX_DOC), instanceOf(AllDocSet.class));
+
+        OpenBitSet sparse = randomSet(new Random(1), 0.003);
+        assertThat(DocSets.compact(sparse, MAX_DOC), instanceOf(SortedIntDocSet.class));
+
+        OpenBitSet clustered = new OpenBitSet(MAX_DOC);
+        clustered.set(100, 3000);
+        clustered.set(5000, 8000);
+        assertThat(DocSets.compact(clustered, MAX_DOC), instanceOf(RunLengthDocSet.class));
+
+        OpenBitSet dense = randomSet(new Random(2), 0.5);
+        assertThat(DocSets.compact(dense, MAX_DOC), instanceOf(OpenBitDocSet.class));
+
+        for (OpenBitSet set : new OpenBitSet[]{sparse, clustered, dense}) {
+            DocSet docSet = DocSets.compact(set, MAX_DOC);
+            assertThat(docSet.sizeInBytes(), lessThanOrEqualTo(new OpenBitDocSet(set).sizeInBytes()));
+            assertSameDocs(docSet, set);
+        }
+    }
+
+    @Test public void testIteratorsAdvance() throws Exception {
+        Random random = new Random(3);
+        OpenBitSet sparse = randomSet(random, 0.003);
+        OpenBitSet clustered = new OpenBitSet(MAX_DOC);
+        clustered.set(10, 20);
+        clustered.set(500, 900);
+        clustered.set(MAX_DOC - 5, MAX_DOC);
+        for (OpenBitSet set : new OpenBitSet[]{sparse, clustered}) {
+            DocSet docSet = DocSets.compact(set, MAX_DOC);
+            for (int i = 0; i < 100; i++) {
+                DocIdSetIterator it = docSet.iterator();
+                int target = 0;
+                while (true) {
+                    target += random.nextInt(200) + 1;
+                    int doc = it.advance(target);
+                    int expected = set.nextSetBit(target);
+                    if (expected == -1) {
+                        assertThat(doc, equalTo(DocIdSetIterator.NO_MORE_DOCS));
+                        break;
+                    }
+                    assertThat(doc, equalTo(expected));
+                    target = doc;
+                }
+            }
+        }
+    }
+
+    @Test public void testGetViews() throws Exception {
+        Random random = new Random(5);
+        OpenBitSet sparse = randomSet(random, 0.003);
+        OpenBitSet clustered = new OpenBitSet(MAX_DOC);
+        clustered.set(10, 20);
+        clustered.set(500, 900);
+        clustered.set(MAX_DOC - 5, MAX_DOC);
+        for (OpenBitSet set : new OpenBitSet[]{sparse, clustered}) {
+            DocSet docSet = DocSets.compact(set, MAX_DOC);
+            DocSet view = DocSets.getView(docSet);
+            assertThat(view, not(sameInstance(docSet)));
+            assertThat(view.isCacheable(), equalTo(false));
+            // in order, as collectors check docs
+            for (int doc = 0; doc < MAX_DOC; doc++) {
+                assertThat(view.get(doc), equalTo(set.get(doc)));
+            }
+            // out of order checks fall back to a binary search, and later in order checks still move forward
+            view = DocSets.getView(docSet);
+            for (int i = 0; i < 5000; i++) {
+                int doc = random.nextInt(MAX_DOC);
+                assertThat(view.get(doc), equalTo(set.get(doc)));
+                if (doc + 1 < MAX_DOC) {
+                    assertThat(view.get(doc + 1), equalTo(set.get(doc + 1)));
+                }
+            }
+            assertSameDocs(view, set);
+        }
+    }
+
+    @Test public void testOperations() throws Exception {
+        Random random = new Random(4);
+        OpenBitSet clustered = new OpenBitSet(MAX_DOC);
+        clustered.set(100, 3000);
+        clustered.set(5000, 8000);
+        OpenBitSet all = new OpenBitSet(MAX_DOC);
+        all.set(0, MAX_DOC);
+        OpenBitSet[] sets = new OpenBitSet[]{new OpenBitSet(MAX_DOC), all, randomSet(random, 0.003), clustered, randomSet(random, 0.5)};
+        for (OpenBitSet left : sets) {
+            for (OpenBitSet right : sets) {
+                DocSet docSet = DocSets.compact(right, MAX_DOC);
+
+                OpenBitSetDISI or = new OpenBitSetDISI(MAX_DOC);
+                or.or(left);
+                DocSets.or(or, docSet);
+                OpenBitSet expected = (OpenBitSet) left.clone();
+                expected.or(right);
+                assertThat(or.equals(expected), equalTo(true));
+
+                OpenBitSetDISI and = new OpenBitSetDISI(MAX_DOC);
+                and.or(left);
+                DocSets.and(and, docSet);
+                expected = (OpenBitSet) left.clone();
+                expected.and(right);
+                assertThat(and.equals(expected), equalTo(true));
+
+                OpenBitSetDISI andNot = new OpenBitSetDISI(MAX_DOC);
+                andNot.or(left);
+                DocSets.andNot(andNot, docSet);
+                expected = (OpenBitSet) left.clone();
+                expected.andNot(right);
+                assertThat(andNot.equals(expected), equalTo(true));
+
+                OpenBitSet not = new OpenBitSet(MAX_DOC);
+                not.set(0, MAX_DOC);
+                not.andNot(right);
+                assertSameDocs(new NotDocSet(docSet, MAX_DOC), not);
+            }
+        }
+    }
+
+    @Test public void testSortByCost() throws Exception {
+        Random random = new Random(5);
+        final OpenBitSet dense = randomSet(random, 0.5);
+        DocSet fieldData = new GetDocSet(MAX_DOC) {
+            @Override public boolean isCacheable() {
+                return false;
+            }
+
+            @Override public boolean get(int doc) throws IOException {
+                return dense.get(doc);
+            }
+        };
+        DocSet sparse = DocSets.compact(randomSet(random, 0.003), MAX_DOC);
+        OpenBitSet clustered = new OpenBitSet(MAX_DOC);
+        clustered.set(100, 300);
+        DocSet runs = DocSets.compact(clustered, MAX_DOC);
+        DocSet bits = new OpenBitDocSet(randomSet(random, 0.2));
+
+        List<DocSet> sets = new ArrayList<DocSet>();
+        sets.add(fieldData);
+        sets.add(bits);
+        sets.add(sparse);
+        sets.add(runs);
+        DocSets.sortByCost(sets, MAX_DOC);
+        assertThat(sets.get(0), sameInstance(sparse));
+        assertThat(sets.get(1), sameInstance(runs));
+        assertThat(sets.get(2), sameInstance(bits));
+        assertThat(sets.get(3), sameInstance(fieldData));
+    }
+
+    @Test public void testAndLeapfrog() throws Exception {
+        Random random = new Random(6);
+        OpenBitSet clustered = new OpenBitSet(MAX_DOC);
+        clustered.set(100, 3000);
+        clustered.set(5000, 8000);
+        OpenBitSet[] bitSets = new OpenBitSet[]{randomSet(random, 0.01), clustered, randomSet(random, 0.5), randomSet(random, 0.7)};
+        for (int getIndex = -1; getIndex < bitSets.length; getIndex++) {
+            OpenBitSet expected = new OpenBitSet(MAX_DOC);
+            expected.set(0, MAX_DOC);
+            List<DocSet> sets = new ArrayList<DocSet>();
+            for (int i = 0; i < bitSets.length; i++) {
+                final OpenBitSet set = bitSets[i];
+                expected.and(set);
+                if (i == getIndex) {
+                    // random access only, checked instead of iterated
+                    sets.add(new GetDocSet(MAX_DOC) {
+                        @Override public boolean isCacheable() {
+                            return false;
+                        }
+
+                        @Override public boolean get(int doc) throws IOException {
+                            return set.get(doc);
+                        }
+                    });
+                } else {
+                    sets.add(DocSets.compact(set, MAX_DOC));
+                }
+            }
+            DocSets.sortByCost(sets, MAX_DOC);
+            assertSameDocs(new AndDocSet(sets), expected);
+        }
+    }
+
+    private static OpenBitSet randomSet(Random random, double density) {
+        OpenBitSet set = new OpenBitSet(MAX_DOC);
+        for (int i = 0; i < MAX_DOC; i++) {
+            if (random.nextDouble() < density) {
+                set.set(i);
+            }
+        }
+        return set;
+    }
+
+    private static void assertSameDocs(DocSet docSet, OpenBitSet expected) throws IOException {
+        DocIdSetIterator it = docSet.iterator();
+        for (int doc = expected.nextSetBit(0); doc != -1; doc = expected.nextSetBit(doc + 1)) {
+            assertThat(it.nextDoc(), equalTo(doc));
+        }
+        assertThat(it.nextDoc(), equalTo(DocIdSetIterator.NO_MORE_DOCS));
+        for (int doc = 0; doc < MAX_DOC; doc++) {
+            assertThat(docSet.get(doc), equalTo(expected.get(doc)));
+        }
+    }
+}
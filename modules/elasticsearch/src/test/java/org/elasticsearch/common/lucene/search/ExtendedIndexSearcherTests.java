@@ -0,0 +1,136 @@
+/*
+ * Licensed to Elastic Search and Shay Banon under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. Elastic Search licenses this
+ * file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package org.elasticsearch.common.lucene.search;
+
+import org.apache.lucene.index.IndexReader;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.search.Collector;
+import org.apache.lucene.search.TermQuery;
+import org.apache.lucene.search.TopDocs;
+import org.apache.lucene.search.Weight;
+import org.apache.lucene.store.Directory;
+import org.apache.lucene.store.RAMDirectory;
+import org.elasticsearch.common.lucene.Lucene;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.elasticsearch.common.lucene.DocumentBuilder.*;
+import static org.hamcrest.MatcherAssert.*;
+import static org.hamcrest.Matchers.*;
+
+/**
+ * @author kimchy (shay.banon)
+ */
+public class ExtendedIndexSearcherTests {
+
+    @Test public void testSearchSlices() throws Exception {
+        Directory dir = new RAMDirectory();
+        IndexWriter indexWriter = new IndexWriter(dir, Lucene.STANDARD_ANALYZER, true, IndexWriter.MaxFieldLength.UNLIMITED);
+        indexWriter.setMergeFactor(1000);
+        for (int i = 0; i < 100; i++) {
+            StringBuilder text = new StringBuilder();
+            for (int j = 0; j <= i % 7; j++) {
+                text.append("lucene ");
+            }
+            indexWriter.addDocument(doc().add(field("_id", Integer.toString(i))).add(field("text", text.toString())).build());
+            if (i % 10 == 9) {
+                // force a new segment
+                indexWriter.commit();
+            }
+        }
+
+        IndexReader reader = indexWriter.getReader();
+        ExtendedIndexSearcher searcher = new ExtendedIndexSearcher(reader);
+        assertThat(searcher.subReaders().length, greaterThan(1));
+
+        ExecutorService executor = Executors.newFixedThreadPool(3);
+        try {
+            TermQuery query = new TermQuery(new Term("text", "lucene"));
+            TopDocs expected = searcher.search(query, 15);
+            for (int slices = 1; slices <= 12; slices++) {
+                TopDocs topDocs = searcher.search(query, 15, slices, executor);
+                assertThat(topDocs.totalHits, equalTo(expected.totalHits));
+                assertThat(topDocs.getMaxScore(), equalTo(expected.getMaxScore()));
+                assertThat(topDocs.scoreDocs.length, equalTo(expected.scoreDocs.length));
+                for (int i = 0; i < expected.scoreDocs.length; i++) {
+                    assertThat(topDocs.scoreDocs[i].doc, equalTo(expected.scoreDocs[i].doc));
+                    assertThat(topDocs.scoreDocs[i].score, equalTo(expected.scoreDocs[i].score));
+                }
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        reader.close();
+        indexWriter.close();
+    }
+
+    @Test public void testPartialSlicesReportedOnceOnCallingThread() throws Exception {
+        Directory dir = new RAMDirectory();
+        IndexWriter indexWriter = new IndexWriter(dir, Lucene.STANDARD_ANALYZER, true, IndexWriter.MaxFieldLength.UNLIMITED);
+        indexWriter.setMergeFactor(1000);
+        for (int i = 0; i < 100; i++) {
+            indexWriter.addDocument(doc().add(field("_id", Integer.toString(i))).add(field("text", "lucene")).build());
+            if (i % 10 == 9) {
+                // force a new segment
+                indexWriter.commit();
+            }
+        }
+
+        IndexReader reader = indexWriter.getReader();
+        final List<String> partialThreads = Collections.synchronizedList(new ArrayList<String>());
+        // every slice but the first (collected by the calling thread) stops before collecting anything
+        ExtendedIndexSearcher searcher = new ExtendedIndexSearcher(reader) {
+            @Override protected boolean searchSlice(Weight weight, int[] segments, Collector collector) throws IOException {
+                if (segments[0] != 0) {
+                    return false;
+                }
+                return super.searchSlice(weight, segments, collector);
+            }
+
+            @Override protected void partialSlices() {
+                partialThreads.add(Thread.currentThread().getName());
+            }
+        };
+
+        ExecutorService executor = Executors.newFixedThreadPool(3);
+        try {
+            TermQuery query = new TermQuery(new Term("text", "lucene"));
+            TopDocs topDocs = searcher.search(query, 100, 5, executor);
+            assertThat(topDocs.totalHits, greaterThan(0));
+            assertThat(topDocs.totalHits, lessThan(100));
+            assertThat(partialThreads.size(), equalTo(1));
+            assertThat(partialThreads.get(0), equalTo(Thread.currentThread().getName()));
+        } finally {
+            executor.shutdownNow();
+        }
+
+        reader.close();
+        indexWriter.close();
+    }
+}
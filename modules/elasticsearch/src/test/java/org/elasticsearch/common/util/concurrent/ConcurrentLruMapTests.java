@@ -0,0 +1,116 @@
+/*
+ * Licensed to Elastic Search and Shay Banon under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. Elastic Search licenses this
+ * file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package org.elasticsearch.common.util.concurrent;
+
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.hamcrest.MatcherAssert.*;
+import static org.hamcrest.Matchers.*;
+
+/**
+ * @author kimchy (shay.banon)
+ */
+public class ConcurrentLruMapTests {
+
+    private static final ConcurrentLruMap.Weigher<Long> WEIGHER = new ConcurrentLruMap.Weigher<Long>() {
+        @Override public long weigh(Long value) {
+            return value;
+        }
+    };
+
+    @Test public void testEvictLeastRecentlyUsed() {
+        final List<String> evicted = new ArrayList<String>();
+        ConcurrentLruMap<String, Long> map = new ConcurrentLruMap<String, Long>(10, WEIGHER, new ConcurrentLruMap.EvictionListener<String, Long>() {
+            @Override public void onEviction(String key, Long value, long weight) {
+                evicted.add(key);
+            }
+        });
+        assertThat(map.putIfAbsent("a", 4l), nullValue());
+        assertThat(map.putIfAbsent("b", 4l), nullValue());
+        assertThat(map.putIfAbsent("b", 3l), equalTo(4l));
+        assertThat(map.weightedSize(), equalTo(8l));
+
+        // access a, so b becomes the least recently used
+        assertThat(map.get("a"), equalTo(4l));
+        map.putIfAbsent("c", 4l);
+        assertThat(evicted.size(), equalTo(1));
+        assertThat(evicted.get(0), equalTo("b"));
+        assertThat(map.get("b"), nullValue());
+        assertThat(map.weightedSize(), equalTo(8l));
+
+        assertThat(map.remove("a"), equalTo(4l));
+        assertThat(map.weightedSize(), equalTo(4l));
+        assertThat(evicted.size(), equalTo(1));
+
+        // a value larger than the capacity evicts everything else, but is kept
+        map.putIfAbsent("d", 100l);
+        assertThat(evicted.size(), equalTo(2));
+        assertThat(map.get("d"), equalTo(100l));
+        assertThat(map.size(), equalTo(1));
+
+        map.clear();
+        assertThat(map.size(), equalTo(0));
+        assertThat(map.weightedSize(), equalTo(0l));
+    }
+
+    @Test public void testConcurrentAccess() throws Exception {
+        final ConcurrentLruMap<Integer, Long> map = new ConcurrentLruMap<Integer, Long>(1000, WEIGHER, null);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<?>> futures = new ArrayList<Future<?>>();
+            for (int i = 0; i < 8; i++) {
+                futures.add(executor.submit(new Runnable() {
+                    @Override public void run() {
+                        Random random = new Random();
+                        for (int j = 0; j < 100000; j++) {
+                            int key = random.nextInt(500);
+                            if (map.get(key) == null) {
+                                map.putIfAbsent(key, 10l);
+                            }
+                            if (random.nextInt(50) == 0) {
+                                map.remove(key);
+                            }
+                        }
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        // the size accounting matches what is left in the map, and stays within the capacity
+        long weightedSize = 0;
+        for (Integer key : map.keySet()) {
+            weightedSize += map.peek(key);
+        }
+        assertThat(map.weightedSize(), equalTo(weightedSize));
+        assertThat(map.weightedSize(), lessThanOrEqualTo(1000l));
+    }
+}
@@ -0,0 +1,265 @@
+/*
+ * Licensed to Elastic Search and Shay Banon under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. Elastic Search licenses this
+ * file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.elasticsearch.index.cache.field.data;
+
+import org.apache.lucene.index.IndexReader;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.store.Directory;
+import org.apache.lucene.store.RAMDirectory;
+import org.elasticsearch.cache.field.data.NodeFieldDataCache;
+import org.elasticsearch.common.lucene.Lucene;
+import org.elasticsearch.index.Index;
+import org.elasticsearch.index.cache.field.data.lru.LruFieldDataCache;
+import org.elasticsearch.index.field.data.FieldData;
+import org.elasticsearch.index.field.data.FieldDataType;
+import org.elasticsearch.threadpool.ThreadPool;
+import org.elasticsearch.threadpool.cached.CachedThreadPool;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.elasticsearch.common.lucene.DocumentBuilder.*;
+import static org.elasticsearch.common.settings.ImmutableSettings.*;
+import static org.hamcrest.MatcherAssert.*;
+import static org.hamcrest.Matchers.*;
+
+/**
+ * @author kimchy (shay.banon)
+ */
+public class LruFieldDataCacheTests {
+
+    private ThreadPool threadPool;
+
+    @BeforeClass public void createThreadPool() {
+        threadPool = new CachedThreadPool();
+    }
+
+    @AfterClass public void shutdownThreadPool() {
+        threadPool.shutdownNow();
+    }
+
+    @Test public void testHitsAndMisses() throws Exception {
+        Directory dir = new RAMDirectory();
+        IndexWriter indexWriter = createIndex(dir);
+        IndexReader reader = indexWriter.getReader();
+
+        LruFieldDataCache cache = new LruFieldDataCache(new Index("test"), EMPTY_SETTINGS, new NodeFieldDataCache(settingsBuilder().put("cache.field.data.max_size", "1mb").build(), threadPool));
+        FieldData fieldData = cache.cache(FieldDataType.DefaultTypes.STRING, reader, "svalue");
+        assertThat(cache.misses(), equalTo(1l));
+        assertThat(cache.hits(), equalTo(0l));
+        assertThat(cache.cache(FieldDataType.DefaultTypes.STRING, reader, "svalue"), sameInstance(fieldData));
+        assertThat(cache.misses(), equalTo(1l));
+        assertThat(cache.hits(), equalTo(1l));
+        assertThat(cache.sizeInBytes(), equalTo(fieldData.sizeInBytes()));
+        assertThat(cache.sizeInBytes("svalue"), equalTo(fieldData.sizeInBytes()));
+        assertThat(cache.evictions(), equalTo(0l));
+
+        cache.clear(reader);
+        assertThat(cache.sizeInBytes(), equalTo(0l));
+
+        reader.close();
+        indexWriter.close();
+    }
+
+    @Test public void testEvictLeastRecentlyUsed() throws Exception {
+        Directory dir = new RAMDirectory();
+        IndexWriter indexWriter = createIndex(dir);
+        IndexReader reader = indexWriter.getReader();
+
+        FieldData svalue = FieldData.load(FieldDataType.DefaultTypes.STRING, reader, "svalue");
+        FieldData mvalue = FieldData.load(FieldDataType.DefaultTypes.STRING, reader, "mvalue");
+
+        // room for both fields, but not for a third one
+        long maxSize = svalue.sizeInBytes() + mvalue.sizeInBytes();
+        LruFieldDataCache cache = new LruFieldDataCache(new Index("test"), EMPTY_SETTINGS, new NodeFieldDataCache(settingsBuilder().put("cache.field.data.max_size", maxSize + "b").build(), threadPool));
+
+        cache.cache(FieldDataType.DefaultTypes.STRING, reader, "svalue");
+        cache.cache(FieldDataType.DefaultTypes.STRING, reader, "mvalue");
+        assertThat(cache.evictions(), equalTo(0l));
+        assertThat(cache.sizeInBytes(), equalTo(maxSize));
+
+        // access svalue, so mvalue becomes the least recently used
+        cache.cache(FieldDataType.DefaultTypes.STRING, reader, "svalue");
+        cache.cache(FieldDataType.DefaultTypes.STRING, reader, "other");
+        assertThat(cache.evictions(), greaterThanOrEqualTo(1l));
+        assertThat(cache.sizeInBytes("mvalue"), equalTo(0l));
+        assertThat(cache.sizeInBytes(), lessThanOrEqualTo(maxSize));
+
+        long misses = cache.misses();
+        cache.cache(FieldDataType.DefaultTypes.STRING, reader, "mvalue");
+        assertThat(cache.misses(), equalTo(misses + 1));
+
+        cache.close();
+        reader.close();
+        indexWriter.close();
+    }
+
+    @Test public void testExpiredEvictedBySweep() throws Exception {
+        Directory dir = new RAMDirectory();
+        IndexWriter indexWriter = createIndex(dir);
+        IndexReader reader = indexWriter.getReader();
+
+        NodeFieldDataCache nodeFieldDataCache = new NodeFieldDataCache(settingsBuilder()
+                .put("cache.field.data.max_size", "1mb")
+                .put("cache.field.data.expire", "50ms")
+                .put("cache.field.data.expire_interval", "20ms").build(), threadPool);
+        LruFieldDataCache cache = new LruFieldDataCache(new Index("test"), EMPTY_SETTINGS, nodeFieldDataCache);
+
+        cache.cache(FieldDataType.DefaultTypes.STRING, reader, "svalue");
+        assertThat(cache.sizeInBytes(), greaterThan(0l));
+
+        // never accessed again, only the sweep can evict it
+        long start = System.currentTimeMillis();
+        while (cache.evictions() == 0 && System.currentTimeMillis() - start < 5000) {
+            Thread.sleep(10);
+        }
+        assertThat(cache.evictions(), equalTo(1l));
+        assertThat(cache.sizeInBytes(), equalTo(0l));
+        assertThat(nodeFieldDataCache.sizeInBytes(), equalTo(0l));
+
+        cache.close();
+        nodeFieldDataCache.close();
+        reader.close();
+        indexWriter.close();
+    }
+
+    @Test public void testSizeSharedAcrossIndices() throws Exception {
+        Directory dir = new RAMDirectory();
+        IndexWriter indexWriter = createIndex(dir);
+        IndexReader reader = indexWriter.getReader();
+
+        FieldData svalue = FieldData.load(FieldDataType.DefaultTypes.STRING, reader, "svalue");
+        FieldData mvalue = FieldData.load(FieldDataType.DefaultTypes.STRING, reader, "mvalue");
+
+        // room for both fields on the whole node, not for each index
+        long maxSize = svalue.sizeInBytes() + mvalue.sizeInBytes();
+        NodeFieldDataCache nodeFieldDataCache = new NodeFieldDataCache(settingsBuilder().put("cache.field.data.max_size", maxSize + "b").build(), threadPool);
+        LruFieldDataCache cache1 = new LruFieldDataCache(new Index("test1"), EMPTY_SETTINGS, nodeFieldDataCache);
+        LruFieldDataCache cache2 = new LruFieldDataCache(new Index("test2"), EMPTY_SETTINGS, nodeFieldDataCache);
+
+        cache1.cache(FieldDataType.DefaultTypes.STRING, reader, "svalue");
+        cache2.cache(FieldDataType.DefaultTypes.STRING, reader, "mvalue");
+        assertThat(nodeFieldDataCache.sizeInBytes(), equalTo(maxSize));
+        assertThat(cache1.sizeInBytes(), equalTo(svalue.sizeInBytes()));
+        assertThat(cache2.sizeInBytes(), equalTo(mvalue.sizeInBytes()));
+
+        // the second index loading another field evicts the least recently used entry, loaded by the first index
+        cache2.cache(FieldDataType.DefaultTypes.STRING, reader, "svalue");
+        assertThat(cache1.evictions(), equalTo(1l));
+        assertThat(cache1.sizeInBytes(), equalTo(0l));
+        assertThat(cache2.evictions(), equalTo(0l));
+        assertThat(nodeFieldDataCache.sizeInBytes(), equalTo(cache2.sizeInBytes()));
+        assertThat(nodeFieldDataCache.sizeInBytes(), lessThanOrEqualTo(maxSize));
+
+        cache2.clear(reader);
+        assertThat(cache2.sizeInBytes(), equalTo(0l));
+        assertThat(nodeFieldDataCache.sizeInBytes(), equalTo(0l));
+
+        reader.close();
+        indexWriter.close();
+    }
+
+    @Test public void testConcurrentLoads() throws Exception {
+        Directory dir = new RAMDirectory();
+        IndexWriter indexWriter = createIndex(dir);
+        final IndexReader reader = indexWriter.getReader();
+
+        final AtomicInteger svalueLoads = new AtomicInteger();
+        final CountDownLatch svalueLoading = new CountDownLatch(1);
+        final CountDownLatch releaseSvalue = new CountDownLatch(1);
+        final LruFieldDataCache cache = new LruFieldDataCache(new Index("test"), EMPTY_SETTINGS, new NodeFieldDataCache(settingsBuilder().put("cache.field.data.max_size", "1mb").build(), threadPool)) {
+            @Override protected FieldData load(FieldDataType type, IndexReader reader, String fieldName) throws IOException {
+                if (fieldName.equals("svalue")) {
+                    svalueLoads.incrementAndGet();
+                    svalueLoading.countDown();
+                    try {
+                        releaseSvalue.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                }
+                return super.load(type, reader, fieldName);
+            }
+        };
+
+        ExecutorService executor = Executors.newFixedThreadPool(5);
+        try {
+            List<Future<FieldData>> svalueFutures = new ArrayList<Future<FieldData>>();
+            for (int i = 0; i < 4; i++) {
+                svalueFutures.add(executor.submit(new Callable<FieldData>() {
+                    @Override public FieldData call() throws Exception {
+                        return cache.cache(FieldDataType.DefaultTypes.STRING, reader, "svalue");
+                    }
+                }));
+            }
+            assertThat(svalueLoading.await(10, TimeUnit.SECONDS), equalTo(true));
+
+            // another field of the same reader loads while svalue is still loading
+            Future<FieldData> mvalueFuture = executor.submit(new Callable<FieldData>() {
+                @Override public FieldData call() throws Exception {
+                    return cache.cache(FieldDataType.DefaultTypes.STRING, reader, "mvalue");
+                }
+            });
+            assertThat(mvalueFuture.get(10, TimeUnit.SECONDS), notNullValue());
+            for (Future<FieldData> svalueFuture : svalueFutures) {
+                assertThat(svalueFuture.isDone(), equalTo(false));
+            }
+
+            releaseSvalue.countDown();
+            FieldData svalue = svalueFutures.get(0).get(10, TimeUnit.SECONDS);
+            for (Future<FieldData> svalueFuture : svalueFutures) {
+                assertThat(svalueFuture.get(10, TimeUnit.SECONDS), sameInstance(svalue));
+            }
+            // the concurrent requests of svalue waited on the single load
+            assertThat(svalueLoads.get(), equalTo(1));
+            assertThat(cache.misses(), equalTo(2l));
+            assertThat(cache.hits(), equalTo(3l));
+        } finally {
+            releaseSvalue.countDown();
+            executor.shutdownNow();
+        }
+
+        cache.close();
+        reader.close();
+        indexWriter.close();
+    }
+
+    private IndexWriter createIndex(Directory dir) throws Exception {
+        IndexWriter indexWriter = new IndexWriter(dir, Lucene.STANDARD_ANALYZER, true, IndexWriter.MaxFieldLength.UNLIMITED);
+        for (int i = 0; i < 100; i++) {
+            indexWriter.addDocument(doc()
+                    .add(field("svalue", "s" + i))
+                    .add(field("mvalue", "m" + i + " m" + (i + 1)))
+                    .add(field("other", "o" + i)).build());
+        }
+        return indexWriter;
+    }
+}
@@ -25,17 +25,22 @@ import org.apache.lucene.index.Term;
 import org.apache.lucene.search.*;
 import org.apache.lucene.store.Directory;
 import org.apache.lucene.store.RAMDirectory;
+import org.elasticsearch.cache.filter.NodeFilterCache;
 import org.elasticsearch.common.lucene.Lucene;
+import org.elasticsearch.common.lucene.docset.DocSet;
 import org.elasticsearch.common.lucene.search.TermFilter;
 import org.elasticsearch.index.Index;
+import org.elasticsearch.index.cache.filter.lru.LruFilterCache;
 import org.elasticsearch.index.cache.filter.none.NoneFilterCache;
 import org.elasticsearch.index.cache.filter.soft.SoftFilterCache;
 import org.elasticsearch.index.cache.filter.weak.WeakFilterCache;
 import org.testng.annotations.Test;
 
 import java.io.IOException;
+import java.util.concurrent.atomic.AtomicLong;
 
 import static org.elasticsearch.common.lucene.DocumentBuilder.*;
+import static org.elasticsearch.common.settings.ImmutableSettings.*;
 import static org.elasticsearch.common.settings.ImmutableSettings.Builder.*;
 import static org.hamcrest.MatcherAssert.*;
 import static org.hamcrest.Matchers.*;
@@ -58,6 +63,148 @@ public class FilterCacheTests {
         verifyCache(new WeakFilterCache(new Index("test"), EMPTY_SETTINGS));
     }
 
+    @Test public void testLruCache() throws Exception {
+        verifyCache(new LruFilterCache(new Index("test"), EMPTY_SETTINGS, new NodeFilterCache(settingsBuilder().put("cache.filter.max_size", "1mb").build())));
+    }
+
+    @Test public void testLruCacheSharedAcrossIndices() throws Exception {
+        Directory dir = new RAMDirectory();
+        IndexWriter indexWriter = new IndexWriter(dir, Lucene.STANDARD_ANALYZER, true, IndexWriter.MaxFieldLength.UNLIMITED);
+        for (int i = 0; i < 1000; i++) {
+            indexWriter.addDocument(doc().add(field("id", Integer.toString(i))).add(field("even", i % 2 == 0 ? "true" : "false")).build());
+        }
+        IndexReader reader = indexWriter.getReader();
+        IndexSearcher searcher = new IndexSearcher(reader);
+
+        // each (dense) filter takes a bit set of 1000 docs (about 150 bytes), so the node cache can hold only two
+        NodeFilterCache nodeFilterCache = new NodeFilterCache(settingsBuilder().put("cache.filter.max_size", "400b").build());
+        LruFilterCache cache1 = new LruFilterCache(new Index("test1"), EMPTY_SETTINGS, nodeFilterCache);
+        LruFilterCache cache2 = new LruFilterCache(new Index("test2"), EMPTY_SETTINGS, nodeFilterCache);
+
+        Filter even1 = cache1.cache(new TermFilter(new Term("even", "true")));
+        assertThat(Lucene.count(searcher, new FilteredQuery(new MatchAllDocsQuery(), even1), -1), equalTo(500l));
+        assertThat(Lucene.count(searcher, new FilteredQuery(new MatchAllDocsQuery(), even1), -1), equalTo(500l));
+        assertThat(cache1.misses(), equalTo(1l));
+        assertThat(cache1.hits(), equalTo(1l));
+        assertThat(cache1.sizeInBytes(), greaterThan(100l));
+
+        Filter odd2 = cache2.cache(new TermFilter(new Term("even", "false")));
+        assertThat(Lucene.count(searcher, new FilteredQuery(new MatchAllDocsQuery(), odd2), -1), equalTo(500l));
+        assertThat(cache2.misses(), equalTo(1l));
+        assertThat(nodeFilterCache.sizeInBytes(), equalTo(cache1.sizeInBytes() + cache2.sizeInBytes()));
+
+        // a third entry evicts the least recently used one, cached by the first index
+        Filter odd1 = cache1.cache(new TermFilter(new Term("even", "false")));
+        assertThat(Lucene.count(searcher, new FilteredQuery(new MatchAllDocsQuery(), odd1), -1), equalTo(500l));
+        assertThat(cache1.evictions(), equalTo(1l));
+        assertThat(cache2.evictions(), equalTo(0l));
+        assertThat(nodeFilterCache.sizeInBytes(), equalTo(cache1.sizeInBytes() + cache2.sizeInBytes()));
+        assertThat(nodeFilterCache.sizeInBytes(), lessThanOrEqualTo(400l));
+
+        assertThat(Lucene.count(searcher, new FilteredQuery(new MatchAllDocsQuery(), even1), -1), equalTo(500l));
+        assertThat(cache1.misses(), equalTo(3l));
+
+        for (IndexReader segmentReader : reader.getSequentialSubReaders()) {
+            cache1.clear(segmentReader);
+        }
+        assertThat(cache1.sizeInBytes(), equalTo(0l));
+        assertThat(nodeFilterCache.sizeInBytes(), equalTo(cache2.sizeInBytes()));
+        cache2.clear();
+        assertThat(cache2.sizeInBytes(), equalTo(0l));
+        assertThat(nodeFilterCache.sizeInBytes(), equalTo(0l));
+
+        reader.close();
+        indexWriter.close();
+    }
+
+    @Test public void testNodeFilterCacheEvictsLeastRecentlyUsed() throws Exception {
+        NodeFilterCache nodeFilterCache = new NodeFilterCache(settingsBuilder().put("cache.filter.max_size", "300b").build());
+        RecordingOwner owner = new RecordingOwner();
+        Object readerKey = new Object();
+        Filter filter1 = new TermFilter(new Term("id", "1"));
+        Filter filter2 = new TermFilter(new Term("id", "2"));
+        Filter filter3 = new TermFilter(new Term("id", "3"));
+        Filter filter4 = new TermFilter(new Term("id", "4"));
+
+        DocSet docSet1 = new SizedDocSet(100);
+        assertThat(nodeFilterCache.put(owner, readerKey, filter1, docSet1), sameInstance(docSet1));
+        nodeFilterCache.put(owner, readerKey, filter2, new SizedDocSet(100));
+        nodeFilterCache.put(owner, readerKey, filter3, new SizedDocSet(100));
+        assertThat(owner.sizeInBytes.get(), equalTo(300l));
+
+        // caching the same filter again keeps the cached doc set, and does not change the size
+        assertThat(nodeFilterCache.put(owner, readerKey, filter1, new SizedDocSet(100)), sameInstance(docSet1));
+        assertThat(owner.sizeInBytes.get(), equalTo(300l));
+
+        // the first one was used last, so adding a fourth one evicts the second one
+        assertThat(nodeFilterCache.get(owner, readerKey, filter1), sameInstance(docSet1));
+        nodeFilterCache.put(owner, readerKey, filter4, new SizedDocSet(100));
+        assertThat(nodeFilterCache.get(owner, readerKey, filter2), nullValue());
+        assertThat(nodeFilterCache.get(owner, readerKey, filter1), sameInstance(docSet1));
+        assertThat(nodeFilterCache.get(owner, readerKey, filter3), notNullValue());
+        assertThat(nodeFilterCache.get(owner, readerKey, filter4), notNullValue());
+        assertThat(owner.evictions.get(), equalTo(1l));
+        assertThat(owner.sizeInBytes.get(), equalTo(300l));
+        assertThat(nodeFilterCache.sizeInBytes(), equalTo(300l));
+    }
+
+    @Test public void testNodeFilterCacheRejectsDocSetsLargerThanMaxSize() throws Exception {
+        NodeFilterCache nodeFilterCache = new NodeFilterCache(settingsBuilder().put("cache.filter.max_size", "300b").build());
+        RecordingOwner owner = new RecordingOwner();
+        Object readerKey = new Object();
+        Filter filter1 = new TermFilter(new Term("id", "1"));
+        Filter filter2 = new TermFilter(new Term("id", "2"));
+
+        nodeFilterCache.put(owner, readerKey, filter1, new SizedDocSet(100));
+        DocSet large = new SizedDocSet(400);
+        assertThat(nodeFilterCache.put(owner, readerKey, filter2, large), sameInstance(large));
+        assertThat(nodeFilterCache.get(owner, readerKey, filter2), nullValue());
+        // nothing was evicted to make room for it
+        assertThat(nodeFilterCache.get(owner, readerKey, filter1), notNullValue());
+        assertThat(owner.evictions.get(), equalTo(0l));
+        assertThat(owner.sizeInBytes.get(), equalTo(100l));
+        assertThat(nodeFilterCache.sizeInBytes(), equalTo(100l));
+    }
+
+    @Test public void testNodeFilterCacheClearReader() throws Exception {
+        NodeFilterCache nodeFilterCache = new NodeFilterCache(settingsBuilder().put("cache.filter.max_size", "1kb").build());
+        RecordingOwner owner1 = new RecordingOwner();
+        RecordingOwner owner2 = new RecordingOwner();
+        Object readerKey1 = new Object();
+        Object readerKey2 = new Object();
+        Filter filter1 = new TermFilter(new Term("id", "1"));
+        Filter filter2 = new TermFilter(new Term("id", "2"));
+
+        nodeFilterCache.put(owner1, readerKey1, filter1, new SizedDocSet(100));
+        nodeFilterCache.put(owner1, readerKey1, filter2, new SizedDocSet(50));
+        nodeFilterCache.put(owner1, readerKey2, filter1, new SizedDocSet(100));
+        nodeFilterCache.put(owner2, readerKey1, filter1, new SizedDocSet(100));
+        assertThat(owner1.sizeInBytes.get(), equalTo(250l));
+        assertThat(owner2.sizeInBytes.get(), equalTo(100l));
+
+        // only the entries of the owner for the reader are removed
+        nodeFilterCache.clear(owner1, readerKey1);
+        assertThat(nodeFilterCache.get(owner1, readerKey1, filter1), nullValue());
+        assertThat(nodeFilterCache.get(owner1, readerKey1, filter2), nullValue());
+        assertThat(nodeFilterCache.get(owner1, readerKey2, filter1), notNullValue());
+        assertThat(nodeFilterCache.get(owner2, readerKey1, filter1), notNullValue());
+        assertThat(owner1.sizeInBytes.get(), equalTo(100l));
+        assertThat(owner2.sizeInBytes.get(), equalTo(100l));
+        assertThat(nodeFilterCache.sizeInBytes(), equalTo(200l));
+
+        // clearing a reader again (or one with no entries) changes nothing
+        nodeFilterCache.clear(owner1, readerKey1);
+        nodeFilterCache.clear(owner2, readerKey2);
+        assertThat(owner1.sizeInBytes.get(), equalTo(100l));
+        assertThat(owner2.sizeInBytes.get(), equalTo(100l));
+
+        nodeFilterCache.clear(owner1);
+        assertThat(owner1.sizeInBytes.get(), equalTo(0l));
+        assertThat(nodeFilterCache.get(owner2, readerKey1, filter1), notNullValue());
+        assertThat(nodeFilterCache.sizeInBytes(), equalTo(100l));
+        assertThat(owner1.evictions.get(), equalTo(0l));
+    }
+
     private void verifyCache(FilterCache filterCache) throws Exception {
         Directory dir = new RAMDirectory();
         IndexWriter indexWriter = new IndexWriter(dir, Lucene.STANDARD_ANALYZER, true, IndexWriter.MaxFieldLength.UNLIMITED);
@@ -96,4 +243,49 @@ public class FilterCacheTests {
         }
         return reader;
     }
+
+    static class RecordingOwner implements NodeFilterCache.Owner {
+
+        final AtomicLong sizeInBytes = new AtomicLong();
+
+        final AtomicLong evictions = new AtomicLong();
+
+        @Override public void onCached(long sizeInBytes) {
+            this.sizeInBytes.addAndGet(sizeInBytes);
+        }
+
+        @Override public void onRemoved(long sizeInBytes) {
+            this.sizeInBytes.addAndGet(-sizeInBytes);
+        }
+
+        @Override public void onEviction(long sizeInBytes) {
+            this.sizeInBytes.addAndGet(-sizeInBytes);
+            evictions.incrementAndGet();
+        }
+    }
+
+    static class SizedDocSet extends DocSet {
+
+        private final long sizeInBytes;
+
+        SizedDocSet(long sizeInBytes) {
+            this.sizeInBytes = sizeInBytes;
+        }
+
+        @Override public boolean get(int doc) throws IOException {
+            return false;
+        }
+
+        @Override public DocIdSetIterator iterator() throws IOException {
+            return DocIdSet.EMPTY_DOCIDSET.iterator();
+        }
+
+        @Override public boolean isCacheable() {
+            return true;
+        }
+
+        @Override public long sizeInBytes() {
+            return sizeInBytes;
+        }
+    }
 }
@@ -0,0 +1,94 @@
+/*
+ * Licensed to Elastic Search and Shay Banon under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. Elastic Search licenses this
+ * file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package org.elasticsearch.index.cache.query.result;
+
+import org.elasticsearch.index.Index;
+import org.testng.annotations.Test;
+
+import static org.elasticsearch.common.settings.ImmutableSettings.*;
+import static org.hamcrest.MatcherAssert.*;
+import static org.hamcrest.Matchers.*;
+
+/**
+ * @author kimchy (shay.banon)
+ */
+public class QueryResultCacheTests {
+
+    @Test public void testHitsAndMisses() {
+        QueryResultCache cache = new QueryResultCache(new Index("test"), settingsBuilder().put("index.cache.query.result.enabled", true).put("index.cache.query.result.max_size", "1mb").build());
+        assertThat(cache.enabled(), equalTo(true));
+
+        assertThat(cache.get(0, 1, new byte[]{1, 2}), nullValue());
+        assertThat(cache.misses(), equalTo(1l));
+
+        byte[] result = new byte[]{5, 6, 7};
+        cache.put(0, 1, new byte[]{1, 2}, result);
+        assertThat(cache.get(0, 1, new byte[]{1, 2}), sameInstance(result));
+        assertThat(cache.hits(), equalTo(1l));
+        assertThat(cache.sizeInBytes(), equalTo(5l));
+
+        // same request on another shard or another reader version
+        assertThat(cache.get(1, 1, new byte[]{1, 2}), nullValue());
+        assertThat(cache.get(0, 2, new byte[]{1, 2}), nullValue());
+        assertThat(cache.misses(), equalTo(3l));
+
+        cache.clear(0);
+        assertThat(cache.get(0, 1, new byte[]{1, 2}), nullValue());
+        assertThat(cache.sizeInBytes(), equalTo(0l));
+    }
+
+    @Test public void testRefreshDropsOlderReaderResults() {
+        QueryResultCache cache = new QueryResultCache(new Index("test"), settingsBuilder().put("index.cache.query.result.enabled", true).put("index.cache.query.result.max_size", "1mb").build());
+
+        cache.put(0, 1, new byte[]{1}, new byte[]{1});
+        cache.put(1, 1, new byte[]{1}, new byte[]{1});
+        cache.put(0, 2, new byte[]{2}, new byte[]{2});
+
+        assertThat(cache.get(0, 1, new byte[]{1}), nullValue());
+        assertThat(cache.get(0, 2, new byte[]{2}), notNullValue());
+        assertThat(cache.get(1, 1, new byte[]{1}), notNullValue());
+        assertThat(cache.sizeInBytes(), equalTo(4l));
+
+        // a result executed against an older reader is not cached
+        cache.put(0, 1, new byte[]{3}, new byte[]{3});
+        assertThat(cache.get(0, 1, new byte[]{3}), nullValue());
+    }
+
+    @Test public void testEvictions() {
+        QueryResultCache cache = new QueryResultCache(new Index("test"), settingsBuilder().put("index.cache.query.result.enabled", true).put("index.cache.query.result.max_size", "10b").build());
+
+        cache.put(0, 1, new byte[]{1}, new byte[4]);
+        cache.put(0, 1, new byte[]{2}, new byte[4]);
+        assertThat(cache.get(0, 1, new byte[]{1}), notNullValue());
+        // evicts the least recently used entry (the second one)
+        cache.put(0, 1, new byte[]{3}, new byte[4]);
+        assertThat(cache.evictions(), equalTo(1l));
+        assertThat(cache.get(0, 1, new byte[]{2}), nullValue());
+        assertThat(cache.get(0, 1, new byte[]{1}), notNullValue());
+        assertThat(cache.get(0, 1, new byte[]{3}), notNullValue());
+        assertThat(cache.sizeInBytes(), equalTo(10l));
+
+        // larger than the cache, not cached at all
+        cache.put(0, 1, new byte[]{4}, new byte[20]);
+        assertThat(cache.get(0, 1, new byte[]{4}), nullValue());
+        assertThat(cache.evictions(), equalTo(1l));
+    }
+}
@@ -241,6 +241,37 @@ public abstract class AbstractSimpleEngineTests {
         engine.close();
     }
 
+    @Test public void testRealtimeGet() throws Exception {
+        // nothing was ever indexed, resolve it using the searcher
+        assertThat(engine.get(new Engine.Get(newUid("1"))), nullValue());
+
+        ParsedDocument doc = new ParsedDocument("1", "1", "test", null, doc().add(uidField("1")).add(field("value", "test")).build(), Lucene.STANDARD_ANALYZER, B_1, false);
+        engine.create(new Engine.Create(newUid("1"), doc));
+
+        // not refreshed, but the get is served from the translog
+        Engine.GetResult getResult = engine.get(new Engine.Get(newUid("1")));
+        assertThat(getResult.exists(), equalTo(true));
+        assertThat(getResult.version(), equalTo(1l));
+        assertThat(getResult.source(), equalTo(B_1));
+
+        doc = new ParsedDocument("1", "1", "test", null, doc().add(uidField("1")).add(field("value", "test1")).build(), Lucene.STANDARD_ANALYZER, B_2, false);
+        engine.index(new Engine.Index(newUid("1"), doc));
+
+        getResult = engine.get(new Engine.Get(newUid("1")));
+        assertThat(getResult.exists(), equalTo(true));
+        assertThat(getResult.version(), equalTo(2l));
+        assertThat(getResult.source(), equalTo(B_2));
+
+        engine.delete(new Engine.Delete("test", "1", newUid("1")));
+
+        getResult = engine.get(new Engine.Get(newUid("1")));
+        assertThat(getResult.exists(), equalTo(false));
+
+        // after a flush the version map is cleared, and the searcher has the latest state
+        engine.flush(new Engine.Flush());
+        assertThat(engine.get(new Engine.Get(newUid("1"))), nullValue());
+    }
+
     @Test public void testBulkOperations() throws Exception {
         Engine.Searcher searchResult = engine.searcher();
         assertThat(searchResult, engineSearcherTotalHits(0));
@@ -478,6 +509,59 @@ public abstract class AbstractSimpleEngineTests {
         assertThat(create.version(), equalTo(1l));
     }
 
+    @Test public void testVersioningNewCreateAutoGeneratedId() {
+        ParsedDocument doc = new ParsedDocument("1", "1", "test", null, doc().add(uidField("1")).build(), Lucene.STANDARD_ANALYZER, B_1, false);
+        Engine.Create create = new Engine.Create(newUid("1"), doc).autoGeneratedId(true);
+        engine.create(create);
+        assertThat(create.version(), equalTo(1l));
+
+        create = new Engine.Create(newUid("1"), doc).version(create.version()).autoGeneratedId(true).origin(REPLICA);
+        replicaEngine.create(create);
+        assertThat(create.version(), equalTo(1l));
+
+        // the version is still resolved for operations on the generated id before a refresh
+        Engine.Index index = new Engine.Index(newUid("1"), doc);
+        engine.index(index);
+        assertThat(index.version(), equalTo(2l));
+    }
+
+    @Test public void testRetryCreateAutoGeneratedIdAcrossFlush() {
+        ParsedDocument doc = new ParsedDocument("1", "1", "test", null, doc().add(uidField("1")).build(), Lucene.STANDARD_ANALYZER, B_1, false);
+        Engine.Create create = new Engine.Create(newUid("1"), doc).autoGeneratedId(true);
+        engine.create(create);
+        assertThat(create.version(), equalTo(1l));
+
+        Engine.Create replicaCreate = new Engine.Create(newUid("1"), doc).version(create.version()).autoGeneratedId(true).origin(REPLICA);
+        replicaEngine.create(replicaCreate);
+        assertThat(replicaCreate.version(), equalTo(1l));
+
+        // the flush clears the version map, so the retry can only find the doc in the index
+        engine.flush(new Engine.Flush());
+        replicaEngine.flush(new Engine.Flush());
+
+        create = new Engine.Create(newUid("1"), doc).autoGeneratedId(true).canHaveDuplicates(true);
+        engine.create(create);
+        assertThat(create.version(), equalTo(1l));
+
+        replicaCreate = new Engine.Create(newUid("1"), doc).version(create.version()).autoGeneratedId(true).canHaveDuplicates(true).origin(REPLICA);
+        try {
+            replicaEngine.create(replicaCreate);
+            assert false;
+        } catch (VersionConflictEngineException e) {
+            // already there, ignored by the replication action
+        }
+
+        engine.refresh(new Engine.Refresh(true));
+        Engine.Searcher searchResult = engine.searcher();
+        assertThat(searchResult, engineSearcherTotalHits(new TermQuery(newUid("1")), 1));
+        searchResult.release();
+
+        replicaEngine.refresh(new Engine.Refresh(true));
+        searchResult = replicaEngine.searcher();
+        assertThat(searchResult, engineSearcherTotalHits(new TermQuery(newUid("1")), 1));
+        searchResult.release();
+    }
+
     @Test public void testVersioningNewIndex() {
         ParsedDocument doc = new ParsedDocument("1", "1", "test", null, doc().add(uidField("1")).build(), Lucene.STANDARD_ANALYZER, B_1, false);
         Engine.Index index = new Engine.Index(newUid("1"), doc);
@@ -764,6 +848,64 @@ public abstract class AbstractSimpleEngineTests {
         }
     }
 
+    @Test public void testVersionLookupAcrossFlushedAndMergedSegments() {
+        for (int i = 0; i < 10; i++) {
+            String id = Integer.toString(i);
+            ParsedDocument doc = new ParsedDocument(id, id, "test", null, doc().add(uidField(id)).build(), Lucene.STANDARD_ANALYZER, B_1, false);
+            Engine.Index index = new Engine.Index(newUid(id), doc);
+            engine.index(index);
+            assertThat(index.version(), equalTo(1l));
+            if (i % 2 == 1) {
+                // a new segment every two docs, the flush clears the versions kept in memory
+                engine.flush(new Engine.Flush());
+            }
+        }
+
+        // the versions are now loaded from the flushed segments
+        for (int i = 0; i < 10; i++) {
+            String id = Integer.toString(i);
+            ParsedDocument doc = new ParsedDocument(id, id, "test", null, doc().add(uidField(id)).build(), Lucene.STANDARD_ANALYZER, B_2, false);
+            Engine.Index index = new Engine.Index(newUid(id), doc);
+            engine.index(index);
+            assertThat(index.version(), equalTo(2l));
+        }
+        engine.flush(new Engine.Flush());
+
+        // merge all the segments into one, and look the versions up in the merged segment
+        engine.optimize(new Engine.Optimize().maxNumSegments(1).waitForMerge(true));
+        engine.flush(new Engine.Flush());
+        for (int i = 0; i < 10; i++) {
+            String id = Integer.toString(i);
+            ParsedDocument doc = new ParsedDocument(id, id, "test", null, doc().add(uidField(id)).build(), Lucene.STANDARD_ANALYZER, B_3, false);
+            Engine.Index index = new Engine.Index(newUid(id), doc);
+            engine.index(index);
+            assertThat(index.version(), equalTo(3l));
+        }
+        engine.flush(new Engine.Flush());
+
+        // a doc that does not exist in any segment
+        ParsedDocument doc = new ParsedDocument("10", "10", "test", null, doc().add(uidField("10")).build(), Lucene.STANDARD_ANALYZER, B_1, false);
+        Engine.Create create = new Engine.Create(newUid("10"), doc);
+        engine.create(create);
+        assertThat(create.version(), equalTo(1l));
+
+        Engine.Delete delete = new Engine.Delete("test", "5", newUid("5")).version(2l);
+        try {
+            engine.delete(delete);
+            assert false;
+        } catch (VersionConflictEngineException e) {
+            // all is well
+        }
+        delete = new Engine.Delete("test", "5", newUid("5")).version(3l);
+        engine.delete(delete);
+        assertThat(delete.version(), equalTo(4l));
+
+        engine.refresh(new Engine.Refresh(true));
+        Engine.Searcher searchResult = engine.searcher();
+        assertThat(searchResult, engineSearcherTotalHits(10));
+        searchResult.release();
+    }
+
     protected Term newUid(String id) {
         return new Term("_uid", id);
     }
@@ -20,21 +20,38 @@
 package org.elasticsearch.index.engine.robin;
 
 import org.elasticsearch.index.analysis.AnalysisService;
+import org.elasticsearch.index.cache.bloom.simple.SimpleBloomCache;
 import org.elasticsearch.index.engine.AbstractSimpleEngineTests;
 import org.elasticsearch.index.engine.Engine;
 import org.elasticsearch.index.similarity.SimilarityService;
 import org.elasticsearch.index.store.Store;
 import org.elasticsearch.index.translog.Translog;
+import org.elasticsearch.threadpool.ThreadPool;
+import org.elasticsearch.threadpool.cached.CachedThreadPool;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
 
 import static org.elasticsearch.common.settings.ImmutableSettings.Builder.*;
+import static org.elasticsearch.common.settings.ImmutableSettings.*;
 
 /**
  * @author kimchy
  */
 public class SimpleRobinEngineTests extends AbstractSimpleEngineTests {
 
+    private ThreadPool threadPool;
+
+    @BeforeClass public void createThreadPool() {
+        threadPool = new CachedThreadPool();
+    }
+
+    @AfterClass public void shutdownThreadPool() {
+        threadPool.shutdownNow();
+    }
+
     protected Engine createEngine(Store store, Translog translog) {
-        return new RobinEngine(shardId, EMPTY_SETTINGS, store, createSnapshotDeletionPolicy(), translog, createMergePolicy(), createMergeScheduler(),
-                new AnalysisService(shardId.index()), new SimilarityService(shardId.index()));
+        // load the uid bloom filters when needed, so version lookups use them right away
+        return new RobinEngine(shardId, settingsBuilder().put("index.engine.robin.async_load_bloom", false).build(), store, createSnapshotDeletionPolicy(), translog, createMergePolicy(), createMergeScheduler(),
+                new AnalysisService(shardId.index()), new SimilarityService(shardId.index()), new SimpleBloomCache(shardId.index(), EMPTY_SETTINGS, threadPool));
     }
 }
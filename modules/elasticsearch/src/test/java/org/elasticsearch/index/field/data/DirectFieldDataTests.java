@@ -0,0 +1,117 @@
+/*
+ * Licensed to Elastic Search and Shay Banon under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. Elastic Search licenses this
+ * file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.elasticsearch.index.field.data;
+
+import org.apache.lucene.document.NumericField;
+import org.apache.lucene.index.IndexReader;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.store.Directory;
+import org.apache.lucene.store.RAMDirectory;
+import org.elasticsearch.common.lucene.DocumentBuilder;
+import org.elasticsearch.common.lucene.Lucene;
+import org.elasticsearch.index.field.data.doubles.DoubleFieldData;
+import org.elasticsearch.index.field.data.ints.IntFieldData;
+import org.elasticsearch.index.field.data.longs.LongFieldData;
+import org.elasticsearch.index.field.data.strings.StringFieldData;
+import org.testng.annotations.Test;
+
+import java.util.Random;
+
+import static org.elasticsearch.common.lucene.DocumentBuilder.*;
+import static org.hamcrest.MatcherAssert.*;
+import static org.hamcrest.Matchers.*;
+
+/**
+ * Field data loaded with its ordinals in direct buffers should be the same as field data loaded on the heap.
+ *
+ * @author kimchy (shay.banon)
+ */
+public class DirectFieldDataTests {
+
+    @Test public void testDirectSameAsHeap() throws Exception {
+        Directory dir = new RAMDirectory();
+        IndexWriter indexWriter = new IndexWriter(dir, Lucene.STANDARD_ANALYZER, true, IndexWriter.MaxFieldLength.UNLIMITED);
+        Random random = new Random();
+        for (int i = 0; i < 1000; i++) {
+            DocumentBuilder doc = doc();
+            // some docs have no value for the single valued fields
+            if (random.nextInt(10) != 0) {
+                doc.add(new NumericField("sint").setIntValue(random.nextInt(100)));
+                doc.add(new NumericField("slong").setLongValue(random.nextLong()));
+                doc.add(new NumericField("sdouble").setDoubleValue(random.nextDouble()));
+                doc.add(field("sstring", "value" + random.nextInt(500)));
+            }
+            int numValues = random.nextInt(4);
+            for (int j = 0; j < numValues; j++) {
+                doc.add(new NumericField("mint").setIntValue(random.nextInt(100)));
+                doc.add(new NumericField("mlong").setLongValue(random.nextLong()));
+                doc.add(new NumericField("mdouble").setDoubleValue(random.nextDouble()));
+                doc.add(field("mstring", "value" + random.nextInt(500)));
+            }
+            indexWriter.addDocument(doc.build());
+        }
+        IndexReader reader = indexWriter.getReader();
+
+        for (String fieldName : new String[]{"sint", "mint"}) {
+            IntFieldData heap = IntFieldData.load(reader, fieldName, false);
+            IntFieldData direct = IntFieldData.load(reader, fieldName, true);
+            assertThat(direct.multiValued(), equalTo(heap.multiValued()));
+            for (int docId = 0; docId < reader.maxDoc(); docId++) {
+                assertThat(direct.hasValue(docId), equalTo(heap.hasValue(docId)));
+                assertThat(direct.value(docId), equalTo(heap.value(docId)));
+                assertThat(direct.values(docId), equalTo(heap.values(docId)));
+                assertThat(direct.doubleValues(docId), equalTo(heap.doubleValues(docId)));
+            }
+        }
+        for (String fieldName : new String[]{"slong", "mlong"}) {
+            LongFieldData heap = LongFieldData.load(reader, fieldName, false);
+            LongFieldData direct = LongFieldData.load(reader, fieldName, true);
+            assertThat(direct.multiValued(), equalTo(heap.multiValued()));
+            for (int docId = 0; docId < reader.maxDoc(); docId++) {
+                assertThat(direct.hasValue(docId), equalTo(heap.hasValue(docId)));
+                assertThat(direct.value(docId), equalTo(heap.value(docId)));
+                assertThat(direct.values(docId), equalTo(heap.values(docId)));
+            }
+        }
+        for (String fieldName : new String[]{"sdouble", "mdouble"}) {
+            DoubleFieldData heap = DoubleFieldData.load(reader, fieldName, false);
+            DoubleFieldData direct = DoubleFieldData.load(reader, fieldName, true);
+            assertThat(direct.multiValued(), equalTo(heap.multiValued()));
+            for (int docId = 0; docId < reader.maxDoc(); docId++) {
+                assertThat(direct.hasValue(docId), equalTo(heap.hasValue(docId)));
+                assertThat(direct.value(docId), equalTo(heap.value(docId)));
+                assertThat(direct.values(docId), equalTo(heap.values(docId)));
+            }
+        }
+        for (String fieldName : new String[]{"sstring", "mstring"}) {
+            StringFieldData heap = StringFieldData.load(reader, fieldName, false);
+            StringFieldData direct = StringFieldData.load(reader, fieldName, true);
+            assertThat(direct.multiValued(), equalTo(heap.multiValued()));
+            for (int docId = 0; docId < reader.maxDoc(); docId++) {
+                assertThat(direct.hasValue(docId), equalTo(heap.hasValue(docId)));
+                assertThat(direct.value(docId), equalTo(heap.value(docId)));
+                assertThat(direct.values(docId), equalTo(heap.values(docId)));
+            }
+        }
+
+        reader.close();
+        indexWriter.close();
+    }
+}
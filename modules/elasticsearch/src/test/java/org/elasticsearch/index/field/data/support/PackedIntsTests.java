@@ -0,0 +1,76 @@
+/*
+ * Licensed to Elastic Search and Shay Banon under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. Elastic Search licenses this
+ * file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.elasticsearch.index.field.data.support;
+
+import org.testng.annotations.Test;
+
+import java.util.Random;
+
+import static org.hamcrest.MatcherAssert.*;
+import static org.hamcrest.Matchers.*;
+
+/**
+ * @author kimchy (shay.banon)
+ */
+public class PackedIntsTests {
+
+    @Test public void testBitsRequired() {
+        assertThat(PackedInts.bitsRequired(0), equalTo(1));
+        assertThat(PackedInts.bitsRequired(1), equalTo(1));
+        assertThat(PackedInts.bitsRequired(2), equalTo(2));
+        assertThat(PackedInts.bitsRequired(255), equalTo(8));
+        assertThat(PackedInts.bitsRequired(256), equalTo(9));
+        assertThat(PackedInts.bitsRequired(Integer.MAX_VALUE), equalTo(31));
+    }
+
+    @Test public void testSetAndGet() {
+        testSetAndGet(false);
+    }
+
+    @Test public void testDirectSetAndGet() {
+        testSetAndGet(true);
+    }
+
+    private void testSetAndGet(boolean direct) {
+        Random random = new Random();
+        for (int maxValue : new int[]{1, 3, 7, 100, 1000, 65536, 1 << 20, Integer.MAX_VALUE}) {
+            int[] values = new int[1000];
+            for (int i = 0; i < values.length; i++) {
+                values[i] = random.nextInt(maxValue) + (random.nextBoolean() ? 1 : 0);
+            }
+            values[values.length - 1] = maxValue;
+            PackedInts packed = PackedInts.pack(values, direct);
+            assertThat(packed.direct(), equalTo(direct));
+            assertThat(packed.size(), equalTo(values.length));
+            assertThat(packed.bitsPerValue(), equalTo(PackedInts.bitsRequired(maxValue)));
+            for (int i = 0; i < values.length; i++) {
+                assertThat(packed.get(i), equalTo(values[i]));
+            }
+            // overwrite in reverse order, making sure neighbours are not affected
+            for (int i = values.length - 1; i >= 0; i--) {
+                values[i] = maxValue - values[i];
+                packed.set(i, values[i]);
+            }
+            for (int i = 0; i < values.length; i++) {
+                assertThat(packed.get(i), equalTo(values[i]));
+            }
+        }
+    }
+}
@@ -0,0 +1,83 @@
+/*
+ * Licensed to Elastic Search and Shay Banon under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. Elastic Search licenses this
+ * file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.elasticsearch.index.translog.fs;
+
+import org.elasticsearch.common.io.FileSystemUtils;
+import org.elasticsearch.index.translog.AbstractSimpleTranslogTests;
+import org.elasticsearch.index.translog.Translog;
+import org.testng.annotations.AfterTest;
+import org.testng.annotations.Test;
+
+import java.io.File;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.elasticsearch.common.settings.ImmutableSettings.*;
+import static org.elasticsearch.index.translog.TranslogSizeMatcher.*;
+import static org.hamcrest.MatcherAssert.*;
+import static org.hamcrest.Matchers.*;
+
+/**
+ * @author kimchy (shay.banon)
+ */
+public class FsGroupCommitSimpleTranslogTests extends AbstractSimpleTranslogTests {
+
+    @Override protected Translog create() {
+        Translog translog = new FsTranslog(shardId, settingsBuilder().put("index.translog.fs.group_commit", true).build(), new File("work/fs-translog"), false);
+        translog.syncOnEachOperation(true);
+        return translog;
+    }
+
+    @AfterTest public void cleanup() {
+        FileSystemUtils.deleteRecursively(new File("work/fs-translog"), true);
+    }
+
+    @Test public void testConcurrentGroupCommit() throws Exception {
+        final int numberOfThreads = 10;
+        final int numberOfOperations = 100;
+        final CountDownLatch latch = new CountDownLatch(numberOfThreads);
+        final AtomicReference<Throwable> failure = new AtomicReference<Throwable>();
+        for (int i = 0; i < numberOfThreads; i++) {
+            final int threadId = i;
+            new Thread(new Runnable() {
+                @Override public void run() {
+                    try {
+                        for (int j = 0; j < numberOfOperations; j++) {
+                            translog.add(new Translog.Create("test", threadId + "_" + j, new byte[]{1}));
+                        }
+                    } catch (Throwable e) {
+                        failure.set(e);
+                    } finally {
+                        latch.countDown();
+                    }
+                }
+            }).start();
+        }
+        latch.await();
+        assertThat(failure.get(), nullValue());
+
+        Translog.Snapshot snapshot = translog.snapshot();
+        assertThat(snapshot, translogSize(numberOfThreads * numberOfOperations));
+        snapshot.release();
+
+        assertThat(translog.syncStats().syncedOperations(), equalTo((long) numberOfThreads * numberOfOperations));
+        assertThat(translog.syncStats().syncs(), lessThanOrEqualTo((long) numberOfThreads * numberOfOperations));
+    }
+}
@@ -0,0 +1,159 @@
+/*
+ * Licensed to Elastic Search and Shay Banon under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. Elastic Search licenses this
+ * file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package org.elasticsearch.index.warmer;
+
+import org.apache.lucene.index.IndexReader;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.store.Directory;
+import org.apache.lucene.store.RAMDirectory;
+import org.elasticsearch.common.lucene.Lucene;
+import org.elasticsearch.index.Index;
+import org.elasticsearch.index.analysis.AnalysisService;
+import org.elasticsearch.index.cache.bloom.none.NoneBloomCache;
+import org.elasticsearch.index.deletionpolicy.KeepOnlyLastDeletionPolicy;
+import org.elasticsearch.index.deletionpolicy.SnapshotDeletionPolicy;
+import org.elasticsearch.index.engine.Engine;
+import org.elasticsearch.index.engine.robin.RobinEngine;
+import org.elasticsearch.index.mapper.ParsedDocument;
+import org.elasticsearch.index.merge.policy.LogByteSizeMergePolicyProvider;
+import org.elasticsearch.index.merge.scheduler.SerialMergeSchedulerProvider;
+import org.elasticsearch.index.shard.ShardId;
+import org.elasticsearch.index.similarity.SimilarityService;
+import org.elasticsearch.index.store.Store;
+import org.elasticsearch.index.store.ram.RamStore;
+import org.elasticsearch.index.translog.fs.FsTranslog;
+import org.testng.annotations.Test;
+
+import java.io.File;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+
+import static org.elasticsearch.common.lucene.DocumentBuilder.*;
+import static org.elasticsearch.common.settings.ImmutableSettings.Builder.*;
+import static org.hamcrest.MatcherAssert.*;
+import static org.hamcrest.Matchers.*;
+
+/**
+ * @author kimchy (shay.banon)
+ */
+public class IndexWarmerTests {
+
+    @Test public void testOnlyNewSegmentsAreWarmed() throws Exception {
+        Directory dir = new RAMDirectory();
+        IndexWriter indexWriter = new IndexWriter(dir, Lucene.STANDARD_ANALYZER, true, IndexWriter.MaxFieldLength.UNLIMITED);
+        indexWriter.setMergeFactor(1000);
+        indexWriter.addDocument(doc().add(field("_id", "1")).build());
+        indexWriter.commit();
+        IndexReader reader1 = indexWriter.getReader();
+        assertThat(IndexWarmer.newSegments(reader1, null).size(), equalTo(1));
+
+        indexWriter.addDocument(doc().add(field("_id", "2")).build());
+        indexWriter.commit();
+        IndexReader reader2 = indexWriter.getReader();
+        List<IndexReader> newSegments = IndexWarmer.newSegments(reader2, reader1);
+        assertThat(newSegments.size(), equalTo(1));
+        assertThat(newSegments.get(0).maxDoc(), equalTo(1));
+        assertThat(IndexWarmer.newSegments(reader2, reader2).size(), equalTo(0));
+
+        // reopen with a new writer (what a full flush does), all the segments are new to the caches and are warmed again
+        indexWriter.close();
+        indexWriter = new IndexWriter(dir, Lucene.STANDARD_ANALYZER, false, IndexWriter.MaxFieldLength.UNLIMITED);
+        indexWriter.setMergeFactor(1000);
+        IndexReader reader3 = indexWriter.getReader();
+        assertThat(reader3.getSequentialSubReaders().length, equalTo(2));
+        assertThat(reader3.getSequentialSubReaders()[0].getFieldCacheKey(), not(sameInstance(reader2.getSequentialSubReaders()[0].getFieldCacheKey())));
+        assertThat(IndexWarmer.newSegments(reader3, reader2).size(), equalTo(2));
+
+        indexWriter.addDocument(doc().add(field("_id", "3")).build());
+        IndexReader reader4 = indexWriter.getReader();
+        assertThat(IndexWarmer.newSegments(reader4, reader2).size(), equalTo(3));
+        assertThat(IndexWarmer.newSegments(reader4, reader3).size(), equalTo(1));
+
+        reader1.close();
+        reader2.close();
+        reader3.close();
+        reader4.close();
+        indexWriter.close();
+    }
+
+    @Test public void testSegmentsWarmedBeforeExposedByFullFlush() throws Exception {
+        ShardId shardId = new ShardId(new Index("index"), 1);
+        Store store = new RamStore(shardId, EMPTY_SETTINGS, null);
+        store.deleteContent();
+        RobinEngine engine = new RobinEngine(shardId, EMPTY_SETTINGS, store, new SnapshotDeletionPolicy(new KeepOnlyLastDeletionPolicy(shardId, EMPTY_SETTINGS)),
+                new FsTranslog(shardId, EMPTY_SETTINGS, new File("work/fs-translog/warmer"), false), new LogByteSizeMergePolicyProvider(store),
+                new SerialMergeSchedulerProvider(shardId, EMPTY_SETTINGS), new AnalysisService(shardId.index()), new SimilarityService(shardId.index()),
+                new NoneBloomCache(shardId.index(), EMPTY_SETTINGS));
+        RecordingIndexWarmer warmer = new RecordingIndexWarmer(shardId.index());
+        engine.setIndexWarmer(warmer);
+        engine.start();
+        try {
+            for (int i = 0; i < 3; i++) {
+                String id = Integer.toString(i);
+                ParsedDocument doc = new ParsedDocument(id, id, "test", null, doc().add(uidField(id)).add(field("value", "test")).build(), Lucene.STANDARD_ANALYZER, new byte[]{1}, false);
+                engine.create(new Engine.Create(new Term("_uid", id), doc));
+                engine.flush(new Engine.Flush());
+            }
+            assertWarmed(engine, warmer);
+
+            // the new writer reopens every segment with a new core, they are warmed before searches can use them
+            engine.flush(new Engine.Flush().full(true));
+            assertWarmed(engine, warmer);
+        } finally {
+            engine.close();
+            store.close();
+        }
+    }
+
+    private void assertWarmed(Engine engine, RecordingIndexWarmer warmer) {
+        Engine.Searcher searcher = engine.searcher();
+        try {
+            IndexReader[] subReaders = searcher.reader().getSequentialSubReaders();
+            assertThat(subReaders.length, greaterThan(0));
+            for (IndexReader subReader : subReaders) {
+                assertThat(warmer.warmedKeys.contains(subReader.getFieldCacheKey()), equalTo(true));
+            }
+        } finally {
+            searcher.release();
+        }
+    }
+
+    /**
+     * Records the segments it is asked to warm, standing in for the caches the warmer populates.
+     */
+    private static class RecordingIndexWarmer extends IndexWarmer {
+
+        final Set<Object> warmedKeys = Collections.newSetFromMap(new IdentityHashMap<Object, Boolean>());
+
+        RecordingIndexWarmer(Index index) {
+            super(index, EMPTY_SETTINGS, null, null, null);
+        }
+
+        @Override public synchronized void warm(ShardId shardId, IndexReader newReader, IndexReader previousReader) {
+            for (IndexReader segmentReader : newSegments(newReader, previousReader)) {
+                warmedKeys.add(segmentReader.getFieldCacheKey());
+            }
+        }
+    }
+}
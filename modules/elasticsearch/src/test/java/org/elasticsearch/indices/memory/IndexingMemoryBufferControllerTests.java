@@ -0,0 +1,208 @@
+/*
+ * Licensed to Elastic Search and Shay Banon under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. Elastic Search licenses this
+ * file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package org.elasticsearch.indices.memory;
+
+import org.elasticsearch.common.collect.Iterators;
+import org.elasticsearch.common.settings.Settings;
+import org.elasticsearch.common.unit.ByteSizeUnit;
+import org.elasticsearch.common.unit.ByteSizeValue;
+import org.elasticsearch.index.Index;
+import org.elasticsearch.index.engine.Engine;
+import org.elasticsearch.index.service.IndexService;
+import org.elasticsearch.index.shard.ShardId;
+import org.elasticsearch.index.shard.service.IndexShard;
+import org.elasticsearch.index.shard.service.InternalIndexShard;
+import org.elasticsearch.index.translog.Translog;
+import org.elasticsearch.indices.IndicesService;
+import org.elasticsearch.indices.InternalIndicesLifecycle;
+import org.elasticsearch.threadpool.ThreadPool;
+import org.elasticsearch.threadpool.cached.CachedThreadPool;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.elasticsearch.common.settings.ImmutableSettings.Builder.*;
+import static org.elasticsearch.common.settings.ImmutableSettings.*;
+import static org.hamcrest.MatcherAssert.*;
+import static org.hamcrest.Matchers.*;
+
+/**
+ * @author kimchy (shay.banon)
+ */
+public class IndexingMemoryBufferControllerTests {
+
+    private static final ByteSizeValue HALF_BUFFER = new ByteSizeValue(50, ByteSizeUnit.MB);
+
+    private static final ByteSizeValue FULL_BUFFER = new ByteSizeValue(100, ByteSizeUnit.MB);
+
+    private static final ByteSizeValue INACTIVE_BUFFER = new ByteSizeValue(500, ByteSizeUnit.KB);
+
+    private ThreadPool threadPool;
+
+    private InternalIndicesLifecycle indicesLifecycle;
+
+    private ShardStub activeShard;
+
+    private ShardStub idleShard;
+
+    private IndexingMemoryBufferController controller;
+
+    @BeforeMethod public void setUp() {
+        threadPool = new CachedThreadPool();
+        indicesLifecycle = new InternalIndicesLifecycle(EMPTY_SETTINGS);
+        activeShard = new ShardStub(new ShardId(new Index("index"), 0));
+        idleShard = new ShardStub(new ShardId(new Index("index"), 1));
+
+        Settings settings = settingsBuilder()
+                .put("indices.memory.index_buffer_size", "100mb")
+                .put("indices.memory.interval", "20ms")
+                .put("indices.memory.shard_inactive_time", "200ms")
+                .build();
+        controller = new IndexingMemoryBufferController(settings, threadPool, indicesService(activeShard.shard, idleShard.shard));
+        controller.start();
+    }
+
+    @AfterMethod public void tearDown() {
+        controller.stop();
+        controller.close();
+        threadPool.shutdownNow();
+    }
+
+    @Test public void testInactiveShardBufferGoesToActiveShards() throws Exception {
+        awaitBufferSizes(HALF_BUFFER, HALF_BUFFER, activeShard);
+
+        // only the active shard keeps indexing, the idle one shrinks and its share goes to the active one
+        awaitBufferSizes(FULL_BUFFER, INACTIVE_BUFFER, activeShard);
+    }
+
+    @Test public void testReactivatedShardGetsBufferBack() throws Exception {
+        awaitBufferSizes(FULL_BUFFER, INACTIVE_BUFFER, activeShard);
+
+        // indexing into the idle shard again marks it as active, and the buffer is split again
+        awaitBufferSizes(HALF_BUFFER, HALF_BUFFER, activeShard, idleShard);
+    }
+
+    @Test public void testInactiveShardFlushedOnCachedThreadPool() throws Exception {
+        awaitBufferSizes(FULL_BUFFER, INACTIVE_BUFFER, activeShard);
+
+        long start = System.currentTimeMillis();
+        while (idleShard.flushThreads.isEmpty() && System.currentTimeMillis() - start < 10000) {
+            Thread.sleep(10);
+        }
+        assertThat(idleShard.flushThreads.size(), equalTo(1));
+        String flushThread = idleShard.flushThreads.get(0);
+        assertThat(flushThread + " is a cached thread", flushThread.contains("[tp]"), equalTo(true));
+        assertThat(flushThread + " is not a scheduler thread", flushThread.contains("[sc]"), equalTo(false));
+        assertThat(activeShard.flushThreads.isEmpty(), equalTo(true));
+    }
+
+    /**
+     * Waits for the shards to be set with the expected buffer sizes, indexing into the provided shards meanwhile.
+     */
+    private void awaitBufferSizes(ByteSizeValue activeShardSize, ByteSizeValue idleShardSize, ShardStub... indexing) throws InterruptedException {
+        long start = System.currentTimeMillis();
+        while (System.currentTimeMillis() - start < 10000) {
+            if (bytes(activeShard.bufferSize) == activeShardSize.bytes() && bytes(idleShard.bufferSize) == idleShardSize.bytes()) {
+                break;
+            }
+            for (ShardStub shard : indexing) {
+                shard.translogSize++;
+            }
+            Thread.sleep(5);
+        }
+        assertThat(bytes(activeShard.bufferSize), equalTo(activeShardSize.bytes()));
+        assertThat(bytes(idleShard.bufferSize), equalTo(idleShardSize.bytes()));
+    }
+
+    private static long bytes(ByteSizeValue value) {
+        return value == null ? -1 : value.bytes();
+    }
+
+    private IndicesService indicesService(final IndexShard... shards) {
+        final IndexService indexService = (IndexService) Proxy.newProxyInstance(getClass().getClassLoader(), new Class[]{IndexService.class}, new InvocationHandler() {
+            @Override public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+                if (method.getName().equals("iterator")) {
+                    return Iterators.forArray(shards);
+                }
+                return null;
+            }
+        });
+        return (IndicesService) Proxy.newProxyInstance(getClass().getClassLoader(), new Class[]{IndicesService.class}, new InvocationHandler() {
+            @Override public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+                if (method.getName().equals("iterator")) {
+                    return Iterators.singletonIterator(indexService);
+                }
+                if (method.getName().equals("indicesLifecycle")) {
+                    return indicesLifecycle;
+                }
+                return null;
+            }
+        });
+    }
+
+    /**
+     * A started shard whose engine records the indexing buffer size it was set with and the threads it was
+     * flushed on, and whose translog size is bumped by the test to simulate indexing.
+     */
+    private class ShardStub {
+
+        final InternalIndexShard shard;
+
+        volatile ByteSizeValue bufferSize;
+
+        volatile int translogSize;
+
+        final List<String> flushThreads = Collections.synchronizedList(new ArrayList<String>());
+
+        ShardStub(ShardId shardId) {
+            Engine engine = (Engine) Proxy.newProxyInstance(getClass().getClassLoader(), new Class[]{Engine.class}, new InvocationHandler() {
+                @Override public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+                    if (method.getName().equals("updateIndexingBufferSize")) {
+                        bufferSize = (ByteSizeValue) args[0];
+                    } else if (method.getName().equals("flush")) {
+                        flushThreads.add(Thread.currentThread().getName());
+                    }
+                    return null;
+                }
+            });
+            Translog translog = (Translog) Proxy.newProxyInstance(getClass().getClassLoader(), new Class[]{Translog.class}, new InvocationHandler() {
+                @Override public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+                    if (method.getName().equals("currentId")) {
+                        return 1l;
+                    }
+                    if (method.getName().equals("size")) {
+                        return translogSize;
+                    }
+                    return null;
+                }
+            });
+            shard = new InternalIndexShard(shardId, EMPTY_SETTINGS, indicesLifecycle, null, engine, translog, threadPool, null, null, null);
+            shard.start("test");
+        }
+    }
+}
@@ -0,0 +1,206 @@
+/*
+ * Licensed to Elastic Search and Shay Banon under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. Elastic Search licenses this
+ * file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package org.elasticsearch.search.controller;
+
+import org.apache.lucene.search.ScoreDoc;
+import org.apache.lucene.search.TopDocs;
+import org.elasticsearch.common.collect.ImmutableSet;
+import org.elasticsearch.search.SearchShardTarget;
+import org.elasticsearch.search.facet.Facet;
+import org.elasticsearch.search.facet.FacetProcessor;
+import org.elasticsearch.search.facet.FacetProcessors;
+import org.elasticsearch.search.facet.InternalFacets;
+import org.elasticsearch.search.facet.statistical.InternalStatisticalFacet;
+import org.elasticsearch.search.facet.statistical.StatisticalFacet;
+import org.elasticsearch.search.facet.statistical.StatisticalFacetProcessor;
+import org.elasticsearch.search.facet.terms.TermsFacet;
+import org.elasticsearch.search.facet.terms.TermsFacetProcessor;
+import org.elasticsearch.search.facet.terms.strings.InternalStringTermsFacet;
+import org.elasticsearch.search.query.QuerySearchResult;
+import org.elasticsearch.search.query.QuerySearchResultProvider;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.elasticsearch.common.settings.ImmutableSettings.*;
+import static org.hamcrest.MatcherAssert.*;
+import static org.hamcrest.Matchers.*;
+
+/**
+ * @author kimchy (shay.banon)
+ */
+public class IncrementalQueryReducerTests {
+
+    @Test public void testSameTopDocsAsFullReduce() {
+        SearchPhaseController controller = new SearchPhaseController(settingsBuilder().put("search.controller.reduce_batch_size", 7).build(), new FacetProcessors(new HashSet<FacetProcessor>()));
+
+        Random random = new Random();
+        Map<SearchShardTarget, QuerySearchResultProvider> allResults = new HashMap<SearchShardTarget, QuerySearchResultProvider>();
+        Map<SearchShardTarget, QuerySearchResultProvider> reducedResults = new HashMap<SearchShardTarget, QuerySearchResultProvider>();
+        IncrementalQueryReducer reducer = controller.incrementalReducer(reducedResults);
+
+        int numberOfShards = 50;
+        for (int shardId = 0; shardId < numberOfShards; shardId++) {
+            SearchShardTarget shardTarget = new SearchShardTarget("node", "test", shardId);
+            ScoreDoc[] scoreDocs = new ScoreDoc[10];
+            float score = random.nextFloat() * 10;
+            for (int i = 0; i < scoreDocs.length; i++) {
+                scoreDocs[i] = new ScoreDoc(shardId * 100 + i, score);
+                score -= random.nextFloat();
+            }
+            QuerySearchResult result = new QuerySearchResult(shardId, shardTarget);
+            result.from(0).size(10);
+            result.topDocs(new TopDocs(1000, scoreDocs, scoreDocs[0].score));
+            allResults.put(shardTarget, result);
+            reducer.add(result);
+        }
+
+        assertThat(reducedResults.size(), equalTo(numberOfShards));
+        int reducedDocs = 0;
+        for (QuerySearchResultProvider result : reducedResults.values()) {
+            assertThat(result.queryResult().topDocs().totalHits, equalTo(1000));
+            reducedDocs += result.queryResult().topDocs().scoreDocs.length;
+        }
+        assertThat(reducedDocs, lessThan(numberOfShards * 10));
+
+        ShardDoc[] expected = controller.sortDocs(allResults.values());
+        ShardDoc[] actual = controller.sortDocs(reducedResults.values());
+        assertThat(actual.length, equalTo(expected.length));
+        for (int i = 0; i < expected.length; i++) {
+            assertThat(actual[i].shardTarget(), equalTo(expected[i].shardTarget()));
+            assertThat(actual[i].docId(), equalTo(expected[i].docId()));
+        }
+    }
+
+    @Test public void testSameTermsFacetAsFullReduce() {
+        SearchPhaseController controller = new SearchPhaseController(settingsBuilder().put("search.controller.reduce_batch_size", 7).build(),
+                new FacetProcessors(ImmutableSet.<FacetProcessor>of(new TermsFacetProcessor(EMPTY_SETTINGS))));
+
+        Random random = new Random(1);
+        Map<SearchShardTarget, QuerySearchResultProvider> allResults = new HashMap<SearchShardTarget, QuerySearchResultProvider>();
+        Map<SearchShardTarget, QuerySearchResultProvider> reducedResults = new HashMap<SearchShardTarget, QuerySearchResultProvider>();
+        IncrementalQueryReducer reducer = controller.incrementalReducer(reducedResults);
+
+        int numberOfShards = 50;
+        for (int shardId = 0; shardId < numberOfShards; shardId++) {
+            SearchShardTarget shardTarget = new SearchShardTarget("node", "test", shardId);
+            // each shard only returns its top terms, so reducing in batches drops terms that only make it to the top overall
+            List<InternalStringTermsFacet.StringEntry> entries = new ArrayList<InternalStringTermsFacet.StringEntry>();
+            for (int term = 0; term < 20; term++) {
+                entries.add(new InternalStringTermsFacet.StringEntry("term" + term, random.nextInt(100)));
+            }
+            // reducing facets changes them in place, so each map gets its own copy
+            allResults.put(shardTarget, termsResult(shardId, shardTarget, entries));
+            reducer.add(termsResult(shardId, shardTarget, entries));
+        }
+        assertThat(reducedResults.size(), equalTo(numberOfShards));
+
+        TermsFacet expected = (TermsFacet) controller.reduceFacets(allResults.values()).facet("facet1");
+        TermsFacet actual = (TermsFacet) reducer.facets().facet("facet1");
+        assertThat(actual.entries().size(), equalTo(expected.entries().size()));
+        for (int i = 0; i < expected.entries().size(); i++) {
+            assertThat(actual.entries().get(i).term(), equalTo(expected.entries().get(i).term()));
+            assertThat(actual.entries().get(i).count(), equalTo(expected.entries().get(i).count()));
+        }
+    }
+
+    @Test public void testStatisticalFacetReducedPerBatch() {
+        SearchPhaseController controller = new SearchPhaseController(settingsBuilder().put("search.controller.reduce_batch_size", 7).build(),
+                new FacetProcessors(ImmutableSet.<FacetProcessor>of(new TermsFacetProcessor(EMPTY_SETTINGS), new StatisticalFacetProcessor(EMPTY_SETTINGS))));
+
+        Random random = new Random(1);
+        Map<SearchShardTarget, QuerySearchResultProvider> allResults = new HashMap<SearchShardTarget, QuerySearchResultProvider>();
+        Map<SearchShardTarget, QuerySearchResultProvider> reducedResults = new HashMap<SearchShardTarget, QuerySearchResultProvider>();
+        IncrementalQueryReducer reducer = controller.incrementalReducer(reducedResults);
+
+        int numberOfShards = 50;
+        for (int shardId = 0; shardId < numberOfShards; shardId++) {
+            SearchShardTarget shardTarget = new SearchShardTarget("node", "test", shardId);
+            List<InternalStringTermsFacet.StringEntry> entries = new ArrayList<InternalStringTermsFacet.StringEntry>();
+            for (int term = 0; term < 20; term++) {
+                entries.add(new InternalStringTermsFacet.StringEntry("term" + term, random.nextInt(100)));
+            }
+            // whole values, so the totals do not depend on the order they are summed in
+            double min = random.nextInt(100);
+            double max = min + random.nextInt(100);
+            double total = min + max + random.nextInt(1000);
+            long count = 2 + random.nextInt(100);
+
+            QuerySearchResult result = termsResult(shardId, shardTarget, entries);
+            result.facets().facets().add(new InternalStatisticalFacet("facet2", "field", min, max, total, total * 2, count));
+            allResults.put(shardTarget, result);
+
+            result = termsResult(shardId, shardTarget, entries);
+            result.facets().facets().add(new InternalStatisticalFacet("facet2", "field", min, max, total, total * 2, count));
+            reducer.add(result);
+        }
+        assertThat(reducedResults.size(), equalTo(numberOfShards));
+
+        // the statistical facet was reduced with its batch, only the terms facet is left on the reduced results
+        int reducedWithoutStatistical = 0;
+        for (QuerySearchResultProvider result : reducedResults.values()) {
+            if (!result.queryResult().facets().facetsAsMap().containsKey("facet2")) {
+                assertThat(result.queryResult().facets().facetsAsMap().containsKey("facet1"), equalTo(true));
+                reducedWithoutStatistical++;
+            }
+        }
+        assertThat(reducedWithoutStatistical, equalTo(numberOfShards - (numberOfShards % 7)));
+
+        InternalFacets expectedFacets = controller.reduceFacets(allResults.values());
+        InternalFacets actualFacets = reducer.facets();
+        assertThat(actualFacets.facets().size(), equalTo(2));
+        assertThat(actualFacets.facets().get(0).name(), equalTo("facet1"));
+        assertThat(actualFacets.facets().get(1).name(), equalTo("facet2"));
+
+        StatisticalFacet expected = (StatisticalFacet) expectedFacets.facet("facet2");
+        StatisticalFacet actual = (StatisticalFacet) actualFacets.facet("facet2");
+        assertThat(actual.count(), equalTo(expected.count()));
+        assertThat(actual.total(), equalTo(expected.total()));
+        assertThat(actual.sumOfSquares(), equalTo(expected.sumOfSquares()));
+        assertThat(actual.min(), equalTo(expected.min()));
+        assertThat(actual.max(), equalTo(expected.max()));
+
+        TermsFacet expectedTerms = (TermsFacet) expectedFacets.facet("facet1");
+        TermsFacet actualTerms = (TermsFacet) actualFacets.facet("facet1");
+        assertThat(actualTerms.entries().size(), equalTo(expectedTerms.entries().size()));
+        for (int i = 0; i < expectedTerms.entries().size(); i++) {
+            assertThat(actualTerms.entries().get(i).term(), equalTo(expectedTerms.entries().get(i).term()));
+            assertThat(actualTerms.entries().get(i).count(), equalTo(expectedTerms.entries().get(i).count()));
+        }
+    }
+
+    private static QuerySearchResult termsResult(int shardId, SearchShardTarget shardTarget, List<InternalStringTermsFacet.StringEntry> entries) {
+        QuerySearchResult result = new QuerySearchResult(shardId, shardTarget);
+        result.from(0).size(10);
+        result.topDocs(new TopDocs(0, new ScoreDoc[0], Float.NaN));
+        InternalStringTermsFacet facet = new InternalStringTermsFacet("facet1", "field", TermsFacet.ComparatorType.COUNT, 5,
+                new ArrayList<InternalStringTermsFacet.StringEntry>(entries));
+        List<Facet> facets = new ArrayList<Facet>();
+        facets.add(facet);
+        result.facets(new InternalFacets(facets));
+        return result;
+    }
+}
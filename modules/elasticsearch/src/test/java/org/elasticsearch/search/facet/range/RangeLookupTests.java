@@ -0,0 +1,90 @@
+/*
+ * Licensed to Elastic Search and Shay Banon under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. Elastic Search licenses this
+ * file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package org.elasticsearch.search.facet.range;
+
+import org.testng.annotations.Test;
+
+import java.util.Random;
+
+import static org.hamcrest.MatcherAssert.*;
+import static org.hamcrest.Matchers.*;
+
+/**
+ * @author kimchy (shay.banon)
+ */
+public class RangeLookupTests {
+
+    @Test public void testAdjacentRanges() {
+        RangeLookup lookup = new RangeLookup(
+                new double[]{Double.NEGATIVE_INFINITY, 10, 20},
+                new double[]{10, 20, Double.POSITIVE_INFINITY});
+        assertThat(lookup.find(Double.NEGATIVE_INFINITY), equalTo(new int[]{0}));
+        assertThat(lookup.find(-5), equalTo(new int[]{0}));
+        assertThat(lookup.find(9.99), equalTo(new int[]{0}));
+        assertThat(lookup.find(10), equalTo(new int[]{1}));
+        assertThat(lookup.find(19.99), equalTo(new int[]{1}));
+        assertThat(lookup.find(20), equalTo(new int[]{2}));
+        assertThat(lookup.find(Double.MAX_VALUE), equalTo(new int[]{2}));
+        assertThat(lookup.find(Double.POSITIVE_INFINITY).length, equalTo(0));
+        assertThat(lookup.find(Double.NaN).length, equalTo(0));
+    }
+
+    @Test public void testOverlappingRanges() {
+        RangeLookup lookup = new RangeLookup(
+                new double[]{0, 5, 5, Double.NEGATIVE_INFINITY, 30},
+                new double[]{10, 15, 6, 0, 40});
+        assertThat(lookup.find(-1), equalTo(new int[]{3}));
+        assertThat(lookup.find(-0.0), equalTo(new int[]{0}));
+        assertThat(lookup.find(0), equalTo(new int[]{0}));
+        assertThat(lookup.find(5), equalTo(new int[]{0, 1, 2}));
+        assertThat(lookup.find(6), equalTo(new int[]{0, 1}));
+        assertThat(lookup.find(12), equalTo(new int[]{1}));
+        assertThat(lookup.find(20).length, equalTo(0));
+        assertThat(lookup.find(35), equalTo(new int[]{4}));
+        assertThat(lookup.find(40).length, equalTo(0));
+    }
+
+    @Test public void testSameAsCheckingEachRange() {
+        Random random = new Random(1);
+        for (int iteration = 0; iteration < 20; iteration++) {
+            int size = random.nextInt(60) + 1;
+            double[] froms = new double[size];
+            double[] tos = new double[size];
+            for (int i = 0; i < size; i++) {
+                froms[i] = random.nextInt(10) == 0 ? Double.NEGATIVE_INFINITY : random.nextInt(1000);
+                tos[i] = random.nextInt(10) == 0 ? Double.POSITIVE_INFINITY : froms[i] + random.nextInt(200);
+            }
+            RangeLookup lookup = new RangeLookup(froms, tos);
+            for (int i = 0; i < 1000; i++) {
+                double value = random.nextInt(1400) - 200 + (random.nextBoolean() ? 0 : random.nextDouble());
+                int[] found = lookup.find(value);
+                int index = 0;
+                for (int range = 0; range < size; range++) {
+                    if (value >= froms[range] && value < tos[range]) {
+                        assertThat(index, lessThan(found.length));
+                        assertThat(found[index++], equalTo(range));
+                    }
+                }
+                assertThat(found.length, equalTo(index));
+            }
+        }
+    }
+}
@@ -111,6 +111,11 @@ public abstract class AbstractSimpleTransportTests {
             assertThat(e.getMessage(), false, equalTo(true));
         }
 
+        NodeResponseStats stats = serviceB.nodeResponseStats(serviceANode.id());
+        assertThat(stats, notNullValue());
+        assertThat(stats.outstandingRequests(), equalTo(0));
+        assertThat(stats.ewmaResponseTime(), greaterThanOrEqualTo(0d));
+
         serviceA.removeHandler("sayHello");
 
         System.out.println("after ...");
@@ -30,6 +30,7 @@ import org.elasticsearch.action.count.CountResponse;
 import org.elasticsearch.action.delete.DeleteResponse;
 import org.elasticsearch.action.deletebyquery.DeleteByQueryResponse;
 import org.elasticsearch.action.get.GetResponse;
+import org.elasticsearch.action.get.MultiGetResponse;
 import org.elasticsearch.action.index.IndexResponse;
 import org.elasticsearch.action.support.broadcast.BroadcastOperationThreading;
 import org.elasticsearch.action.support.replication.ReplicationType;
@@ -297,6 +298,49 @@ public class DocumentActionsTests extends AbstractNodesTests {
         }
     }
 
+    @Test public void testMultiGet() throws Exception {
+        createIndex();
+        ClusterHealthResponse clusterHealth = client1.admin().cluster().health(clusterHealthRequest().waitForGreenStatus()).actionGet();
+        assertThat(clusterHealth.timedOut(), equalTo(false));
+        assertThat(clusterHealth.status(), equalTo(ClusterHealthStatus.GREEN));
+
+        for (int i = 0; i < 10; i++) {
+            client1.prepareIndex("test", "type1", Integer.toString(i)).setSource(source(Integer.toString(i), "test")).execute().actionGet();
+        }
+
+        // not refreshed, the docs are fetched in realtime
+        MultiGetResponse response = client1.prepareMultiGet()
+                .add("test", "type1", "1", "15", "3", "9")
+                .add("test", "type2", "1")
+                .execute().actionGet();
+        assertThat(response.responses().length, equalTo(5));
+
+        assertThat(response.responses()[0].failed(), equalTo(false));
+        assertThat(response.responses()[0].id(), equalTo("1"));
+        assertThat(response.responses()[0].response().exists(), equalTo(true));
+        assertThat(response.responses()[0].response().sourceAsString(), equalTo(source("1", "test").string()));
+        assertThat(response.responses()[1].id(), equalTo("15"));
+        assertThat(response.responses()[1].response().exists(), equalTo(false));
+        assertThat(response.responses()[2].id(), equalTo("3"));
+        assertThat(response.responses()[2].response().sourceAsString(), equalTo(source("3", "test").string()));
+        assertThat(response.responses()[3].id(), equalTo("9"));
+        assertThat(response.responses()[3].response().sourceAsString(), equalTo(source("9", "test").string()));
+        // the type was never introduced
+        assertThat(response.responses()[4].failed(), equalTo(true));
+        assertThat(response.responses()[4].type(), equalTo("type2"));
+
+        client1.admin().indices().prepareRefresh("test").execute().actionGet();
+
+        response = client1.prepareMultiGet().setRealtime(false)
+                .add("test", "type1", "1", "15", "3", "9")
+                .execute().actionGet();
+        assertThat(response.responses().length, equalTo(4));
+        assertThat(response.responses()[0].response().sourceAsString(), equalTo(source("1", "test").string()));
+        assertThat(response.responses()[1].response().exists(), equalTo(false));
+        assertThat(response.responses()[2].response().sourceAsString(), equalTo(source("3", "test").string()));
+        assertThat(response.responses()[3].response().sourceAsString(), equalTo(source("9", "test").string()));
+    }
+
     private XContentBuilder source(String id, String nameValue) throws IOException {
         return XContentFactory.jsonBuilder().startObject().startObject("type1").field("id", id).field("name", nameValue).endObject().endObject();
     }
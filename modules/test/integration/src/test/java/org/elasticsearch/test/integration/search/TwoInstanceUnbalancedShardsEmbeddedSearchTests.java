@@ -391,7 +391,7 @@ public class TwoInstanceUnbalancedShardsEmbeddedSearchTests extends AbstractNode
     public static class UnevenOperationRoutingStrategy extends PlainOperationRouting {
 
         @Inject public UnevenOperationRoutingStrategy(Settings settings) {
-            super(settings, null);
+            super(settings, null, null);
         }
 
         @Override protected int hash(String routing) {
@@ -430,6 +430,19 @@ public class SimpleFacetsTests extends AbstractNodesTests {
         assertThat(facet.entries().get(1).term(), anyOf(equalTo("xxx"), equalTo("zzz")));
         assertThat(facet.entries().get(1).count(), equalTo(1));
 
+        // Test Regex
+
+        searchResponse = client.prepareSearch()
+                .setQuery(matchAllQuery())
+                .addFacet(termsFacet("facet1").field("tag").size(10).regex("x.*|y.*").exclude("xxx"))
+                .execute().actionGet();
+
+        facet = searchResponse.facets().facet("facet1");
+        assertThat(facet.name(), equalTo("facet1"));
+        assertThat(facet.entries().size(), equalTo(1));
+        assertThat(facet.entries().get(0).term(), equalTo("yyy"));
+        assertThat(facet.entries().get(0).count(), equalTo(2));
+
         // Test Order
 
         searchResponse = client.prepareSearch()
@@ -532,6 +545,58 @@ public class SimpleFacetsTests extends AbstractNodesTests {
         assertThat(facet.entries().get(0).count(), equalTo(2));
     }
 
+    @Test public void testTermsOrdinalsFacets() throws Exception {
+        try {
+            client.admin().indices().prepareDelete("test").execute().actionGet();
+        } catch (Exception e) {
+            // ignore
+        }
+        client.admin().indices().prepareCreate("test").execute().actionGet();
+        client.admin().cluster().prepareHealth().setWaitForGreenStatus().execute().actionGet();
+
+        client.prepareIndex("test", "type1").setSource(jsonBuilder().startObject()
+                .field("stag", "111")
+                .startArray("tag").value("xxx").value("yyy").endArray()
+                .endObject()).execute().actionGet();
+        client.admin().indices().prepareFlush().setRefresh(true).execute().actionGet();
+
+        client.prepareIndex("test", "type1").setSource(jsonBuilder().startObject()
+                .field("stag", "111")
+                .startArray("tag").value("zzz").value("yyy").endArray()
+                .endObject()).execute().actionGet();
+        client.admin().indices().prepareRefresh().execute().actionGet();
+
+        for (int i = 0; i < 5; i++) {
+            SearchResponse searchResponse = client.prepareSearch()
+                    .setQuery(matchAllQuery())
+                    .addFacet(termsFacet("facet1").field("stag").size(10).executionHint("ordinals"))
+                    .addFacet(termsFacet("facet2").field("tag").size(10).executionHint("ordinals"))
+                    .addFacet(termsFacet("facet3").field("tag").size(10).exclude("yyy").executionHint("ordinals"))
+                    .addFacet(termsFacet("facet4").field("tag").size(10).regex("x.*").executionHint("ordinals"))
+                    .execute().actionGet();
+
+            TermsFacet facet = searchResponse.facets().facet("facet1");
+            assertThat(facet.entries().size(), equalTo(1));
+            assertThat(facet.entries().get(0).term(), equalTo("111"));
+            assertThat(facet.entries().get(0).count(), equalTo(2));
+
+            facet = searchResponse.facets().facet("facet2");
+            assertThat(facet.entries().size(), equalTo(3));
+            assertThat(facet.entries().get(0).term(), equalTo("yyy"));
+            assertThat(facet.entries().get(0).count(), equalTo(2));
+
+            facet = searchResponse.facets().facet("facet3");
+            assertThat(facet.entries().size(), equalTo(2));
+            assertThat(facet.entries().get(0).term(), anyOf(equalTo("xxx"), equalTo("zzz")));
+            assertThat(facet.entries().get(0).count(), equalTo(1));
+
+            facet = searchResponse.facets().facet("facet4");
+            assertThat(facet.entries().size(), equalTo(1));
+            assertThat(facet.entries().get(0).term(), equalTo("xxx"));
+            assertThat(facet.entries().get(0).count(), equalTo(1));
+        }
+    }
+
     @Test public void testTermFacetWithEqualTermDistribution() throws Exception {
         try {
             client.admin().indices().prepareDelete("test").execute().actionGet();
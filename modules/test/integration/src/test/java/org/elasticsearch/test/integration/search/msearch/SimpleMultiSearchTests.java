@@ -0,0 +1,116 @@
+/*
+ * Licensed to Elastic Search and Shay Banon under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. Elastic Search licenses this
+ * file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package org.elasticsearch.test.integration.search.msearch;
+
+import org.elasticsearch.action.search.MultiSearchRequest;
+import org.elasticsearch.action.search.MultiSearchResponse;
+import org.elasticsearch.client.Client;
+import org.elasticsearch.common.Unicode;
+import org.elasticsearch.test.integration.AbstractNodesTests;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import static org.elasticsearch.common.xcontent.XContentFactory.*;
+import static org.elasticsearch.index.query.xcontent.QueryBuilders.*;
+import static org.hamcrest.MatcherAssert.*;
+import static org.hamcrest.Matchers.*;
+
+/**
+ * @author kimchy (shay.banon)
+ */
+public class SimpleMultiSearchTests extends AbstractNodesTests {
+
+    private Client client;
+
+    @BeforeClass public void createNodes() throws Exception {
+        startNode("server1");
+        startNode("server2");
+        client = getClient();
+    }
+
+    @AfterClass public void closeNodes() {
+        client.close();
+        closeAllNodes();
+    }
+
+    protected Client getClient() {
+        return client("server1");
+    }
+
+    @Test public void simpleMultiSearch() throws Exception {
+        try {
+            client.admin().indices().prepareDelete("test").execute().actionGet();
+        } catch (Exception e) {
+            // ignore
+        }
+        client.admin().indices().prepareCreate("test").execute().actionGet();
+        client.admin().cluster().prepareHealth().setWaitForGreenStatus().execute().actionGet();
+
+        client.prepareIndex("test", "type1", "1").setSource(jsonBuilder().startObject().field("field", "xxx").endObject()).execute().actionGet();
+        client.prepareIndex("test", "type1", "2").setSource(jsonBuilder().startObject().field("field", "yyy").endObject()).execute().actionGet();
+        client.admin().indices().prepareRefresh().execute().actionGet();
+
+        MultiSearchResponse response = client.prepareMultiSearch()
+                .add(client.prepareSearch("test").setQuery(termQuery("field", "xxx")))
+                .add(client.prepareSearch("test").setQuery(termQuery("field", "yyy")))
+                .add(client.prepareSearch("test").setQuery(matchAllQuery()))
+                .add(client.prepareSearch("no_such_index").setQuery(matchAllQuery()))
+                .execute().actionGet();
+
+        assertThat(response.responses().length, equalTo(4));
+        assertThat(response.responses()[0].response().hits().totalHits(), equalTo(1l));
+        assertThat(response.responses()[0].response().hits().getAt(0).id(), equalTo("1"));
+        assertThat(response.responses()[1].response().hits().totalHits(), equalTo(1l));
+        assertThat(response.responses()[1].response().hits().getAt(0).id(), equalTo("2"));
+        assertThat(response.responses()[2].response().hits().totalHits(), equalTo(2l));
+        assertThat(response.responses()[3].failed(), equalTo(true));
+        assertThat(response.responses()[3].failureMessage(), notNullValue());
+    }
+
+    @Test public void multiSearchFromSource() throws Exception {
+        try {
+            client.admin().indices().prepareDelete("test").execute().actionGet();
+        } catch (Exception e) {
+            // ignore
+        }
+        client.admin().indices().prepareCreate("test").execute().actionGet();
+        client.admin().cluster().prepareHealth().setWaitForGreenStatus().execute().actionGet();
+
+        client.prepareIndex("test", "type1", "1").setSource(jsonBuilder().startObject().field("field", "xxx").endObject()).execute().actionGet();
+        client.prepareIndex("test", "type2", "2").setSource(jsonBuilder().startObject().field("field", "yyy").endObject()).execute().actionGet();
+        client.admin().indices().prepareRefresh().execute().actionGet();
+
+        String source = "{\"type\" : \"type2\"}\n" +
+                "{\"query\" : {\"match_all\" : {}}}\n" +
+                "{}\n" +
+                "{\"query\" : {\"match_all\" : {}}}\n";
+        byte[] data = Unicode.fromStringAsBytes(source);
+
+        MultiSearchResponse response = client.multiSearch(new MultiSearchRequest()
+                .add(data, 0, data.length, false, new String[]{"test"}, null)).actionGet();
+
+        assertThat(response.responses().length, equalTo(2));
+        assertThat(response.responses()[0].response().hits().totalHits(), equalTo(1l));
+        assertThat(response.responses()[0].response().hits().getAt(0).id(), equalTo("2"));
+        assertThat(response.responses()[1].response().hits().totalHits(), equalTo(2l));
+    }
+}
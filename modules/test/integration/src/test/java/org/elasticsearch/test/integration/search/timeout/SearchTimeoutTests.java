@@ -0,0 +1,92 @@
+/*
+ * Licensed to Elastic Search and Shay Banon under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. Elastic Search licenses this
+ * file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package org.elasticsearch.test.integration.search.timeout;
+
+import org.elasticsearch.action.search.SearchResponse;
+import org.elasticsearch.client.Client;
+import org.elasticsearch.search.facet.terms.TermsFacet;
+import org.elasticsearch.test.integration.AbstractNodesTests;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import static org.elasticsearch.common.xcontent.XContentFactory.*;
+import static org.elasticsearch.index.query.xcontent.FilterBuilders.*;
+import static org.elasticsearch.index.query.xcontent.QueryBuilders.*;
+import static org.elasticsearch.search.facet.FacetBuilders.*;
+import static org.hamcrest.MatcherAssert.*;
+import static org.hamcrest.Matchers.*;
+
+/**
+ * @author kimchy (shay.banon)
+ */
+@Test
+public class SearchTimeoutTests extends AbstractNodesTests {
+
+    private Client client;
+
+    @BeforeMethod public void createNodes() throws Exception {
+        startNode("server1");
+        client = getClient();
+    }
+
+    @AfterMethod public void closeNodes() {
+        client.close();
+        closeAllNodes();
+    }
+
+    protected Client getClient() {
+        return client("server1");
+    }
+
+    @Test public void testTimeoutSharedWithFacets() throws Exception {
+        client.admin().indices().prepareCreate("test").execute().actionGet();
+        for (int i = 0; i < 100; i++) {
+            client.prepareIndex("test", "type1", Integer.toString(i))
+                    .setSource(jsonBuilder().startObject().field("num", i).field("tag", "value").endObject())
+                    .execute().actionGet();
+        }
+        client.admin().indices().prepareRefresh().execute().actionGet();
+
+        // each doc takes 10ms to filter, the 200ms budget of the query phase runs out well before all of them are matched
+        SearchResponse response = client.prepareSearch()
+                .setQuery(filteredQuery(matchAllQuery(), scriptFilter("Thread.sleep(10); doc['num'].value >= 0")))
+                .setTimeout("200ms")
+                .addFacet(termsFacet("tags").field("tag"))
+                .addFacet(termsFacet("global_tags").field("tag").global(true))
+                .execute().actionGet();
+
+        // the facets executed after the main query timed out do not reset the flag
+        assertThat(response.timedOut(), equalTo(true));
+
+        // the hits collected before the timeout are returned
+        assertThat(response.hits().totalHits(), greaterThan(0l));
+        assertThat(response.hits().totalHits(), lessThan(100l));
+        assertThat(response.hits().hits().length, greaterThan(0));
+
+        // main scope facets only saw the docs collected before the timeout, the global facet had no time left to run
+        TermsFacet tags = response.facets().facet("tags");
+        assertThat(tags.entries().size(), equalTo(1));
+        assertThat((long) tags.entries().get(0).count(), equalTo(response.hits().totalHits()));
+        TermsFacet globalTags = response.facets().facet("global_tags");
+        assertThat(globalTags.entries().size(), equalTo(0));
+    }
+}